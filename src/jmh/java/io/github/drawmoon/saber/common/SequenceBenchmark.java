@@ -0,0 +1,92 @@
+/*
+ *            _
+ *  ___  __ _| |__   ___ _ __
+ * / __|/ _` | '_ \ / _ \ '__|
+ * \__ \ (_| | |_) |  __/ |
+ * |___/\__,_|_.__/ \___|_|
+ *
+ * Copyright 2024 drash
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.drawmoon.saber.common;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the sequential and the parallel terminal operations of a {@link Sequence} over sources
+ * of growing size, to find the size from which {@link Sequence#asParallel()} pays off. Run it with
+ * {@code ./gradlew jmh} on a machine with several cores, the crossover is the smallest size at
+ * which the {@code parallel=true} score is lower than the {@code parallel=false} one.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SequenceBenchmark {
+
+  @Param({"100", "1000", "10000", "100000", "1000000"})
+  public int size;
+
+  @Param({"false", "true"})
+  public boolean parallel;
+
+  private List<Integer> list;
+  private List<Integer> linkedList;
+
+  @Setup
+  public void setUp() {
+    list = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) list.add(i);
+    linkedList = new LinkedList<>(list);
+  }
+
+  /** Cheap stages over a source that splits into halves. */
+  @Benchmark
+  public int cheapStages() {
+    return sequence(list).map(i -> i * 31).count(i -> (i & 1) == 0);
+  }
+
+  /** Stages costing about a microsecond per element over a source that splits into halves. */
+  @Benchmark
+  public int expensiveStages() {
+    return sequence(list).map(i -> String.format("%08d", i)).count(s -> s.endsWith("0"));
+  }
+
+  /** Cheap stages over a source that is split into batches read from its iterator. */
+  @Benchmark
+  public int cheapStagesOverIterator() {
+    return sequence(linkedList).map(i -> i * 31).count(i -> (i & 1) == 0);
+  }
+
+  private <T> Sequence<T> sequence(Iterable<T> source) {
+    Sequence<T> sequence = Sequence.it(source);
+    return parallel ? sequence.asParallel() : sequence;
+  }
+}
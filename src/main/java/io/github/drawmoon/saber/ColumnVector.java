@@ -0,0 +1,1026 @@
+/*
+ *            _
+ *  ___  __ _| |__   ___ _ __
+ * / __|/ _` | '_ \ / _ \ '__|
+ * \__ \ (_| | |_) |  __/ |
+ * |___/\__,_|_.__/ \___|_|
+ *
+ * Copyright 2024 drash
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.drawmoon.saber;
+
+import static com.google.common.base.Preconditions.checkElementIndex;
+import static io.github.drawmoon.saber.common.Preconditions.checkNotNull;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import javax.annotation.CheckForNull;
+
+/**
+ * The typed, append-only storage behind a {@link DataTable.DataColumn}. Values of primitive SQL
+ * types are kept in primitive arrays, strings are dictionary-encoded, and nulls are tracked in a
+ * bitmap, so that reading a column never has to box a value unless the caller asks for an object.
+ *
+ * @author drash
+ * @version 1.0
+ * @since 2024
+ */
+public abstract class ColumnVector implements Serializable {
+
+  @Serial private static final long serialVersionUID = -8492251942206794476L;
+
+  /** The initial capacity of a vector. */
+  static final int DEFAULT_CAPACITY = 16;
+
+  /** The estimated number of bytes of the header of an object. */
+  static final int OBJECT_HEADER_BYTES = 16;
+
+  /** The estimated number of bytes of the header of an array. */
+  static final int ARRAY_HEADER_BYTES = 16;
+
+  /** The estimated number of bytes of a reference. */
+  static final int REFERENCE_BYTES = 4;
+
+  /** The SQL type of the values, as defined in {@link Types}. */
+  private final int type;
+
+  /** The bitmap of null values, allocated when the first null value is added. */
+  @CheckForNull protected long[] nulls;
+
+  /** The number of values in this vector. */
+  protected int size;
+
+  /**
+   * Constructs a new vector.
+   *
+   * @param type the SQL type of the values
+   */
+  protected ColumnVector(int type) {
+    this.type = type;
+  }
+
+  /**
+   * Creates a vector that is able to store values of the specified SQL type.
+   *
+   * @param type the SQL type of the values, as defined in {@link Types}
+   * @return the new vector, never null
+   */
+  public static ColumnVector forType(int type) {
+    return forKind(kindOf(type), type);
+  }
+
+  /**
+   * Creates a vector with the specified kind of storage, for a SQL type whose values do not fit
+   * the kind chosen by {@link #kindOf(int)}, such as unsigned integers.
+   *
+   * @param kind the kind of storage
+   * @param type the SQL type of the values, as defined in {@link Types}
+   * @return the new vector, never null
+   */
+  public static ColumnVector forKind(Kind kind, int type) {
+    switch (checkNotNull(kind)) {
+      case BOOLEAN:
+        return new BooleanVector(type);
+      case INT:
+        return new IntVector(type);
+      case LONG:
+        return new LongVector(type);
+      case DOUBLE:
+        return new DoubleVector(type);
+      case STRING:
+        return new StringVector(type);
+      default:
+        return new ObjectVector(type);
+    }
+  }
+
+  /**
+   * Gets the kind of storage used for values of the specified SQL type.
+   *
+   * @param type the SQL type of the values, as defined in {@link Types}
+   * @return the kind, never null
+   */
+  public static Kind kindOf(int type) {
+    switch (type) {
+      case Types.BIT:
+      case Types.BOOLEAN:
+        return Kind.BOOLEAN;
+      case Types.TINYINT:
+      case Types.SMALLINT:
+      case Types.INTEGER:
+        return Kind.INT;
+      case Types.BIGINT:
+        return Kind.LONG;
+      case Types.REAL:
+      case Types.FLOAT:
+      case Types.DOUBLE:
+        return Kind.DOUBLE;
+      case Types.CHAR:
+      case Types.VARCHAR:
+      case Types.LONGVARCHAR:
+      case Types.NCHAR:
+      case Types.NVARCHAR:
+      case Types.LONGNVARCHAR:
+        return Kind.STRING;
+      default:
+        return Kind.OBJECT;
+    }
+  }
+
+  /**
+   * Gets the kind of storage used by this vector.
+   *
+   * @return the kind, never null
+   */
+  public abstract Kind getKind();
+
+  /**
+   * Gets the SQL type of the values.
+   *
+   * @return the SQL type, as defined in {@link Types}
+   */
+  public int getType() {
+    return type;
+  }
+
+  /**
+   * Gets the number of values in this vector.
+   *
+   * @return the number of values
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Checks whether the value at the specified index is null.
+   *
+   * @param index the index of the value
+   * @return {@code true} if the value is null
+   */
+  public boolean isNull(int index) {
+    checkElementIndex(index, size);
+    return nulls != null && (nulls[index >>> 6] & (1L << index)) != 0;
+  }
+
+  /**
+   * Gets the value at the specified index as an object, boxing primitive values.
+   *
+   * @param index the index of the value
+   * @return the value, or null if the value is null
+   */
+  @CheckForNull
+  public abstract Object get(int index);
+
+  /**
+   * Gets the value at the specified index as an int.
+   *
+   * @param index the index of the value
+   * @return the value, or 0 if the value is null
+   */
+  public int getInt(int index) {
+    Object value = get(index);
+    return value == null ? 0 : ((Number) value).intValue();
+  }
+
+  /**
+   * Gets the value at the specified index as a long.
+   *
+   * @param index the index of the value
+   * @return the value, or 0 if the value is null
+   */
+  public long getLong(int index) {
+    Object value = get(index);
+    return value == null ? 0L : ((Number) value).longValue();
+  }
+
+  /**
+   * Gets the value at the specified index as a double.
+   *
+   * @param index the index of the value
+   * @return the value, or 0 if the value is null
+   */
+  public double getDouble(int index) {
+    Object value = get(index);
+    return value == null ? 0D : ((Number) value).doubleValue();
+  }
+
+  /**
+   * Gets the value at the specified index as a boolean.
+   *
+   * @param index the index of the value
+   * @return the value, or false if the value is null
+   */
+  public boolean getBoolean(int index) {
+    Object value = get(index);
+    return value != null && (Boolean) value;
+  }
+
+  /**
+   * Appends a value, converting it to the storage type of this vector.
+   *
+   * @param value the value to append, may be null
+   * @throws IllegalArgumentException if the value cannot be stored in this vector
+   */
+  public abstract void add(@CheckForNull Object value);
+
+  /** Appends a null value. */
+  public void addNull() {
+    ensureCapacity(size + 1);
+    setNull(size);
+    size++;
+  }
+
+  /**
+   * Appends an int value.
+   *
+   * @param value the value to append
+   */
+  public void addInt(int value) {
+    add(value);
+  }
+
+  /**
+   * Appends a long value.
+   *
+   * @param value the value to append
+   */
+  public void addLong(long value) {
+    add(value);
+  }
+
+  /**
+   * Appends a double value.
+   *
+   * @param value the value to append
+   */
+  public void addDouble(double value) {
+    add(value);
+  }
+
+  /**
+   * Appends a boolean value.
+   *
+   * @param value the value to append
+   */
+  public void addBoolean(boolean value) {
+    add(value);
+  }
+
+  /**
+   * Ensures that this vector can hold at least the specified number of values without growing.
+   *
+   * @param minCapacity the desired minimum capacity
+   */
+  public void ensureCapacity(int minCapacity) {
+    int capacity = capacity();
+    if (minCapacity <= capacity) return;
+
+    int newCapacity = Math.max(minCapacity, Math.max(DEFAULT_CAPACITY, capacity + (capacity >> 1)));
+    grow(newCapacity);
+    if (nulls != null) nulls = Arrays.copyOf(nulls, bitmapLength(newCapacity));
+  }
+
+  /**
+   * Estimates the number of bytes of memory retained by this vector, including the storage that is
+   * reserved but not used yet and, for strings and objects, the values themselves. The estimate
+   * assumes a 64-bit JVM with compressed references.
+   *
+   * @return the estimated number of bytes
+   */
+  public long estimateSize() {
+    long bytes = OBJECT_HEADER_BYTES + estimateValuesSize();
+    if (nulls != null) bytes += ARRAY_HEADER_BYTES + 8L * nulls.length;
+    return bytes;
+  }
+
+  /**
+   * Estimates the number of bytes of memory retained by the storage of the values.
+   *
+   * @return the estimated number of bytes
+   */
+  protected abstract long estimateValuesSize();
+
+  /**
+   * Estimates the number of bytes of memory retained by a value stored as an object.
+   *
+   * @param value the value
+   * @return the estimated number of bytes
+   */
+  static long estimateObjectSize(Object value) {
+    if (value instanceof String) {
+      return OBJECT_HEADER_BYTES + 24 + 2L * ((String) value).length();
+    }
+    if (value instanceof byte[]) {
+      return ARRAY_HEADER_BYTES + ((byte[]) value).length;
+    }
+    if (value instanceof BigDecimal || value instanceof BigInteger) {
+      // the number object and its magnitude array
+      return 2L * OBJECT_HEADER_BYTES + 24;
+    }
+    if (value instanceof Number || value instanceof Boolean || value instanceof Character) {
+      return OBJECT_HEADER_BYTES + 8;
+    }
+    return 2L * OBJECT_HEADER_BYTES;
+  }
+
+  /**
+   * Gets the number of values this vector can hold without growing.
+   *
+   * @return the capacity
+   */
+  protected abstract int capacity();
+
+  /**
+   * Grows the storage of this vector to the specified capacity.
+   *
+   * @param newCapacity the new capacity
+   */
+  protected abstract void grow(int newCapacity);
+
+  /**
+   * Marks the value at the specified index as null.
+   *
+   * @param index the index of the value
+   */
+  protected void setNull(int index) {
+    if (nulls == null) nulls = new long[bitmapLength(capacity())];
+    nulls[index >>> 6] |= 1L << index;
+  }
+
+  /**
+   * Gets the vector that holds the values of this vector, which is the vector itself unless this is
+   * a slice of another vector.
+   *
+   * @return the vector holding the values
+   */
+  ColumnVector base() {
+    return this;
+  }
+
+  /**
+   * Gets the position of the first value of this vector in its {@link #base()} vector.
+   *
+   * @return the offset of this vector
+   */
+  int baseOffset() {
+    return 0;
+  }
+
+  private static int bitmapLength(int capacity) {
+    return (capacity + 63) >>> 6;
+  }
+
+  static IllegalArgumentException incompatible(Object value, ColumnVector vector) {
+    return new IllegalArgumentException(
+        "Cannot store value of "
+            + value.getClass().getName()
+            + " in a column of SQL type "
+            + vector.getType());
+  }
+
+  /**
+   * Converts a number to a long, rejecting a value that is not integral or out of the range of a
+   * long rather than truncating it.
+   *
+   * @param value the number
+   * @param vector the vector the number is stored in
+   * @return the value of the number
+   * @throws IllegalArgumentException if the number is not an exact long
+   */
+  static long toLongExact(Number value, ColumnVector vector) {
+    if (value instanceof Long
+        || value instanceof Integer
+        || value instanceof Short
+        || value instanceof Byte) {
+      return value.longValue();
+    }
+
+    try {
+      if (value instanceof BigInteger) return ((BigInteger) value).longValueExact();
+      if (value instanceof BigDecimal) return ((BigDecimal) value).longValueExact();
+      if (value instanceof Double || value instanceof Float) {
+        double d = value.doubleValue();
+        if (d == Math.rint(d) && d >= -0x1p63 && d < 0x1p63) return (long) d;
+        throw lossOfPrecision(value, vector);
+      }
+      return new BigDecimal(value.toString()).longValueExact();
+    } catch (ArithmeticException | NumberFormatException e) {
+      throw lossOfPrecision(value, vector);
+    }
+  }
+
+  static IllegalArgumentException lossOfPrecision(Object value, ColumnVector vector) {
+    return new IllegalArgumentException(
+        "Cannot store value "
+            + value
+            + " in a column of SQL type "
+            + vector.getType()
+            + " without loss of precision");
+  }
+
+  // -----------------------------------------------------------------------
+  /** The kinds of storage a vector can use. */
+  public enum Kind {
+    /** Values are stored in an int array. */
+    INT,
+
+    /** Values are stored in a long array. */
+    LONG,
+
+    /** Values are stored in a double array. */
+    DOUBLE,
+
+    /** Values are stored in a boolean array. */
+    BOOLEAN,
+
+    /** Values are stored as codes into a dictionary of distinct strings. */
+    STRING,
+
+    /** Values are stored as objects. */
+    OBJECT
+  }
+
+  /** A vector of int values. */
+  static final class IntVector extends ColumnVector {
+    @Serial private static final long serialVersionUID = -8492251942206794476L;
+
+    private int[] values = new int[0];
+
+    IntVector(int type) {
+      super(type);
+    }
+
+    @Override
+    public Kind getKind() {
+      return Kind.INT;
+    }
+
+    @Override
+    @CheckForNull
+    public Object get(int index) {
+      return isNull(index) ? null : values[index];
+    }
+
+    @Override
+    public int getInt(int index) {
+      checkElementIndex(index, size);
+      return values[index];
+    }
+
+    @Override
+    public long getLong(int index) {
+      checkElementIndex(index, size);
+      return values[index];
+    }
+
+    @Override
+    public double getDouble(int index) {
+      checkElementIndex(index, size);
+      return values[index];
+    }
+
+    @Override
+    public void add(@CheckForNull Object value) {
+      if (value == null) {
+        addNull();
+      } else if (value instanceof Number) {
+        long exact = toLongExact((Number) value, this);
+        if ((int) exact != exact) throw lossOfPrecision(value, this);
+        addInt((int) exact);
+      } else {
+        throw incompatible(value, this);
+      }
+    }
+
+    @Override
+    public void addInt(int value) {
+      ensureCapacity(size + 1);
+      values[size++] = value;
+    }
+
+    @Override
+    public void addLong(long value) {
+      addInt(Math.toIntExact(value));
+    }
+
+    @Override
+    protected long estimateValuesSize() {
+      return ARRAY_HEADER_BYTES + 4L * values.length;
+    }
+
+    @Override
+    protected int capacity() {
+      return values.length;
+    }
+
+    @Override
+    protected void grow(int newCapacity) {
+      values = Arrays.copyOf(values, newCapacity);
+    }
+  }
+
+  /** A vector of long values. */
+  static final class LongVector extends ColumnVector {
+    @Serial private static final long serialVersionUID = -8492251942206794476L;
+
+    private long[] values = new long[0];
+
+    LongVector(int type) {
+      super(type);
+    }
+
+    @Override
+    public Kind getKind() {
+      return Kind.LONG;
+    }
+
+    @Override
+    @CheckForNull
+    public Object get(int index) {
+      return isNull(index) ? null : values[index];
+    }
+
+    @Override
+    public int getInt(int index) {
+      checkElementIndex(index, size);
+      return (int) values[index];
+    }
+
+    @Override
+    public long getLong(int index) {
+      checkElementIndex(index, size);
+      return values[index];
+    }
+
+    @Override
+    public double getDouble(int index) {
+      checkElementIndex(index, size);
+      return values[index];
+    }
+
+    @Override
+    public void add(@CheckForNull Object value) {
+      if (value == null) {
+        addNull();
+      } else if (value instanceof Number) {
+        addLong(toLongExact((Number) value, this));
+      } else {
+        throw incompatible(value, this);
+      }
+    }
+
+    @Override
+    public void addInt(int value) {
+      addLong(value);
+    }
+
+    @Override
+    public void addLong(long value) {
+      ensureCapacity(size + 1);
+      values[size++] = value;
+    }
+
+    @Override
+    protected long estimateValuesSize() {
+      return ARRAY_HEADER_BYTES + 8L * values.length;
+    }
+
+    @Override
+    protected int capacity() {
+      return values.length;
+    }
+
+    @Override
+    protected void grow(int newCapacity) {
+      values = Arrays.copyOf(values, newCapacity);
+    }
+  }
+
+  /** A vector of double values. */
+  static final class DoubleVector extends ColumnVector {
+    @Serial private static final long serialVersionUID = -8492251942206794476L;
+
+    private double[] values = new double[0];
+
+    DoubleVector(int type) {
+      super(type);
+    }
+
+    @Override
+    public Kind getKind() {
+      return Kind.DOUBLE;
+    }
+
+    @Override
+    @CheckForNull
+    public Object get(int index) {
+      return isNull(index) ? null : values[index];
+    }
+
+    @Override
+    public int getInt(int index) {
+      checkElementIndex(index, size);
+      return (int) values[index];
+    }
+
+    @Override
+    public long getLong(int index) {
+      checkElementIndex(index, size);
+      return (long) values[index];
+    }
+
+    @Override
+    public double getDouble(int index) {
+      checkElementIndex(index, size);
+      return values[index];
+    }
+
+    @Override
+    public void add(@CheckForNull Object value) {
+      if (value == null) {
+        addNull();
+      } else if (value instanceof Number) {
+        addDouble(((Number) value).doubleValue());
+      } else {
+        throw incompatible(value, this);
+      }
+    }
+
+    @Override
+    public void addInt(int value) {
+      addDouble(value);
+    }
+
+    @Override
+    public void addLong(long value) {
+      addDouble(value);
+    }
+
+    @Override
+    public void addDouble(double value) {
+      ensureCapacity(size + 1);
+      values[size++] = value;
+    }
+
+    @Override
+    protected long estimateValuesSize() {
+      return ARRAY_HEADER_BYTES + 8L * values.length;
+    }
+
+    @Override
+    protected int capacity() {
+      return values.length;
+    }
+
+    @Override
+    protected void grow(int newCapacity) {
+      values = Arrays.copyOf(values, newCapacity);
+    }
+  }
+
+  /** A vector of boolean values. */
+  static final class BooleanVector extends ColumnVector {
+    @Serial private static final long serialVersionUID = -8492251942206794476L;
+
+    private boolean[] values = new boolean[0];
+
+    BooleanVector(int type) {
+      super(type);
+    }
+
+    @Override
+    public Kind getKind() {
+      return Kind.BOOLEAN;
+    }
+
+    @Override
+    @CheckForNull
+    public Object get(int index) {
+      return isNull(index) ? null : values[index];
+    }
+
+    @Override
+    public boolean getBoolean(int index) {
+      checkElementIndex(index, size);
+      return values[index];
+    }
+
+    @Override
+    public void add(@CheckForNull Object value) {
+      if (value == null) {
+        addNull();
+      } else if (value instanceof Boolean) {
+        addBoolean((Boolean) value);
+      } else if (value instanceof Number) {
+        addBoolean(((Number) value).intValue() != 0);
+      } else {
+        throw incompatible(value, this);
+      }
+    }
+
+    @Override
+    public void addBoolean(boolean value) {
+      ensureCapacity(size + 1);
+      values[size++] = value;
+    }
+
+    @Override
+    protected long estimateValuesSize() {
+      return ARRAY_HEADER_BYTES + (long) values.length;
+    }
+
+    @Override
+    protected int capacity() {
+      return values.length;
+    }
+
+    @Override
+    protected void grow(int newCapacity) {
+      values = Arrays.copyOf(values, newCapacity);
+    }
+  }
+
+  /**
+   * A vector of dictionary-encoded string values. Each distinct string is stored once, and every
+   * row only keeps the int code of its value.
+   */
+  static final class StringVector extends ColumnVector {
+    @Serial private static final long serialVersionUID = -8492251942206794476L;
+
+    private final ArrayList<String> dictionary = new ArrayList<>();
+    private final HashMap<String, Integer> codes = new HashMap<>();
+    private int[] values = new int[0];
+
+    StringVector(int type) {
+      super(type);
+    }
+
+    @Override
+    public Kind getKind() {
+      return Kind.STRING;
+    }
+
+    @Override
+    @CheckForNull
+    public Object get(int index) {
+      return isNull(index) ? null : dictionary.get(values[index]);
+    }
+
+    @Override
+    public void add(@CheckForNull Object value) {
+      if (value == null) {
+        addNull();
+        return;
+      }
+
+      addCode(encode(value.toString()));
+    }
+
+    /**
+     * Gets the number of distinct strings in the dictionary.
+     *
+     * @return the size of the dictionary
+     */
+    int dictionarySize() {
+      return dictionary.size();
+    }
+
+    /**
+     * Gets the string of the specified code.
+     *
+     * @param code the code of the string
+     * @return the string
+     */
+    String decode(int code) {
+      return dictionary.get(code);
+    }
+
+    /**
+     * Gets the code of the string, adding it to the dictionary if it is not there yet.
+     *
+     * @param value the string
+     * @return the code of the string
+     */
+    int encode(String value) {
+      Integer code = codes.get(value);
+      if (code == null) {
+        code = dictionary.size();
+        dictionary.add(value);
+        codes.put(value, code);
+      }
+      return code;
+    }
+
+    /**
+     * Gets the code of the value at the specified index.
+     *
+     * @param index the index of the value
+     * @return the code, or 0 if the value is null
+     */
+    int getCode(int index) {
+      checkElementIndex(index, size);
+      return values[index];
+    }
+
+    /**
+     * Appends the string of the specified code.
+     *
+     * @param code the code of a string in the dictionary
+     */
+    void addCode(int code) {
+      checkElementIndex(code, dictionary.size());
+      ensureCapacity(size + 1);
+      values[size++] = code;
+    }
+
+    @Override
+    protected long estimateValuesSize() {
+      // the codes, and each distinct string held by the dictionary and by an entry of the map
+      long bytes = ARRAY_HEADER_BYTES + 4L * values.length;
+      for (String value : dictionary) {
+        bytes += estimateObjectSize(value) + REFERENCE_BYTES + 48;
+      }
+      return bytes;
+    }
+
+    @Override
+    protected int capacity() {
+      return values.length;
+    }
+
+    @Override
+    protected void grow(int newCapacity) {
+      values = Arrays.copyOf(values, newCapacity);
+    }
+  }
+
+  /**
+   * A read-only window over a range of the values of another vector. The values are not copied, a
+   * slice reads them from the vector it was created from.
+   */
+  static final class SliceVector extends ColumnVector {
+    @Serial private static final long serialVersionUID = -8492251942206794476L;
+
+    private final ColumnVector base;
+    private final int offset;
+
+    SliceVector(ColumnVector vector, int offset, int length) {
+      super(vector.getType());
+      // a slice of a slice is a window over the same base vector
+      this.base = vector.base();
+      this.offset = vector.baseOffset() + offset;
+      this.size = length;
+    }
+
+    @Override
+    public Kind getKind() {
+      return base.getKind();
+    }
+
+    @Override
+    public boolean isNull(int index) {
+      checkElementIndex(index, size);
+      return base.isNull(offset + index);
+    }
+
+    @Override
+    @CheckForNull
+    public Object get(int index) {
+      checkElementIndex(index, size);
+      return base.get(offset + index);
+    }
+
+    @Override
+    public int getInt(int index) {
+      checkElementIndex(index, size);
+      return base.getInt(offset + index);
+    }
+
+    @Override
+    public long getLong(int index) {
+      checkElementIndex(index, size);
+      return base.getLong(offset + index);
+    }
+
+    @Override
+    public double getDouble(int index) {
+      checkElementIndex(index, size);
+      return base.getDouble(offset + index);
+    }
+
+    @Override
+    public boolean getBoolean(int index) {
+      checkElementIndex(index, size);
+      return base.getBoolean(offset + index);
+    }
+
+    @Override
+    public void add(@CheckForNull Object value) {
+      throw new UnsupportedOperationException("Slice is read-only");
+    }
+
+    @Override
+    ColumnVector base() {
+      return base;
+    }
+
+    @Override
+    int baseOffset() {
+      return offset;
+    }
+
+    @Override
+    protected long estimateValuesSize() {
+      // the values are retained by the base vector
+      return 0;
+    }
+
+    @Override
+    protected int capacity() {
+      return size;
+    }
+
+    @Override
+    protected void grow(int newCapacity) {
+      throw new UnsupportedOperationException("Slice is read-only");
+    }
+  }
+
+  /** A vector of arbitrary values, used for the SQL types that have no primitive storage. */
+  static final class ObjectVector extends ColumnVector {
+    @Serial private static final long serialVersionUID = -8492251942206794476L;
+
+    private Object[] values = new Object[0];
+
+    ObjectVector(int type) {
+      super(type);
+    }
+
+    @Override
+    public Kind getKind() {
+      return Kind.OBJECT;
+    }
+
+    @Override
+    public boolean isNull(int index) {
+      checkElementIndex(index, size);
+      return values[index] == null;
+    }
+
+    @Override
+    @CheckForNull
+    public Object get(int index) {
+      checkElementIndex(index, size);
+      return values[index];
+    }
+
+    @Override
+    public void add(@CheckForNull Object value) {
+      ensureCapacity(size + 1);
+      values[size++] = value;
+    }
+
+    @Override
+    public void addNull() {
+      add(null);
+    }
+
+    @Override
+    protected long estimateValuesSize() {
+      long bytes = ARRAY_HEADER_BYTES + (long) REFERENCE_BYTES * values.length;
+      for (int i = 0; i < size; i++) {
+        if (values[i] != null) bytes += estimateObjectSize(values[i]);
+      }
+      return bytes;
+    }
+
+    @Override
+    protected int capacity() {
+      return values.length;
+    }
+
+    @Override
+    protected void grow(int newCapacity) {
+      values = Arrays.copyOf(values, newCapacity);
+    }
+  }
+}
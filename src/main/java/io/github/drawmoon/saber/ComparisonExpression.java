@@ -56,6 +56,33 @@ public class ComparisonExpression implements Condition {
     this.operator = checkNotNull(operator);
   }
 
+  /**
+   * Gets the left hand side of the comparison.
+   *
+   * @return the lhs expression, never null
+   */
+  public Expression getLhs() {
+    return lhs;
+  }
+
+  /**
+   * Gets the right hand side of the comparison.
+   *
+   * @return the rhs expression, never null
+   */
+  public Expression getRhs() {
+    return rhs;
+  }
+
+  /**
+   * Gets the operator of the comparison.
+   *
+   * @return the operator, never null
+   */
+  public Comparator getOperator() {
+    return operator;
+  }
+
   // -----------------------------------------------------------------------
   @Override
   @Nonnull
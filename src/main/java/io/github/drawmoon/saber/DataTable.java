@@ -21,7 +21,9 @@
  */
 package io.github.drawmoon.saber;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkElementIndex;
+import static com.google.common.base.Preconditions.checkPositionIndexes;
 import static io.github.drawmoon.saber.common.Preconditions.checkNotNull;
 import static io.github.drawmoon.saber.common.Preconditions.checkNotWhiteSpace;
 
@@ -43,11 +45,17 @@ import io.github.drawmoon.saber.exceptions.SerialException;
 import java.io.IOException;
 import java.io.Serial;
 import java.io.Serializable;
+import java.sql.Types;
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
-import java.util.Optional;
+import java.util.Locale;
+import java.util.Map;
+import java.util.RandomAccess;
 import java.util.function.Function;
 import javax.annotation.CheckForNull;
 import javax.annotation.Nonnull;
@@ -66,15 +74,27 @@ public final class DataTable implements Enumerable<DataTable.DataRow>, Serializa
 
   @Serial private static final long serialVersionUID = -8492251942206794476L;
 
+  /**
+   * The attribute of the Jackson deserialization context holding the schema of the DataTable to
+   * read, as a map of column names to SQL types like {@link #getMetadata()}. Columns that are in
+   * the schema are read straight into their typed storage. For example:
+   *
+   * <pre>{@code
+   * DataTable table =
+   *     mapper.readerFor(DataTable.class)
+   *         .withAttribute(DataTable.JSON_SCHEMA_ATTRIBUTE, metadata)
+   *         .readValue(json);
+   * }</pre>
+   */
+  public static final String JSON_SCHEMA_ATTRIBUTE = DataTable.class.getName() + ".schema";
+
   private final DataColumnList columns;
-  private final DataRowList rows;
   private LinkedHashMap<String, Integer> metadata;
   private String executionSql;
   private int rowCount;
 
   public DataTable() {
     this.columns = new DataColumnList();
-    this.rows = new DataRowList();
     this.rowCount = 0;
   }
 
@@ -83,7 +103,7 @@ public final class DataTable implements Enumerable<DataTable.DataRow>, Serializa
   }
 
   public Collection<DataRow> getRows() {
-    return rows;
+    return new DataRowList(this);
   }
 
   public String getExecutionSql() {
@@ -98,6 +118,20 @@ public final class DataTable implements Enumerable<DataTable.DataRow>, Serializa
     return rowCount;
   }
 
+  /**
+   * Estimates the number of bytes of memory retained by the values of the DataTable.
+   *
+   * @return the estimated number of bytes
+   * @see ColumnVector#estimateSize()
+   */
+  public long estimateSize() {
+    long bytes = 0;
+    for (DataColumn column : columns) {
+      bytes += column.getVector().estimateSize();
+    }
+    return bytes;
+  }
+
   /**
    * Creates a new row in the DataTable.
    *
@@ -128,30 +162,174 @@ public final class DataTable implements Enumerable<DataTable.DataRow>, Serializa
     if (row.table != this) throw new IllegalArgumentException("Row is not from this table");
 
     row.setPosition(rowCount);
-    rows.add(row);
     rowCount++;
   }
 
   /**
-   * Slices the DataTable.
+   * Adds a row whose values have already been appended to every column of the DataTable.
+   *
+   * @throws IllegalStateException If a column does not hold a value for the new row
+   */
+  public void addRow() {
+    for (DataColumn column : columns) {
+      if (column.size() != rowCount + 1)
+        throw new IllegalStateException("Column has no value for the row: " + column.getName());
+    }
+    rowCount++;
+  }
+
+  /**
+   * Adds rows whose values have already been appended to every column of the DataTable.
+   *
+   * @param count The number of rows to add
+   * @throws IllegalStateException If a column does not hold a value for every new row
+   */
+  void addRows(int count) {
+    for (DataColumn column : columns) {
+      if (column.size() != rowCount + count)
+        throw new IllegalStateException("Column has no value for the row: " + column.getName());
+    }
+    rowCount += count;
+  }
+
+  /**
+   * Gets the column at the specified position.
+   *
+   * @param columnIndex The position of the column
+   * @return The column
+   */
+  @Nonnull
+  public DataColumn getColumn(int columnIndex) {
+    checkElementIndex(columnIndex, columns.size());
+    return columns.get(columnIndex);
+  }
+
+  /**
+   * Gets the position of the column with the specified name, from an index of the column names
+   * that is maintained as columns are added.
+   *
+   * @param columnName The name of the column
+   * @return The position of the column, or -1 if there is no such column
+   * @throws IllegalStateException If more than one column matches the name
+   * @see #setIgnoreCase(boolean)
+   */
+  public int indexOf(@CheckForNull String columnName) {
+    checkNotWhiteSpace(columnName);
+    return columns.positionOf(columnName);
+  }
+
+  /**
+   * Resolves the column with the specified name to a handle. Reading a row through the handle skips
+   * the name lookup, so a handle should be resolved once and reused for every row.
+   *
+   * @param columnName The name of the column
+   * @return The handle of the column
+   * @throws IllegalArgumentException If there is no such column
+   * @throws IllegalStateException If more than one column matches the name
+   */
+  @Nonnull
+  public ColumnHandle getColumnHandle(@CheckForNull String columnName) {
+    checkNotWhiteSpace(columnName);
+    int index = columns.positionOf(columnName);
+    if (index < 0) throw new IllegalArgumentException("Column not found: " + columnName);
+    return new ColumnHandle(columns, index);
+  }
+
+  /**
+   * Checks whether the column names are matched regardless of case when no column has the exact
+   * name.
+   *
+   * @return true if the column names are matched regardless of case
+   */
+  public boolean isIgnoreCase() {
+    return columns.ignoreCase;
+  }
+
+  /**
+   * Sets whether the column names are matched regardless of case when no column has the exact
+   * name, as some dialects upper-case the unquoted identifiers.
+   *
+   * @param ignoreCase true to match the column names regardless of case
+   */
+  public void setIgnoreCase(boolean ignoreCase) {
+    columns.ignoreCase = ignoreCase;
+  }
+
+  /**
+   * Slices the DataTable from the specified row to the last one.
    *
    * @param index The index to start at
    * @return the new DataTable
+   * @see #slice(int, int)
    */
   public DataTable slice(int index) {
     return slice(index, rowCount - index);
   }
 
   /**
-   * Slices the DataTable.
+   * Slices the DataTable. The slice is a read-only view over the rows of this DataTable, its
+   * columns read the values from the storage of the columns of this DataTable with an offset, so
+   * slicing copies no value. Rows added to this DataTable afterwards are not part of the slice.
    *
    * @param index The index to start at
    * @param length The length of the slice
    * @return the new DataTable
+   * @throws IndexOutOfBoundsException If the range is not within the rows of the DataTable
    */
-  @SuppressWarnings("DoNotCallSuggester")
   public DataTable slice(int index, int length) {
-    throw new UnsupportedOperationException();
+    checkArgument(length >= 0, "length must not be negative");
+    checkPositionIndexes(index, index + length, rowCount);
+
+    DataTable slice = new DataTable();
+    for (DataColumn column : columns) {
+      slice.columns.add(
+          new DataColumn(column.name, new ColumnVector.SliceVector(column.vector, index, length)));
+    }
+    slice.columns.ignoreCase = columns.ignoreCase;
+    slice.metadata = metadata != null ? new LinkedHashMap<>(metadata) : null;
+    slice.executionSql = executionSql;
+    slice.rowCount = length;
+    return slice;
+  }
+
+  /**
+   * Iterates over the rows of the DataTable in pages of the specified size. Each page is a {@link
+   * #slice(int, int) slice}, so paging through the DataTable copies no value. The pages cover the
+   * rows of the DataTable when this method is called.
+   *
+   * @param pageSize The maximum number of rows of a page
+   * @return An iterator over the pages
+   */
+  @Nonnull
+  public Iterator<DataTable> pages(int pageSize) {
+    checkArgument(pageSize > 0, "page size must be positive");
+    int rows = rowCount;
+    return new AbstractIterator<DataTable>() {
+      private int offset;
+
+      @Override
+      protected @Nullable DataTable computeNext() {
+        if (offset >= rows) return endOfData();
+
+        int length = Math.min(pageSize, rows - offset);
+        DataTable page = slice(offset, length);
+        offset += length;
+        return page;
+      }
+    };
+  }
+
+  /**
+   * Starts an in-memory aggregation of the rows of the DataTable grouped by the specified columns.
+   *
+   * @param columnNames The names of the columns to group by, none for a single group
+   * @return the aggregation, to which the aggregates are added
+   * @throws IllegalArgumentException If a column does not exist
+   * @see DataTableAggregation
+   */
+  @Nonnull
+  public DataTableAggregation groupBy(String... columnNames) {
+    return new DataTableAggregation(this).groupBy(columnNames);
   }
 
   /** Prints the DataTable as a table. */
@@ -171,19 +349,19 @@ public final class DataTable implements Enumerable<DataTable.DataRow>, Serializa
   @Override
   @Nonnull
   public Iterator<DataRow> iterator() {
-    return rows.iterator();
+    return new DataRowList(this).iterator();
   }
 
   @Override
   @Nonnull
   public <R> Enumerable<R> collect(Function<? super DataRow, ? extends R> function) {
-    return rows.collect(function);
+    return new DataRowList(this).collect(function);
   }
 
   @Override
   @Nonnull
   public ArrayList<DataRow> toList() {
-    return rows.toList();
+    return new DataRowList(this).toList();
   }
 
   @JsonSerialize(using = DataRowJsonSerializer.class)
@@ -200,6 +378,11 @@ public final class DataTable implements Enumerable<DataTable.DataRow>, Serializa
       this.columns = table.columns;
     }
 
+    private DataRow(DataTable table, int rowNumber) {
+      this(table);
+      this.rowNumber = rowNumber;
+    }
+
     public DataTable getTable() {
       return table;
     }
@@ -236,7 +419,7 @@ public final class DataTable implements Enumerable<DataTable.DataRow>, Serializa
       checkNotNull(column);
       if (columns.isEmpty()) throw new IllegalStateException("No columns in table");
 
-      throw new UnsupportedOperationException();
+      return column.isNull(rowNumber);
     }
 
     public Object getObject(@CheckForNull String columnName) {
@@ -262,6 +445,91 @@ public final class DataTable implements Enumerable<DataTable.DataRow>, Serializa
       return column.get(rowNumber);
     }
 
+    public long getLong(@CheckForNull String columnName) {
+      checkNotWhiteSpace(columnName);
+      if (columns.isEmpty()) throw new IllegalStateException("No columns in table");
+
+      DataColumn column = columns.get(columnName);
+      return getLong(column);
+    }
+
+    public long getLong(int columnIndex) {
+      checkElementIndex(columnIndex, columns.size());
+      if (columns.isEmpty()) throw new IllegalStateException("No columns in table");
+
+      DataColumn column = columns.get(columnIndex);
+      return getLong(column);
+    }
+
+    /**
+     * Gets the value of the specified column as a long, without boxing it.
+     *
+     * @param column the column
+     * @return the value, or 0 if the value is null
+     */
+    public long getLong(@CheckForNull DataColumn column) {
+      checkNotNull(column);
+      if (columns.isEmpty()) throw new IllegalStateException("No columns in table");
+
+      return column.getLong(rowNumber);
+    }
+
+    public double getDouble(@CheckForNull String columnName) {
+      checkNotWhiteSpace(columnName);
+      if (columns.isEmpty()) throw new IllegalStateException("No columns in table");
+
+      DataColumn column = columns.get(columnName);
+      return getDouble(column);
+    }
+
+    public double getDouble(int columnIndex) {
+      checkElementIndex(columnIndex, columns.size());
+      if (columns.isEmpty()) throw new IllegalStateException("No columns in table");
+
+      DataColumn column = columns.get(columnIndex);
+      return getDouble(column);
+    }
+
+    /**
+     * Gets the value of the specified column as a double, without boxing it.
+     *
+     * @param column the column
+     * @return the value, or 0 if the value is null
+     */
+    public double getDouble(@CheckForNull DataColumn column) {
+      checkNotNull(column);
+      if (columns.isEmpty()) throw new IllegalStateException("No columns in table");
+
+      return column.getDouble(rowNumber);
+    }
+
+    public void setRowData(@CheckForNull ColumnHandle handle, Object value) {
+      columnOf(handle).add(value);
+    }
+
+    public boolean isNull(@CheckForNull ColumnHandle handle) {
+      return columnOf(handle).isNull(rowNumber);
+    }
+
+    public Object getObject(@CheckForNull ColumnHandle handle) {
+      return columnOf(handle).get(rowNumber);
+    }
+
+    public long getLong(@CheckForNull ColumnHandle handle) {
+      return columnOf(handle).getLong(rowNumber);
+    }
+
+    public double getDouble(@CheckForNull ColumnHandle handle) {
+      return columnOf(handle).getDouble(rowNumber);
+    }
+
+    private DataColumn columnOf(@CheckForNull ColumnHandle handle) {
+      checkNotNull(handle);
+      if (handle.columns != columns)
+        throw new IllegalArgumentException("Column is not from this table: " + handle.getName());
+      return handle.column;
+    }
+
     @Nonnull
     @Override
     public <R> Enumerable<R> collect(Function<? super Object, ? extends R> function) {
@@ -307,25 +575,134 @@ public final class DataTable implements Enumerable<DataTable.DataRow>, Serializa
     }
   }
 
-  public static final class DataColumn extends ArrayList<Object> implements Enumerable<Object> {
+  /**
+   * A named column of a DataTable. The values are kept in a {@link ColumnVector} chosen from the
+   * SQL type of the column, the list methods are a boxing view over it.
+   */
+  public static final class DataColumn extends AbstractList<Object>
+      implements Enumerable<Object>, RandomAccess, Serializable {
     private static final long serialVersionUID = -8492251942206794476L;
 
     private final String name;
+    private final ColumnVector vector;
 
     public DataColumn(String name) {
+      this(name, Types.JAVA_OBJECT);
+    }
+
+    /**
+     * Creates a column backed by the vector that fits the specified SQL type.
+     *
+     * @param name the name of the column
+     * @param type the SQL type of the column, as defined in {@link Types}
+     */
+    public DataColumn(String name, int type) {
       checkNotWhiteSpace(name);
       this.name = name;
+      this.vector = ColumnVector.forType(type);
+    }
+
+    /**
+     * Creates a column backed by a vector with the specified kind of storage.
+     *
+     * @param name the name of the column
+     * @param type the SQL type of the column, as defined in {@link Types}
+     * @param kind the kind of storage of the column
+     */
+    public DataColumn(String name, int type, ColumnVector.Kind kind) {
+      checkNotWhiteSpace(name);
+      this.name = name;
+      this.vector = ColumnVector.forKind(kind, type);
+    }
+
+    private DataColumn(String name, ColumnVector vector) {
+      this.name = name;
+      this.vector = vector;
     }
 
     public String getName() {
       return name;
     }
 
+    public int getType() {
+      return vector.getType();
+    }
+
+    public ColumnVector getVector() {
+      return vector;
+    }
+
     @SuppressWarnings("DoNotCallSuggester")
     public boolean isNullable() {
       throw new UnsupportedOperationException();
     }
 
+    public boolean isNull(int index) {
+      return vector.isNull(index);
+    }
+
+    public int getInt(int index) {
+      return vector.getInt(index);
+    }
+
+    public long getLong(int index) {
+      return vector.getLong(index);
+    }
+
+    public double getDouble(int index) {
+      return vector.getDouble(index);
+    }
+
+    public boolean getBoolean(int index) {
+      return vector.getBoolean(index);
+    }
+
+    @Override
+    public Object get(int index) {
+      return vector.get(index);
+    }
+
+    @Override
+    public int size() {
+      return vector.size();
+    }
+
+    @Override
+    public boolean add(Object value) {
+      vector.add(value);
+      modCount++;
+      return true;
+    }
+
+    public void addNull() {
+      vector.addNull();
+      modCount++;
+    }
+
+    public void addInt(int value) {
+      vector.addInt(value);
+      modCount++;
+    }
+
+    public void addLong(long value) {
+      vector.addLong(value);
+      modCount++;
+    }
+
+    public void addDouble(double value) {
+      vector.addDouble(value);
+      modCount++;
+    }
+
+    public void addBoolean(boolean value) {
+      vector.addBoolean(value);
+      modCount++;
+    }
+
+    public void ensureCapacity(int minCapacity) {
+      vector.ensureCapacity(minCapacity);
+    }
+
     @Nonnull
     @Override
     public <R> Enumerable<R> collect(Function<? super Object, ? extends R> function) {
@@ -335,17 +712,115 @@ public final class DataTable implements Enumerable<DataTable.DataRow>, Serializa
     @Nonnull
     @Override
     public ArrayList<Object> toList() {
-      return this;
+      return new ArrayList<>(this);
+    }
+  }
+
+  /**
+   * A column of a DataTable resolved from its name. The handle holds the column itself, so reading
+   * a row through it costs no lookup.
+   */
+  public static final class ColumnHandle {
+    private final DataColumnList columns;
+    private final DataColumn column;
+    private final int index;
+
+    private ColumnHandle(DataColumnList columns, int index) {
+      this.columns = columns;
+      this.column = columns.get(index);
+      this.index = index;
+    }
+
+    public String getName() {
+      return column.name;
+    }
+
+    public int getIndex() {
+      return index;
+    }
+
+    public DataColumn getColumn() {
+      return column;
     }
   }
 
+  /**
+   * The columns of a DataTable, with an index of their names. The index is updated as columns are
+   * appended, and rebuilt on the next lookup after any other change of the list.
+   */
   static final class DataColumnList extends ArrayList<DataColumn>
       implements Enumerable<DataColumn> {
+    private static final long serialVersionUID = -8492251942206794476L;
+
+    /** The position of a name shared by more than one column. */
+    private static final int AMBIGUOUS = -2;
+
+    boolean ignoreCase;
+
+    @CheckForNull private transient HashMap<String, Integer> index;
+    @CheckForNull private transient HashMap<String, Integer> lowerCaseIndex;
+    private transient int indexModCount;
+
+    @Override
+    public boolean add(DataColumn column) {
+      boolean current = index != null && indexModCount == modCount;
+      super.add(column);
+      if (current) {
+        putPosition(column, size() - 1);
+        indexModCount = modCount;
+      }
+      return true;
+    }
+
+    @Override
+    public DataColumn set(int position, DataColumn column) {
+      // replacing a column does not change the modification count of the list
+      index = null;
+      return super.set(position, column);
+    }
+
     @Nonnull
     public DataColumn get(@CheckForNull String columnName) {
       checkNotWhiteSpace(columnName);
-      Optional<DataColumn> o = Sequence.it(this).single(x -> x.name.equals(columnName));
-      return o.orElseThrow(() -> new IllegalArgumentException("Column not found: " + columnName));
+      int position = positionOf(columnName);
+      if (position < 0) throw new IllegalArgumentException("Column not found: " + columnName);
+      return get(position);
+    }
+
+    int positionOf(String columnName) {
+      if (index == null || indexModCount != modCount) {
+        index = new HashMap<>();
+        lowerCaseIndex = null;
+        indexModCount = modCount;
+        for (int i = 0; i < size(); i++) putPosition(get(i), i);
+      }
+
+      Integer position = index.get(columnName);
+      if (position == null && ignoreCase) {
+        if (lowerCaseIndex == null) {
+          lowerCaseIndex = new HashMap<>();
+          for (int i = 0; i < size(); i++) {
+            lowerCaseIndex.merge(lowerCase(get(i).name), i, (a, b) -> AMBIGUOUS);
+          }
+        }
+        position = lowerCaseIndex.get(lowerCase(columnName));
+      }
+
+      if (position == null) return -1;
+      if (position == AMBIGUOUS)
+        throw new IllegalStateException("More than one column named: " + columnName);
+      return position;
+    }
+
+    private void putPosition(DataColumn column, int position) {
+      checkNotNull(index).merge(column.name, position, (a, b) -> AMBIGUOUS);
+      if (lowerCaseIndex != null) {
+        lowerCaseIndex.merge(lowerCase(column.name), position, (a, b) -> AMBIGUOUS);
+      }
+    }
+
+    private static String lowerCase(String name) {
+      return name.toLowerCase(Locale.ROOT);
     }
 
     @Nonnull
@@ -361,7 +836,26 @@ public final class DataTable implements Enumerable<DataTable.DataRow>, Serializa
     }
   }
 
-  static final class DataRowList extends ArrayList<DataRow> implements Enumerable<DataRow> {
+  /** A view of the rows of a DataTable, the rows are created on access. */
+  static final class DataRowList extends AbstractList<DataRow>
+      implements Enumerable<DataRow>, RandomAccess {
+    private final DataTable table;
+
+    DataRowList(DataTable table) {
+      this.table = table;
+    }
+
+    @Override
+    public DataRow get(int index) {
+      checkElementIndex(index, table.rowCount);
+      return new DataRow(table, index);
+    }
+
+    @Override
+    public int size() {
+      return table.rowCount;
+    }
+
     @Nonnull
     @Override
     public <R> Enumerable<R> collect(Function<? super DataRow, ? extends R> function) {
@@ -371,7 +865,7 @@ public final class DataTable implements Enumerable<DataTable.DataRow>, Serializa
     @Nonnull
     @Override
     public ArrayList<DataRow> toList() {
-      return this;
+      return new ArrayList<>(this);
     }
   }
 
@@ -387,6 +881,20 @@ public final class DataTable implements Enumerable<DataTable.DataRow>, Serializa
     }
   }
 
+  /**
+   * Reads the rows of a DataTable positionally. The columns are taken in the order of the keys of
+   * the first object, and the keys of every following object are expected in the same order, so
+   * that each value is matched to its column by comparing one name; a hash lookup is only made for
+   * a key out of order. A key that is missing from an object gives a null value, and a key that
+   * first appears in a later object adds a column whose earlier values are null.
+   *
+   * <p>When a schema is given in the {@link #JSON_SCHEMA_ATTRIBUTE} attribute, the columns are
+   * created with their SQL types and numbers and booleans are appended to the primitive storage of
+   * their column without boxing. The storage of a column that is not in the schema is inferred
+   * from its values instead: the first value that is not null makes it an INTEGER, BIGINT, DOUBLE
+   * or BOOLEAN column, an INTEGER column is widened to BIGINT by a value out of its range, and a
+   * column whose values do not fit a primitive storage falls back to JAVA_OBJECT.
+   */
   static final class DataTableJsonDeserializer extends JsonDeserializer<DataTable> {
     @Override
     public DataTable deserialize(JsonParser p, DeserializationContext ctxt)
@@ -395,48 +903,201 @@ public final class DataTable implements Enumerable<DataTable.DataRow>, Serializa
       if (token != JsonToken.START_ARRAY)
         throw new IOException("Expected start of array, got: " + token);
 
-      boolean columnBeReady = false;
+      Map<?, ?> schema = null;
+      Object attribute = ctxt.getAttribute(JSON_SCHEMA_ATTRIBUTE);
+      if (attribute instanceof Map) schema = (Map<?, ?>) attribute;
+
       DataTable table = new DataTable();
+      DataColumnList columns = table.columns;
+      // the columns whose storage is still inferred from their values
+      BitSet inferred = new BitSet();
+      int rows = 0;
       while ((token = p.nextToken()) != JsonToken.END_ARRAY) {
-        if (token == JsonToken.START_OBJECT) {
-          DataRow row = table.newRow();
-          while ((token = p.nextToken()) != JsonToken.END_OBJECT) {
-            if (token == JsonToken.FIELD_NAME) {
-              String columnName = p.getCurrentName();
-              if (!columnBeReady) table.addColumn(new DataColumn(columnName));
-
-              token = p.nextToken();
-              if (token.isScalarValue()) {
-                Object value;
-                switch (token.id()) {
-                  case JsonTokenId.ID_STRING:
-                    value = p.getText();
-                    break;
-                  case JsonTokenId.ID_NUMBER_INT:
-                  case JsonTokenId.ID_NUMBER_FLOAT:
-                    value = p.getNumberValue();
-                    break;
-                  case JsonTokenId.ID_TRUE:
-                    value = Boolean.TRUE;
-                    break;
-                  case JsonTokenId.ID_FALSE:
-                    value = Boolean.FALSE;
-                    break;
-                  default:
-                    throw new IOException("Unsupported scalar token type: " + token);
-                }
-                row.setRowData(columnName, value);
-              }
-            } else {
-              throw new IOException("Expected scalar value for field, got: " + token);
+        if (token != JsonToken.START_OBJECT)
+          throw new IOException("Expected start of object, got: " + token);
+
+        int position = 0;
+        int filled = 0;
+        while ((token = p.nextToken()) != JsonToken.END_OBJECT) {
+          String columnName = p.getCurrentName();
+          int index = position;
+          if (index >= columns.size() || !columns.get(index).name.equals(columnName)) {
+            index = columns.positionOf(columnName);
+            if (index < 0) {
+              index = columns.size();
+              DataColumn column = newColumn(columnName, schema, rows);
+              table.addColumn(column);
+              if (schema == null || !schema.containsKey(columnName)) inferred.set(index);
             }
           }
-          columnBeReady = true;
-          table.addRow(row);
+
+          DataColumn column = columns.get(index);
+          if (column.size() != rows) throw new IOException("Duplicate field: " + columnName);
+
+          token = p.nextToken();
+          if (inferred.get(index)) column = inferColumn(columns, index, inferred, p, token);
+          readValue(p, token, column);
+          position = index + 1;
+          filled++;
         }
+
+        if (filled < columns.size()) {
+          for (DataColumn column : columns) {
+            if (column.size() == rows) column.addNull();
+          }
+        }
+        rows++;
+      }
+      table.addRows(rows);
+
+      if (schema != null) {
+        LinkedHashMap<String, Integer> metadata = new LinkedHashMap<>();
+        for (DataColumn column : columns) metadata.put(column.name, column.getType());
+        table.setMetadata(metadata);
       }
       return table;
     }
+
+    private static DataColumn newColumn(String name, @Nullable Map<?, ?> schema, int rows) {
+      Object type = schema != null ? schema.get(name) : null;
+      DataColumn column =
+          new DataColumn(name, type instanceof Integer ? (Integer) type : Types.JAVA_OBJECT);
+      for (int i = 0; i < rows; i++) column.addNull();
+      return column;
+    }
+
+    /**
+     * Makes the storage of a column that is not in the schema fit the next value, replacing the
+     * column with a copy of its values in another storage if it does not.
+     */
+    private static DataColumn inferColumn(
+        DataColumnList columns, int index, BitSet inferred, JsonParser p, JsonToken token)
+        throws IOException {
+      DataColumn column = columns.get(index);
+      if (token == JsonToken.VALUE_NULL) return column;
+
+      JsonParser.NumberType numberType = token.isNumeric() ? p.getNumberType() : null;
+      int type;
+      switch (column.vector.getKind()) {
+        case INT:
+          if (numberType == JsonParser.NumberType.INT) return column;
+          type = numberType == JsonParser.NumberType.LONG ? Types.BIGINT : Types.JAVA_OBJECT;
+          break;
+        case LONG:
+          if (numberType == JsonParser.NumberType.INT
+              || numberType == JsonParser.NumberType.LONG) {
+            return column;
+          }
+          type = Types.JAVA_OBJECT;
+          break;
+        case DOUBLE:
+          if (numberType == JsonParser.NumberType.DOUBLE
+              || numberType == JsonParser.NumberType.FLOAT
+              || numberType == JsonParser.NumberType.INT) {
+            return column;
+          }
+          type = Types.JAVA_OBJECT;
+          break;
+        case BOOLEAN:
+          if (token.isBoolean()) return column;
+          type = Types.JAVA_OBJECT;
+          break;
+        default:
+          // the first value that is not null
+          type = typeOf(token, numberType);
+          break;
+      }
+
+      if (type == Types.JAVA_OBJECT) inferred.clear(index);
+      if (type == column.getType()) return column;
+
+      DataColumn typed = new DataColumn(column.name, type);
+      typed.ensureCapacity(column.size());
+      for (int i = 0; i < column.size(); i++) typed.add(column.get(i));
+      columns.set(index, typed);
+      return typed;
+    }
+
+    private static int typeOf(JsonToken token, @Nullable JsonParser.NumberType numberType) {
+      if (token.isBoolean()) return Types.BOOLEAN;
+      if (numberType == null) return Types.JAVA_OBJECT;
+      switch (numberType) {
+        case INT:
+          return Types.INTEGER;
+        case LONG:
+          return Types.BIGINT;
+        case FLOAT:
+        case DOUBLE:
+          return Types.DOUBLE;
+        default:
+          return Types.JAVA_OBJECT;
+      }
+    }
+
+    private static void readValue(JsonParser p, JsonToken token, DataColumn column)
+        throws IOException {
+      if (token == JsonToken.VALUE_NULL) {
+        column.addNull();
+        return;
+      }
+      if (!token.isScalarValue())
+        throw new IOException("Expected scalar value for field, got: " + token);
+
+      try {
+        switch (column.vector.getKind()) {
+          case INT:
+            if (token == JsonToken.VALUE_NUMBER_INT) {
+              column.addInt(p.getIntValue());
+              return;
+            }
+            break;
+          case LONG:
+            if (token == JsonToken.VALUE_NUMBER_INT) {
+              column.addLong(p.getLongValue());
+              return;
+            }
+            break;
+          case DOUBLE:
+            if (token.isNumeric()) {
+              column.addDouble(p.getDoubleValue());
+              return;
+            }
+            break;
+          case BOOLEAN:
+            if (token.isBoolean()) {
+              column.addBoolean(token == JsonToken.VALUE_TRUE);
+              return;
+            }
+            break;
+          case STRING:
+            column.add(p.getText());
+            return;
+          default:
+            break;
+        }
+        column.add(scalarValue(p, token));
+      } catch (IllegalArgumentException | ArithmeticException e) {
+        throw new IOException("Invalid value for column " + column.name + ": " + p.getText(), e);
+      }
+    }
+
+    private static Object scalarValue(JsonParser p, JsonToken token) throws IOException {
+      switch (token.id()) {
+        case JsonTokenId.ID_STRING:
+          return p.getText();
+        case JsonTokenId.ID_NUMBER_INT:
+        case JsonTokenId.ID_NUMBER_FLOAT:
+          return p.getNumberValue();
+        case JsonTokenId.ID_TRUE:
+          return Boolean.TRUE;
+        case JsonTokenId.ID_FALSE:
+          return Boolean.FALSE;
+        case JsonTokenId.ID_EMBEDDED_OBJECT:
+          return p.getEmbeddedObject();
+        default:
+          throw new IOException("Unsupported scalar token type: " + token);
+      }
+    }
   }
 
   static final class DataRowJsonSerializer extends JsonSerializer<DataRow> {
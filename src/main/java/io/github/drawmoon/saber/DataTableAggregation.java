@@ -0,0 +1,1153 @@
+/*
+ *            _
+ *  ___  __ _| |__   ___ _ __
+ * / __|/ _` | '_ \ / _ \ '__|
+ * \__ \ (_| | |_) |  __/ |
+ * |___/\__,_|_.__/ \___|_|
+ *
+ * Copyright 2024 drash
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.drawmoon.saber;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static io.github.drawmoon.saber.common.Preconditions.checkNotNull;
+
+import io.github.drawmoon.saber.ColumnVector.StringVector;
+import io.github.drawmoon.saber.DataTable.DataColumn;
+import java.io.Serial;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+import javax.annotation.CheckForNull;
+import javax.annotation.Nullable;
+
+/**
+ * An in-memory aggregation over the rows of a {@link DataTable}, the equivalent of a SELECT with
+ * aggregate functions and a GROUP BY, run on a result that is already held in memory instead of
+ * querying the database again.
+ *
+ * <p>The rows are grouped by a hash table over primitive keys. The values of every key column are
+ * first encoded as longs in one pass over its storage, strings by their dictionary code, so that
+ * hashing and comparing the keys of a row never boxes a value. Each aggregate is then computed by
+ * one loop over its column into primitive arrays indexed by group. The order statistics, MEDIAN
+ * and the percentiles, are exact: the values of each group are gathered into a single array and
+ * sorted, and the percentile is interpolated between the closest ranks like {@code
+ * PERCENTILE_CONT}.
+ *
+ * <p>Null values are ignored by every aggregate but {@link #count()}, and the aggregate of a group
+ * without values is null, except COUNT which is 0. The groups are in the order of their first row,
+ * and without a GROUP BY column the result has exactly one row.
+ *
+ * <p>A large table can be aggregated in parallel with {@link #asParallel()}. The rows are then
+ * split in ranges aggregated by the tasks of a {@link ForkJoinPool}, each in a hash table of its
+ * own, and the partial aggregates are merged once every range is done. The result is the same as
+ * the one of a sequential aggregation, except for the rounding of the sums of doubles which are
+ * added in another order.
+ *
+ * <pre>{@code
+ * DataTable result =
+ *     table.groupBy("region")
+ *         .count()
+ *         .aggregate(Aggregate.SUM, "amount")
+ *         .percentile("amount", 0.95)
+ *         .execute();
+ * }</pre>
+ *
+ * @author drash
+ * @version 1.0
+ * @since 2024
+ */
+public final class DataTableAggregation {
+
+  /** The minimum number of rows aggregated by a task of a parallel aggregation. */
+  static final int MIN_CHUNK_SIZE = 1 << 16;
+
+  private final DataTable table;
+  private final ArrayList<DataColumn> keys = new ArrayList<>();
+  private final ArrayList<Measure> measures = new ArrayList<>();
+  @Nullable private ForkJoinPool pool;
+
+  /**
+   * Creates an aggregation over the rows of the DataTable.
+   *
+   * @param table the table to aggregate
+   */
+  public DataTableAggregation(DataTable table) {
+    this.table = checkNotNull(table);
+  }
+
+  /**
+   * Adds columns to group the rows by.
+   *
+   * @param columnNames the names of the columns
+   * @return this aggregation
+   * @throws IllegalArgumentException if a column does not exist
+   */
+  public DataTableAggregation groupBy(String... columnNames) {
+    for (String columnName : checkNotNull(columnNames)) {
+      keys.add(table.getColumnHandle(columnName).getColumn());
+    }
+    return this;
+  }
+
+  /**
+   * Adds the number of rows of each group, named {@code count}.
+   *
+   * @return this aggregation
+   */
+  public DataTableAggregation count() {
+    measures.add(new Measure(Aggregate.COUNT, null, Double.NaN, "count"));
+    return this;
+  }
+
+  /**
+   * Adds an aggregate of a column, named after the function and the column, such as {@code
+   * sum(amount)}.
+   *
+   * @param function the aggregate function
+   * @param columnName the name of the column
+   * @return this aggregation
+   * @throws IllegalArgumentException if the column does not exist, or if the function does not
+   *     apply to its values
+   */
+  public DataTableAggregation aggregate(Aggregate function, String columnName) {
+    DataColumn column = table.getColumnHandle(columnName).getColumn();
+    String alias = function.name().toLowerCase(Locale.ROOT) + "(" + column.getName() + ")";
+    return aggregate(function, column, alias);
+  }
+
+  /**
+   * Adds an aggregate of a column.
+   *
+   * @param function the aggregate function
+   * @param columnName the name of the column
+   * @param alias the name of the aggregate in the result
+   * @return this aggregation
+   * @throws IllegalArgumentException if the column does not exist, or if the function does not
+   *     apply to its values
+   */
+  public DataTableAggregation aggregate(Aggregate function, String columnName, String alias) {
+    return aggregate(function, table.getColumnHandle(columnName).getColumn(), alias);
+  }
+
+  /**
+   * Adds a percentile of a column, named after the percentile and the column, such as {@code
+   * percentile(amount, 0.95)}.
+   *
+   * @param columnName the name of the column
+   * @param percentile the percentile, between 0 and 1
+   * @return this aggregation
+   * @throws IllegalArgumentException if the column does not exist or is not numeric
+   */
+  public DataTableAggregation percentile(String columnName, double percentile) {
+    DataColumn column = table.getColumnHandle(columnName).getColumn();
+    String alias = "percentile(" + column.getName() + ", " + percentile + ")";
+    return percentile(columnName, percentile, alias);
+  }
+
+  /**
+   * Adds a percentile of a column.
+   *
+   * @param columnName the name of the column
+   * @param percentile the percentile, between 0 and 1
+   * @param alias the name of the percentile in the result
+   * @return this aggregation
+   * @throws IllegalArgumentException if the column does not exist or is not numeric
+   */
+  public DataTableAggregation percentile(String columnName, double percentile, String alias) {
+    checkArgument(percentile >= 0 && percentile <= 1, "percentile must be between 0 and 1");
+    DataColumn column = table.getColumnHandle(columnName).getColumn();
+    checkNumeric(Aggregate.MEDIAN, column);
+    measures.add(new Measure(Aggregate.MEDIAN, column, percentile, checkNotNull(alias)));
+    return this;
+  }
+
+  /**
+   * Aggregates the rows in parallel on the common {@link ForkJoinPool}. A table too small to be
+   * split in ranges of {@value #MIN_CHUNK_SIZE} rows is still aggregated sequentially.
+   *
+   * @return this aggregation
+   */
+  public DataTableAggregation asParallel() {
+    return asParallel(ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Aggregates the rows in parallel on the specified {@link ForkJoinPool}.
+   *
+   * @param pool the pool to run the tasks of the aggregation on
+   * @return this aggregation
+   * @see #asParallel()
+   */
+  public DataTableAggregation asParallel(ForkJoinPool pool) {
+    this.pool = checkNotNull(pool);
+    return this;
+  }
+
+  /**
+   * Aggregates the rows sequentially, in the calling thread. This is the default.
+   *
+   * @return this aggregation
+   */
+  public DataTableAggregation asSequential() {
+    this.pool = null;
+    return this;
+  }
+
+  /**
+   * Computes the aggregates of every group.
+   *
+   * @return a new table with the GROUP BY columns followed by the aggregates, one row per group
+   * @throws IllegalStateException if two columns of the result have the same name
+   */
+  public DataTable execute() {
+    HashSet<String> names = new HashSet<>();
+    for (DataColumn key : keys) {
+      if (!names.add(key.getName()))
+        throw new IllegalStateException("Duplicate column: " + key.getName());
+    }
+    for (Measure measure : measures) {
+      if (!names.add(measure.alias))
+        throw new IllegalStateException("Duplicate column: " + measure.alias);
+    }
+
+    // the order statistics of a column are shared by its median and percentiles
+    ArrayList<Measure> distinct = new ArrayList<>();
+    IdentityHashMap<DataColumn, Integer> statistics = new IdentityHashMap<>();
+    int[] accumulatorOf = new int[measures.size()];
+    for (int i = 0; i < measures.size(); i++) {
+      Measure measure = measures.get(i);
+      if (measure.function == Aggregate.MEDIAN && statistics.containsKey(measure.column)) {
+        accumulatorOf[i] = statistics.get(measure.column);
+        continue;
+      }
+      if (measure.function == Aggregate.MEDIAN) statistics.put(measure.column, distinct.size());
+      accumulatorOf[i] = distinct.size();
+      distinct.add(measure);
+    }
+
+    int rows = table.rowCount();
+    int[] groupOf = new int[rows];
+    KeyColumn[] keyColumns = new KeyColumn[keys.size()];
+    for (int i = 0; i < keyColumns.length; i++) {
+      keyColumns[i] = new KeyColumn(keys.get(i).getVector(), rows);
+    }
+    GroupTable groups = new GroupTable(keyColumns);
+    Accumulator[] accumulators;
+
+    ForkJoinPool pool = this.pool;
+    int chunks = pool == null ? 1 : Math.min(pool.getParallelism() * 4, rows / MIN_CHUNK_SIZE);
+    if (chunks > 1) {
+      accumulators = executeParallel(checkNotNull(pool), chunks, groups, groupOf, distinct);
+    } else {
+      for (KeyColumn key : keyColumns) key.encode(0, rows);
+      if (!keys.isEmpty()) {
+        for (int row = 0; row < rows; row++) groupOf[row] = groups.add(row);
+      }
+      accumulators = newAccumulators(distinct, groupCount(groups));
+      for (Accumulator accumulator : accumulators) accumulator.accumulate(groupOf, 0, rows);
+    }
+    for (Accumulator accumulator : accumulators) accumulator.finish(groupOf, rows);
+
+    int groupCount = groupCount(groups);
+    int[] representatives = groups.representatives();
+    DataTable result = new DataTable();
+    LinkedHashMap<String, Integer> metadata = new LinkedHashMap<>();
+    for (DataColumn key : keys) {
+      DataColumn column = new DataColumn(key.getName(), key.getType());
+      column.ensureCapacity(groupCount);
+      for (int group = 0; group < groupCount; group++) column.add(key.get(representatives[group]));
+      result.addColumn(column);
+      metadata.put(column.getName(), column.getType());
+    }
+    for (int i = 0; i < measures.size(); i++) {
+      Measure measure = measures.get(i);
+      Accumulator accumulator = accumulators[accumulatorOf[i]];
+      DataColumn column = new DataColumn(measure.alias, accumulator.resultType(measure));
+      column.ensureCapacity(groupCount);
+      for (int group = 0; group < groupCount; group++) accumulator.appendTo(column, group, measure);
+      result.addColumn(column);
+      metadata.put(column.getName(), column.getType());
+    }
+    result.addRows(groupCount);
+    result.setMetadata(metadata);
+    return result;
+  }
+
+  private DataTableAggregation aggregate(Aggregate function, DataColumn column, String alias) {
+    checkNotNull(function);
+    checkNotNull(alias);
+    switch (function) {
+      case COUNT:
+      case MIN:
+      case MAX:
+        break;
+      case SUM:
+      case AVG:
+      case MEDIAN:
+        checkNumeric(function, column);
+        break;
+      default:
+        throw new IllegalArgumentException("Not an aggregate function: " + function);
+    }
+    double percentile = function == Aggregate.MEDIAN ? 0.5 : Double.NaN;
+    measures.add(new Measure(function, column, percentile, alias));
+    return this;
+  }
+
+  private static void checkNumeric(Aggregate function, DataColumn column) {
+    ColumnVector.Kind kind = column.getVector().getKind();
+    if (kind == ColumnVector.Kind.STRING || kind == ColumnVector.Kind.BOOLEAN)
+      throw new IllegalArgumentException(
+          function + " requires a numeric column: " + column.getName());
+  }
+
+  /**
+   * Aggregates ranges of rows in parallel. Each task groups the rows of its range in a hash table
+   * of its own and computes partial aggregates for the groups of the range, then the partials are
+   * merged in the order of their ranges, which keeps the groups in the order of their first row.
+   */
+  private Accumulator[] executeParallel(
+      ForkJoinPool pool, int chunks, GroupTable groups, int[] groupOf, List<Measure> distinct) {
+    KeyColumn[] keyColumns = groups.keys;
+    int rows = groupOf.length;
+    // objects are numbered in one map for all the rows, so that equal objects have equal codes
+    for (KeyColumn key : keyColumns) {
+      if (!key.isEncodedByRange()) key.encode(0, rows);
+    }
+
+    int[] bounds = new int[chunks + 1];
+    for (int i = 0; i <= chunks; i++) bounds[i] = (int) ((long) rows * i / chunks);
+    GroupTable[] partialGroups = new GroupTable[chunks];
+    Accumulator[][] partials = new Accumulator[chunks][];
+    pool.invoke(
+        new ChunkTask(
+            0,
+            chunks,
+            chunk -> {
+              int from = bounds[chunk];
+              int to = bounds[chunk + 1];
+              for (KeyColumn key : keyColumns) {
+                if (key.isEncodedByRange()) key.encode(from, to);
+              }
+              GroupTable partialGroup = new GroupTable(keyColumns);
+              if (keyColumns.length > 0) {
+                for (int row = from; row < to; row++) groupOf[row] = partialGroup.add(row);
+              }
+              Accumulator[] partial = newAccumulators(distinct, groupCount(partialGroup));
+              for (Accumulator accumulator : partial) accumulator.accumulate(groupOf, from, to);
+              partialGroups[chunk] = partialGroup;
+              partials[chunk] = partial;
+            }));
+
+    // the partial groups are added by their first row, the rows are already encoded
+    int[][] mappings = new int[chunks][];
+    for (int chunk = 0; chunk < chunks; chunk++) {
+      int[] mapping = new int[groupCount(partialGroups[chunk])];
+      if (keyColumns.length > 0) {
+        int[] representatives = partialGroups[chunk].representatives();
+        for (int group = 0; group < mapping.length; group++) {
+          mapping[group] = groups.add(representatives[group]);
+        }
+      }
+      mappings[chunk] = mapping;
+    }
+
+    Accumulator[] accumulators = newAccumulators(distinct, groupCount(groups));
+    for (int chunk = 0; chunk < chunks; chunk++) {
+      for (int i = 0; i < accumulators.length; i++) {
+        accumulators[i].merge(partials[chunk][i], mappings[chunk]);
+      }
+    }
+
+    boolean rowsNeeded = false;
+    for (Accumulator accumulator : accumulators) {
+      rowsNeeded |= accumulator instanceof OrderStatistics;
+    }
+    if (rowsNeeded) {
+      // the groups of the rows are still those of their range
+      pool.invoke(
+          new ChunkTask(
+              0,
+              chunks,
+              chunk -> {
+                int[] mapping = mappings[chunk];
+                for (int row = bounds[chunk]; row < bounds[chunk + 1]; row++) {
+                  groupOf[row] = mapping[groupOf[row]];
+                }
+              }));
+    }
+    return accumulators;
+  }
+
+  private static Accumulator[] newAccumulators(List<Measure> distinct, int groups) {
+    Accumulator[] accumulators = new Accumulator[distinct.size()];
+    for (int i = 0; i < accumulators.length; i++) {
+      accumulators[i] = distinct.get(i).newAccumulator(groups);
+    }
+    return accumulators;
+  }
+
+  private static int groupCount(GroupTable groups) {
+    // without a GROUP BY column all the rows are in one group, even if there are none
+    return groups.keys.length == 0 ? 1 : groups.size();
+  }
+
+  private static boolean isDecimal(DataColumn column) {
+    int type = column.getType();
+    return type == Types.DECIMAL || type == Types.NUMERIC;
+  }
+
+  private static Number numberAt(ColumnVector vector, int row) {
+    Object value = vector.get(row);
+    if (value instanceof Number) return (Number) value;
+    throw new IllegalArgumentException("Not a number: " + value);
+  }
+
+  private static BigDecimal toBigDecimal(Number value) {
+    if (value instanceof BigDecimal) return (BigDecimal) value;
+    if (value instanceof BigInteger) return new BigDecimal((BigInteger) value);
+    if (value instanceof Double || value instanceof Float) return new BigDecimal(value.toString());
+    return BigDecimal.valueOf(value.longValue());
+  }
+
+  // -----------------------------------------------------------------------
+  /** An aggregate of the result. */
+  private static final class Measure {
+    private final Aggregate function;
+    @CheckForNull private final DataColumn column;
+    private final double percentile;
+    private final String alias;
+
+    Measure(
+        Aggregate function, @CheckForNull DataColumn column, double percentile, String alias) {
+      this.function = function;
+      this.column = column;
+      this.percentile = percentile;
+      this.alias = alias;
+    }
+
+    Accumulator newAccumulator(int groups) {
+      if (column == null) return new CountAccumulator(null, groups);
+
+      ColumnVector.Kind kind = column.getVector().getKind();
+      switch (function) {
+        case COUNT:
+          return new CountAccumulator(column, groups);
+        case SUM:
+        case AVG:
+          if (kind == ColumnVector.Kind.INT || kind == ColumnVector.Kind.LONG)
+            return new LongSumAccumulator(column, groups);
+          if (kind == ColumnVector.Kind.OBJECT && isDecimal(column))
+            return new DecimalSumAccumulator(column, groups);
+          return new DoubleSumAccumulator(column, groups);
+        case MEDIAN:
+          return new OrderStatistics(column, groups);
+        case MIN:
+        case MAX:
+          if (kind == ColumnVector.Kind.DOUBLE)
+            return new DoubleMinMaxAccumulator(column, groups, function == Aggregate.MIN);
+          if (kind == ColumnVector.Kind.STRING || kind == ColumnVector.Kind.OBJECT)
+            return new ObjectMinMaxAccumulator(column, groups, function == Aggregate.MIN);
+          return new LongMinMaxAccumulator(column, groups, function == Aggregate.MIN);
+        default:
+          throw new IllegalArgumentException("Not an aggregate function: " + function);
+      }
+    }
+  }
+
+  /** The values of a GROUP BY column encoded as longs, with a flag for the nulls. */
+  private static final class KeyColumn {
+    private final ColumnVector vector;
+    private final long[] values;
+    private final boolean[] nulls;
+
+    KeyColumn(ColumnVector vector, int rows) {
+      this.vector = vector;
+      this.values = new long[rows];
+      this.nulls = new boolean[rows];
+    }
+
+    boolean isEncodedByRange() {
+      return vector.getKind() != ColumnVector.Kind.OBJECT;
+    }
+
+    void encode(int from, int to) {
+      switch (vector.getKind()) {
+        case INT:
+          for (int row = from; row < to; row++) {
+            if (vector.isNull(row)) nulls[row] = true;
+            else values[row] = vector.getInt(row);
+          }
+          break;
+        case LONG:
+          for (int row = from; row < to; row++) {
+            if (vector.isNull(row)) nulls[row] = true;
+            else values[row] = vector.getLong(row);
+          }
+          break;
+        case DOUBLE:
+          for (int row = from; row < to; row++) {
+            if (vector.isNull(row)) {
+              nulls[row] = true;
+            } else {
+              // 0.0 and -0.0 are equal keys
+              double value = vector.getDouble(row);
+              values[row] = value == 0 ? 0 : Double.doubleToLongBits(value);
+            }
+          }
+          break;
+        case BOOLEAN:
+          for (int row = from; row < to; row++) {
+            if (vector.isNull(row)) nulls[row] = true;
+            else values[row] = vector.getBoolean(row) ? 1 : 0;
+          }
+          break;
+        case STRING:
+          {
+            // the dictionary code identifies a string, a slice shares the codes of its base
+            StringVector strings = (StringVector) vector.base();
+            int offset = vector.baseOffset();
+            for (int row = from; row < to; row++) {
+              if (vector.isNull(row)) nulls[row] = true;
+              else values[row] = strings.getCode(offset + row);
+            }
+            break;
+          }
+        default:
+          {
+            HashMap<Object, Integer> codes = new HashMap<>();
+            for (int row = from; row < to; row++) {
+              Object value = vector.get(row);
+              if (value == null) {
+                nulls[row] = true;
+                continue;
+              }
+              Integer code = codes.get(value);
+              if (code == null) {
+                code = codes.size();
+                codes.put(value, code);
+              }
+              values[row] = code;
+            }
+            break;
+          }
+      }
+    }
+  }
+
+  /**
+   * An open-addressing hash table of the groups, which assigns each row the number of the group of
+   * its keys. A group is represented by its first row, so comparing keys reads the encoded keys of
+   * two rows.
+   */
+  private static final class GroupTable {
+    final KeyColumn[] keys;
+    private int[] slots = new int[32];
+    private int[] hashes = new int[16];
+    private int[] representatives = new int[16];
+    private int size;
+
+    GroupTable(KeyColumn[] keys) {
+      this.keys = keys;
+    }
+
+    int size() {
+      return size;
+    }
+
+    int[] representatives() {
+      return Arrays.copyOf(representatives, size);
+    }
+
+    int add(int row) {
+      int hash = hash(row);
+      int mask = slots.length - 1;
+      for (int i = hash & mask; ; i = (i + 1) & mask) {
+        int slot = slots[i];
+        if (slot == 0) {
+          int group = size;
+          if (group == representatives.length) {
+            hashes = Arrays.copyOf(hashes, group * 2);
+            representatives = Arrays.copyOf(representatives, group * 2);
+          }
+          hashes[group] = hash;
+          representatives[group] = row;
+          slots[i] = group + 1;
+          size++;
+          if (size * 2 > slots.length) rehash();
+          return group;
+        }
+
+        int group = slot - 1;
+        if (hashes[group] == hash && equal(representatives[group], row)) return group;
+      }
+    }
+
+    private int hash(int row) {
+      long h = 1;
+      for (KeyColumn key : keys) {
+        long value = key.nulls[row] ? 0x5BD1E995L : key.values[row];
+        h = (h ^ value) * 0x9E3779B97F4A7C15L;
+        h ^= h >>> 32;
+      }
+      return (int) (h ^ (h >>> 29));
+    }
+
+    private boolean equal(int a, int b) {
+      for (KeyColumn key : keys) {
+        if (key.nulls[a] != key.nulls[b]) return false;
+        if (!key.nulls[a] && key.values[a] != key.values[b]) return false;
+      }
+      return true;
+    }
+
+    private void rehash() {
+      int[] newSlots = new int[slots.length * 2];
+      int mask = newSlots.length - 1;
+      for (int group = 0; group < size; group++) {
+        int i = hashes[group] & mask;
+        while (newSlots[i] != 0) i = (i + 1) & mask;
+        newSlots[i] = group + 1;
+      }
+      slots = newSlots;
+    }
+  }
+
+  /** Runs an action for every chunk of a range, splitting the range in halves between tasks. */
+  private static final class ChunkTask extends RecursiveAction {
+    @Serial private static final long serialVersionUID = -8492251942206794476L;
+
+    private final int from;
+    private final int to;
+    private final transient IntConsumer action;
+
+    ChunkTask(int from, int to, IntConsumer action) {
+      this.from = from;
+      this.to = to;
+      this.action = action;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from == 1) {
+        action.accept(from);
+        return;
+      }
+      int middle = (from + to) >>> 1;
+      invokeAll(new ChunkTask(from, middle, action), new ChunkTask(middle, to, action));
+    }
+  }
+
+  /** The state of an aggregate, in arrays indexed by group. */
+  private abstract static class Accumulator {
+    @CheckForNull protected final DataColumn column;
+    @CheckForNull protected final ColumnVector vector;
+
+    Accumulator(@CheckForNull DataColumn column) {
+      this.column = column;
+      this.vector = column != null ? column.getVector() : null;
+    }
+
+    /**
+     * Adds the values of a range of rows.
+     *
+     * @param groupOf the group of every row
+     * @param from the first row of the range
+     * @param to the row after the last row of the range
+     */
+    abstract void accumulate(int[] groupOf, int from, int to);
+
+    /**
+     * Completes the state once every row has been accumulated.
+     *
+     * @param groupOf the group of every row
+     * @param rows the number of rows
+     */
+    void finish(int[] groupOf, int rows) {}
+
+    /**
+     * Adds the state of the aggregate of another range of rows.
+     *
+     * @param partial the aggregate of the other range, of the same class
+     * @param groups the group of this aggregate of every group of the partial aggregate
+     */
+    abstract void merge(Accumulator partial, int[] groups);
+
+    abstract int resultType(Measure measure);
+
+    abstract void appendTo(DataColumn result, int group, Measure measure);
+  }
+
+  /** COUNT of the rows, or of the values of a column. */
+  private static final class CountAccumulator extends Accumulator {
+    private final long[] counts;
+
+    CountAccumulator(@CheckForNull DataColumn column, int groups) {
+      super(column);
+      this.counts = new long[groups];
+    }
+
+    @Override
+    void accumulate(int[] groupOf, int from, int to) {
+      ColumnVector vector = this.vector;
+      if (vector == null) {
+        for (int row = from; row < to; row++) counts[groupOf[row]]++;
+      } else {
+        for (int row = from; row < to; row++) {
+          if (!vector.isNull(row)) counts[groupOf[row]]++;
+        }
+      }
+    }
+
+    @Override
+    void merge(Accumulator partial, int[] groups) {
+      long[] partialCounts = ((CountAccumulator) partial).counts;
+      for (int group = 0; group < groups.length; group++) {
+        counts[groups[group]] += partialCounts[group];
+      }
+    }
+
+    @Override
+    int resultType(Measure measure) {
+      return Types.BIGINT;
+    }
+
+    @Override
+    void appendTo(DataColumn result, int group, Measure measure) {
+      result.addLong(counts[group]);
+    }
+  }
+
+  /**
+   * SUM and AVG of an int or long column. A sum that overflows a long is carried on exactly as a
+   * BigDecimal, and the SUM is then a DECIMAL rather than a BIGINT.
+   */
+  private static final class LongSumAccumulator extends Accumulator {
+    private final long[] sums;
+    private final long[] counts;
+    @CheckForNull private BigDecimal[] overflows;
+
+    LongSumAccumulator(DataColumn column, int groups) {
+      super(column);
+      this.sums = new long[groups];
+      this.counts = new long[groups];
+    }
+
+    @Override
+    void accumulate(int[] groupOf, int from, int to) {
+      ColumnVector vector = checkNotNull(this.vector);
+      for (int row = from; row < to; row++) {
+        if (vector.isNull(row)) continue;
+        int group = groupOf[row];
+        add(group, vector.getLong(row));
+        counts[group]++;
+      }
+    }
+
+    @Override
+    void merge(Accumulator partial, int[] groups) {
+      LongSumAccumulator other = (LongSumAccumulator) partial;
+      for (int group = 0; group < groups.length; group++) {
+        BigDecimal overflow = other.overflowOf(group);
+        if (overflow != null) add(groups[group], overflow);
+        else add(groups[group], other.sums[group]);
+        counts[groups[group]] += other.counts[group];
+      }
+    }
+
+    private void add(int group, long value) {
+      if (overflowOf(group) == null) {
+        try {
+          sums[group] = Math.addExact(sums[group], value);
+          return;
+        } catch (ArithmeticException e) {
+          // the sum of the group is carried on as a BigDecimal from now on
+        }
+      }
+      add(group, BigDecimal.valueOf(value));
+    }
+
+    private void add(int group, BigDecimal value) {
+      BigDecimal[] overflows = this.overflows;
+      if (overflows == null) this.overflows = overflows = new BigDecimal[sums.length];
+      BigDecimal sum = overflows[group];
+      overflows[group] = (sum != null ? sum : BigDecimal.valueOf(sums[group])).add(value);
+    }
+
+    @CheckForNull
+    private BigDecimal overflowOf(int group) {
+      return overflows != null ? overflows[group] : null;
+    }
+
+    @Override
+    int resultType(Measure measure) {
+      if (measure.function != Aggregate.SUM) return Types.DOUBLE;
+      return overflows != null ? Types.DECIMAL : Types.BIGINT;
+    }
+
+    @Override
+    void appendTo(DataColumn result, int group, Measure measure) {
+      BigDecimal overflow = overflowOf(group);
+      if (counts[group] == 0) result.addNull();
+      else if (measure.function != Aggregate.SUM)
+        result.addDouble(
+            overflow != null
+                ? overflow.doubleValue() / counts[group]
+                : (double) sums[group] / counts[group]);
+      else if (overflows == null) result.addLong(sums[group]);
+      else result.add(overflow != null ? overflow : BigDecimal.valueOf(sums[group]));
+    }
+  }
+
+  /** SUM and AVG of a double column, or of a column of numbers other than decimals. */
+  private static final class DoubleSumAccumulator extends Accumulator {
+    private final double[] sums;
+    private final long[] counts;
+
+    DoubleSumAccumulator(DataColumn column, int groups) {
+      super(column);
+      this.sums = new double[groups];
+      this.counts = new long[groups];
+    }
+
+    @Override
+    void accumulate(int[] groupOf, int from, int to) {
+      ColumnVector vector = checkNotNull(this.vector);
+      boolean primitive = vector.getKind() == ColumnVector.Kind.DOUBLE;
+      for (int row = from; row < to; row++) {
+        if (vector.isNull(row)) continue;
+        int group = groupOf[row];
+        sums[group] += primitive ? vector.getDouble(row) : numberAt(vector, row).doubleValue();
+        counts[group]++;
+      }
+    }
+
+    @Override
+    void merge(Accumulator partial, int[] groups) {
+      DoubleSumAccumulator other = (DoubleSumAccumulator) partial;
+      for (int group = 0; group < groups.length; group++) {
+        sums[groups[group]] += other.sums[group];
+        counts[groups[group]] += other.counts[group];
+      }
+    }
+
+    @Override
+    int resultType(Measure measure) {
+      return Types.DOUBLE;
+    }
+
+    @Override
+    void appendTo(DataColumn result, int group, Measure measure) {
+      if (counts[group] == 0) result.addNull();
+      else if (measure.function == Aggregate.SUM) result.addDouble(sums[group]);
+      else result.addDouble(sums[group] / counts[group]);
+    }
+  }
+
+  /** SUM and AVG of a DECIMAL or NUMERIC column, without loss of precision. */
+  private static final class DecimalSumAccumulator extends Accumulator {
+    private final BigDecimal[] sums;
+    private final long[] counts;
+
+    DecimalSumAccumulator(DataColumn column, int groups) {
+      super(column);
+      this.sums = new BigDecimal[groups];
+      this.counts = new long[groups];
+    }
+
+    @Override
+    void accumulate(int[] groupOf, int from, int to) {
+      ColumnVector vector = checkNotNull(this.vector);
+      for (int row = from; row < to; row++) {
+        if (vector.isNull(row)) continue;
+        int group = groupOf[row];
+        BigDecimal value = toBigDecimal(numberAt(vector, row));
+        sums[group] = sums[group] == null ? value : sums[group].add(value);
+        counts[group]++;
+      }
+    }
+
+    @Override
+    void merge(Accumulator partial, int[] groups) {
+      DecimalSumAccumulator other = (DecimalSumAccumulator) partial;
+      for (int group = 0; group < groups.length; group++) {
+        BigDecimal value = other.sums[group];
+        if (value == null) continue;
+        int target = groups[group];
+        sums[target] = sums[target] == null ? value : sums[target].add(value);
+        counts[target] += other.counts[group];
+      }
+    }
+
+    @Override
+    int resultType(Measure measure) {
+      return Types.DECIMAL;
+    }
+
+    @Override
+    void appendTo(DataColumn result, int group, Measure measure) {
+      if (counts[group] == 0) result.addNull();
+      else if (measure.function == Aggregate.SUM) result.add(sums[group]);
+      else
+        result.add(sums[group].divide(BigDecimal.valueOf(counts[group]), MathContext.DECIMAL128));
+    }
+  }
+
+  /** MIN and MAX of an int, long or boolean column. */
+  private static final class LongMinMaxAccumulator extends Accumulator {
+    private final long[] values;
+    private final boolean[] present;
+    private final boolean min;
+
+    LongMinMaxAccumulator(DataColumn column, int groups, boolean min) {
+      super(column);
+      this.values = new long[groups];
+      this.present = new boolean[groups];
+      this.min = min;
+    }
+
+    @Override
+    void accumulate(int[] groupOf, int from, int to) {
+      ColumnVector vector = checkNotNull(this.vector);
+      boolean bool = vector.getKind() == ColumnVector.Kind.BOOLEAN;
+      for (int row = from; row < to; row++) {
+        if (vector.isNull(row)) continue;
+        int group = groupOf[row];
+        long value = bool ? (vector.getBoolean(row) ? 1 : 0) : vector.getLong(row);
+        update(group, value);
+      }
+    }
+
+    @Override
+    void merge(Accumulator partial, int[] groups) {
+      LongMinMaxAccumulator other = (LongMinMaxAccumulator) partial;
+      for (int group = 0; group < groups.length; group++) {
+        if (other.present[group]) update(groups[group], other.values[group]);
+      }
+    }
+
+    private void update(int group, long value) {
+      if (!present[group] || (min ? value < values[group] : value > values[group])) {
+        values[group] = value;
+        present[group] = true;
+      }
+    }
+
+    @Override
+    int resultType(Measure measure) {
+      return checkNotNull(column).getType();
+    }
+
+    @Override
+    void appendTo(DataColumn result, int group, Measure measure) {
+      if (!present[group]) result.addNull();
+      else if (result.getVector().getKind() == ColumnVector.Kind.BOOLEAN)
+        result.addBoolean(values[group] != 0);
+      else result.addLong(values[group]);
+    }
+  }
+
+  /** MIN and MAX of a double column. */
+  private static final class DoubleMinMaxAccumulator extends Accumulator {
+    private final double[] values;
+    private final boolean[] present;
+    private final boolean min;
+
+    DoubleMinMaxAccumulator(DataColumn column, int groups, boolean min) {
+      super(column);
+      this.values = new double[groups];
+      this.present = new boolean[groups];
+      this.min = min;
+    }
+
+    @Override
+    void accumulate(int[] groupOf, int from, int to) {
+      ColumnVector vector = checkNotNull(this.vector);
+      for (int row = from; row < to; row++) {
+        if (vector.isNull(row)) continue;
+        int group = groupOf[row];
+        update(group, vector.getDouble(row));
+      }
+    }
+
+    @Override
+    void merge(Accumulator partial, int[] groups) {
+      DoubleMinMaxAccumulator other = (DoubleMinMaxAccumulator) partial;
+      for (int group = 0; group < groups.length; group++) {
+        if (other.present[group]) update(groups[group], other.values[group]);
+      }
+    }
+
+    private void update(int group, double value) {
+      int c = Double.compare(value, values[group]);
+      if (!present[group] || (min ? c < 0 : c > 0)) {
+        values[group] = value;
+        present[group] = true;
+      }
+    }
+
+    @Override
+    int resultType(Measure measure) {
+      return checkNotNull(column).getType();
+    }
+
+    @Override
+    void appendTo(DataColumn result, int group, Measure measure) {
+      if (!present[group]) result.addNull();
+      else result.addDouble(values[group]);
+    }
+  }
+
+  /** MIN and MAX of a string column, or of a column of comparable objects. */
+  private static final class ObjectMinMaxAccumulator extends Accumulator {
+    private final Object[] values;
+    private final boolean min;
+
+    ObjectMinMaxAccumulator(DataColumn column, int groups, boolean min) {
+      super(column);
+      this.values = new Object[groups];
+      this.min = min;
+    }
+
+    @Override
+    void accumulate(int[] groupOf, int from, int to) {
+      ColumnVector vector = checkNotNull(this.vector);
+      for (int row = from; row < to; row++) {
+        Object value = vector.get(row);
+        if (value != null) update(groupOf[row], value);
+      }
+    }
+
+    @Override
+    void merge(Accumulator partial, int[] groups) {
+      Object[] partialValues = ((ObjectMinMaxAccumulator) partial).values;
+      for (int group = 0; group < groups.length; group++) {
+        if (partialValues[group] != null) update(groups[group], partialValues[group]);
+      }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void update(int group, Object value) {
+      if (!(value instanceof Comparable))
+        throw new IllegalArgumentException("Not comparable: " + value.getClass().getName());
+
+      Object current = values[group];
+      if (current == null) {
+        values[group] = value;
+      } else {
+        int c = ((Comparable<Object>) value).compareTo(current);
+        if (min ? c < 0 : c > 0) values[group] = value;
+      }
+    }
+
+    @Override
+    int resultType(Measure measure) {
+      return checkNotNull(column).getType();
+    }
+
+    @Override
+    void appendTo(DataColumn result, int group, Measure measure) {
+      result.add(values[group]);
+    }
+  }
+
+  /**
+   * The values of a numeric column sorted within each group, from which the MEDIAN and the
+   * percentiles are read. The values are counted per group first, then gathered in one array at
+   * the offsets of their group, and each group is sorted.
+   */
+  private static final class OrderStatistics extends Accumulator {
+    private final int[] counts;
+    private int[] offsets = new int[0];
+    private double[] values = new double[0];
+
+    OrderStatistics(DataColumn column, int groups) {
+      super(column);
+      this.counts = new int[groups];
+    }
+
+    @Override
+    void accumulate(int[] groupOf, int from, int to) {
+      ColumnVector vector = checkNotNull(this.vector);
+      for (int row = from; row < to; row++) {
+        if (!vector.isNull(row)) counts[groupOf[row]]++;
+      }
+    }
+
+    @Override
+    void merge(Accumulator partial, int[] groups) {
+      int[] partialCounts = ((OrderStatistics) partial).counts;
+      for (int group = 0; group < groups.length; group++) {
+        counts[groups[group]] += partialCounts[group];
+      }
+    }
+
+    @Override
+    void finish(int[] groupOf, int rows) {
+      ColumnVector vector = checkNotNull(this.vector);
+      boolean primitive = vector.getKind() != ColumnVector.Kind.OBJECT;
+
+      offsets = new int[counts.length + 1];
+      for (int group = 0; group < counts.length; group++) {
+        offsets[group + 1] = offsets[group] + counts[group];
+      }
+      values = new double[offsets[counts.length]];
+
+      int[] positions = Arrays.copyOf(offsets, counts.length);
+      for (int row = 0; row < rows; row++) {
+        if (vector.isNull(row)) continue;
+        double value = primitive ? vector.getDouble(row) : numberAt(vector, row).doubleValue();
+        values[positions[groupOf[row]]++] = value;
+      }
+      for (int group = 0; group < counts.length; group++) {
+        Arrays.sort(values, offsets[group], offsets[group + 1]);
+      }
+    }
+
+    @Override
+    int resultType(Measure measure) {
+      return Types.DOUBLE;
+    }
+
+    @Override
+    void appendTo(DataColumn result, int group, Measure measure) {
+      int from = offsets[group];
+      int to = offsets[group + 1];
+      if (from == to) {
+        result.addNull();
+        return;
+      }
+
+      double position = measure.percentile * (to - from - 1);
+      int lower = (int) Math.floor(position);
+      int upper = (int) Math.ceil(position);
+      double low = values[from + lower];
+      result.addDouble(low + (values[from + upper] - low) * (position - lower));
+    }
+  }
+}
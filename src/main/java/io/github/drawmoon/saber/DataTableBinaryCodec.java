@@ -0,0 +1,638 @@
+/*
+ *            _
+ *  ___  __ _| |__   ___ _ __
+ * / __|/ _` | '_ \ / _ \ '__|
+ * \__ \ (_| | |_) |  __/ |
+ * |___/\__,_|_.__/ \___|_|
+ *
+ * Copyright 2024 drash
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.drawmoon.saber;
+
+import static io.github.drawmoon.saber.common.Preconditions.checkNotNull;
+
+import io.github.drawmoon.saber.ColumnVector.StringVector;
+import io.github.drawmoon.saber.DataTable.DataColumn;
+import io.github.drawmoon.saber.exceptions.SerialException;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import javax.annotation.CheckForNull;
+
+/**
+ * A compact, columnar binary format for {@link DataTable}. Unlike the JSON form, which repeats the
+ * column names in every row and boxes every value, the binary form writes a header with the names
+ * and SQL types of the columns once, followed by one block per column holding a null bitmap and
+ * the values in their storage type: primitive arrays for numbers and booleans, a dictionary and
+ * codes for strings, and tagged values for the other objects. Only the types listed by the tags
+ * can be written, the format never falls back to Java serialization.
+ *
+ * <p>The layout, with every number in big-endian order, is:
+ *
+ * <pre>
+ * table   := MAGIC version:byte sql:string metadata rows:int columns:int header* block*
+ * header  := name:string type:int kind:byte
+ * block   := hasNulls:byte [nulls:long*] values
+ * values  := int* | long* | double* | bits:long* | dictionary codes | object*
+ * string  := length:int utf8:byte* (a length of -1 is null)
+ * </pre>
+ *
+ * <p>The counts and lengths read from the input are not trusted: the arrays holding the values
+ * grow as the values are read, so a forged count fails at the end of the input instead of
+ * allocating memory for it.
+ *
+ * @author drash
+ * @version 1.0
+ * @since 2024
+ */
+public final class DataTableBinaryCodec {
+
+  /** The bytes that start every serialized table, "SBT" followed by a zero byte. */
+  private static final int MAGIC = 0x53425400;
+
+  /** The version of the format. */
+  private static final byte VERSION = 1;
+
+  private static final int BUFFER_SIZE = 8192;
+
+  /** The most elements allocated before they are read, the arrays grow as the values arrive. */
+  private static final int MAX_PREALLOCATED = 1 << 16;
+
+  private static final byte TAG_STRING = 1;
+  private static final byte TAG_INT = 2;
+  private static final byte TAG_LONG = 3;
+  private static final byte TAG_DOUBLE = 4;
+  private static final byte TAG_FLOAT = 5;
+  private static final byte TAG_SHORT = 6;
+  private static final byte TAG_BYTE = 7;
+  private static final byte TAG_BOOLEAN = 8;
+  private static final byte TAG_BIG_DECIMAL = 9;
+  private static final byte TAG_BIG_INTEGER = 10;
+  private static final byte TAG_BYTES = 11;
+  private static final byte TAG_SQL_DATE = 12;
+  private static final byte TAG_SQL_TIME = 13;
+  private static final byte TAG_SQL_TIMESTAMP = 14;
+  private static final byte TAG_DATE = 15;
+  private static final byte TAG_LOCAL_DATE = 16;
+  private static final byte TAG_LOCAL_TIME = 17;
+  private static final byte TAG_LOCAL_DATE_TIME = 18;
+  private static final byte TAG_OFFSET_DATE_TIME = 19;
+  private static final byte TAG_INSTANT = 20;
+  private static final byte TAG_UUID = 21;
+  private static final byte TAG_CHARACTER = 22;
+
+  private DataTableBinaryCodec() {}
+
+  /**
+   * Writes the DataTable to the stream. The output is buffered and flushed when the table has been
+   * written, the stream is not closed.
+   *
+   * @param table the table to write
+   * @param out the stream to write to
+   * @throws IOException if the stream fails
+   * @throws SerialException if a value has a type that cannot be written
+   */
+  public static void write(DataTable table, OutputStream out) throws IOException {
+    checkNotNull(table);
+    checkNotNull(out);
+
+    DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out, BUFFER_SIZE));
+    data.writeInt(MAGIC);
+    data.writeByte(VERSION);
+    writeString(data, table.getExecutionSql());
+    writeMetadata(data, table.getMetadata());
+
+    int rows = table.rowCount();
+    data.writeInt(rows);
+    data.writeInt(table.getColumns().size());
+    for (DataColumn column : table.getColumns()) {
+      writeString(data, column.getName());
+      data.writeInt(column.getType());
+      data.writeByte(column.getVector().getKind().ordinal());
+    }
+    for (DataColumn column : table.getColumns()) {
+      writeColumn(data, column.getVector(), rows);
+    }
+    data.flush();
+  }
+
+  /**
+   * Reads a DataTable from the stream. Reading stops at the end of the table, so the stream may
+   * hold more data after it. The stream is read as is, wrap it in a {@link
+   * java.io.BufferedInputStream} if it is not buffered.
+   *
+   * @param in the stream to read from
+   * @return the table
+   * @throws IOException if the stream fails or does not hold a table in this format
+   */
+  public static DataTable read(InputStream in) throws IOException {
+    checkNotNull(in);
+
+    DataInputStream data = new DataInputStream(in);
+    if (data.readInt() != MAGIC) throw new IOException("Not a serialized DataTable");
+    byte version = data.readByte();
+    if (version != VERSION) throw new IOException("Unsupported DataTable version: " + version);
+
+    DataTable table = new DataTable();
+    table.setExecutionSql(readString(data));
+    table.setMetadata(readMetadata(data));
+
+    int rows = readCount(data);
+    int columnCount = readCount(data);
+    ColumnVector.Kind[] kinds = ColumnVector.Kind.values();
+    DataColumn[] columns = new DataColumn[columnCount];
+    for (int i = 0; i < columnCount; i++) {
+      String name = readString(data);
+      if (name == null) throw new IOException("Column name is null");
+
+      int type = data.readInt();
+      int kind = data.readUnsignedByte();
+      if (kind >= kinds.length) throw new IOException("Unexpected storage of column: " + name);
+
+      DataColumn column = new DataColumn(name, type, kinds[kind]);
+
+      table.addColumn(column);
+      columns[i] = column;
+    }
+    for (DataColumn column : columns) {
+      column.ensureCapacity(Math.min(rows, MAX_PREALLOCATED));
+      readColumn(data, column, rows);
+    }
+    table.addRows(rows);
+    return table;
+  }
+
+  /**
+   * Serializes the DataTable to a byte array.
+   *
+   * @param table the table to serialize
+   * @return the bytes of the table
+   * @throws SerialException if a value has a type that cannot be written
+   */
+  public static byte[] toByteArray(DataTable table) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try {
+      write(table, out);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return out.toByteArray();
+  }
+
+  /**
+   * Deserializes a DataTable from a byte array.
+   *
+   * @param bytes the bytes of the table
+   * @return the table
+   * @throws SerialException if the bytes do not hold a table in this format
+   */
+  public static DataTable fromByteArray(byte[] bytes) {
+    try {
+      return read(new ByteArrayInputStream(checkNotNull(bytes)));
+    } catch (IOException e) {
+      throw new SerialException(e);
+    }
+  }
+
+  // -----------------------------------------------------------------------
+  private static void writeColumn(DataOutput out, ColumnVector vector, int rows)
+      throws IOException {
+    long[] nulls = null;
+    for (int i = 0; i < rows; i++) {
+      if (vector.isNull(i)) {
+        if (nulls == null) nulls = new long[bitmapLength(rows)];
+        nulls[i >>> 6] |= 1L << i;
+      }
+    }
+    out.writeBoolean(nulls != null);
+    if (nulls != null) {
+      for (long word : nulls) out.writeLong(word);
+    }
+
+    switch (vector.getKind()) {
+      case INT:
+        for (int i = 0; i < rows; i++) out.writeInt(vector.getInt(i));
+        break;
+      case LONG:
+        for (int i = 0; i < rows; i++) out.writeLong(vector.getLong(i));
+        break;
+      case DOUBLE:
+        for (int i = 0; i < rows; i++) out.writeDouble(vector.getDouble(i));
+        break;
+      case BOOLEAN:
+        {
+          long[] bits = new long[bitmapLength(rows)];
+          for (int i = 0; i < rows; i++) {
+            if (vector.getBoolean(i)) bits[i >>> 6] |= 1L << i;
+          }
+          for (long word : bits) out.writeLong(word);
+          break;
+        }
+      case STRING:
+        writeStrings(out, vector, rows);
+        break;
+      default:
+        for (int i = 0; i < rows; i++) {
+          Object value = vector.get(i);
+          if (value != null) writeObject(out, value);
+        }
+        break;
+    }
+  }
+
+  private static void writeStrings(DataOutput out, ColumnVector vector, int rows)
+      throws IOException {
+    StringVector strings = (StringVector) vector.base();
+    int offset = vector.baseOffset();
+
+    int[] codes = new int[rows];
+    int dictionarySize;
+    if (offset == 0 && rows == strings.size()) {
+      dictionarySize = strings.dictionarySize();
+      out.writeInt(dictionarySize);
+      for (int code = 0; code < dictionarySize; code++) {
+        writeString(out, strings.decode(code));
+      }
+      for (int i = 0; i < rows; i++) codes[i] = strings.getCode(i);
+    } else {
+      // a slice, such as a page, is written with the strings of its own rows only, rather than with
+      // the dictionary of the whole vector it was taken from
+      Map<Integer, Integer> windowCodes = new LinkedHashMap<>();
+      for (int i = 0; i < rows; i++) {
+        if (vector.isNull(i)) continue;
+
+        int baseCode = strings.getCode(offset + i);
+        Integer code = windowCodes.get(baseCode);
+        if (code == null) {
+          code = windowCodes.size();
+          windowCodes.put(baseCode, code);
+        }
+        codes[i] = code;
+      }
+      dictionarySize = windowCodes.size();
+      out.writeInt(dictionarySize);
+      for (int baseCode : windowCodes.keySet()) {
+        writeString(out, strings.decode(baseCode));
+      }
+    }
+
+    // the codes take the fewest bytes that fit the dictionary
+    if (dictionarySize <= 0x100) {
+      for (int i = 0; i < rows; i++) out.writeByte(codes[i]);
+    } else if (dictionarySize <= 0x10000) {
+      for (int i = 0; i < rows; i++) out.writeShort(codes[i]);
+    } else {
+      for (int i = 0; i < rows; i++) out.writeInt(codes[i]);
+    }
+  }
+
+  private static void readColumn(DataInput in, DataColumn column, int rows) throws IOException {
+    long[] nulls = in.readBoolean() ? readBitmap(in, rows) : null;
+
+    switch (column.getVector().getKind()) {
+      case INT:
+        for (int i = 0; i < rows; i++) {
+          int value = in.readInt();
+          if (isSet(nulls, i)) column.addNull();
+          else column.addInt(value);
+        }
+        break;
+      case LONG:
+        for (int i = 0; i < rows; i++) {
+          long value = in.readLong();
+          if (isSet(nulls, i)) column.addNull();
+          else column.addLong(value);
+        }
+        break;
+      case DOUBLE:
+        for (int i = 0; i < rows; i++) {
+          double value = in.readDouble();
+          if (isSet(nulls, i)) column.addNull();
+          else column.addDouble(value);
+        }
+        break;
+      case BOOLEAN:
+        {
+          long[] bits = readBitmap(in, rows);
+          for (int i = 0; i < rows; i++) {
+            if (isSet(nulls, i)) column.addNull();
+            else column.addBoolean(isSet(bits, i));
+          }
+          break;
+        }
+      case STRING:
+        readStrings(in, column, (StringVector) column.getVector(), nulls, rows);
+        break;
+      default:
+        for (int i = 0; i < rows; i++) {
+          column.add(isSet(nulls, i) ? null : readObject(in));
+        }
+        break;
+    }
+  }
+
+  private static void readStrings(
+      DataInput in, DataColumn column, StringVector vector, @CheckForNull long[] nulls, int rows)
+      throws IOException {
+    int dictionarySize = readCount(in);
+    int[] codes = new int[Math.min(dictionarySize, MAX_PREALLOCATED)];
+    for (int code = 0; code < dictionarySize; code++) {
+      if (code == codes.length) codes = Arrays.copyOf(codes, grownLength(code, dictionarySize));
+
+      String value = readString(in);
+      if (value == null) throw new IOException("Dictionary string is null");
+      codes[code] = vector.encode(value);
+    }
+
+    for (int i = 0; i < rows; i++) {
+      int code;
+      if (dictionarySize <= 0x100) code = in.readUnsignedByte();
+      else if (dictionarySize <= 0x10000) code = in.readUnsignedShort();
+      else code = in.readInt();
+
+      if (isSet(nulls, i)) {
+        column.addNull();
+      } else if (code < 0 || code >= dictionarySize) {
+        throw new IOException("Invalid dictionary code: " + code);
+      } else {
+        vector.addCode(codes[code]);
+      }
+    }
+  }
+
+  private static void writeObject(DataOutput out, Object value) throws IOException {
+    if (value instanceof String) {
+      out.writeByte(TAG_STRING);
+      writeString(out, (String) value);
+    } else if (value instanceof Integer) {
+      out.writeByte(TAG_INT);
+      out.writeInt((Integer) value);
+    } else if (value instanceof Long) {
+      out.writeByte(TAG_LONG);
+      out.writeLong((Long) value);
+    } else if (value instanceof Double) {
+      out.writeByte(TAG_DOUBLE);
+      out.writeDouble((Double) value);
+    } else if (value instanceof Float) {
+      out.writeByte(TAG_FLOAT);
+      out.writeFloat((Float) value);
+    } else if (value instanceof Short) {
+      out.writeByte(TAG_SHORT);
+      out.writeShort((Short) value);
+    } else if (value instanceof Byte) {
+      out.writeByte(TAG_BYTE);
+      out.writeByte((Byte) value);
+    } else if (value instanceof Boolean) {
+      out.writeByte(TAG_BOOLEAN);
+      out.writeBoolean((Boolean) value);
+    } else if (value instanceof BigDecimal) {
+      BigDecimal decimal = (BigDecimal) value;
+      out.writeByte(TAG_BIG_DECIMAL);
+      out.writeInt(decimal.scale());
+      writeBytes(out, decimal.unscaledValue().toByteArray());
+    } else if (value instanceof BigInteger) {
+      out.writeByte(TAG_BIG_INTEGER);
+      writeBytes(out, ((BigInteger) value).toByteArray());
+    } else if (value instanceof byte[]) {
+      out.writeByte(TAG_BYTES);
+      writeBytes(out, (byte[]) value);
+    } else if (value instanceof java.sql.Date) {
+      out.writeByte(TAG_SQL_DATE);
+      out.writeLong(((java.sql.Date) value).getTime());
+    } else if (value instanceof Time) {
+      out.writeByte(TAG_SQL_TIME);
+      out.writeLong(((Time) value).getTime());
+    } else if (value instanceof Timestamp) {
+      Timestamp timestamp = (Timestamp) value;
+      out.writeByte(TAG_SQL_TIMESTAMP);
+      out.writeLong(timestamp.getTime());
+      out.writeInt(timestamp.getNanos());
+    } else if (value instanceof Date) {
+      out.writeByte(TAG_DATE);
+      out.writeLong(((Date) value).getTime());
+    } else if (value instanceof LocalDate) {
+      out.writeByte(TAG_LOCAL_DATE);
+      out.writeLong(((LocalDate) value).toEpochDay());
+    } else if (value instanceof LocalTime) {
+      out.writeByte(TAG_LOCAL_TIME);
+      out.writeLong(((LocalTime) value).toNanoOfDay());
+    } else if (value instanceof LocalDateTime) {
+      LocalDateTime dateTime = (LocalDateTime) value;
+      out.writeByte(TAG_LOCAL_DATE_TIME);
+      out.writeLong(dateTime.toLocalDate().toEpochDay());
+      out.writeLong(dateTime.toLocalTime().toNanoOfDay());
+    } else if (value instanceof OffsetDateTime) {
+      OffsetDateTime dateTime = (OffsetDateTime) value;
+      out.writeByte(TAG_OFFSET_DATE_TIME);
+      out.writeLong(dateTime.toLocalDate().toEpochDay());
+      out.writeLong(dateTime.toLocalTime().toNanoOfDay());
+      out.writeInt(dateTime.getOffset().getTotalSeconds());
+    } else if (value instanceof Instant) {
+      Instant instant = (Instant) value;
+      out.writeByte(TAG_INSTANT);
+      out.writeLong(instant.getEpochSecond());
+      out.writeInt(instant.getNano());
+    } else if (value instanceof UUID) {
+      UUID uuid = (UUID) value;
+      out.writeByte(TAG_UUID);
+      out.writeLong(uuid.getMostSignificantBits());
+      out.writeLong(uuid.getLeastSignificantBits());
+    } else if (value instanceof Character) {
+      out.writeByte(TAG_CHARACTER);
+      out.writeChar((Character) value);
+    } else {
+      throw new SerialException("Cannot serialize value of " + value.getClass().getName());
+    }
+  }
+
+  private static Object readObject(DataInput in) throws IOException {
+    byte tag = in.readByte();
+    switch (tag) {
+      case TAG_STRING:
+        return readString(in);
+      case TAG_INT:
+        return in.readInt();
+      case TAG_LONG:
+        return in.readLong();
+      case TAG_DOUBLE:
+        return in.readDouble();
+      case TAG_FLOAT:
+        return in.readFloat();
+      case TAG_SHORT:
+        return in.readShort();
+      case TAG_BYTE:
+        return in.readByte();
+      case TAG_BOOLEAN:
+        return in.readBoolean();
+      case TAG_BIG_DECIMAL:
+        {
+          int scale = in.readInt();
+          return new BigDecimal(new BigInteger(readBytes(in)), scale);
+        }
+      case TAG_BIG_INTEGER:
+        return new BigInteger(readBytes(in));
+      case TAG_BYTES:
+        return readBytes(in);
+      case TAG_SQL_DATE:
+        return new java.sql.Date(in.readLong());
+      case TAG_SQL_TIME:
+        return new Time(in.readLong());
+      case TAG_SQL_TIMESTAMP:
+        {
+          Timestamp timestamp = new Timestamp(in.readLong());
+          timestamp.setNanos(in.readInt());
+          return timestamp;
+        }
+      case TAG_DATE:
+        return new Date(in.readLong());
+      case TAG_LOCAL_DATE:
+        return LocalDate.ofEpochDay(in.readLong());
+      case TAG_LOCAL_TIME:
+        return LocalTime.ofNanoOfDay(in.readLong());
+      case TAG_LOCAL_DATE_TIME:
+        return LocalDateTime.of(
+            LocalDate.ofEpochDay(in.readLong()), LocalTime.ofNanoOfDay(in.readLong()));
+      case TAG_OFFSET_DATE_TIME:
+        return OffsetDateTime.of(
+            LocalDate.ofEpochDay(in.readLong()),
+            LocalTime.ofNanoOfDay(in.readLong()),
+            ZoneOffset.ofTotalSeconds(in.readInt()));
+      case TAG_INSTANT:
+        return Instant.ofEpochSecond(in.readLong(), in.readInt());
+      case TAG_UUID:
+        return new UUID(in.readLong(), in.readLong());
+      case TAG_CHARACTER:
+        return in.readChar();
+      default:
+        throw new IOException("Unknown value tag: " + tag);
+    }
+  }
+
+  private static void writeMetadata(
+      DataOutput out, @CheckForNull LinkedHashMap<String, Integer> metadata) throws IOException {
+    if (metadata == null) {
+      out.writeInt(-1);
+      return;
+    }
+
+    out.writeInt(metadata.size());
+    for (Map.Entry<String, Integer> entry : metadata.entrySet()) {
+      writeString(out, entry.getKey());
+      out.writeInt(entry.getValue());
+    }
+  }
+
+  @CheckForNull
+  private static LinkedHashMap<String, Integer> readMetadata(DataInput in) throws IOException {
+    int size = in.readInt();
+    if (size == -1) return null;
+    if (size < 0) throw new IOException("Invalid metadata size: " + size);
+
+    LinkedHashMap<String, Integer> metadata = new LinkedHashMap<>();
+    for (int i = 0; i < size; i++) {
+      metadata.put(readString(in), in.readInt());
+    }
+    return metadata;
+  }
+
+  private static void writeString(DataOutput out, @CheckForNull String value) throws IOException {
+    if (value == null) {
+      out.writeInt(-1);
+      return;
+    }
+    writeBytes(out, value.getBytes(StandardCharsets.UTF_8));
+  }
+
+  @CheckForNull
+  private static String readString(DataInput in) throws IOException {
+    int length = in.readInt();
+    if (length == -1) return null;
+    return new String(readBytes(in, length), StandardCharsets.UTF_8);
+  }
+
+  private static void writeBytes(DataOutput out, byte[] value) throws IOException {
+    out.writeInt(value.length);
+    out.write(value);
+  }
+
+  private static byte[] readBytes(DataInput in) throws IOException {
+    return readBytes(in, in.readInt());
+  }
+
+  private static byte[] readBytes(DataInput in, int length) throws IOException {
+    if (length < 0) throw new IOException("Invalid length: " + length);
+
+    byte[] bytes = new byte[Math.min(length, MAX_PREALLOCATED)];
+    in.readFully(bytes);
+    while (bytes.length < length) {
+      int read = bytes.length;
+      bytes = Arrays.copyOf(bytes, grownLength(read, length));
+      in.readFully(bytes, read, bytes.length - read);
+    }
+    return bytes;
+  }
+
+  private static long[] readBitmap(DataInput in, int rows) throws IOException {
+    int length = bitmapLength(rows);
+    long[] words = new long[Math.min(length, MAX_PREALLOCATED)];
+    for (int i = 0; i < length; i++) {
+      if (i == words.length) words = Arrays.copyOf(words, grownLength(i, length));
+      words[i] = in.readLong();
+    }
+    return words;
+  }
+
+  private static int grownLength(int length, int maxLength) {
+    return (int) Math.min(2L * length, maxLength);
+  }
+
+  private static int readCount(DataInput in) throws IOException {
+    int count = in.readInt();
+    if (count < 0) throw new IOException("Invalid count: " + count);
+    return count;
+  }
+
+  private static boolean isSet(@CheckForNull long[] bitmap, int index) {
+    return bitmap != null && (bitmap[index >>> 6] & (1L << index)) != 0;
+  }
+
+  private static int bitmapLength(int rows) {
+    return (rows + 63) >>> 6;
+  }
+}
@@ -58,6 +58,33 @@ public class LogicalExpression implements Condition {
     this.operator = checkNotNull(operator);
   }
 
+  /**
+   * Gets the left hand side of the logical expression.
+   *
+   * @return the lhs expression, never null
+   */
+  public Condition getLhs() {
+    return lhs;
+  }
+
+  /**
+   * Gets the right hand side of the logical expression.
+   *
+   * @return the rhs expression, never null
+   */
+  public Condition getRhs() {
+    return rhs;
+  }
+
+  /**
+   * Gets the operator of the logical expression.
+   *
+   * @return the operator, never null
+   */
+  public Operator getOperator() {
+    return operator;
+  }
+
   // -----------------------------------------------------------------------
   @Override
   @Nonnull
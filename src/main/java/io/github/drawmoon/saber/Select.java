@@ -21,6 +21,9 @@
  */
 package io.github.drawmoon.saber;
 
+import io.github.drawmoon.saber.engine.ParamStyle;
+import io.github.drawmoon.saber.engine.SqlTemplate;
+
 /**
  * The Select interface represents a SQL SELECT statement. It extends the Expression and
  * SqlGenerator interfaces.
@@ -141,6 +144,26 @@ public interface Select extends Expression, ExpressionRender<String> {
     return this.offset(limit, skip);
   }
 
+  /**
+   * Renders the SELECT statement with its literal values as bind parameters. The SQL text is cached
+   * by the structure of the statement, so statements differing only in their literal values are
+   * rendered once.
+   *
+   * @return the SQL template and its parameters
+   */
+  default SqlTemplate renderTemplate() {
+    return renderTemplate(ParamStyle.POSITIONAL);
+  }
+
+  /**
+   * Renders the SELECT statement with its literal values as bind parameters, written with
+   * placeholders of the specified style.
+   *
+   * @param paramStyle the style of the placeholders
+   * @return the SQL template and its parameters
+   */
+  SqlTemplate renderTemplate(ParamStyle paramStyle);
+
   /**
    * Combines this SELECT statement with another SELECT statement using the UNION operator.
    *
@@ -28,10 +28,13 @@ import static io.github.drawmoon.saber.common.Preconditions.ensureNull;
 
 import io.github.drawmoon.saber.engine.ExpressionContext;
 import io.github.drawmoon.saber.engine.ExpressionIterator;
+import io.github.drawmoon.saber.engine.ParamStyle;
+import io.github.drawmoon.saber.engine.SqlTemplate;
 import java.io.Serial;
 import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
+import javax.annotation.CheckForNull;
 import javax.annotation.Nonnull;
 
 /**
@@ -93,6 +96,26 @@ public class SelectExpression implements Select {
     return this.alias;
   }
 
+  @CheckForNull
+  public Condition getWhere() {
+    return this.where;
+  }
+
+  @CheckForNull
+  public Condition getHaving() {
+    return this.having;
+  }
+
+  @CheckForNull
+  public List<Field> getOrders() {
+    return this.orders;
+  }
+
+  @CheckForNull
+  public List<Field> getGroups() {
+    return this.groups;
+  }
+
   @Override
   @Nonnull
   public Select as(String alias) {
@@ -191,6 +214,12 @@ public class SelectExpression implements Select {
     return this.accept(this.ctx.createSqlBuilder()).toString();
   }
 
+  @Override
+  @Nonnull
+  public SqlTemplate renderTemplate(ParamStyle paramStyle) {
+    return this.ctx.renderTemplate(this, paramStyle);
+  }
+
   @Override
   @Nonnull
   public <T> T accept(ExpressionVisitor<T> visitor) {
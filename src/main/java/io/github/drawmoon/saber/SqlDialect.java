@@ -25,7 +25,7 @@ import static io.github.drawmoon.saber.common.Preconditions.nullSafe;
 
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -130,7 +130,7 @@ public enum SqlDialect {
    * @return An array of derived dialects.
    */
   public SqlDialect[] getBranch() {
-    Set<SqlDialect> dialectList = new HashSet<>();
+    Set<SqlDialect> dialectList = new LinkedHashSet<>();
     for (SqlDialect dialect : values()) {
       if (dialect == this) continue;
 
@@ -0,0 +1,177 @@
+/*
+ *            _
+ *  ___  __ _| |__   ___ _ __
+ * / __|/ _` | '_ \ / _ \ '__|
+ * \__ \ (_| | |_) |  __/ |
+ * |___/\__,_|_.__/ \___|_|
+ *
+ * Copyright 2024 drash
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.drawmoon.saber.common;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static io.github.drawmoon.saber.common.Preconditions.checkNotNull;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import javax.annotation.Nullable;
+
+/**
+ * A bounded, lock-free, multi-producer multi-consumer queue backed by an array. Each slot carries a
+ * sequence number that tells producers and consumers whether it is free or filled for their turn,
+ * so that {@link #offer(Object)} and {@link #poll()} only contend on a compare-and-set of the
+ * enqueue or dequeue position. The capacity is rounded up to a power of two.
+ *
+ * <p>The algorithm is the bounded MPMC queue of Dmitry Vyukov.
+ *
+ * @param <E> the type of the elements
+ * @author drash
+ * @version 1.0
+ * @since 2024
+ */
+public final class RingBuffer<E> {
+
+  private final int mask;
+  private final AtomicReferenceArray<E> elements;
+  private final AtomicLongArray sequences;
+  private final AtomicLong enqueuePosition = new AtomicLong();
+  private final AtomicLong dequeuePosition = new AtomicLong();
+
+  /**
+   * Creates a ring buffer.
+   *
+   * @param capacity the minimum number of elements the buffer can hold
+   * @throws IllegalArgumentException if the capacity is not positive or too large
+   */
+  public RingBuffer(int capacity) {
+    checkArgument(capacity > 0 && capacity <= 1 << 30, "invalid capacity: %s", capacity);
+
+    int size = Integer.highestOneBit(capacity);
+    if (size < capacity) size <<= 1;
+
+    this.mask = size - 1;
+    this.elements = new AtomicReferenceArray<>(size);
+    this.sequences = new AtomicLongArray(size);
+    for (int i = 0; i < size; i++) {
+      sequences.set(i, i);
+    }
+  }
+
+  /**
+   * Gets the number of elements the buffer can hold.
+   *
+   * @return the capacity
+   */
+  public int capacity() {
+    return mask + 1;
+  }
+
+  /**
+   * Gets the number of elements in the buffer. The value is only an estimate while other threads
+   * are adding or removing elements.
+   *
+   * @return the number of elements
+   */
+  public int size() {
+    long size = enqueuePosition.get() - dequeuePosition.get();
+    return (int) Math.max(0, Math.min(size, capacity()));
+  }
+
+  /**
+   * Returns whether the buffer is empty.
+   *
+   * @return {@code true} if the buffer has no elements
+   */
+  public boolean isEmpty() {
+    return size() == 0;
+  }
+
+  /**
+   * Adds an element to the buffer if it is not full.
+   *
+   * @param element the element to add
+   * @return {@code true} if the element was added, {@code false} if the buffer is full
+   */
+  public boolean offer(E element) {
+    checkNotNull(element);
+
+    long position = enqueuePosition.get();
+    while (true) {
+      int index = (int) position & mask;
+      long difference = sequences.get(index) - position;
+      if (difference == 0) {
+        if (enqueuePosition.compareAndSet(position, position + 1)) {
+          elements.lazySet(index, element);
+          // publishes the element to the consumer of the slot
+          sequences.set(index, position + 1);
+          return true;
+        }
+        position = enqueuePosition.get();
+      } else if (difference < 0) {
+        // the slot still holds the element of the previous lap
+        return false;
+      } else {
+        position = enqueuePosition.get();
+      }
+    }
+  }
+
+  /**
+   * Removes the oldest element of the buffer.
+   *
+   * @return the element, or {@code null} if the buffer is empty
+   */
+  @Nullable
+  public E poll() {
+    long position = dequeuePosition.get();
+    while (true) {
+      int index = (int) position & mask;
+      long difference = sequences.get(index) - (position + 1);
+      if (difference == 0) {
+        if (dequeuePosition.compareAndSet(position, position + 1)) {
+          E element = elements.get(index);
+          elements.lazySet(index, null);
+          // hands the slot over to the producer of the next lap
+          sequences.set(index, position + mask + 1);
+          return element;
+        }
+        position = dequeuePosition.get();
+      } else if (difference < 0) {
+        return null;
+      } else {
+        position = dequeuePosition.get();
+      }
+    }
+  }
+
+  /**
+   * Removes up to the specified number of the oldest elements into an array.
+   *
+   * @param target the array to fill from its first position
+   * @param maxElements the maximum number of elements to remove
+   * @return the number of elements removed
+   */
+  public int drainTo(E[] target, int maxElements) {
+    int limit = Math.min(target.length, maxElements);
+    int count = 0;
+    while (count < limit) {
+      E element = poll();
+      if (element == null) break;
+      target[count++] = element;
+    }
+    return count;
+  }
+}
@@ -28,17 +28,27 @@ import com.google.errorprone.annotations.ForOverride;
 import java.io.Serializable;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.Iterator;
+import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
 import java.util.function.BiPredicate;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 import javax.annotation.CheckForNull;
 import javax.annotation.Nonnull;
@@ -47,6 +57,25 @@ import javax.annotation.Nullable;
 /**
  * Utility methods pertaining to Collection instances.
  *
+ * <p>A Sequence made parallel by {@link #asParallel()} runs its terminal operations on the
+ * elements split by the {@link Spliterator} of its source, on the common {@link ForkJoinPool} or
+ * on the pool given to {@link #asParallel(ForkJoinPool)}. An {@link ArrayList}, a {@link
+ * io.github.drawmoon.saber.DataTable.DataColumn DataColumn} or a range split into halves of known
+ * size, other sources are split into batches read from their iterator.
+ *
+ * <p>Splitting the source, forking the tasks and merging their results has a fixed cost, which a
+ * parallel Sequence only wins back when the source is large or its stages are expensive per
+ * element, and a source split from its iterator needs more elements than one split into halves.
+ * The crossover has not been benchmarked on multi-core hardware yet, so {@link #asParallel()} is
+ * never applied implicitly: measure it with {@code SequenceBenchmark} ({@code ./gradlew jmh})
+ * before making a pipeline parallel.
+ *
+ * <p>The filters and mappings of a Sequence are not evaluated one after another: they are fused
+ * into a single loop over the source when the elements are read, which allocates no object per
+ * element. The index of {@link #filterIndexed(IndexedPredicate)} and {@link
+ * #mapIndexed(IndexedFunction)} is a primitive int. A parallel Sequence with such a stage only
+ * splits a source of known size, and does not split if a filter precedes the stage.
+ *
  * @author drash
  * @version 1.0
  * @since 2024
@@ -57,6 +86,7 @@ public final class Sequence<T> implements Enumerable<T>, Serializable {
 
   private final Iterable<T> itr;
   private final boolean parallel;
+  @Nullable private final transient ForkJoinPool pool;
 
   /**
    * Constructs.
@@ -74,8 +104,21 @@ public final class Sequence<T> implements Enumerable<T>, Serializable {
    * @param parallel whether to use parallel
    */
   private Sequence(@CheckForNull Iterable<T> itr, boolean parallel) {
+    this(itr, parallel, null);
+  }
+
+  /**
+   * Constructs.
+   *
+   * @param itr the iterator
+   * @param parallel whether to use parallel
+   * @param pool the pool of the parallel operations, null for the common pool
+   */
+  private Sequence(
+      @CheckForNull Iterable<T> itr, boolean parallel, @Nullable ForkJoinPool pool) {
     this.itr = checkNotNull(itr);
     this.parallel = parallel;
+    this.pool = pool;
   }
 
   /**
@@ -130,11 +173,13 @@ public final class Sequence<T> implements Enumerable<T>, Serializable {
    * @return the new sequence
    */
   public static <T> Sequence<T> it(Iterable<T> itr) {
+    // the stages added to a wrapped sequence are fused with its own
+    if (itr instanceof Sequence) return new Sequence<>(((Sequence<T>) itr).itr);
     return new Sequence<>(itr);
   }
 
   /**
-   * Returns a parallel Sequence.
+   * Returns a parallel Sequence, whose terminal operations run on the common {@link ForkJoinPool}.
    *
    * @return the new sequence
    */
@@ -142,6 +187,34 @@ public final class Sequence<T> implements Enumerable<T>, Serializable {
     return new Sequence<>(this.itr, true);
   }
 
+  /**
+   * Returns a parallel Sequence, whose terminal operations run on the specified pool.
+   *
+   * @param pool the pool to run the terminal operations on
+   * @return the new sequence
+   */
+  public Sequence<T> asParallel(ForkJoinPool pool) {
+    return new Sequence<>(this.itr, true, checkNotNull(pool));
+  }
+
+  /**
+   * Returns a sequential Sequence.
+   *
+   * @return the new sequence
+   */
+  public Sequence<T> asSequential() {
+    return new Sequence<>(this.itr, false);
+  }
+
+  /**
+   * Returns whether the terminal operations of the Sequence run in parallel.
+   *
+   * @return true if the Sequence is parallel
+   */
+  public boolean isParallel() {
+    return parallel;
+  }
+
   /**
    * Returns a {@link Sequence} containing only elements matching the given predicate.
    *
@@ -161,7 +234,8 @@ public final class Sequence<T> implements Enumerable<T>, Serializable {
    * @return the filtered Sequence
    */
   public Sequence<T> filter(Predicate<? super T> predicate) {
-    return this.filter((t, i) -> predicate.test(t));
+    checkNotNull(predicate);
+    return derive(pipeline().then(new FilteringStage<>((t, i) -> predicate.test(t), false)));
   }
 
   /**
@@ -181,9 +255,34 @@ public final class Sequence<T> implements Enumerable<T>, Serializable {
    * @param predicate a non-interfering, stateless predicate to apply to each element to determine
    *     if it should be included
    * @return the new Sequence
+   * @see #filterIndexed(IndexedPredicate)
    */
   public Sequence<T> filter(BiPredicate<? super T, Integer> predicate) {
-    return it(new FilteringTransform<>(this, predicate));
+    checkNotNull(predicate);
+    return filterIndexed(predicate::test);
+  }
+
+  /**
+   * Returns a {@link Sequence} containing only elements matching the given predicate of the
+   * element and of its index. Unlike {@link #filter(BiPredicate)} the index is not boxed.
+   *
+   * <p>Example usages:
+   *
+   * <pre>{@code
+   * List<String> list = Arrays.asList("apple", "banana", "pear");
+   * Sequence<String> seq = Sequence.it(list).filterIndexed((s, i) -> i % 2 == 0);
+   * }</pre>
+   *
+   * <p>Example output:
+   *
+   * <pre>{@code ["apple", "pear"]}</pre>
+   *
+   * @param predicate a non-interfering, stateless predicate to apply to each element and its index
+   *     to determine if it should be included
+   * @return the new Sequence
+   */
+  public Sequence<T> filterIndexed(IndexedPredicate<? super T> predicate) {
+    return derive(pipeline().then(new FilteringStage<>(checkNotNull(predicate), true)));
   }
 
   /**
@@ -273,7 +372,31 @@ public final class Sequence<T> implements Enumerable<T>, Serializable {
    * @return the new Sequence
    */
   public <R> Sequence<R> map(Function<? super T, ? extends R> mapper) {
-    return it(new MappingTransform<>(this, mapper));
+    checkNotNull(mapper);
+    return derive(pipeline().then(new MappingStage<T, R>((t, i) -> mapper.apply(t), false)));
+  }
+
+  /**
+   * Returns a Sequence containing the results of applying the given mapper function to each element
+   * in the original Sequence and to its index.
+   *
+   * <p>Example usages:
+   *
+   * <pre>{@code
+   * List<String> list = Arrays.asList("apple", "banana");
+   * Sequence<String> seq = Sequence.it(list).mapIndexed((s, i) -> i + ":" + s);
+   * }</pre>
+   *
+   * <p>Example output:
+   *
+   * <pre>{@code ["0:apple", "1:banana"]}</pre>
+   *
+   * @param <R> the type of the elements in the resulting Sequence
+   * @param mapper the function to apply to each element and its index
+   * @return the new Sequence
+   */
+  public <R> Sequence<R> mapIndexed(IndexedFunction<? super T, ? extends R> mapper) {
+    return derive(pipeline().then(new MappingStage<T, R>(checkNotNull(mapper), true)));
   }
 
   /**
@@ -422,9 +545,10 @@ public final class Sequence<T> implements Enumerable<T>, Serializable {
    * @throws NullPointerException if Sequence is empty or the selected element is null
    */
   public T first() {
-    if (!this.hasNext()) throw new NullPointerException("Sequence is empty");
+    Iterator<T> itr = this.iterator();
+    if (!itr.hasNext()) throw new NullPointerException("Sequence is empty");
 
-    T t = this.iterator().next();
+    T t = itr.next();
     if (t == null) throw new NullPointerException("Sequence is empty");
 
     return t;
@@ -448,9 +572,9 @@ public final class Sequence<T> implements Enumerable<T>, Serializable {
    * @throws NullPointerException if Sequence is empty or the all element is null
    */
   public T firstNotNull() {
-    if (!this.hasNext()) throw new NullPointerException("Sequence is empty");
-
     Iterator<T> itr = this.iterator();
+    if (!itr.hasNext()) throw new NullPointerException("Sequence is empty");
+
     while (itr.hasNext()) {
       T t = itr.next();
       if (t != null) return t;
@@ -477,7 +601,8 @@ public final class Sequence<T> implements Enumerable<T>, Serializable {
    */
   @CheckForNull
   public T firstOrNull() {
-    return this.hasNext() ? this.iterator().next() : null;
+    Iterator<T> itr = this.iterator();
+    return itr.hasNext() ? itr.next() : null;
   }
 
   /**
@@ -706,8 +831,9 @@ public final class Sequence<T> implements Enumerable<T>, Serializable {
    *
    * @return the new Sequence
    */
+  @SuppressWarnings("unchecked")
   public Sequence<T> sorted() {
-    throw new UnsupportedOperationException();
+    return sorted((Comparator<? super T>) Comparator.naturalOrder());
   }
 
   /**
@@ -733,7 +859,7 @@ public final class Sequence<T> implements Enumerable<T>, Serializable {
    * @return the new Sequence
    */
   public Sequence<T> sorted(Comparator<? super T> comparator) {
-    throw new UnsupportedOperationException();
+    return derive(new SortingTransform<>(this, checkNotNull(comparator)));
   }
 
   /**
@@ -752,8 +878,9 @@ public final class Sequence<T> implements Enumerable<T>, Serializable {
    *
    * @return the new Sequence
    */
+  @SuppressWarnings("unchecked")
   public Sequence<T> sortedDescending() {
-    throw new UnsupportedOperationException();
+    return sorted((Comparator<? super T>) Comparator.reverseOrder());
   }
 
   /**
@@ -779,7 +906,7 @@ public final class Sequence<T> implements Enumerable<T>, Serializable {
    * @return the new Sequence
    */
   public Sequence<T> sortedDescending(Comparator<? super T> comparator) {
-    throw new UnsupportedOperationException();
+    return sorted(checkNotNull(comparator).reversed());
   }
 
   /**
@@ -801,10 +928,10 @@ public final class Sequence<T> implements Enumerable<T>, Serializable {
    * @return true, or false
    */
   public boolean all(Predicate<T> predicate) {
-    for (T t : this) {
-      if (!predicate.test(t)) return false;
-    }
-    return true;
+    if (parallel) return evaluate(s -> s.allMatch(predicate));
+
+    checkNotNull(predicate);
+    return drain(predicate::test);
   }
 
   /**
@@ -826,10 +953,10 @@ public final class Sequence<T> implements Enumerable<T>, Serializable {
    * @return true, or false
    */
   public boolean any(Predicate<T> predicate) {
-    for (T t : this) {
-      if (predicate.test(t)) return true;
-    }
-    return false;
+    if (parallel) return evaluate(s -> s.anyMatch(predicate));
+
+    checkNotNull(predicate);
+    return !drain(t -> !predicate.test(t));
   }
 
   /**
@@ -851,7 +978,8 @@ public final class Sequence<T> implements Enumerable<T>, Serializable {
    * @return the count of elements that match the predicate
    */
   public int count(Predicate<T> predicate) {
-    throw new UnsupportedOperationException();
+    checkNotNull(predicate);
+    return Math.toIntExact(evaluate(s -> s.filter(predicate).count()));
   }
 
   /**
@@ -872,7 +1000,7 @@ public final class Sequence<T> implements Enumerable<T>, Serializable {
    * @return true, or false
    */
   public boolean contains(T value) {
-    throw new UnsupportedOperationException();
+    return evaluate(s -> s.anyMatch(t -> Objects.equals(t, value)));
   }
 
   /**
@@ -895,7 +1023,7 @@ public final class Sequence<T> implements Enumerable<T>, Serializable {
    *     size())}
    */
   public T elementAt(long index) {
-    return filter((t, i) -> i == index).firstOrNull();
+    return filterIndexed((t, i) -> i == index).firstOrNull();
   }
 
   /**
@@ -986,7 +1114,8 @@ public final class Sequence<T> implements Enumerable<T>, Serializable {
    * @return the result
    */
   public Optional<T> reduce(BiFunction<? super T, ? super T, ? extends T> function) {
-    throw new UnsupportedOperationException();
+    checkNotNull(function);
+    return evaluate(s -> s.reduce((a, b) -> function.apply(a, b)));
   }
 
   /**
@@ -1217,7 +1346,7 @@ public final class Sequence<T> implements Enumerable<T>, Serializable {
    * @return the number
    */
   public long size() {
-    return StreamSupport.stream(itr.spliterator(), this.parallel).count();
+    return evaluate(Stream::count);
   }
 
   /**
@@ -1228,8 +1357,10 @@ public final class Sequence<T> implements Enumerable<T>, Serializable {
   @Override
   @Nonnull
   public ArrayList<T> toList() {
+    if (parallel) return evaluate(s -> s.collect(Collectors.toCollection(ArrayList::new)));
+
     ArrayList<T> arrayList = new ArrayList<>();
-    for (T e : this) arrayList.add(e);
+    drain(arrayList::add);
     return arrayList;
   }
 
@@ -1239,8 +1370,10 @@ public final class Sequence<T> implements Enumerable<T>, Serializable {
    * @return the new list
    */
   public ArrayDeque<T> toDequeList() {
+    if (parallel) return evaluate(s -> s.collect(Collectors.toCollection(ArrayDeque::new)));
+
     ArrayDeque<T> arrayDeque = new ArrayDeque<>();
-    for (T e : this) arrayDeque.add(e);
+    drain(arrayDeque::add);
     return arrayDeque;
   }
 
@@ -1256,8 +1389,45 @@ public final class Sequence<T> implements Enumerable<T>, Serializable {
     return itr.iterator();
   }
 
-  private boolean hasNext() {
-    return this.iterator().hasNext();
+  @Override
+  public Spliterator<T> spliterator() {
+    return itr.spliterator();
+  }
+
+  private <R> Sequence<R> derive(Iterable<R> transform) {
+    return new Sequence<>(transform, parallel, pool);
+  }
+
+  /** Returns the pipeline of the filters and mappings of the Sequence, to add a stage to. */
+  @SuppressWarnings("unchecked")
+  private Pipeline<?, T> pipeline() {
+    if (itr instanceof Pipeline) return (Pipeline<?, T>) itr;
+    return new Pipeline<>(itr);
+  }
+
+  /**
+   * Pushes the elements into the sink in one loop, through the stages of the pipeline of the
+   * Sequence.
+   *
+   * @return true if every element was pushed, false if the sink stopped the loop
+   */
+  private boolean drain(Sink<? super T> sink) {
+    if (itr instanceof Pipeline) return ((Pipeline<?, T>) itr).drain(sink);
+    return Pipeline.push(itr, sink);
+  }
+
+  /**
+   * Runs a terminal operation on a stream of the elements, in the pool of the Sequence if it is
+   * parallel.
+   */
+  private <R> R evaluate(Function<? super Stream<T>, ? extends R> operation) {
+    Stream<T> stream = StreamSupport.stream(spliterator(), parallel);
+    ForkJoinPool pool = this.pool;
+    if (!parallel || pool == null || ForkJoinTask.getPool() == pool) {
+      return operation.apply(stream);
+    }
+    // the tasks of a parallel stream are forked in the pool of the thread running it
+    return pool.submit(() -> operation.apply(stream)).join();
   }
 
   public static final class Grouping<K, V> implements Enumerable<V> {
@@ -1338,31 +1508,36 @@ public final class Sequence<T> implements Enumerable<T>, Serializable {
 
   static final class RangeIntTransform implements Iterable<Integer> {
 
-    private int from;
+    private final int from;
     private final int upTo;
 
     public RangeIntTransform(int from, int upTo) {
-      this.from = from - 1;
+      this.from = from;
       this.upTo = upTo;
     }
 
     public int estimateSize() {
-      return upTo - from + 1;
+      return Math.max(0, upTo - from + 1);
     }
 
     @Nonnull
     @Override
     public Iterator<Integer> iterator() {
       return new AbstractIterator<Integer>() {
+        private int next = from;
+
         @Override
-        protected Integer computeNext() {
-          int size = estimateSize();
-          if (size <= 1 || from == upTo) return endOfData();
-          from++;
-          return from;
+        protected @Nullable Integer computeNext() {
+          if (next > upTo || next < from) return endOfData();
+          return next++;
         }
       };
     }
+
+    @Override
+    public Spliterator<Integer> spliterator() {
+      return IntStream.rangeClosed(from, upTo).spliterator();
+    }
   }
 
   abstract static class SequenceTransform<T, R> implements Iterable<R> {
@@ -1388,63 +1563,359 @@ public final class Sequence<T> implements Enumerable<T>, Serializable {
       return cache.iterator();
     }
 
+    @Override
+    public Spliterator<R> spliterator() {
+      iterator();
+      return cache.spliterator();
+    }
+
     @ForOverride
     protected abstract Iterator<R> tryTransform();
   }
 
-  static final class FilteringTransform<T> extends SequenceTransform<T, T> {
+  static final class SortingTransform<T> extends SequenceTransform<T, T> {
 
-    private final BiPredicate<? super T, Integer> predicate;
+    private final Sequence<T> sequence;
+    private final Comparator<? super T> comparator;
 
-    public FilteringTransform(Iterable<T> itr, BiPredicate<? super T, Integer> predicate) {
-      super(itr);
-      this.predicate = predicate;
+    public SortingTransform(Sequence<T> sequence, Comparator<? super T> comparator) {
+      super(sequence);
+      this.sequence = sequence;
+      this.comparator = comparator;
     }
 
-    @SuppressWarnings({"unchecked", "rawtypes"})
     @Override
     protected Iterator<T> tryTransform() {
-      Iterator<T> in = itr.iterator();
+      // sorted by the stream, in parallel if the sequence is parallel
+      return sequence
+          .evaluate(s -> s.sorted(comparator).collect(Collectors.toCollection(ArrayList::new)))
+          .iterator();
+    }
+  }
+
+  /**
+   * A predicate of an element and of its index.
+   *
+   * @param <T> the type of the elements
+   */
+  @FunctionalInterface
+  public interface IndexedPredicate<T> {
+
+    /**
+     * Evaluates the predicate.
+     *
+     * @param t the element
+     * @param index the index of the element
+     * @return true if the element matches the predicate
+     */
+    boolean test(T t, int index);
+  }
+
+  /**
+   * A function of an element and of its index.
+   *
+   * @param <T> the type of the elements
+   * @param <R> the type of the result
+   */
+  @FunctionalInterface
+  public interface IndexedFunction<T, R> {
+
+    /**
+     * Applies the function.
+     *
+     * @param t the element
+     * @param index the index of the element
+     * @return the result
+     */
+    R apply(T t, int index);
+  }
+
+  /** A receiver of the elements pushed through a pipeline. */
+  @FunctionalInterface
+  interface Sink<T> {
 
-      return new AbstractIterator() {
+    /**
+     * Receives an element.
+     *
+     * @param t the element
+     * @return true to receive the next element, false to stop the loop
+     */
+    boolean push(T t);
+  }
+
+  /**
+   * The filters and mappings of a source. The stages are only fused when the elements are read,
+   * into one chain of sinks through which a single loop pushes the elements of the source, so no
+   * object is allocated per element and the index of each stage is a primitive counter.
+   */
+  static final class Pipeline<S, T> implements Iterable<T> {
+
+    private final Iterable<S> source;
+    private final Stage<?, ?>[] stages;
+    // whether a stage tests the index of the elements
+    private final boolean indexed;
+    // whether the index of every stage that tests it is the position of the element in the source
+    private final boolean positional;
+    // whether every element of the source reaches the end of the pipeline
+    private final boolean sized;
+
+    Pipeline(Iterable<S> source) {
+      this(source, new Stage<?, ?>[0], false, true, true);
+    }
+
+    private Pipeline(
+        Iterable<S> source,
+        Stage<?, ?>[] stages,
+        boolean indexed,
+        boolean positional,
+        boolean sized) {
+      this.source = source;
+      this.stages = stages;
+      this.indexed = indexed;
+      this.positional = positional;
+      this.sized = sized;
+    }
+
+    <R> Pipeline<S, R> then(Stage<T, R> stage) {
+      Stage<?, ?>[] next = Arrays.copyOf(stages, stages.length + 1);
+      next[stages.length] = stage;
+      return new Pipeline<>(
+          source,
+          next,
+          indexed || stage.indexed,
+          positional && (!stage.indexed || sized),
+          sized && !(stage instanceof FilteringStage));
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    Sink<S> wrap(Sink<? super T> sink, int index) {
+      Sink chain = sink;
+      for (int i = stages.length - 1; i >= 0; i--) chain = stages[i].wrap(chain, index);
+      return chain;
+    }
+
+    boolean drain(Sink<? super T> sink) {
+      return push(source, wrap(sink, 0));
+    }
+
+    static <S> boolean push(Iterable<S> source, Sink<? super S> sink) {
+      if (source instanceof List && source instanceof RandomAccess) {
+        List<S> list = (List<S>) source;
+        for (int i = 0, size = list.size(); i < size; i++) {
+          if (!sink.push(list.get(i))) return false;
+        }
+        return true;
+      }
+      for (S s : source) {
+        if (!sink.push(s)) return false;
+      }
+      return true;
+    }
+
+    @Nonnull
+    @Override
+    public Iterator<T> iterator() {
+      Iterator<S> in = source.iterator();
+      Slot<T> slot = new Slot<>();
+      Sink<S> head = wrap(slot, 0);
+
+      return new AbstractIterator<T>() {
         @Override
-        protected @Nullable Object computeNext() {
-          for (int i = 0; in.hasNext(); ++i) {
-            T current = in.next();
-            if (predicate.test(current, i)) {
-              return current;
-            }
+        protected @Nullable T computeNext() {
+          while (in.hasNext()) {
+            head.push(in.next());
+            if (slot.full) return slot.take();
           }
           return endOfData();
         }
       };
     }
+
+    @Override
+    public Spliterator<T> spliterator() {
+      return new PipelineSpliterator<>(this, source.spliterator(), 0);
+    }
   }
 
-  static final class MappingTransform<T, R> extends SequenceTransform<T, R> {
+  /** A sink holding the last element pushed, to pull the elements of a pipeline one by one. */
+  static final class Slot<T> implements Sink<T> {
 
-    private final Function<? super T, ? extends R> mapper;
+    @Nullable private T value;
+    private boolean full;
 
-    public MappingTransform(Iterable<T> itr, Function<? super T, ? extends R> mapper) {
-      super(itr);
+    @Override
+    public boolean push(T t) {
+      this.value = t;
+      this.full = true;
+      return true;
+    }
+
+    @Nullable
+    T take() {
+      T t = value;
+      value = null;
+      full = false;
+      return t;
+    }
+  }
+
+  /** A filter or a mapping of a pipeline. */
+  abstract static class Stage<T, R> {
+
+    final boolean indexed;
+
+    Stage(boolean indexed) {
+      this.indexed = indexed;
+    }
+
+    /**
+     * Creates the sink of the stage for one pass over the elements.
+     *
+     * @param downstream the sink of the next stage
+     * @param index the index of the first element of the pass
+     * @return the sink
+     */
+    abstract Sink<T> wrap(Sink<? super R> downstream, int index);
+  }
+
+  static final class FilteringStage<T> extends Stage<T, T> {
+
+    private final IndexedPredicate<? super T> predicate;
+
+    FilteringStage(IndexedPredicate<? super T> predicate, boolean indexed) {
+      super(indexed);
+      this.predicate = predicate;
+    }
+
+    @Override
+    Sink<T> wrap(Sink<? super T> downstream, int index) {
+      return new Sink<T>() {
+        private int i = index;
+
+        @Override
+        public boolean push(T t) {
+          return !predicate.test(t, i++) || downstream.push(t);
+        }
+      };
+    }
+  }
+
+  static final class MappingStage<T, R> extends Stage<T, R> {
+
+    private final IndexedFunction<? super T, ? extends R> mapper;
+
+    MappingStage(IndexedFunction<? super T, ? extends R> mapper, boolean indexed) {
+      super(indexed);
       this.mapper = mapper;
     }
 
-    @SuppressWarnings({"unchecked", "rawtypes"})
     @Override
-    protected Iterator<R> tryTransform() {
-      Iterator<T> in = itr.iterator();
+    Sink<T> wrap(Sink<? super R> downstream, int index) {
+      return new Sink<T>() {
+        private int i = index;
 
-      return new AbstractIterator() {
         @Override
-        protected @Nullable Object computeNext() {
-          while (in.hasNext()) {
-            T next = in.next();
-            return mapper.apply(next);
-          }
-          return endOfData();
+        public boolean push(T t) {
+          return downstream.push(mapper.apply(t, i++));
         }
       };
     }
   }
+
+  /**
+   * A spliterator of the elements of a pipeline, which splits with the spliterator of its source.
+   * The index of the elements is only known after a split if the source knows the size of its
+   * splits and no filter precedes a stage that tests the index, other pipelines that test the index
+   * do not split.
+   */
+  static final class PipelineSpliterator<S, T> implements Spliterator<T>, Sink<T> {
+
+    private final Pipeline<S, T> pipeline;
+    private final Spliterator<S> source;
+    private int index;
+    @Nullable private Consumer<S> head;
+    @Nullable private Consumer<? super T> action;
+    @Nullable private T current;
+    private boolean full;
+
+    PipelineSpliterator(Pipeline<S, T> pipeline, Spliterator<S> source, int index) {
+      this.pipeline = pipeline;
+      this.source = source;
+      this.index = index;
+    }
+
+    @Override
+    public boolean push(T t) {
+      Consumer<? super T> action = this.action;
+      if (action != null) {
+        action.accept(t);
+      } else {
+        current = t;
+        full = true;
+      }
+      return true;
+    }
+
+    private Consumer<S> head() {
+      Consumer<S> head = this.head;
+      if (head == null) {
+        Sink<S> sink = pipeline.wrap(this, index);
+        head = sink::push;
+        this.head = head;
+      }
+      return head;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+      Consumer<S> head = head();
+      while (source.tryAdvance(head)) {
+        if (full) {
+          T t = current;
+          current = null;
+          full = false;
+          action.accept(t);
+          return true;
+        }
+      }
+      return false;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super T> action) {
+      Consumer<S> head = head();
+      this.action = action;
+      try {
+        source.forEachRemaining(head);
+      } finally {
+        this.action = null;
+      }
+    }
+
+    @Override
+    @Nullable
+    public Spliterator<T> trySplit() {
+      if (pipeline.indexed
+          && (head != null || !pipeline.positional || !source.hasCharacteristics(SUBSIZED)))
+        return null;
+
+      Spliterator<S> prefix = source.trySplit();
+      if (prefix == null) return null;
+
+      Spliterator<T> split = new PipelineSpliterator<>(pipeline, prefix, index);
+      if (pipeline.indexed) index += (int) prefix.getExactSizeIfKnown();
+      return split;
+    }
+
+    @Override
+    public long estimateSize() {
+      return source.estimateSize();
+    }
+
+    @Override
+    public int characteristics() {
+      int characteristics = ORDERED | (pipeline.sized ? SIZED | SUBSIZED : 0);
+      return source.characteristics() & characteristics;
+    }
+  }
 }
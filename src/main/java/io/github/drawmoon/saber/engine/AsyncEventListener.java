@@ -0,0 +1,491 @@
+/*
+ *            _
+ *  ___  __ _| |__   ___ _ __
+ * / __|/ _` | '_ \ / _ \ '__|
+ * \__ \ (_| | |_) |  __/ |
+ * |___/\__,_|_.__/ \___|_|
+ *
+ * Copyright 2024 drash
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.drawmoon.saber.engine;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static io.github.drawmoon.saber.common.Preconditions.checkNotNull;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.github.drawmoon.saber.common.RingBuffer;
+import java.sql.SQLException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * A listener that delivers the events to another listener on a dedicated thread, so that a slow
+ * listener such as an audit logger does not add latency to the queries. The events are put into a
+ * bounded lock-free {@link RingBuffer}, which the consumer thread drains in batches, and the {@link
+ * OverflowPolicy} decides what happens to the events published while the buffer is full.
+ *
+ * <p>The events carry the same objects as the synchronous callbacks, which may have changed or been
+ * closed by the time the listener receives them, so an asynchronous listener should only read
+ * immutable state such as the elapsed times and the exceptions. Listeners that need to intercept a
+ * call must be registered directly on the {@link EventBus}, which dispatches synchronously.
+ *
+ * @author drash
+ * @version 1.0
+ * @since 2024
+ */
+public class AsyncEventListener implements SaberEventListener, AutoCloseable {
+
+  /** What to do with an event published while the buffer is full. */
+  public enum OverflowPolicy {
+    /** Discards the event. */
+    DROP,
+    /** Waits on the publishing thread until the consumer has made room for the event. */
+    BLOCK,
+    /**
+     * Keeps one event out of {@link #SAMPLE_RATE} once the buffer is half full, and discards the
+     * event when it is full, so that a backlog thins out the events instead of cutting them off.
+     */
+    SAMPLE
+  }
+
+  /** The number of events out of which one is kept by {@link OverflowPolicy#SAMPLE}. */
+  public static final int SAMPLE_RATE = 8;
+
+  private static final int DEFAULT_CAPACITY = 8192;
+  private static final int MAX_BATCH_SIZE = 256;
+  private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+  private static final long BLOCK_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+  private static final ThreadFactory THREAD_FACTORY =
+      new ThreadFactoryBuilder().setNameFormat("saber-event-%d").setDaemon(true).build();
+
+  private final SaberEventListener listener;
+  private final OverflowPolicy overflowPolicy;
+  private final RingBuffer<Consumer<SaberEventListener>> buffer;
+  private final Thread consumer;
+  private final LongAdder publishedEvents = new LongAdder();
+  private final LongAdder droppedEvents = new LongAdder();
+  private final LongAdder failedEvents = new LongAdder();
+  private final AtomicLong sampleCounter = new AtomicLong();
+
+  private volatile boolean consumerParked;
+  private volatile boolean closed;
+
+  /**
+   * Creates an asynchronous listener with a buffer of 8192 events that drops the events on
+   * overflow.
+   *
+   * @param listener the listener to deliver the events to
+   */
+  public AsyncEventListener(SaberEventListener listener) {
+    this(listener, DEFAULT_CAPACITY, OverflowPolicy.DROP);
+  }
+
+  /**
+   * Creates an asynchronous listener and starts its consumer thread.
+   *
+   * @param listener the listener to deliver the events to
+   * @param capacity the number of events the buffer can hold, rounded up to a power of two
+   * @param overflowPolicy what to do with an event published while the buffer is full
+   */
+  public AsyncEventListener(
+      SaberEventListener listener, int capacity, OverflowPolicy overflowPolicy) {
+    checkArgument(capacity > 1, "capacity must be greater than 1");
+    this.listener = checkNotNull(listener);
+    this.overflowPolicy = checkNotNull(overflowPolicy);
+    this.buffer = new RingBuffer<>(capacity);
+    this.consumer = THREAD_FACTORY.newThread(this::consume);
+    this.consumer.start();
+  }
+
+  public OverflowPolicy getOverflowPolicy() {
+    return overflowPolicy;
+  }
+
+  /**
+   * Gets the number of events accepted into the buffer.
+   *
+   * @return the number of published events
+   */
+  public long getPublishedEvents() {
+    return publishedEvents.sum();
+  }
+
+  /**
+   * Gets the number of events discarded because the buffer was full, or sampled out, or because
+   * the listener was closed.
+   *
+   * @return the number of dropped events
+   */
+  public long getDroppedEvents() {
+    return droppedEvents.sum();
+  }
+
+  /**
+   * Gets the number of events for which the listener threw an exception.
+   *
+   * @return the number of failed events
+   */
+  public long getFailedEvents() {
+    return failedEvents.sum();
+  }
+
+  /**
+   * Gets the number of events waiting in the buffer.
+   *
+   * @return the number of pending events
+   */
+  public int getPendingEvents() {
+    return buffer.size();
+  }
+
+  @Override
+  public boolean isSubscribed(EventCategory category) {
+    return listener.isSubscribed(category);
+  }
+
+  private void publish(EventCategory category, Consumer<SaberEventListener> event) {
+    if (!listener.isSubscribed(category)) return;
+    if (closed) {
+      droppedEvents.increment();
+      return;
+    }
+
+    boolean published;
+    switch (overflowPolicy) {
+      case BLOCK:
+        published = offerBlocking(event);
+        break;
+      case SAMPLE:
+        published =
+            (buffer.size() < buffer.capacity() / 2
+                    || sampleCounter.getAndIncrement() % SAMPLE_RATE == 0)
+                && buffer.offer(event);
+        break;
+      default:
+        published = buffer.offer(event);
+        break;
+    }
+
+    if (!published) {
+      droppedEvents.increment();
+      return;
+    }
+    publishedEvents.increment();
+    if (consumerParked) LockSupport.unpark(consumer);
+  }
+
+  private boolean offerBlocking(Consumer<SaberEventListener> event) {
+    while (!buffer.offer(event)) {
+      if (closed) return false;
+
+      LockSupport.unpark(consumer);
+      LockSupport.parkNanos(this, BLOCK_PARK_NANOS);
+    }
+    return true;
+  }
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private void consume() {
+    Consumer<SaberEventListener>[] batch = new Consumer[MAX_BATCH_SIZE];
+    while (true) {
+      int count = buffer.drainTo(batch, MAX_BATCH_SIZE);
+      if (count == 0) {
+        if (closed) return;
+
+        consumerParked = true;
+        // an event published before the flag was visible is picked up when the park times out
+        if (buffer.isEmpty()) LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+        consumerParked = false;
+        continue;
+      }
+
+      for (int i = 0; i < count; i++) {
+        try {
+          batch[i].accept(listener);
+        } catch (RuntimeException e) {
+          // a failing listener must not stop the delivery of the other events
+          failedEvents.increment();
+        }
+        batch[i] = null;
+      }
+    }
+  }
+
+  /**
+   * Stops accepting events and waits for the consumer thread to deliver the events already in the
+   * buffer. If the calling thread is interrupted while waiting, its interrupt status is restored
+   * and the consumer thread delivers the remaining events on its own.
+   */
+  @Override
+  public void close() {
+    if (closed) return;
+    closed = true;
+
+    LockSupport.unpark(consumer);
+    try {
+      consumer.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return;
+    }
+
+    // published while the consumer was stopping
+    while (buffer.poll() != null) {
+      droppedEvents.increment();
+    }
+  }
+
+  @Override
+  public void onBeforeGetDataSource(
+      DataSourceManager store, SaberOptions options, RequestContext context) {
+    publish(
+        EventCategory.QUERY,
+        listener -> listener.onBeforeGetDataSource(store, options, context));
+  }
+
+  @Override
+  public void onAfterGetDataSource(
+      DataSourceManager store,
+      SaberOptions options,
+      RequestContext context,
+      SaberDataSource dataSource,
+      long elapsedMillis,
+      Exception e) {
+    publish(
+        EventCategory.QUERY,
+        listener ->
+            listener.onAfterGetDataSource(store, options, context, dataSource, elapsedMillis, e));
+  }
+
+  @Override
+  public void onBeforeQuery(RequestManager queryMgr, Request request) {
+    publish(EventCategory.QUERY, listener -> listener.onBeforeQuery(queryMgr, request));
+  }
+
+  @Override
+  public void onAfterQuery(
+      RequestManager queryMgr,
+      RequestContext context,
+      Response response,
+      long elapsedMillis,
+      SQLException e) {
+    publish(
+        EventCategory.QUERY,
+        listener -> listener.onAfterQuery(queryMgr, context, response, elapsedMillis, e));
+  }
+
+  @Override
+  public void onAfterQuery(
+      RequestManager queryMgr, JdbcRecordCursor cursor, long elapsedMillis, SQLException e) {
+    publish(
+        EventCategory.QUERY,
+        listener -> listener.onAfterQuery(queryMgr, cursor, elapsedMillis, e));
+  }
+
+  @Override
+  public void onResultCacheHit(RequestManager queryMgr, Request request, long elapsedMillis) {
+    publish(
+        EventCategory.QUERY,
+        listener -> listener.onResultCacheHit(queryMgr, request, elapsedMillis));
+  }
+
+  @Override
+  public void onResultCacheMiss(RequestManager queryMgr, Request request, long elapsedMillis) {
+    publish(
+        EventCategory.QUERY,
+        listener -> listener.onResultCacheMiss(queryMgr, request, elapsedMillis));
+  }
+
+  @Override
+  public void onAfterRecordCursorClose(
+      JdbcRecordCursor cursor, long elapsedMillis, SQLException e) {
+    publish(
+        EventCategory.QUERY,
+        listener -> listener.onAfterRecordCursorClose(cursor, elapsedMillis, e));
+  }
+
+  @Override
+  public void onBeforeGetConnection(SaberWrapper dataSource) {
+    publish(EventCategory.CONNECTION, listener -> listener.onBeforeGetConnection(dataSource));
+  }
+
+  @Override
+  public void onBeforeGetConnection(SaberWrapper dataSource, RequestContext context) {
+    publish(
+        EventCategory.CONNECTION,
+        listener -> listener.onBeforeGetConnection(dataSource, context));
+  }
+
+  @Override
+  public void onAfterGetConnection(SaberWrapper connection, long elapsedMillis, SQLException e) {
+    publish(
+        EventCategory.CONNECTION,
+        listener -> listener.onAfterGetConnection(connection, elapsedMillis, e));
+  }
+
+  @Override
+  public void onAfterConnectionClose(SaberWrapper connection, long elapsedMillis, SQLException e) {
+    publish(
+        EventCategory.CONNECTION,
+        listener -> listener.onAfterConnectionClose(connection, elapsedMillis, e));
+  }
+
+  @Override
+  public void onBeforeExecute(SaberWrapper statement) {
+    publish(EventCategory.STATEMENT, listener -> listener.onBeforeExecute(statement));
+  }
+
+  @Override
+  public void onAfterExecute(SaberWrapper statement, long elapsedMillis, SQLException e) {
+    publish(
+        EventCategory.STATEMENT,
+        listener -> listener.onAfterExecute(statement, elapsedMillis, e));
+  }
+
+  @Override
+  public void onBeforeExecute(SaberWrapper statement, String sql) {
+    publish(EventCategory.STATEMENT, listener -> listener.onBeforeExecute(statement, sql));
+  }
+
+  @Override
+  public void onAfterExecute(
+      SaberWrapper statement, String sql, long elapsedMillis, SQLException e) {
+    publish(
+        EventCategory.STATEMENT,
+        listener -> listener.onAfterExecute(statement, sql, elapsedMillis, e));
+  }
+
+  @Override
+  public void onBeforeExecuteBatch(SaberWrapper statement) {
+    publish(EventCategory.STATEMENT, listener -> listener.onBeforeExecuteBatch(statement));
+  }
+
+  @Override
+  public void onAfterExecuteBatch(
+      SaberWrapper statement, int[] rowCounts, long elapsedMillis, SQLException e) {
+    publish(
+        EventCategory.STATEMENT,
+        listener -> listener.onAfterExecuteBatch(statement, rowCounts, elapsedMillis, e));
+  }
+
+  @Override
+  public void onBeforeExecuteQuery(SaberWrapper statement) {
+    publish(EventCategory.STATEMENT, listener -> listener.onBeforeExecuteQuery(statement));
+  }
+
+  @Override
+  public void onAfterExecuteQuery(SaberWrapper statement, long elapsedMillis, SQLException e) {
+    publish(
+        EventCategory.STATEMENT,
+        listener -> listener.onAfterExecuteQuery(statement, elapsedMillis, e));
+  }
+
+  @Override
+  public void onBeforeExecuteQuery(SaberWrapper statement, String sql) {
+    publish(EventCategory.STATEMENT, listener -> listener.onBeforeExecuteQuery(statement, sql));
+  }
+
+  @Override
+  public void onAfterExecuteQuery(
+      SaberWrapper statement, String sql, long elapsedMillis, SQLException e) {
+    publish(
+        EventCategory.STATEMENT,
+        listener -> listener.onAfterExecuteQuery(statement, sql, elapsedMillis, e));
+  }
+
+  @Override
+  public void onBeforeExecuteUpdate(SaberWrapper statement) {
+    publish(EventCategory.STATEMENT, listener -> listener.onBeforeExecuteUpdate(statement));
+  }
+
+  @Override
+  public void onAfterExecuteUpdate(
+      SaberWrapper statement, int rowCount, long elapsedMillis, SQLException e) {
+    publish(
+        EventCategory.STATEMENT,
+        listener -> listener.onAfterExecuteUpdate(statement, rowCount, elapsedMillis, e));
+  }
+
+  @Override
+  public void onBeforeExecuteUpdate(SaberWrapper statement, String sql) {
+    publish(EventCategory.STATEMENT, listener -> listener.onBeforeExecuteUpdate(statement, sql));
+  }
+
+  @Override
+  public void onAfterExecuteUpdate(
+      SaberWrapper statement, String sql, int rowCount, long elapsedMillis, SQLException e) {
+    publish(
+        EventCategory.STATEMENT,
+        listener -> listener.onAfterExecuteUpdate(statement, sql, rowCount, elapsedMillis, e));
+  }
+
+  @Override
+  public void onAfterGetResultSet(SaberWrapper statement, long elapsedMillis, SQLException e) {
+    publish(
+        EventCategory.STATEMENT,
+        listener -> listener.onAfterGetResultSet(statement, elapsedMillis, e));
+  }
+
+  @Override
+  public void onAfterStatementClose(SaberWrapper statement, long elapsedMillis, SQLException e) {
+    publish(
+        EventCategory.STATEMENT,
+        listener -> listener.onAfterStatementClose(statement, elapsedMillis, e));
+  }
+
+  @Override
+  public void onBeforeResultSetNext(SaberWrapper resultSet) {
+    publish(EventCategory.RESULT_SET_ROW, listener -> listener.onBeforeResultSetNext(resultSet));
+  }
+
+  @Override
+  public void onAfterResultSetNext(
+      SaberWrapper resultSet, boolean hasNext, long elapsedMillis, SQLException e) {
+    publish(
+        EventCategory.RESULT_SET_ROW,
+        listener -> listener.onAfterResultSetNext(resultSet, hasNext, elapsedMillis, e));
+  }
+
+  @Override
+  public void onAfterResultSetGet(
+      SaberWrapper resultSet,
+      String columnLabel,
+      Object value,
+      long elapsedMillis,
+      SQLException e) {
+    publish(
+        EventCategory.RESULT_SET_CELL,
+        listener -> listener.onAfterResultSetGet(resultSet, columnLabel, value, elapsedMillis, e));
+  }
+
+  @Override
+  public void onAfterResultSetGet(
+      SaberWrapper resultSet, int columnIndex, Object value, long elapsedMillis, SQLException e) {
+    publish(
+        EventCategory.RESULT_SET_CELL,
+        listener -> listener.onAfterResultSetGet(resultSet, columnIndex, value, elapsedMillis, e));
+  }
+
+  @Override
+  public void onAfterResultSetClose(SaberWrapper resultSet, long elapsedMillis, SQLException e) {
+    publish(
+        EventCategory.RESULT_SET_ROW,
+        listener -> listener.onAfterResultSetClose(resultSet, elapsedMillis, e));
+  }
+}
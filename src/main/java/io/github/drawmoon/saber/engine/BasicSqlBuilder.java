@@ -25,7 +25,9 @@ import static io.github.drawmoon.saber.common.Preconditions.checkNotNull;
 
 import io.github.drawmoon.saber.AggregateExpression;
 import io.github.drawmoon.saber.AsteriskExpression;
+import io.github.drawmoon.saber.Comparator;
 import io.github.drawmoon.saber.ComparisonExpression;
+import io.github.drawmoon.saber.Condition;
 import io.github.drawmoon.saber.DistinctExpression;
 import io.github.drawmoon.saber.ExplainExpression;
 import io.github.drawmoon.saber.Expression;
@@ -41,7 +43,9 @@ import io.github.drawmoon.saber.Table;
 import io.github.drawmoon.saber.TableExpression;
 import io.github.drawmoon.saber.TableFieldExpression;
 import io.github.drawmoon.saber.VariableExpression;
+import java.util.List;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 public class BasicSqlBuilder implements ExpressionVisitor<BasicSqlBuilder> {
 
@@ -77,6 +81,19 @@ public class BasicSqlBuilder implements ExpressionVisitor<BasicSqlBuilder> {
       ctx.writeSql(" ").writeKeyword(Expressions.keyword("FROM")).writeSql(" ").writeSql("DUAL");
     }
 
+    Condition where = select.getWhere();
+    if (where != null) {
+      ctx.writeSql(" ").writeKeyword(Expressions.keyword("WHERE")).writeSql(" ");
+      where.accept(this);
+    }
+    writeFields("GROUP BY", select.getGroups());
+    Condition having = select.getHaving();
+    if (having != null) {
+      ctx.writeSql(" ").writeKeyword(Expressions.keyword("HAVING")).writeSql(" ");
+      having.accept(this);
+    }
+    writeFields("ORDER BY", select.getOrders());
+
     return this;
   }
 
@@ -101,12 +118,13 @@ public class BasicSqlBuilder implements ExpressionVisitor<BasicSqlBuilder> {
   @Override
   @Nonnull
   public BasicSqlBuilder visitMember(MemberExpression member) {
-    int i = 0;
-    for (Expression e : member) {
-      if (i > 0) ctx.writeSql(", ");
-      e.accept(this);
-      i++;
-    }
+    int[] i = {0};
+    member.forEachField(
+        f -> {
+          if (i[0] > 0) ctx.writeSql(", ");
+          f.accept(this);
+          i[0]++;
+        });
     return this;
   }
 
@@ -131,12 +149,27 @@ public class BasicSqlBuilder implements ExpressionVisitor<BasicSqlBuilder> {
   @Override
   @Nonnull
   public BasicSqlBuilder visitComparison(ComparisonExpression comparison) {
+    comparison.getLhs().accept(this);
+    ctx.writeSql(" ");
+    Comparator operator = comparison.getOperator();
+    operator.accept(ctx);
+    if (operator != Comparator.IS_NULL && operator != Comparator.IS_NOT_NULL) {
+      ctx.writeSql(" ");
+      comparison.getRhs().accept(this);
+    }
     return this;
   }
 
   @Override
   @Nonnull
   public BasicSqlBuilder visitLogical(LogicalExpression logical) {
+    ctx.writeSql("(");
+    logical.getLhs().accept(this);
+    ctx.writeSql(" ");
+    logical.getOperator().accept(ctx);
+    ctx.writeSql(" ");
+    logical.getRhs().accept(this);
+    ctx.writeSql(")");
     return this;
   }
 
@@ -145,7 +178,7 @@ public class BasicSqlBuilder implements ExpressionVisitor<BasicSqlBuilder> {
   public <V> BasicSqlBuilder visitVariable(VariableExpression<V> variable) {
     DataType<V> type = variable.getType();
     if (type == DataType.INTEGER) {
-      ctx.writeSql(String.valueOf(variable.getValue()));
+      ctx.writeVariable(variable);
     }
     return this;
   }
@@ -156,6 +189,16 @@ public class BasicSqlBuilder implements ExpressionVisitor<BasicSqlBuilder> {
     return this;
   }
 
+  private void writeFields(String keyword, @Nullable List<Field> fields) {
+    if (fields == null || fields.isEmpty()) return;
+
+    ctx.writeSql(" ").writeKeyword(Expressions.keyword(keyword)).writeSql(" ");
+    for (int i = 0; i < fields.size(); i++) {
+      if (i > 0) ctx.writeSql(", ");
+      fields.get(i).accept(this);
+    }
+  }
+
   @Override
   public String toString() {
     return ctx.render();
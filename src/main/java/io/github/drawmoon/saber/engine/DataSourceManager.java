@@ -23,50 +23,85 @@ package io.github.drawmoon.saber.engine;
 
 import static io.github.drawmoon.saber.common.Preconditions.checkNotNull;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import io.github.drawmoon.saber.common.Profiler;
 import io.github.drawmoon.saber.common.PruneTimer;
-import io.github.drawmoon.saber.exceptions.EngineException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
 
 public class DataSourceManager implements AutoCloseable {
 
-  private final Map<Integer, StoreItem> store;
+  private static final String RECREATE_POLICY = "Recreate";
+  private static final long RETIRED_CHECK_INTERVAL = TimeUnit.SECONDS.toMillis(1);
+
+  private final Map<ConnectionUri, StoreItem> store;
+  private final Queue<StoreItem> retired;
+  private final ReentrantLock admissionLock;
+  private final ExecutorService backgroundExecutor;
   private final PruneTimer pruneTimer;
+  private final PoolGovernor poolGovernor;
   private final SaberOptions options;
   private final SaberEventListener listener;
+  private final Function<ConnectionUri, SaberDataSource> dataSourceFactory;
 
   public DataSourceManager(SaberOptions options, SaberEventListener listener) {
+    this(options, listener, connectionUri -> new SaberDataSource(connectionUri, options));
+  }
+
+  DataSourceManager(
+      SaberOptions options,
+      SaberEventListener listener,
+      Function<ConnectionUri, SaberDataSource> dataSourceFactory) {
     this.store = new ConcurrentHashMap<>();
+    this.retired = new ConcurrentLinkedQueue<>();
+    this.admissionLock = new ReentrantLock();
+    this.backgroundExecutor =
+        Executors.newCachedThreadPool(
+            new ThreadFactoryBuilder()
+                .setNameFormat("saber-datasource-%d")
+                .setDaemon(true)
+                .build());
     this.pruneTimer = new PruneTimer();
     this.options = checkNotNull(options);
     this.listener = checkNotNull(listener);
+    this.dataSourceFactory = checkNotNull(dataSourceFactory);
 
-    // prune every hour
-    pruneTimer.schedule(() -> this.prune(false), TimeUnit.HOURS.toMillis(1));
+    // prune every hour, or more often if the datasource expires sooner
+    long period = Math.min(TimeUnit.HOURS.toMillis(1), options.getDataSourceLifetime());
+    pruneTimer.schedule(() -> this.prune(false), Math.max(period, TimeUnit.SECONDS.toMillis(1)));
+    pruneTimer.schedule(this::closeRetired, RETIRED_CHECK_INTERVAL);
+
+    this.poolGovernor = new PoolGovernor(options, this::dataSources);
+    long interval = options.getPoolGovernorInterval();
+    if (interval > 0) {
+      pruneTimer.schedule(this::rebalanceQuietly, interval);
+    }
   }
 
-  public SaberDataSource get(RequestContext context) {
+  public SaberDataSource get(RequestContext context) throws SQLException {
     listener.onBeforeGetDataSource(this, options, checkNotNull(context));
 
-    String connectionUri = checkNotNull(context.getConnectionUri());
     SaberDataSource dataSource = null;
 
     Profiler p = new Profiler();
     Exception exception = null;
     try {
-      StoreItem item = store.get(connectionUri.hashCode());
-      if (item != null) {
-        dataSource = item.get();
-        dataSource.setContext(context);
-      } else {
-        dataSource = new SaberDataSource(context);
-
-        long ttl = TimeUnit.DAYS.toMillis(1); // TODO: configurable
-        item = new StoreItem(dataSource, ttl);
-        store.put(connectionUri.hashCode(), item);
+      ConnectionUri connectionUri = ConnectionUri.fromStr(checkNotNull(context.getConnectionUri()));
+      StoreItem item = store.get(connectionUri);
+      if (item == null || item.isExpired()) {
+        item = admit(connectionUri);
       }
+      dataSource = item.get();
     } catch (Exception e) {
       exception = e;
       throw e;
@@ -78,33 +113,153 @@ public class DataSourceManager implements AutoCloseable {
     return dataSource;
   }
 
-  public void remove(String connectionUri) {
-    int hash = checkNotNull(connectionUri).hashCode();
-    StoreItem item = store.remove(hash);
-    if (item != null) {
-      try {
-        item.close();
-      } catch (Exception e) {
-        throw new EngineException("Attempt to remove datasource fails", e);
+  /**
+   * Gets the number of datasource currently held by the manager.
+   *
+   * @return the number of datasource
+   */
+  public int size() {
+    return store.size();
+  }
+
+  public PoolGovernor getPoolGovernor() {
+    return poolGovernor;
+  }
+
+  private List<SaberDataSource> dataSources() {
+    List<SaberDataSource> dataSources = new ArrayList<>(store.size());
+    for (StoreItem item : store.values()) {
+      dataSources.add(item.item);
+    }
+    return dataSources;
+  }
+
+  private void rebalanceQuietly() {
+    try {
+      poolGovernor.rebalance();
+    } catch (Exception expected) {
+      // a failed rebalance must not cancel the next ones
+    }
+  }
+
+  private StoreItem admit(ConnectionUri connectionUri) throws SQLException {
+    StoreItem item;
+    boolean admitted = false;
+    // concurrent misses for the same uri are admitted once, the others find the new item
+    admissionLock.lock();
+    try {
+      item = store.get(connectionUri);
+      if (item == null || item.isExpired()) {
+        item = doAdmit(connectionUri);
+        admitted = true;
       }
+    } finally {
+      admissionLock.unlock();
     }
+
+    if (admitted) {
+      // the new pool takes its share of the connection budget once it is started
+      item.get().warmUp(backgroundExecutor).thenRun(this::rebalanceQuietly);
+    }
+    return item;
+  }
+
+  private StoreItem doAdmit(ConnectionUri connectionUri) throws SQLException {
+    StoreItem expired = store.remove(connectionUri);
+    if (expired != null) {
+      retire(expired);
+    }
+
+    int limit = options.getDataSourceLimit();
+    if (limit > 0 && store.size() >= limit) {
+      if (!RECREATE_POLICY.equalsIgnoreCase(options.getDataSourceLimitPolicies())) {
+        throw new SQLException("The total number of datasource reaches the limit of " + limit);
+      }
+      evictLeastRecentlyUsed();
+    }
+
+    SaberDataSource dataSource = dataSourceFactory.apply(connectionUri);
+    StoreItem item = new StoreItem(dataSource, options.getDataSourceLifetime());
+    store.put(connectionUri, item);
+    return item;
+  }
+
+  private void evictLeastRecentlyUsed() {
+    Map.Entry<ConnectionUri, StoreItem> eldest = null;
+    for (Map.Entry<ConnectionUri, StoreItem> entry : store.entrySet()) {
+      if (eldest == null
+          || entry.getValue().getLastAccessTime() < eldest.getValue().getLastAccessTime()) {
+        eldest = entry;
+      }
+    }
+    if (eldest != null && store.remove(eldest.getKey(), eldest.getValue())) {
+      retire(eldest.getValue());
+    }
+  }
+
+  /**
+   * Retires a datasource that has been removed from the store. It is no longer handed out, but
+   * requests may still be obtaining or using its connections, so it is only closed by {@link
+   * #closeRetired()} once it is no longer in use.
+   */
+  private void retire(StoreItem item) {
+    item.retire();
+    retired.add(item);
+  }
+
+  private void closeRetired() {
+    long now = System.currentTimeMillis();
+    for (StoreItem item : retired) {
+      // a request that got the datasource just before it was retired has had a check interval to
+      // start obtaining its connection, which then keeps the datasource in use
+      if (item.getRetiredTime() + RETIRED_CHECK_INTERVAL <= now
+          && !item.item.isInUse()
+          && retired.remove(item)) {
+        closeAsync(item);
+      }
+    }
+  }
+
+  private void closeAsync(StoreItem item) {
+    try {
+      backgroundExecutor.execute(item::closeQuietly);
+    } catch (Exception e) {
+      // the manager is closing, close on the calling thread instead
+      item.closeQuietly();
+    }
+  }
+
+  /**
+   * Removes the datasource of a connection URI. The datasource is no longer handed out, and its
+   * pool is closed once the requests using its connections are done, like an evicted one.
+   *
+   * @param connectionUri the connection URI of the datasource
+   */
+  public void remove(String connectionUri) {
+    ConnectionUri key = ConnectionUri.fromStr(checkNotNull(connectionUri));
+    StoreItem item = store.remove(key);
+    if (item != null) retire(item);
   }
 
   public void prune(boolean force) {
     store.forEach(
-        (hash, item) -> {
-          if (force || item.isExpired()) {
-            try {
-              item.close();
-            } catch (Exception expected) {
-              // expected, just continue
+        (connectionUri, item) -> {
+          if ((force || item.isExpired()) && store.remove(connectionUri, item)) {
+            if (force) {
+              item.closeQuietly();
+            } else {
+              retire(item);
             }
           }
         });
+    if (force) {
+      StoreItem item;
+      while ((item = retired.poll()) != null) item.closeQuietly();
+    }
   }
 
   @Override
-  public void close() throws Exception {
+  public void close() {
     try {
       pruneTimer.shutdown();
     } catch (Exception expected) {
@@ -115,12 +270,18 @@ public class DataSourceManager implements AutoCloseable {
     } catch (Exception expected) {
       // safely close
     }
+    try {
+      backgroundExecutor.shutdown();
+    } catch (Exception expected) {
+      // safely close
+    }
   }
 
   static class StoreItem implements AutoCloseable {
     private final SaberDataSource item;
     private final long ttl;
     private volatile long lastAccessTime;
+    private volatile long retiredTime;
 
     public StoreItem(SaberDataSource item, long ttl) {
       this.item = checkNotNull(item);
@@ -132,13 +293,33 @@ public class DataSourceManager implements AutoCloseable {
       return System.currentTimeMillis() - lastAccessTime > ttl;
     }
 
+    public long getLastAccessTime() {
+      return lastAccessTime;
+    }
+
     public SaberDataSource get() {
       lastAccessTime = System.currentTimeMillis();
       return item;
     }
 
+    void retire() {
+      retiredTime = System.currentTimeMillis();
+    }
+
+    long getRetiredTime() {
+      return retiredTime;
+    }
+
+    void closeQuietly() {
+      try {
+        close();
+      } catch (Exception expected) {
+        // safely close
+      }
+    }
+
     @Override
-    public void close() throws Exception {
+    public void close() {
       try {
         item.close();
       } catch (Exception expected) {
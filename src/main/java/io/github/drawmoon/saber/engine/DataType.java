@@ -37,4 +37,12 @@ public final class DataType<T> {
     this.clazz = checkNotNull(clazz);
     this.type = type;
   }
+
+  public Class<T> getJavaType() {
+    return clazz;
+  }
+
+  public int getSqlType() {
+    return type;
+  }
 }
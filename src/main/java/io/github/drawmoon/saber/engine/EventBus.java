@@ -23,34 +23,157 @@ package io.github.drawmoon.saber.engine;
 
 import static io.github.drawmoon.saber.common.Preconditions.checkNotNull;
 
+import com.google.common.collect.ImmutableList;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Dispatches the events to the registered listeners. Each event is only delivered to the listeners
+ * subscribed to its category, and the subscriptions of all listeners are combined into a mask, so
+ * that {@link #isSubscribed(EventCategory)} is a single read for the wrappers checking it on every
+ * call.
+ *
+ * <p>The listeners are held in an immutable snapshot that is replaced as a whole when a listener is
+ * added or removed. Dispatching reads the current snapshot without locking, so listeners can be
+ * changed at runtime while queries are running, an event being delivered either to the old or to
+ * the new listeners. Each {@link SaberOptions} has an event bus of its own.
+ *
+ * @author drash
+ * @version 1.0
+ * @since 2024
+ */
 public final class EventBus implements SaberEventListener {
 
-  private static final List<SaberEventListener> listeners = new ArrayList<>();
-
-  public static void addListener(SaberEventListener listener) {
-    listeners.add(checkNotNull(listener));
+  private final ReentrantLock writeLock = new ReentrantLock();
+
+  private volatile Registry registry = Registry.EMPTY;
+
+  /**
+   * Adds a listener after the listeners already registered.
+   *
+   * @param listener the listener to add
+   */
+  public void addListener(SaberEventListener listener) {
+    checkNotNull(listener);
+
+    writeLock.lock();
+    try {
+      SaberEventListener[] listeners = registry.listeners;
+      SaberEventListener[] newListeners = Arrays.copyOf(listeners, listeners.length + 1);
+      newListeners[listeners.length] = listener;
+      registry = new Registry(newListeners);
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  /**
+   * Adds a listener at the specified position among the registered listeners.
+   *
+   * @param index the position of the listener
+   * @param listener the listener to add
+   * @throws IndexOutOfBoundsException if the index is out of range
+   */
+  public void addListener(int index, SaberEventListener listener) {
+    checkNotNull(listener);
+
+    writeLock.lock();
+    try {
+      List<SaberEventListener> newListeners = new ArrayList<>(Arrays.asList(registry.listeners));
+      newListeners.add(index, listener);
+      registry = new Registry(newListeners.toArray(new SaberEventListener[0]));
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  /**
+   * Removes the first occurrence of a listener.
+   *
+   * @param listener the listener to remove
+   * @return {@code true} if the listener was registered
+   */
+  public boolean removeListener(SaberEventListener listener) {
+    writeLock.lock();
+    try {
+      List<SaberEventListener> newListeners = new ArrayList<>(Arrays.asList(registry.listeners));
+      if (!newListeners.remove(listener)) return false;
+
+      registry = new Registry(newListeners.toArray(new SaberEventListener[0]));
+      return true;
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  /** Removes all the listeners. */
+  public void clearListeners() {
+    writeLock.lock();
+    try {
+      registry = Registry.EMPTY;
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  /**
+   * Gets the registered listeners, in the order they receive the events.
+   *
+   * @return the registered listeners
+   */
+  public List<SaberEventListener> getListeners() {
+    return ImmutableList.copyOf(registry.listeners);
   }
 
-  public static void addListener(int index, SaberEventListener listener) {
-    listeners.add(index, checkNotNull(listener));
+  @Override
+  public boolean isSubscribed(EventCategory category) {
+    return (registry.subscriptions & category.mask()) != 0;
   }
 
-  public static void removeListener(SaberEventListener listener) {
-    listeners.remove(listener);
+  private void dispatch(EventCategory category, Consumer<SaberEventListener> event) {
+    for (SaberEventListener listener : registry.subscribers[category.ordinal()]) {
+      event.accept(listener);
+    }
   }
 
-  public static void clearListeners() {
-    listeners.clear();
+  /** An immutable snapshot of the listeners, grouped by the categories they subscribe to. */
+  private static final class Registry {
+
+    static final Registry EMPTY = new Registry(new SaberEventListener[0]);
+
+    final SaberEventListener[] listeners;
+    final SaberEventListener[][] subscribers;
+    final int subscriptions;
+
+    Registry(SaberEventListener[] listeners) {
+      EventCategory[] categories = EventCategory.values();
+      SaberEventListener[][] subscribers = new SaberEventListener[categories.length][];
+      int subscriptions = 0;
+      for (EventCategory category : categories) {
+        List<SaberEventListener> subscribed = new ArrayList<>();
+        for (SaberEventListener listener : listeners) {
+          if (listener.isSubscribed(category)) subscribed.add(listener);
+        }
+        subscribers[category.ordinal()] = subscribed.toArray(new SaberEventListener[0]);
+        if (!subscribed.isEmpty()) subscriptions |= category.mask();
+      }
+
+      this.listeners = listeners;
+      this.subscribers = subscribers;
+      this.subscriptions = subscriptions;
+    }
   }
 
   @Override
   public void onBeforeGetDataSource(
       DataSourceManager store, SaberOptions options, RequestContext context) {
-    listeners.forEach(listener -> listener.onBeforeGetDataSource(store, options, context));
+    dispatch(
+        EventCategory.QUERY,
+        listener -> listener.onBeforeGetDataSource(store, options, context));
   }
 
   @Override
@@ -61,14 +184,15 @@ public final class EventBus implements SaberEventListener {
       SaberDataSource dataSource,
       long elapsedMillis,
       Exception e) {
-    listeners.forEach(
+    dispatch(
+        EventCategory.QUERY,
         listener ->
             listener.onAfterGetDataSource(store, options, context, dataSource, elapsedMillis, e));
   }
 
   @Override
   public void onBeforeQuery(RequestManager queryMgr, Request request) {
-    listeners.forEach(listener -> listener.onBeforeQuery(queryMgr, request));
+    dispatch(EventCategory.QUERY, listener -> listener.onBeforeQuery(queryMgr, request));
   }
 
   @Override
@@ -78,134 +202,180 @@ public final class EventBus implements SaberEventListener {
       Response response,
       long elapsedMillis,
       SQLException e) {
-    listeners.forEach(
+    dispatch(
+        EventCategory.QUERY,
         listener -> listener.onAfterQuery(queryMgr, context, response, elapsedMillis, e));
   }
 
   @Override
   public void onAfterQuery(
       RequestManager queryMgr, JdbcRecordCursor cursor, long elapsedMillis, SQLException e) {
-    listeners.forEach(listener -> listener.onAfterQuery(queryMgr, cursor, elapsedMillis, e));
+    dispatch(
+        EventCategory.QUERY,
+        listener -> listener.onAfterQuery(queryMgr, cursor, elapsedMillis, e));
+  }
+
+  @Override
+  public void onResultCacheHit(RequestManager queryMgr, Request request, long elapsedMillis) {
+    dispatch(
+        EventCategory.QUERY,
+        listener -> listener.onResultCacheHit(queryMgr, request, elapsedMillis));
+  }
+
+  @Override
+  public void onResultCacheMiss(RequestManager queryMgr, Request request, long elapsedMillis) {
+    dispatch(
+        EventCategory.QUERY,
+        listener -> listener.onResultCacheMiss(queryMgr, request, elapsedMillis));
   }
 
   @Override
   public void onAfterRecordCursorClose(
       JdbcRecordCursor cursor, long elapsedMillis, SQLException e) {
-    listeners.forEach(listener -> listener.onAfterRecordCursorClose(cursor, elapsedMillis, e));
+    dispatch(
+        EventCategory.QUERY,
+        listener -> listener.onAfterRecordCursorClose(cursor, elapsedMillis, e));
   }
 
   @Override
   public void onBeforeGetConnection(SaberWrapper dataSource) {
-    listeners.forEach(listener -> listener.onBeforeGetConnection(dataSource));
+    dispatch(EventCategory.CONNECTION, listener -> listener.onBeforeGetConnection(dataSource));
+  }
+
+  @Override
+  public void onBeforeGetConnection(SaberWrapper dataSource, RequestContext context) {
+    dispatch(
+        EventCategory.CONNECTION,
+        listener -> listener.onBeforeGetConnection(dataSource, context));
   }
 
   @Override
   public void onAfterGetConnection(SaberWrapper connection, long elapsedMillis, SQLException e) {
-    listeners.forEach(listener -> listener.onAfterGetConnection(connection, elapsedMillis, e));
+    dispatch(
+        EventCategory.CONNECTION,
+        listener -> listener.onAfterGetConnection(connection, elapsedMillis, e));
   }
 
   @Override
   public void onAfterConnectionClose(SaberWrapper connection, long elapsedMillis, SQLException e) {
-    listeners.forEach(listener -> listener.onAfterConnectionClose(connection, elapsedMillis, e));
+    dispatch(
+        EventCategory.CONNECTION,
+        listener -> listener.onAfterConnectionClose(connection, elapsedMillis, e));
   }
 
   @Override
   public void onBeforeExecute(SaberWrapper statement) {
-    listeners.forEach(listener -> listener.onBeforeExecute(statement));
+    dispatch(EventCategory.STATEMENT, listener -> listener.onBeforeExecute(statement));
   }
 
   @Override
   public void onAfterExecute(SaberWrapper statement, long elapsedMillis, SQLException e) {
-    listeners.forEach(listener -> listener.onAfterExecute(statement, elapsedMillis, e));
+    dispatch(
+        EventCategory.STATEMENT,
+        listener -> listener.onAfterExecute(statement, elapsedMillis, e));
   }
 
   @Override
   public void onBeforeExecute(SaberWrapper statement, String sql) {
-    listeners.forEach(listener -> listener.onBeforeExecute(statement, sql));
+    dispatch(EventCategory.STATEMENT, listener -> listener.onBeforeExecute(statement, sql));
   }
 
   @Override
   public void onAfterExecute(
       SaberWrapper statement, String sql, long elapsedMillis, SQLException e) {
-    listeners.forEach(listener -> listener.onAfterExecute(statement, sql, elapsedMillis, e));
+    dispatch(
+        EventCategory.STATEMENT,
+        listener -> listener.onAfterExecute(statement, sql, elapsedMillis, e));
   }
 
   @Override
   public void onBeforeExecuteBatch(SaberWrapper statement) {
-    listeners.forEach(listener -> listener.onBeforeExecuteBatch(statement));
+    dispatch(EventCategory.STATEMENT, listener -> listener.onBeforeExecuteBatch(statement));
   }
 
   @Override
   public void onAfterExecuteBatch(
       SaberWrapper statement, int[] rowCounts, long elapsedMillis, SQLException e) {
-    listeners.forEach(
+    dispatch(
+        EventCategory.STATEMENT,
         listener -> listener.onAfterExecuteBatch(statement, rowCounts, elapsedMillis, e));
   }
 
   @Override
   public void onBeforeExecuteQuery(SaberWrapper statement) {
-    listeners.forEach(listener -> listener.onBeforeExecuteQuery(statement));
+    dispatch(EventCategory.STATEMENT, listener -> listener.onBeforeExecuteQuery(statement));
   }
 
   @Override
   public void onAfterExecuteQuery(SaberWrapper statement, long elapsedMillis, SQLException e) {
-    listeners.forEach(listener -> listener.onAfterExecuteQuery(statement, elapsedMillis, e));
+    dispatch(
+        EventCategory.STATEMENT,
+        listener -> listener.onAfterExecuteQuery(statement, elapsedMillis, e));
   }
 
   @Override
   public void onBeforeExecuteQuery(SaberWrapper statement, String sql) {
-    listeners.forEach(listener -> listener.onBeforeExecuteQuery(statement, sql));
+    dispatch(EventCategory.STATEMENT, listener -> listener.onBeforeExecuteQuery(statement, sql));
   }
 
   @Override
   public void onAfterExecuteQuery(
       SaberWrapper statement, String sql, long elapsedMillis, SQLException e) {
-    listeners.forEach(listener -> listener.onAfterExecuteQuery(statement, sql, elapsedMillis, e));
+    dispatch(
+        EventCategory.STATEMENT,
+        listener -> listener.onAfterExecuteQuery(statement, sql, elapsedMillis, e));
   }
 
   @Override
   public void onBeforeExecuteUpdate(SaberWrapper statement) {
-    listeners.forEach(listener -> listener.onBeforeExecuteUpdate(statement));
+    dispatch(EventCategory.STATEMENT, listener -> listener.onBeforeExecuteUpdate(statement));
   }
 
   @Override
   public void onAfterExecuteUpdate(
       SaberWrapper statement, int rowCount, long elapsedMillis, SQLException e) {
-    listeners.forEach(
+    dispatch(
+        EventCategory.STATEMENT,
         listener -> listener.onAfterExecuteUpdate(statement, rowCount, elapsedMillis, e));
   }
 
   @Override
   public void onBeforeExecuteUpdate(SaberWrapper statement, String sql) {
-    listeners.forEach(listener -> listener.onBeforeExecuteUpdate(statement, sql));
+    dispatch(EventCategory.STATEMENT, listener -> listener.onBeforeExecuteUpdate(statement, sql));
   }
 
   @Override
   public void onAfterExecuteUpdate(
       SaberWrapper statement, String sql, int rowCount, long elapsedMillis, SQLException e) {
-    listeners.forEach(
+    dispatch(
+        EventCategory.STATEMENT,
         listener -> listener.onAfterExecuteUpdate(statement, sql, rowCount, elapsedMillis, e));
   }
 
   @Override
   public void onAfterGetResultSet(SaberWrapper statement, long elapsedMillis, SQLException e) {
-    listeners.forEach(listener -> listener.onAfterGetResultSet(statement, elapsedMillis, e));
+    dispatch(
+        EventCategory.STATEMENT,
+        listener -> listener.onAfterGetResultSet(statement, elapsedMillis, e));
   }
 
   @Override
   public void onAfterStatementClose(SaberWrapper statement, long elapsedMillis, SQLException e) {
-    listeners.forEach(listener -> listener.onAfterStatementClose(statement, elapsedMillis, e));
+    dispatch(
+        EventCategory.STATEMENT,
+        listener -> listener.onAfterStatementClose(statement, elapsedMillis, e));
   }
 
   @Override
   public void onBeforeResultSetNext(SaberWrapper resultSet) {
-    listeners.forEach(listener -> listener.onBeforeResultSetNext(resultSet));
+    dispatch(EventCategory.RESULT_SET_ROW, listener -> listener.onBeforeResultSetNext(resultSet));
   }
 
   @Override
   public void onAfterResultSetNext(
       SaberWrapper resultSet, boolean hasNext, long elapsedMillis, SQLException e) {
-    listeners.forEach(
+    dispatch(
+        EventCategory.RESULT_SET_ROW,
         listener -> listener.onAfterResultSetNext(resultSet, hasNext, elapsedMillis, e));
   }
 
@@ -216,19 +386,23 @@ public final class EventBus implements SaberEventListener {
       Object value,
       long elapsedMillis,
       SQLException e) {
-    listeners.forEach(
+    dispatch(
+        EventCategory.RESULT_SET_CELL,
         listener -> listener.onAfterResultSetGet(resultSet, columnLabel, value, elapsedMillis, e));
   }
 
   @Override
   public void onAfterResultSetGet(
       SaberWrapper resultSet, int columnIndex, Object value, long elapsedMillis, SQLException e) {
-    listeners.forEach(
+    dispatch(
+        EventCategory.RESULT_SET_CELL,
         listener -> listener.onAfterResultSetGet(resultSet, columnIndex, value, elapsedMillis, e));
   }
 
   @Override
   public void onAfterResultSetClose(SaberWrapper resultSet, long elapsedMillis, SQLException e) {
-    listeners.forEach(listener -> listener.onAfterResultSetClose(resultSet, elapsedMillis, e));
+    dispatch(
+        EventCategory.RESULT_SET_ROW,
+        listener -> listener.onAfterResultSetClose(resultSet, elapsedMillis, e));
   }
 }
@@ -0,0 +1,53 @@
+/*
+ *            _
+ *  ___  __ _| |__   ___ _ __
+ * / __|/ _` | '_ \ / _ \ '__|
+ * \__ \ (_| | |_) |  __/ |
+ * |___/\__,_|_.__/ \___|_|
+ *
+ * Copyright 2024 drash
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.drawmoon.saber.engine;
+
+/**
+ * The categories of the events of a {@link SaberEventListener}. A listener declares the categories
+ * it consumes through {@link SaberEventListener#isSubscribed(EventCategory)}, and the JDBC wrappers
+ * skip the timing and the dispatch of the events of a category that no listener consumes.
+ *
+ * @author drash
+ * @version 1.0
+ * @since 2024
+ */
+public enum EventCategory {
+  /** The events of the query manager, about datasources, queries, cached results and cursors. */
+  QUERY,
+  /** The events about obtaining and closing connections. */
+  CONNECTION,
+  /** The events about executing statements, getting their result sets and closing them. */
+  STATEMENT,
+  /** The events about moving a result set to its next row and closing it. */
+  RESULT_SET_ROW,
+  /** The events about getting the value of a column from a result set. */
+  RESULT_SET_CELL;
+
+  /**
+   * Gets the bit of the category in a subscription mask.
+   *
+   * @return the bit of the category
+   */
+  int mask() {
+    return 1 << ordinal();
+  }
+}
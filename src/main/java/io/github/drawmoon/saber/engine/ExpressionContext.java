@@ -23,13 +23,18 @@ package io.github.drawmoon.saber.engine;
 
 import static io.github.drawmoon.saber.common.Preconditions.checkNotNull;
 
+import com.google.common.cache.Cache;
 import com.google.errorprone.annotations.CanIgnoreReturnValue;
 import io.github.drawmoon.saber.Catalog;
 import io.github.drawmoon.saber.Field;
 import io.github.drawmoon.saber.Keyword;
 import io.github.drawmoon.saber.QueryModel;
+import io.github.drawmoon.saber.Select;
 import io.github.drawmoon.saber.SqlDialect;
 import io.github.drawmoon.saber.Table;
+import io.github.drawmoon.saber.VariableExpression;
+import java.util.ArrayList;
+import java.util.List;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
@@ -43,6 +48,9 @@ public final class ExpressionContext {
   @Nullable private ExpressionContext superCtx;
   @Nullable private ExpressionContext subCtx;
 
+  @Nullable private List<VariableExpression<?>> parameters;
+  private ParamStyle paramStyle = ParamStyle.POSITIONAL;
+
   public ExpressionContext(
       Catalog<? extends Table, ? extends Field> catalog, SaberOptions options) {
     this.catalog = checkNotNull(catalog);
@@ -57,6 +65,12 @@ public final class ExpressionContext {
     this.model = checkNotNull(model);
   }
 
+  private ExpressionContext(ExpressionContext ctx) {
+    this.catalog = ctx.catalog;
+    this.options = ctx.options;
+    this.model = ctx.model;
+  }
+
   // -----------------------------------------------------------------------
   public SqlDialect getDialect() {
     return catalog.getDialect();
@@ -103,12 +117,98 @@ public final class ExpressionContext {
     return this.autoFormatAppend(sql);
   }
 
+  /**
+   * Writes a literal value. When the context binds parameters, a placeholder of the parameter style
+   * is written and the value is collected as a parameter, otherwise the value is written inline.
+   *
+   * @param variable the literal value
+   * @return this context
+   */
+  @Nonnull
+  @CanIgnoreReturnValue
+  public ExpressionContext writeVariable(VariableExpression<?> variable) {
+    if (parameters == null) {
+      return this.writeSql(String.valueOf(variable.getValue()));
+    }
+
+    parameters.add(variable);
+    return this.writeSql(paramStyle.placeholder(parameters.size()));
+  }
+
+  /**
+   * Returns whether literal values are written as bind parameters.
+   *
+   * @return true if the context binds parameters
+   */
+  public boolean isBindParameters() {
+    return parameters != null;
+  }
+
   @Nonnull
   public String render() {
     return this.sqlBuilder.toString();
   }
 
+  /**
+   * Renders the select statement with its literal values lifted out as bind parameters. The SQL
+   * text is cached by the structure of the statement, so a statement of a known structure is only
+   * traversed to collect its parameters and is not rendered again.
+   *
+   * @param select the select statement
+   * @return the rendered SQL template
+   */
+  @Nonnull
+  public SqlTemplate renderTemplate(Select select) {
+    return renderTemplate(select, ParamStyle.POSITIONAL);
+  }
+
+  /**
+   * Renders the select statement with its literal values lifted out as bind parameters, written
+   * with placeholders of the specified style.
+   *
+   * @param select the select statement
+   * @param paramStyle the style of the placeholders
+   * @return the rendered SQL template
+   * @see #renderTemplate(Select)
+   */
+  @Nonnull
+  public SqlTemplate renderTemplate(Select select, ParamStyle paramStyle) {
+    checkNotNull(paramStyle);
+    SqlFingerprint fingerprint = SqlFingerprint.of(getDialect(), select);
+    String key = fingerprint.isCacheable() ? paramStyle.name() + fingerprint.getKey() : null;
+    Cache<String, String> cache = options.getSqlTemplateCache();
+    if (key != null) {
+      String sql = cache.getIfPresent(key);
+      if (sql != null) {
+        return new SqlTemplate(sql, fingerprint.getParameters());
+      }
+    }
+
+    // rendered on a context of its own, so that nothing is appended to this one
+    ExpressionContext renderCtx = new ExpressionContext(this);
+    renderCtx.parameters = new ArrayList<>();
+    renderCtx.paramStyle = paramStyle;
+    select.accept(renderCtx.createSqlBuilder());
+    SqlTemplate template = new SqlTemplate(renderCtx.render(), renderCtx.parameters);
+
+    // only cached if both traversals agree on the parameters, otherwise a hit would bind wrongly
+    if (key != null && sameParameters(fingerprint.getParameters(), renderCtx.parameters)) {
+      cache.put(key, template.getSql());
+    }
+    return template;
+  }
+
   // -----------------------------------------------------------------------
+  private static boolean sameParameters(
+      List<VariableExpression<?>> expected, List<VariableExpression<?>> actual) {
+    if (expected.size() != actual.size()) return false;
+
+    for (int i = 0; i < expected.size(); i++) {
+      if (expected.get(i) != actual.get(i)) return false;
+    }
+    return true;
+  }
+
   private ExpressionContext autoFormatAppend(String sql) {
     int len = this.sqlBuilder.length();
     if (len != 0 && this.sqlBuilder.charAt(len - 1) != ' ' && !sql.startsWith(" ")) {
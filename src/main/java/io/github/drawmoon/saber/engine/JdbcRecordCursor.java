@@ -27,6 +27,7 @@ import static io.github.drawmoon.saber.common.Preconditions.checkNotNull;
 import io.github.drawmoon.saber.common.Profiler;
 import io.github.drawmoon.saber.exceptions.EngineException;
 import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
@@ -34,19 +35,27 @@ import java.sql.Statement;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.concurrent.locks.ReentrantLock;
 import javax.annotation.Nullable;
 
 public class JdbcRecordCursor implements AutoCloseable {
 
   private final Connection connection;
   private final String query;
+  @Nullable private final Object[] parameters;
+  @Nullable private final int[] parameterTypes;
   private final int timeout;
+  private final int fetchSize;
   private final ExecutorService executor;
   private final SaberEventListener listener;
+  private final ReentrantLock statementLock = new ReentrantLock();
 
-  @Nullable private Statement statement;
+  @Nullable private volatile Statement statement;
   @Nullable private ResultSet resultSet;
   private boolean closed;
+  private volatile boolean cancelled;
+  private boolean streaming;
+  private boolean autoCommitDisabled;
 
   public JdbcRecordCursor(
       Connection connection,
@@ -54,8 +63,33 @@ public class JdbcRecordCursor implements AutoCloseable {
       int timeout,
       ExecutorService executor,
       SaberEventListener listener) {
+    this(connection, query, timeout, 0, executor, listener);
+  }
+
+  public JdbcRecordCursor(
+      Connection connection,
+      String query,
+      int timeout,
+      int fetchSize,
+      ExecutorService executor,
+      SaberEventListener listener) {
+    this(connection, query, null, null, timeout, fetchSize, executor, listener);
+  }
+
+  public JdbcRecordCursor(
+      Connection connection,
+      String query,
+      @Nullable Object[] parameters,
+      @Nullable int[] parameterTypes,
+      int timeout,
+      int fetchSize,
+      ExecutorService executor,
+      SaberEventListener listener) {
     this.query = query;
+    this.parameters = parameters;
+    this.parameterTypes = parameterTypes;
     this.timeout = timeout;
+    this.fetchSize = fetchSize;
     this.connection = connection;
     this.executor = executor;
     this.listener = listener;
@@ -81,8 +115,7 @@ public class JdbcRecordCursor implements AutoCloseable {
 
     try {
       if (resultSet == null) {
-        Future<ResultSet> resultSetFuture =
-            executor.submit(() -> safeCreateStatement().executeQuery(query));
+        Future<ResultSet> resultSetFuture = executor.submit(this::executeQuery);
         try {
           // statement.executeQuery() may block uninterruptedly, using async way so we are able to
           // cancel remote query
@@ -123,6 +156,17 @@ public class JdbcRecordCursor implements AutoCloseable {
     }
   }
 
+  public int getFetchSize() {
+    checkState(!closed, "cursor is closed");
+    checkNotNull(resultSet);
+
+    try {
+      return resultSet.getFetchSize();
+    } catch (SQLException e) {
+      throw handleSqlException(e);
+    }
+  }
+
   public boolean getBoolean(int field) {
     checkState(!closed, "cursor is closed");
     checkNotNull(resultSet);
@@ -134,6 +178,17 @@ public class JdbcRecordCursor implements AutoCloseable {
     }
   }
 
+  public int getInt(int field) {
+    checkState(!closed, "cursor is closed");
+    checkNotNull(resultSet);
+
+    try {
+      return resultSet.getInt(field);
+    } catch (SQLException e) {
+      throw handleSqlException(e);
+    }
+  }
+
   public long getLong(int field) {
     checkState(!closed, "cursor is closed");
     checkNotNull(resultSet);
@@ -189,30 +244,124 @@ public class JdbcRecordCursor implements AutoCloseable {
     }
   }
 
-  private synchronized Statement safeCreateStatement() {
-    if (statement != null) {
-      return statement;
+  public boolean wasNull() {
+    checkState(!closed, "cursor is closed");
+    checkNotNull(resultSet);
+
+    try {
+      return resultSet.wasNull();
+    } catch (SQLException e) {
+      throw handleSqlException(e);
     }
+  }
 
-    checkState(!closed, "cursor is closed");
-    checkNotNull(connection);
+  /**
+   * Sets whether the cursor turns auto-commit off on its connection while its query runs, and
+   * restores it when the cursor is closed. Some drivers only stream the rows by the fetch size
+   * outside of auto-commit mode, PostgreSQL for instance otherwise reads the whole result at once.
+   * The transaction of the query is rolled back on close, so this is meant for read-only queries.
+   *
+   * @param streaming true to turn auto-commit off for the query
+   * @throws IllegalStateException if the query has already been executed
+   */
+  public void setStreaming(boolean streaming) {
+    checkState(statement == null, "query already executed");
+    this.streaming = streaming;
+  }
+
+  /**
+   * Cancels the query of the cursor. A running query is cancelled through the driver, and a query
+   * that has not started yet is never executed. This may be called from another thread than the one
+   * advancing the cursor, which then fails with an exception.
+   */
+  public void cancel() {
+    cancelled = true;
+
+    Statement statement = this.statement;
+    if (statement == null) {
+      return;
+    }
+
+    try {
+      statement.cancel();
+    } catch (SQLException expected) {
+      // statement already closed or cancel is not supported
+    }
+  }
+
+  private ResultSet executeQuery() throws SQLException {
+    Statement statement = safeCreateStatement();
+    if (statement instanceof PreparedStatement) {
+      return ((PreparedStatement) statement).executeQuery();
+    }
+    return statement.executeQuery(query);
+  }
 
+  private Statement safeCreateStatement() {
+    // a lock rather than a monitor, as the driver may block on I/O while creating the statement
+    statementLock.lock();
     try {
-      if (connection.isClosed()) {
-        throw new EngineException("Connection is closed");
+      if (statement != null) {
+        return statement;
       }
 
-      Statement statement = connection.createStatement();
-      statement.setQueryTimeout(timeout);
+      checkState(!closed, "cursor is closed");
+      checkNotNull(connection);
+      if (cancelled) {
+        throw new EngineException("Query was cancelled");
+      }
 
-      return statement;
-    } catch (SQLException e) {
       try {
-        connection.close();
-      } catch (SQLException expected) {
-        // safely close
+        if (connection.isClosed()) {
+          throw new EngineException("Connection is closed");
+        }
+        if (streaming && connection.getAutoCommit()) {
+          connection.setAutoCommit(false);
+          autoCommitDisabled = true;
+        }
+
+        Statement statement;
+        if (parameters != null) {
+          // prepared, so that the driver and the database can reuse the plan of the statement
+          PreparedStatement prepared = connection.prepareStatement(query);
+          bindParameters(prepared);
+          statement = prepared;
+        } else {
+          statement = connection.createStatement();
+        }
+        statement.setQueryTimeout(timeout);
+        if (fetchSize > 0) statement.setFetchSize(fetchSize);
+
+        this.statement = statement;
+        if (cancelled) {
+          // cancelled while the statement was being created
+          statement.cancel();
+        }
+        return statement;
+      } catch (SQLException e) {
+        try {
+          connection.close();
+        } catch (SQLException expected) {
+          // safely close
+        }
+        throw new EngineException(e);
+      }
+    } finally {
+      statementLock.unlock();
+    }
+  }
+
+  private void bindParameters(PreparedStatement statement) throws SQLException {
+    Object[] parameters = checkNotNull(this.parameters);
+    for (int i = 0; i < parameters.length; i++) {
+      Object value = parameters[i];
+      if (parameterTypes == null) {
+        statement.setObject(i + 1, value);
+      } else if (value == null) {
+        statement.setNull(i + 1, parameterTypes[i]);
+      } else {
+        statement.setObject(i + 1, value, parameterTypes[i]);
       }
-      throw new EngineException(e);
     }
   }
 
@@ -232,7 +381,8 @@ public class JdbcRecordCursor implements AutoCloseable {
   }
 
   @Override
-  public void close() throws Exception {
+  @SuppressWarnings("try")
+  public void close() {
     if (closed) {
       return;
     }
@@ -240,15 +390,22 @@ public class JdbcRecordCursor implements AutoCloseable {
 
     Profiler p = new Profiler();
     SQLException exception = null;
-    try (Connection connection = this.connection;
-        Statement statement = this.statement;
-        ResultSet resultSet = this.resultSet) {
-      if (statement != null) {
-        try {
-          // Trying to cancel running statement as close() may not do it
-          statement.cancel();
-        } catch (SQLException expected) {
-          // statement already closed or cancel is not supported
+    try (Connection connection = this.connection) {
+      try (Statement statement = this.statement;
+          ResultSet resultSet = this.resultSet) {
+        if (statement != null) {
+          try {
+            // Trying to cancel running statement as close() may not do it
+            statement.cancel();
+          } catch (SQLException expected) {
+            // statement already closed or cancel is not supported
+          }
+        }
+      } finally {
+        if (autoCommitDisabled) {
+          // ends the transaction of the query before the connection is released
+          connection.rollback();
+          connection.setAutoCommit(true);
         }
       }
     } catch (SQLException e) {
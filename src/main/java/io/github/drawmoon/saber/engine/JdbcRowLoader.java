@@ -0,0 +1,192 @@
+/*
+ *            _
+ *  ___  __ _| |__   ___ _ __
+ * / __|/ _` | '_ \ / _ \ '__|
+ * \__ \ (_| | |_) |  __/ |
+ * |___/\__,_|_.__/ \___|_|
+ *
+ * Copyright 2024 drash
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.drawmoon.saber.engine;
+
+import static io.github.drawmoon.saber.common.Preconditions.checkNotNull;
+
+import io.github.drawmoon.saber.ColumnVector;
+import io.github.drawmoon.saber.ColumnVector.Kind;
+import io.github.drawmoon.saber.DataTable;
+import io.github.drawmoon.saber.DataTable.DataColumn;
+import io.github.drawmoon.saber.exceptions.EngineException;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.LinkedHashMap;
+import javax.annotation.Nullable;
+
+/**
+ * Loads the rows of a {@link JdbcRecordCursor} into a {@link DataTable}. The column names, types
+ * and storage kinds are resolved once from the {@link ResultSetMetaData}, after which every value
+ * is read by position and appended straight into the typed storage of its column.
+ *
+ * @author drash
+ * @version 1.0
+ * @since 2024
+ */
+public final class JdbcRowLoader {
+
+  private final JdbcRecordCursor cursor;
+  private final String[] names;
+  private final int[] types;
+  private final Kind[] kinds;
+
+  @Nullable private DataColumn[] columns;
+  @Nullable private DataTable table;
+
+  /**
+   * Creates a loader for the current result of the cursor. The cursor must have been advanced at
+   * least once, so that the query has been executed.
+   *
+   * @param cursor the cursor to load from
+   */
+  public JdbcRowLoader(JdbcRecordCursor cursor) {
+    this.cursor = checkNotNull(cursor);
+
+    ResultSetMetaData meta = cursor.getMetaData();
+    try {
+      int columnCount = meta.getColumnCount();
+      this.names = new String[columnCount];
+      this.types = new int[columnCount];
+      this.kinds = new Kind[columnCount];
+      for (int i = 0; i < columnCount; i++) {
+        names[i] = meta.getColumnName(i + 1);
+        types[i] = meta.getColumnType(i + 1);
+        kinds[i] = kindOf(meta, i + 1);
+      }
+    } catch (SQLException e) {
+      throw new EngineException(e);
+    }
+  }
+
+  /**
+   * Gets the kind of storage for the values of a column of the result. This refines {@link
+   * ColumnVector#kindOf(int)} with the metadata of the column: unsigned integers are widened to
+   * the next kind that holds their whole range, and a {@code BIT} column wider than one bit, which
+   * drivers return as bytes, is stored as objects.
+   *
+   * @param meta the metadata of the result
+   * @param column the column, starting at 1
+   * @return the kind, never null
+   * @throws SQLException if the metadata cannot be read
+   */
+  static Kind kindOf(ResultSetMetaData meta, int column) throws SQLException {
+    int type = meta.getColumnType(column);
+    switch (type) {
+      case Types.BIT:
+        return meta.getPrecision(column) <= 1 ? Kind.BOOLEAN : Kind.OBJECT;
+      case Types.INTEGER:
+        return meta.isSigned(column) ? Kind.INT : Kind.LONG;
+      case Types.BIGINT:
+        // read as a BigInteger by the driver
+        return meta.isSigned(column) ? Kind.LONG : Kind.OBJECT;
+      default:
+        return ColumnVector.kindOf(type);
+    }
+  }
+
+  /**
+   * Gets the number of columns in the result.
+   *
+   * @return the number of columns
+   */
+  public int getColumnCount() {
+    return names.length;
+  }
+
+  /**
+   * Creates a table with the columns of the result and makes it the target of {@link #loadRow()}.
+   *
+   * @param expectedRows the number of rows to reserve storage for
+   * @return the new table
+   */
+  public DataTable newTable(int expectedRows) {
+    DataTable newTable = new DataTable();
+    LinkedHashMap<String, Integer> metadata = new LinkedHashMap<>();
+    DataColumn[] newColumns = new DataColumn[names.length];
+    for (int i = 0; i < names.length; i++) {
+      DataColumn column = new DataColumn(names[i], types[i], kinds[i]);
+      if (expectedRows > 0) column.ensureCapacity(expectedRows);
+
+      newTable.addColumn(column);
+      metadata.put(names[i], types[i]);
+      newColumns[i] = column;
+    }
+    newTable.setMetadata(metadata);
+
+    this.table = newTable;
+    this.columns = newColumns;
+    return newTable;
+  }
+
+  /**
+   * Reads the current row of the cursor into the target table.
+   *
+   * @throws IllegalStateException if no table has been created by {@link #newTable(int)}
+   */
+  public void loadRow() {
+    DataColumn[] columns = this.columns;
+    if (columns == null || table == null) throw new IllegalStateException("No target table");
+
+    for (int i = 0; i < columns.length; i++) {
+      DataColumn column = columns[i];
+      int field = i + 1;
+      switch (kinds[i]) {
+        case INT:
+          {
+            int value = cursor.getInt(field);
+            if (cursor.wasNull()) column.addNull();
+            else column.addInt(value);
+            break;
+          }
+        case LONG:
+          {
+            long value = cursor.getLong(field);
+            if (cursor.wasNull()) column.addNull();
+            else column.addLong(value);
+            break;
+          }
+        case DOUBLE:
+          {
+            double value = cursor.getDouble(field);
+            if (cursor.wasNull()) column.addNull();
+            else column.addDouble(value);
+            break;
+          }
+        case BOOLEAN:
+          {
+            boolean value = cursor.getBoolean(field);
+            if (cursor.wasNull()) column.addNull();
+            else column.addBoolean(value);
+            break;
+          }
+        case STRING:
+          column.add(cursor.getString(field));
+          break;
+        default:
+          column.add(cursor.getObject(field));
+          break;
+      }
+    }
+    table.addRow();
+  }
+}
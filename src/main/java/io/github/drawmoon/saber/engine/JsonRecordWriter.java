@@ -0,0 +1,202 @@
+/*
+ *            _
+ *  ___  __ _| |__   ___ _ __
+ * / __|/ _` | '_ \ / _ \ '__|
+ * \__ \ (_| | |_) |  __/ |
+ * |___/\__,_|_.__/ \___|_|
+ *
+ * Copyright 2024 drash
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.drawmoon.saber.engine;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static io.github.drawmoon.saber.common.Preconditions.checkNotNull;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.drawmoon.saber.ColumnVector;
+import io.github.drawmoon.saber.exceptions.EngineException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+
+/**
+ * Writes the rows of a {@link JdbcRecordCursor} to a {@link JsonGenerator} as they are read from
+ * the driver, without building a {@link io.github.drawmoon.saber.DataTable}. The memory held while
+ * writing is bounded by the fetch size of the cursor rather than by the size of the result, and
+ * the generator is flushed after every batch so that the first rows reach the client while the
+ * rest are still being fetched.
+ *
+ * <p>Values are written in the same form as the JSON serializer of {@code DataTable}: primitive
+ * columns as JSON numbers and booleans, strings as JSON strings, and the other values through the
+ * codec of the generator.
+ *
+ * @author drash
+ * @version 1.0
+ * @since 2024
+ */
+public final class JsonRecordWriter {
+
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+
+  private final JdbcRecordCursor cursor;
+  private final Shape shape;
+  private final int batchSize;
+
+  /**
+   * Creates a writer over the specified cursor.
+   *
+   * @param cursor the cursor to read from, it must not have been advanced yet
+   * @param shape the shape of the output
+   * @param batchSize the number of rows written between two flushes of the generator
+   */
+  public JsonRecordWriter(JdbcRecordCursor cursor, Shape shape, int batchSize) {
+    checkArgument(batchSize > 0, "batch size must be positive");
+    this.cursor = checkNotNull(cursor);
+    this.shape = checkNotNull(shape);
+    this.batchSize = batchSize;
+  }
+
+  /**
+   * Writes every row of the cursor to the stream as UTF-8 JSON. The stream is flushed but not
+   * closed.
+   *
+   * @param out the stream to write to
+   * @return the number of rows written
+   * @throws IOException if the stream fails
+   */
+  public long write(OutputStream out) throws IOException {
+    try (JsonGenerator generator = MAPPER.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+      generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+      return write(generator);
+    }
+  }
+
+  /**
+   * Writes every row of the cursor to the generator, as a single JSON array.
+   *
+   * @param generator the generator to write to
+   * @return the number of rows written
+   * @throws IOException if the generator fails
+   */
+  public long write(JsonGenerator generator) throws IOException {
+    checkNotNull(generator);
+
+    boolean hasNext = cursor.advanceNextPosition();
+
+    ResultSetMetaData meta = cursor.getMetaData();
+    SerializableString[] names;
+    ColumnVector.Kind[] kinds;
+    try {
+      int columnCount = meta.getColumnCount();
+      names = new SerializableString[columnCount];
+      kinds = new ColumnVector.Kind[columnCount];
+      for (int i = 0; i < columnCount; i++) {
+        names[i] = new SerializedString(meta.getColumnName(i + 1));
+        kinds[i] = JdbcRowLoader.kindOf(meta, i + 1);
+      }
+    } catch (SQLException e) {
+      throw new EngineException(e);
+    }
+
+    generator.writeStartArray();
+    if (shape == Shape.ARRAYS) {
+      generator.writeStartArray();
+      for (SerializableString name : names) generator.writeString(name);
+      generator.writeEndArray();
+    }
+
+    long rows = 0;
+    while (hasNext) {
+      if (shape == Shape.OBJECTS) {
+        generator.writeStartObject();
+        for (int i = 0; i < names.length; i++) {
+          generator.writeFieldName(names[i]);
+          writeValue(generator, kinds[i], i + 1);
+        }
+        generator.writeEndObject();
+      } else {
+        generator.writeStartArray();
+        for (int i = 0; i < names.length; i++) {
+          writeValue(generator, kinds[i], i + 1);
+        }
+        generator.writeEndArray();
+      }
+
+      if (++rows % batchSize == 0) generator.flush();
+      hasNext = cursor.advanceNextPosition();
+    }
+    generator.writeEndArray();
+    generator.flush();
+    return rows;
+  }
+
+  private void writeValue(JsonGenerator generator, ColumnVector.Kind kind, int field)
+      throws IOException {
+    switch (kind) {
+      case INT:
+        {
+          int value = cursor.getInt(field);
+          if (cursor.wasNull()) generator.writeNull();
+          else generator.writeNumber(value);
+          break;
+        }
+      case LONG:
+        {
+          long value = cursor.getLong(field);
+          if (cursor.wasNull()) generator.writeNull();
+          else generator.writeNumber(value);
+          break;
+        }
+      case DOUBLE:
+        {
+          double value = cursor.getDouble(field);
+          if (cursor.wasNull()) generator.writeNull();
+          else generator.writeNumber(value);
+          break;
+        }
+      case BOOLEAN:
+        {
+          boolean value = cursor.getBoolean(field);
+          if (cursor.wasNull()) generator.writeNull();
+          else generator.writeBoolean(value);
+          break;
+        }
+      case STRING:
+        {
+          String value = cursor.getString(field);
+          if (value == null) generator.writeNull();
+          else generator.writeString(value);
+          break;
+        }
+      default:
+        generator.writeObject(cursor.getObject(field));
+        break;
+    }
+  }
+
+  /** The shapes of the JSON written for a result. */
+  public enum Shape {
+    /** An array with one object per row, keyed by the column names. */
+    OBJECTS,
+
+    /** An array of the column names, followed by one array of values per row. */
+    ARRAYS
+  }
+}
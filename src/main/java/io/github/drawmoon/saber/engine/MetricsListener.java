@@ -0,0 +1,407 @@
+/*
+ *            _
+ *  ___  __ _| |__   ___ _ __
+ * / __|/ _` | '_ \ / _ \ '__|
+ * \__ \ (_| | |_) |  __/ |
+ * |___/\__,_|_.__/ \___|_|
+ *
+ * Copyright 2024 drash
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.drawmoon.saber.engine;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.google.common.collect.ImmutableMap;
+import io.github.drawmoon.saber.DataTable;
+import io.github.drawmoon.saber.SqlDialect;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import javax.annotation.Nullable;
+
+/**
+ * A listener that collects query metrics, in total and per datasource, per dialect and per SQL
+ * fingerprint. Latencies are measured in nanoseconds into {@link LatencyHistogram}s, next to
+ * counters of the queries, errors, fetched rows, bytes read and connection pool waits. All of them
+ * are lock-free, and {@link #snapshot()} returns an immutable copy that can be scraped at any time.
+ *
+ * <p>The fingerprint of a query is its SQL with the literals replaced by {@code ?} and the
+ * whitespace collapsed, so that queries only differing by their values share their metrics. The
+ * number of distinct fingerprints is bounded, further fingerprints are counted under {@link
+ * #OTHER_FINGERPRINT}.
+ *
+ * <p>The rows are counted per group from the result of {@link RequestManager#fetch}, and in total
+ * from every {@link java.sql.ResultSet#next()}, so the total also covers the lazy cursors. The
+ * bytes read are the estimated size of the fetched {@link DataTable}.
+ *
+ * @author drash
+ * @version 1.0
+ * @since 2024
+ */
+public class MetricsListener extends SaberEventAdapter {
+
+  /** The fingerprint under which the queries are counted once the limit is reached. */
+  public static final String OTHER_FINGERPRINT = "<other>";
+
+  private static final int DEFAULT_MAXIMUM_FINGERPRINTS = 1000;
+  private static final long POOL_WAIT_THRESHOLD_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+  private final int maximumFingerprints;
+  private volatile QueryMetrics total = new QueryMetrics();
+  private final Map<String, QueryMetrics> dataSources = new ConcurrentHashMap<>();
+  private final Map<String, QueryMetrics> dialects = new ConcurrentHashMap<>();
+  private final Map<String, QueryMetrics> fingerprints = new ConcurrentHashMap<>();
+  private final Map<String, ConnectionUri> connectionUris = new ConcurrentHashMap<>();
+
+  public MetricsListener() {
+    this(DEFAULT_MAXIMUM_FINGERPRINTS);
+  }
+
+  /**
+   * Creates a metrics listener.
+   *
+   * @param maximumFingerprints the maximum number of distinct fingerprints to keep metrics for
+   */
+  public MetricsListener(int maximumFingerprints) {
+    checkArgument(maximumFingerprints > 0, "maximum fingerprints must be positive");
+    this.maximumFingerprints = maximumFingerprints;
+  }
+
+  @Override
+  public boolean isSubscribed(EventCategory category) {
+    return category == EventCategory.QUERY
+        || category == EventCategory.CONNECTION
+        || category == EventCategory.RESULT_SET_ROW;
+  }
+
+  @Override
+  public void onAfterQuery(
+      RequestManager queryMgr,
+      RequestContext context,
+      Response response,
+      long elapsedMillis,
+      SQLException e) {
+    long nanos = context.getElapsedNanos();
+    DataTable data = e == null && response != null ? response.getData() : null;
+    long rows = data != null ? data.rowCount() : 0;
+    long bytes = data != null ? data.estimateSize() : 0;
+
+    total.recordQuery(nanos, e, 0, bytes);
+    for (QueryMetrics metrics : groupsOf(context)) {
+      metrics.recordQuery(nanos, e, rows, bytes);
+    }
+  }
+
+  @Override
+  public void onAfterQuery(
+      RequestManager queryMgr, JdbcRecordCursor cursor, long elapsedMillis, SQLException e) {
+    // a lazy query is only counted when it fails, its rows are counted as they are fetched
+    if (e != null) total.errors.increment();
+  }
+
+  @Override
+  public void onAfterGetConnection(SaberWrapper connection, long elapsedMillis, SQLException e) {
+    RequestContext context = connection != null ? connection.getContext() : null;
+    if (context == null) return;
+
+    long nanos = context.getConnectionWaitNanos();
+    total.recordConnectionWait(nanos);
+    for (QueryMetrics metrics : groupsOf(context)) {
+      metrics.recordConnectionWait(nanos);
+    }
+  }
+
+  @Override
+  public void onAfterResultSetNext(
+      SaberWrapper resultSet, boolean hasNext, long elapsedMillis, SQLException e) {
+    if (hasNext) total.rows.increment();
+  }
+
+  /**
+   * Takes a snapshot of the metrics.
+   *
+   * @return the snapshot
+   */
+  public Snapshot snapshot() {
+    return new Snapshot(
+        total.snapshot(), snapshotOf(dataSources), snapshotOf(dialects), snapshotOf(fingerprints));
+  }
+
+  /** Discards all the metrics collected so far. */
+  public void reset() {
+    total = new QueryMetrics();
+    dataSources.clear();
+    dialects.clear();
+    fingerprints.clear();
+  }
+
+  private QueryMetrics[] groupsOf(RequestContext context) {
+    ConnectionUri connectionUri = connectionUriOf(context.getConnectionUri());
+    String dataSource = connectionUri != null ? connectionUri.toString() : "UNKNOWN";
+    SqlDialect dialect = connectionUri != null ? connectionUri.getDialect() : null;
+
+    String dialectName = dialect != null ? dialect.name() : "UNKNOWN";
+
+    return new QueryMetrics[] {
+      dataSources.computeIfAbsent(dataSource, k -> new QueryMetrics()),
+      dialects.computeIfAbsent(dialectName, k -> new QueryMetrics()),
+      fingerprintMetricsOf(context.getQuery())
+    };
+  }
+
+  private QueryMetrics fingerprintMetricsOf(@Nullable String query) {
+    String fingerprint = query != null ? fingerprintOf(query) : OTHER_FINGERPRINT;
+    QueryMetrics metrics = fingerprints.get(fingerprint);
+    if (metrics != null) return metrics;
+
+    if (fingerprints.size() >= maximumFingerprints) fingerprint = OTHER_FINGERPRINT;
+    return fingerprints.computeIfAbsent(fingerprint, k -> new QueryMetrics());
+  }
+
+  @Nullable
+  private ConnectionUri connectionUriOf(@Nullable String connectionUri) {
+    if (connectionUri == null) return null;
+
+    ConnectionUri parsed = connectionUris.get(connectionUri);
+    if (parsed != null) return parsed;
+    try {
+      parsed = ConnectionUri.fromStr(connectionUri);
+    } catch (IllegalArgumentException e) {
+      return null;
+    }
+    connectionUris.put(connectionUri, parsed);
+    return parsed;
+  }
+
+  /**
+   * Gets the fingerprint of a query: its SQL with the string and numeric literals replaced by
+   * {@code ?} and each run of whitespace replaced by a single space.
+   *
+   * @param sql the SQL of the query
+   * @return the fingerprint
+   */
+  static String fingerprintOf(String sql) {
+    StringBuilder sb = new StringBuilder(sql.length());
+    int length = sql.length();
+    int i = 0;
+    while (i < length) {
+      char c = sql.charAt(i);
+      if (c == '\'') {
+        // a string literal, where a quote is escaped by doubling it
+        i++;
+        while (i < length) {
+          if (sql.charAt(i) == '\'') {
+            if (i + 1 < length && sql.charAt(i + 1) == '\'') {
+              i += 2;
+              continue;
+            }
+            break;
+          }
+          i++;
+        }
+        sb.append('?');
+        i++;
+      } else if (Character.isDigit(c) && !isPartOfIdentifier(sb)) {
+        while (i < length && (Character.isLetterOrDigit(sql.charAt(i)) || sql.charAt(i) == '.')) {
+          i++;
+        }
+        sb.append('?');
+      } else if (Character.isWhitespace(c)) {
+        while (i < length && Character.isWhitespace(sql.charAt(i))) {
+          i++;
+        }
+        if (sb.length() > 0 && i < length) sb.append(' ');
+      } else {
+        sb.append(c);
+        i++;
+      }
+    }
+    return sb.toString();
+  }
+
+  private static boolean isPartOfIdentifier(StringBuilder sb) {
+    if (sb.length() == 0) return false;
+    char previous = sb.charAt(sb.length() - 1);
+    return Character.isLetterOrDigit(previous) || previous == '_' || previous == '$';
+  }
+
+  private static ImmutableMap<String, QueryMetrics.Snapshot> snapshotOf(
+      Map<String, QueryMetrics> metrics) {
+    ImmutableMap.Builder<String, QueryMetrics.Snapshot> builder = ImmutableMap.builder();
+    metrics.forEach((key, value) -> builder.put(key, value.snapshot()));
+    return builder.buildKeepingLast();
+  }
+
+  /** The live metrics of a group of queries. */
+  public static final class QueryMetrics {
+
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LatencyHistogram connectionWait = new LatencyHistogram();
+    private final LongAdder queries = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder rows = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+    private final LongAdder poolWaits = new LongAdder();
+
+    QueryMetrics() {}
+
+    void recordQuery(long nanos, @Nullable SQLException e, long rowCount, long byteCount) {
+      latency.record(nanos);
+      queries.increment();
+      if (e != null) errors.increment();
+      if (rowCount > 0) rows.add(rowCount);
+      if (byteCount > 0) bytes.add(byteCount);
+    }
+
+    void recordConnectionWait(long nanos) {
+      connectionWait.record(nanos);
+      if (nanos >= POOL_WAIT_THRESHOLD_NANOS) poolWaits.increment();
+    }
+
+    Snapshot snapshot() {
+      return new Snapshot(
+          queries.sum(),
+          errors.sum(),
+          rows.sum(),
+          bytes.sum(),
+          poolWaits.sum(),
+          latency.snapshot(),
+          connectionWait.snapshot());
+    }
+
+    /** An immutable copy of the metrics of a group of queries. */
+    public static final class Snapshot {
+
+      private final long queries;
+      private final long errors;
+      private final long rows;
+      private final long bytes;
+      private final long poolWaits;
+      private final LatencyHistogram.Snapshot latency;
+      private final LatencyHistogram.Snapshot connectionWait;
+
+      Snapshot(
+          long queries,
+          long errors,
+          long rows,
+          long bytes,
+          long poolWaits,
+          LatencyHistogram.Snapshot latency,
+          LatencyHistogram.Snapshot connectionWait) {
+        this.queries = queries;
+        this.errors = errors;
+        this.rows = rows;
+        this.bytes = bytes;
+        this.poolWaits = poolWaits;
+        this.latency = latency;
+        this.connectionWait = connectionWait;
+      }
+
+      public long getQueries() {
+        return queries;
+      }
+
+      public long getErrors() {
+        return errors;
+      }
+
+      public long getRows() {
+        return rows;
+      }
+
+      public long getBytes() {
+        return bytes;
+      }
+
+      /**
+       * Gets the number of connections that took at least a millisecond to obtain from the pool,
+       * which means that no idle connection was available.
+       *
+       * @return the number of pool waits
+       */
+      public long getPoolWaits() {
+        return poolWaits;
+      }
+
+      public LatencyHistogram.Snapshot getLatency() {
+        return latency;
+      }
+
+      public LatencyHistogram.Snapshot getConnectionWait() {
+        return connectionWait;
+      }
+
+      @Override
+      public String toString() {
+        return String.format(
+            "queries=%d, errors=%d, rows=%d, bytes=%d, poolWaits=%d, latency=[%s]",
+            queries, errors, rows, bytes, poolWaits, latency);
+      }
+    }
+  }
+
+  /** An immutable copy of all the metrics of a {@link MetricsListener}. */
+  public static final class Snapshot {
+
+    private final QueryMetrics.Snapshot total;
+    private final ImmutableMap<String, QueryMetrics.Snapshot> dataSources;
+    private final ImmutableMap<String, QueryMetrics.Snapshot> dialects;
+    private final ImmutableMap<String, QueryMetrics.Snapshot> fingerprints;
+
+    Snapshot(
+        QueryMetrics.Snapshot total,
+        ImmutableMap<String, QueryMetrics.Snapshot> dataSources,
+        ImmutableMap<String, QueryMetrics.Snapshot> dialects,
+        ImmutableMap<String, QueryMetrics.Snapshot> fingerprints) {
+      this.total = total;
+      this.dataSources = dataSources;
+      this.dialects = dialects;
+      this.fingerprints = fingerprints;
+    }
+
+    public QueryMetrics.Snapshot getTotal() {
+      return total;
+    }
+
+    /**
+     * Gets the metrics per datasource, keyed by the connection URI without its password.
+     *
+     * @return the metrics per datasource
+     */
+    public ImmutableMap<String, QueryMetrics.Snapshot> getDataSources() {
+      return dataSources;
+    }
+
+    /**
+     * Gets the metrics per dialect, keyed by the name of the {@link SqlDialect}.
+     *
+     * @return the metrics per dialect
+     */
+    public ImmutableMap<String, QueryMetrics.Snapshot> getDialects() {
+      return dialects;
+    }
+
+    /**
+     * Gets the metrics per fingerprint.
+     *
+     * @return the metrics per fingerprint
+     */
+    public ImmutableMap<String, QueryMetrics.Snapshot> getFingerprints() {
+      return fingerprints;
+    }
+  }
+}
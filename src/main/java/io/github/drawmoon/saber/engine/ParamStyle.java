@@ -0,0 +1,82 @@
+/*
+ *            _
+ *  ___  __ _| |__   ___ _ __
+ * / __|/ _` | '_ \ / _ \ '__|
+ * \__ \ (_| | |_) |  __/ |
+ * |___/\__,_|_.__/ \___|_|
+ *
+ * Copyright 2024 drash
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.drawmoon.saber.engine;
+
+import io.github.drawmoon.saber.SqlDialect;
+import javax.annotation.Nullable;
+
+/**
+ * The style of the placeholders written for bind parameters. JDBC only accepts {@link #POSITIONAL}
+ * placeholders, the indexed styles are the native syntax of the databases themselves and are meant
+ * for SQL that is not executed through a {@link java.sql.PreparedStatement}.
+ *
+ * @author drash
+ * @version 1.0
+ * @since 2024
+ */
+public enum ParamStyle {
+
+  /** A question mark for every parameter, e.g. {@code ?}. */
+  POSITIONAL,
+
+  /** A colon followed by the 1-based index of the parameter, e.g. {@code :1}. */
+  COLON_INDEXED,
+
+  /** A dollar sign followed by the 1-based index of the parameter, e.g. {@code $1}. */
+  DOLLAR_INDEXED;
+
+  /**
+   * Gets the native placeholder style of the specified dialect.
+   *
+   * @param dialect the dialect
+   * @return the native placeholder style
+   */
+  public static ParamStyle nativeOf(@Nullable SqlDialect dialect) {
+    if (dialect == null) return POSITIONAL;
+
+    switch (dialect.getRoot()) {
+      case ORACLE:
+        return COLON_INDEXED;
+      case POSTGRES:
+        return DOLLAR_INDEXED;
+      default:
+        return POSITIONAL;
+    }
+  }
+
+  /**
+   * Gets the placeholder of the parameter at the specified index.
+   *
+   * @param index the 1-based index of the parameter
+   * @return the placeholder
+   */
+  public String placeholder(int index) {
+    switch (this) {
+      case COLON_INDEXED:
+        return ":" + index;
+      case DOLLAR_INDEXED:
+        return "$" + index;
+      default:
+        return "?";
+    }
+  }
+}
@@ -0,0 +1,277 @@
+/*
+ *            _
+ *  ___  __ _| |__   ___ _ __
+ * / __|/ _` | '_ \ / _ \ '__|
+ * \__ \ (_| | |_) |  __/ |
+ * |___/\__,_|_.__/ \___|_|
+ *
+ * Copyright 2024 drash
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.drawmoon.saber.engine;
+
+import static io.github.drawmoon.saber.common.Preconditions.checkNotNull;
+
+import com.google.common.collect.ImmutableList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import javax.annotation.Nullable;
+
+/**
+ * Resizes the connection pools of the datasources so that their total number of connections stays
+ * within the budget of {@link SaberOptions#getMaximumPoolSizeLimit()}. On each {@link
+ * #rebalance()}, the utilisation of every pool and the time spent waiting for its connections since
+ * the previous rebalance are sampled through the HikariCP MXBeans, then hot pools are grown and
+ * idle pools are shrunk by a quarter of their size at most.
+ *
+ * <p>When the wanted sizes exceed the budget, every pool is first granted its wanted size up to a
+ * fair share of the budget, and the remaining connections go to the pools with the most waiting
+ * threads and the longest waits. A busy pool therefore always gets at least its fair share, and
+ * every started pool keeps at least one connection, even if that exceeds a budget smaller than
+ * the number of pools. A pool is never grown beyond the maximum size it was configured with.
+ *
+ * @author drash
+ * @version 1.0
+ * @since 2024
+ */
+public class PoolGovernor {
+
+  private static final double HOT_UTILISATION = 0.8;
+  private static final double IDLE_UTILISATION = 0.25;
+  private static final long HOT_WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+
+  private final SaberOptions options;
+  private final Supplier<? extends Collection<SaberDataSource>> dataSources;
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Map<SaberDataSource, PoolStatus> lastStatus = new IdentityHashMap<>();
+
+  /**
+   * Creates a governor.
+   *
+   * @param options the options holding the connection budget
+   * @param dataSources a supplier of the datasources to govern
+   */
+  public PoolGovernor(
+      SaberOptions options, Supplier<? extends Collection<SaberDataSource>> dataSources) {
+    this.options = checkNotNull(options);
+    this.dataSources = checkNotNull(dataSources);
+  }
+
+  /**
+   * Gets the status of the pools sampled by the last rebalance.
+   *
+   * @return the status of each started pool
+   */
+  public List<PoolStatus> getPoolStatus() {
+    lock.lock();
+    try {
+      return ImmutableList.copyOf(lastStatus.values());
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Samples the pools and resizes them within the connection budget. Nothing is resized while the
+   * budget is not positive, but the pools are still sampled.
+   */
+  public void rebalance() {
+    lock.lock();
+    try {
+      List<PoolStatus> pools = sample();
+      int budget = options.getMaximumPoolSizeLimit();
+      if (budget <= 0) {
+        for (PoolStatus pool : pools) {
+          pool.targetPoolSize = pool.maximumPoolSize;
+        }
+        return;
+      }
+
+      allocate(pools, budget);
+      for (PoolStatus pool : pools) {
+        if (pool.targetPoolSize != pool.maximumPoolSize) {
+          pool.dataSource.setMaximumPoolSize(pool.targetPoolSize);
+        }
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private List<PoolStatus> sample() {
+    Map<SaberDataSource, PoolStatus> previous = new IdentityHashMap<>(lastStatus);
+    lastStatus.clear();
+
+    List<PoolStatus> pools = new ArrayList<>();
+    for (SaberDataSource dataSource : dataSources.get()) {
+      int maximumPoolSize = dataSource.getMaximumPoolSize();
+      if (maximumPoolSize <= 0) continue;
+
+      PoolStatus pool = new PoolStatus(dataSource, maximumPoolSize, previous.get(dataSource));
+      pool.targetPoolSize = wantedPoolSize(pool);
+      lastStatus.put(dataSource, pool);
+      pools.add(pool);
+    }
+    return pools;
+  }
+
+  private static int wantedPoolSize(PoolStatus pool) {
+    int size = pool.maximumPoolSize;
+    int step = Math.max(1, size / 4);
+    if (pool.isHot()) {
+      return Math.min(
+          pool.dataSource.getConfiguredMaximumPoolSize(), size + step + pool.threadsAwaiting);
+    }
+    if (pool.getUtilisation() < IDLE_UTILISATION) {
+      return Math.max(1, Math.max(pool.activeConnections + 1, size - step));
+    }
+    return size;
+  }
+
+  private static void allocate(List<PoolStatus> pools, int budget) {
+    int wanted = 0;
+    for (PoolStatus pool : pools) {
+      wanted += pool.targetPoolSize;
+    }
+    if (wanted <= budget) return;
+
+    int fairShare = Math.max(1, budget / pools.size());
+    int remaining = budget;
+    for (PoolStatus pool : pools) {
+      pool.grantedPoolSize = Math.min(pool.targetPoolSize, fairShare);
+      remaining -= pool.grantedPoolSize;
+    }
+
+    List<PoolStatus> byPressure = new ArrayList<>(pools);
+    byPressure.sort(
+        Comparator.comparingInt((PoolStatus pool) -> pool.threadsAwaiting)
+            .thenComparingLong(pool -> pool.averageWaitNanos)
+            .reversed());
+    for (PoolStatus pool : byPressure) {
+      if (remaining <= 0) break;
+
+      int extra = Math.min(remaining, pool.targetPoolSize - pool.grantedPoolSize);
+      pool.grantedPoolSize += extra;
+      remaining -= extra;
+    }
+
+    for (PoolStatus pool : pools) {
+      pool.targetPoolSize = pool.grantedPoolSize;
+    }
+  }
+
+  /** The state of a pool sampled by a {@link PoolGovernor}. */
+  public static final class PoolStatus {
+
+    private final SaberDataSource dataSource;
+    private final int maximumPoolSize;
+    private final int activeConnections;
+    private final int idleConnections;
+    private final int threadsAwaiting;
+    private final long connectionWaitNanos;
+    private final long connectionAcquisitions;
+    private final long averageWaitNanos;
+    private int targetPoolSize;
+    private int grantedPoolSize;
+
+    PoolStatus(SaberDataSource dataSource, int maximumPoolSize, @Nullable PoolStatus previous) {
+      this.dataSource = dataSource;
+      this.maximumPoolSize = maximumPoolSize;
+      this.activeConnections = dataSource.getActiveConnections();
+      this.idleConnections = dataSource.getIdleConnections();
+      this.threadsAwaiting = dataSource.getThreadsAwaitingConnection();
+      this.connectionWaitNanos = dataSource.getConnectionWaitNanos();
+      this.connectionAcquisitions = dataSource.getConnectionAcquisitions();
+
+      // the average over the acquisitions since the previous sample
+      long waitNanos = connectionWaitNanos - (previous != null ? previous.connectionWaitNanos : 0);
+      long acquisitions =
+          connectionAcquisitions - (previous != null ? previous.connectionAcquisitions : 0);
+      this.averageWaitNanos = acquisitions > 0 ? waitNanos / acquisitions : 0;
+    }
+
+    public ConnectionUri getConnectionUri() {
+      return dataSource.getConnectionUri();
+    }
+
+    public int getMaximumPoolSize() {
+      return maximumPoolSize;
+    }
+
+    public int getActiveConnections() {
+      return activeConnections;
+    }
+
+    public int getIdleConnections() {
+      return idleConnections;
+    }
+
+    public int getThreadsAwaiting() {
+      return threadsAwaiting;
+    }
+
+    /**
+     * Gets the average time spent waiting for a connection since the previous sample.
+     *
+     * @return the average wait time in nanoseconds
+     */
+    public long getAverageWaitNanos() {
+      return averageWaitNanos;
+    }
+
+    /**
+     * Gets the share of the connections of the pool that are in use.
+     *
+     * @return the utilisation, between 0 and 1
+     */
+    public double getUtilisation() {
+      return Math.min(1, (double) activeConnections / maximumPoolSize);
+    }
+
+    /**
+     * Gets the maximum size the pool has been resized to by the sample.
+     *
+     * @return the new maximum pool size
+     */
+    public int getTargetPoolSize() {
+      return targetPoolSize;
+    }
+
+    boolean isHot() {
+      return threadsAwaiting > 0
+          || averageWaitNanos >= HOT_WAIT_NANOS
+          || getUtilisation() >= HOT_UTILISATION;
+    }
+
+    @Override
+    public String toString() {
+      return String.format(
+          "%s: size=%d, active=%d, idle=%d, awaiting=%d, averageWait=%dns, target=%d",
+          getConnectionUri(),
+          maximumPoolSize,
+          activeConnections,
+          idleConnections,
+          threadsAwaiting,
+          averageWaitNanos,
+          targetPoolSize);
+    }
+  }
+}
@@ -0,0 +1,120 @@
+/*
+ *            _
+ *  ___  __ _| |__   ___ _ __
+ * / __|/ _` | '_ \ / _ \ '__|
+ * \__ \ (_| | |_) |  __/ |
+ * |___/\__,_|_.__/ \___|_|
+ *
+ * Copyright 2024 drash
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.drawmoon.saber.engine;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static io.github.drawmoon.saber.common.Preconditions.checkNotNull;
+
+import io.github.drawmoon.saber.DataTable;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import javax.annotation.Nullable;
+
+/**
+ * An iterator over the result of a query in batches of rows. Each call to {@link #next()} pulls at
+ * most one batch from the driver into a new {@link DataTable}, so the memory held by the iterator
+ * is bounded by the batch size rather than by the size of the result. The underlying cursor is
+ * closed when the result is exhausted, or by {@link #close()}.
+ *
+ * <p>Whether the driver itself streams the rows depends on its handling of {@link
+ * java.sql.Statement#setFetchSize}, PostgreSQL for instance only uses a server-side cursor when the
+ * connection is not in auto-commit mode, see {@link JdbcRecordCursor#setStreaming(boolean)}.
+ *
+ * @author drash
+ * @version 1.0
+ * @since 2024
+ */
+public class RecordBatchIterator implements Iterator<DataTable>, AutoCloseable {
+
+  private final JdbcRecordCursor cursor;
+  private final String query;
+  private final int batchSize;
+
+  @Nullable private JdbcRowLoader loader;
+  private boolean hasNext;
+  private boolean started;
+  private boolean closed;
+
+  /**
+   * Creates an iterator over the specified cursor.
+   *
+   * @param cursor the cursor to read from, it must not have been advanced yet
+   * @param query the query of the cursor, set as the execution SQL of each batch
+   * @param batchSize the maximum number of rows per batch
+   */
+  public RecordBatchIterator(JdbcRecordCursor cursor, String query, int batchSize) {
+    checkArgument(batchSize > 0, "batch size must be positive");
+    this.cursor = checkNotNull(cursor);
+    this.query = query;
+    this.batchSize = batchSize;
+  }
+
+  public int getBatchSize() {
+    return batchSize;
+  }
+
+  @Override
+  public boolean hasNext() {
+    if (closed) return false;
+    if (!started) {
+      started = true;
+      hasNext = cursor.advanceNextPosition();
+      loader = new JdbcRowLoader(cursor);
+      if (!hasNext) closeQuietly();
+    }
+    return hasNext;
+  }
+
+  @Override
+  public DataTable next() {
+    if (!hasNext()) throw new NoSuchElementException();
+
+    JdbcRowLoader loader = checkNotNull(this.loader);
+    DataTable batch = loader.newTable(batchSize);
+    int rows = 0;
+    while (hasNext && rows < batchSize) {
+      loader.loadRow();
+      rows++;
+      hasNext = cursor.advanceNextPosition();
+    }
+    batch.setExecutionSql(query);
+
+    if (!hasNext) closeQuietly();
+    return batch;
+  }
+
+  @Override
+  public void close() {
+    if (closed) return;
+    closed = true;
+    hasNext = false;
+    cursor.close();
+  }
+
+  private void closeQuietly() {
+    try {
+      close();
+    } catch (Exception expected) {
+      // safely close
+    }
+  }
+}
@@ -49,6 +49,21 @@ public class Request {
   /** The timeout value for this request. */
   private Integer timeout;
 
+  /** The number of rows fetched per round trip for this request. */
+  private Integer fetchSize;
+
+  /** The values bound to the placeholders of the query, in order. */
+  private Object[] parameters;
+
+  /** The SQL types of the parameters, as defined in {@link java.sql.Types}. */
+  private int[] parameterTypes;
+
+  /** Whether this request skips the result cache. */
+  private boolean bypassCache;
+
+  /** Whether this request replaces the cached result with a fresh one. */
+  private boolean refreshCache;
+
   /**
    * Gets the unique identifier for this request.
    *
@@ -94,6 +109,55 @@ public class Request {
     this.query = query;
   }
 
+  /**
+   * Sets the query of this request from a rendered SQL template, together with its parameters.
+   *
+   * @param template the SQL template to set
+   */
+  public void setQuery(SqlTemplate template) {
+    this.query = template.getSql();
+    this.parameters = template.getParameterValues();
+    this.parameterTypes = template.getParameterTypes();
+  }
+
+  /**
+   * Gets the values bound to the placeholders of the query. A request with parameters is executed
+   * through a {@link java.sql.PreparedStatement}.
+   *
+   * @return the parameter values, or null if the query has no parameters
+   */
+  public Object[] getParameters() {
+    return parameters;
+  }
+
+  /**
+   * Sets the values bound to the placeholders of the query. A request with parameters is executed
+   * through a {@link java.sql.PreparedStatement}.
+   *
+   * @param parameters the parameter values to set
+   */
+  public void setParameters(Object[] parameters) {
+    this.parameters = parameters;
+  }
+
+  /**
+   * Gets the SQL types of the parameters, as defined in {@link java.sql.Types}.
+   *
+   * @return the parameter types, or null to let the driver infer them from the values
+   */
+  public int[] getParameterTypes() {
+    return parameterTypes;
+  }
+
+  /**
+   * Sets the SQL types of the parameters, as defined in {@link java.sql.Types}.
+   *
+   * @param parameterTypes the parameter types to set
+   */
+  public void setParameterTypes(int[] parameterTypes) {
+    this.parameterTypes = parameterTypes;
+  }
+
   /**
    * Gets the timeout value for this request.
    *
@@ -111,4 +175,60 @@ public class Request {
   public void setTimeout(Integer timeout) {
     this.timeout = timeout;
   }
+
+  /**
+   * Gets the number of rows fetched per round trip for this request.
+   *
+   * @return the fetch size, or null to use the default of the options
+   */
+  public Integer getFetchSize() {
+    return fetchSize;
+  }
+
+  /**
+   * Sets the number of rows fetched per round trip for this request.
+   *
+   * @param fetchSize the fetch size to set
+   */
+  public void setFetchSize(Integer fetchSize) {
+    this.fetchSize = fetchSize;
+  }
+
+  /**
+   * Gets whether this request skips the result cache, so that its query is always executed and
+   * its result is not cached.
+   *
+   * @return true to skip the result cache
+   */
+  public boolean isBypassCache() {
+    return bypassCache;
+  }
+
+  /**
+   * Sets whether this request skips the result cache, so that its query is always executed and
+   * its result is not cached.
+   *
+   * @param bypassCache true to skip the result cache
+   */
+  public void setBypassCache(boolean bypassCache) {
+    this.bypassCache = bypassCache;
+  }
+
+  /**
+   * Gets whether this request discards the cached result of its query and caches a fresh one.
+   *
+   * @return true to refresh the cached result
+   */
+  public boolean isRefreshCache() {
+    return refreshCache;
+  }
+
+  /**
+   * Sets whether this request discards the cached result of its query and caches a fresh one.
+   *
+   * @param refreshCache true to refresh the cached result
+   */
+  public void setRefreshCache(boolean refreshCache) {
+    this.refreshCache = refreshCache;
+  }
 }
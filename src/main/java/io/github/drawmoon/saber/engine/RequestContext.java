@@ -24,6 +24,7 @@ package io.github.drawmoon.saber.engine;
 import static io.github.drawmoon.saber.common.Preconditions.checkNotNull;
 
 import io.github.drawmoon.saber.DataTable;
+import io.github.drawmoon.saber.common.Profiler;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
@@ -34,10 +35,12 @@ public class RequestContext {
   private final Request request;
   private final SaberOptions options;
   private final SaberEventListener listener;
+  private final Profiler profiler = new Profiler();
 
   @Nullable private DataTable data;
   @Nullable private SQLException sqlError;
   @Nullable private Response response;
+  private long connectionWaitNanos;
 
   @Nullable private transient SaberWrapper connection;
   @Nullable private transient SaberWrapper statement;
@@ -73,6 +76,29 @@ public class RequestContext {
     return listener;
   }
 
+  /**
+   * Gets the time elapsed since the request started.
+   *
+   * @return the elapsed time in nanoseconds
+   */
+  public long getElapsedNanos() {
+    return profiler.getNanos();
+  }
+
+  /**
+   * Gets the time it took to obtain the connection of the request from its pool. It is only
+   * measured while connection events are subscribed.
+   *
+   * @return the time in nanoseconds, or 0 if it has not been measured
+   */
+  public long getConnectionWaitNanos() {
+    return connectionWaitNanos;
+  }
+
+  public void setConnectionWaitNanos(long connectionWaitNanos) {
+    this.connectionWaitNanos = connectionWaitNanos;
+  }
+
   public DataTable getData() {
     return data;
   }
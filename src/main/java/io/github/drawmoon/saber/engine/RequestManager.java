@@ -23,17 +23,30 @@ package io.github.drawmoon.saber.engine;
 
 import static io.github.drawmoon.saber.common.Preconditions.checkNotNull;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.google.common.base.Throwables;
+import com.google.common.primitives.Ints;
 import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import io.github.drawmoon.saber.DataTable;
-import io.github.drawmoon.saber.DataTable.DataColumn;
-import io.github.drawmoon.saber.DataTable.DataRow;
 import io.github.drawmoon.saber.common.Profiler;
 import io.github.drawmoon.saber.exceptions.EngineException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
 import java.sql.Connection;
-import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
-import java.util.LinkedHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import javax.annotation.Nullable;
 
 public class RequestManager implements AutoCloseable {
 
@@ -41,19 +54,152 @@ public class RequestManager implements AutoCloseable {
   private final SaberOptions options;
   private final SaberEventListener listener;
   private final ExecutorService executor;
+  private final ExecutorService directExecutor;
+  @Nullable private final ResultCache resultCache;
 
   public RequestManager(SaberOptions options, SaberEventListener listener) {
-    this.store = new DataSourceManager(options, listener);
+    this(options, listener, new DataSourceManager(options, listener));
+  }
+
+  RequestManager(SaberOptions options, SaberEventListener listener, DataSourceManager store) {
+    this.store = checkNotNull(store);
     this.options = checkNotNull(options);
     this.listener = checkNotNull(listener);
-    this.executor = MoreExecutors.newDirectExecutorService();
+    this.executor = newQueryExecutor(options);
+    this.directExecutor = MoreExecutors.newDirectExecutorService();
+    this.resultCache =
+        options.getResultCacheSize() > 0
+            ? new ResultCache(options.getResultCacheSize(), options.getResultCacheTtl())
+            : null;
   }
 
   public DataSourceManager getStore() {
     return store;
   }
 
+  /**
+   * Gets the cache of query results, or null if the result cache is disabled by the options.
+   *
+   * @return the result cache
+   */
+  @Nullable
+  public ResultCache getResultCache() {
+    return resultCache;
+  }
+
+  /**
+   * Executes the query of the request and returns its response. When the result cache is enabled,
+   * the result is served from the cache unless the request bypasses it, and the data of the
+   * response is a read-only {@link DataTable#slice(int) slice} of the cached table, which is shared
+   * with the other requests for the same query.
+   *
+   * @param request the request to execute
+   * @return the response
+   */
   public Response fetch(Request request) {
+    return fetchCached(request, executor, null);
+  }
+
+  /**
+   * Executes the query of the request on the query executor and returns a future of its response.
+   * The future completes exceptionally with a {@link java.util.concurrent.TimeoutException} when
+   * the timeout of the request, or the default query timeout of the options, elapses first, in
+   * which case the running statement is cancelled. Cancelling the future cancels the statement as
+   * well. A query that goes through the result cache may be awaited by other requests for the same
+   * query, so it is not cancelled: the timeout or the cancellation only completes the future of
+   * this request, and the query keeps running until it fills the cache. Once the manager is closed,
+   * the future completes exceptionally with a {@link RejectedExecutionException}.
+   *
+   * @param request the request to execute
+   * @return a future of the response
+   */
+  public CompletableFuture<Response> fetchAsync(Request request) {
+    checkNotNull(request);
+
+    // the query already runs on a worker, so the cursor must not hand it over to the pool again,
+    // and a cached load is owned by no single request, so it is not tracked for cancellation
+    RunningQuery running = isCached(request) ? null : new RunningQuery();
+    CompletableFuture<Response> future;
+    try {
+      future =
+          CompletableFuture.supplyAsync(
+              () -> fetchCached(request, directExecutor, running), executor);
+    } catch (RejectedExecutionException e) {
+      return CompletableFuture.failedFuture(e);
+    }
+
+    int timeout = resolveTimeout(request);
+    if (timeout > 0) {
+      future.orTimeout(timeout, TimeUnit.SECONDS);
+    }
+    if (running != null) {
+      future.whenComplete(
+          (response, e) -> {
+            if (e != null) running.cancel();
+          });
+    }
+    return future;
+  }
+
+  private Response fetchCached(
+      Request request, ExecutorService cursorExecutor, @Nullable RunningQuery running) {
+    ResultCache cache = this.resultCache;
+    if (cache == null || !isCached(request)) {
+      return fetch(request, cursorExecutor, running);
+    }
+
+    ResultCache.Key key = ResultCache.Key.of(request);
+    if (request.isRefreshCache()) cache.invalidate(key);
+
+    Profiler p = new Profiler();
+    Response[] fetched = new Response[1];
+    DataTable data;
+    try {
+      data =
+          cache.get(
+              key,
+              () -> {
+                Response response = fetch(request, cursorExecutor, running);
+                fetched[0] = response;
+                if (response.getErrors() != null || response.getData() == null) {
+                  // failures are not cached, the requests waiting for this one get its errors
+                  throw new FetchFailedException(response.getErrors());
+                }
+                return response.getData();
+              });
+    } catch (ExecutionException e) {
+      if (fetched[0] != null) return fetched[0];
+
+      Response response = new Response(request);
+      if (e.getCause() instanceof FetchFailedException) {
+        response.setErrors(((FetchFailedException) e.getCause()).errors);
+      }
+      return response;
+    } catch (UncheckedExecutionException e) {
+      Throwables.throwIfUnchecked(e.getCause());
+      throw new EngineException(e.getCause());
+    }
+
+    // every request gets its own read-only view, so none can modify the cached table
+    long elapsed = p.getMillis();
+    if (fetched[0] != null) {
+      listener.onResultCacheMiss(this, request, elapsed);
+      fetched[0].setData(data.slice(0));
+      return fetched[0];
+    }
+
+    listener.onResultCacheHit(this, request, elapsed);
+    Response response = new Response(request);
+    response.setData(data.slice(0));
+    return response;
+  }
+
+  private boolean isCached(Request request) {
+    return resultCache != null && !checkNotNull(request).isBypassCache();
+  }
+
+  private Response fetch(
+      Request request, ExecutorService cursorExecutor, @Nullable RunningQuery running) {
     listener.onBeforeQuery(this, checkNotNull(request));
 
     Profiler p = new Profiler();
@@ -61,39 +207,19 @@ public class RequestManager implements AutoCloseable {
     Response response;
     try {
       Connection connection = getConnectionOrThrow(context);
-      try (JdbcRecordCursor cursor =
-          new JdbcRecordCursor(
-              connection, request.getQuery(), request.getTimeout(), executor, listener)) {
+      try (JdbcRecordCursor cursor = newCursor(connection, request, cursorExecutor)) {
+        if (running != null) running.attach(cursor);
 
         boolean hasNext = cursor.advanceNextPosition();
 
-        DataTable dataTable = new DataTable();
-        LinkedHashMap<String, Integer> metadata = new LinkedHashMap<>();
-        LinkedHashMap<String, Integer> indexMap = new LinkedHashMap<>();
-
-        ResultSetMetaData meta = cursor.getMetaData();
-        for (int columnIndex = 1; columnIndex <= meta.getColumnCount(); columnIndex++) {
-          String columnName = meta.getColumnName(columnIndex);
-          int columnType = meta.getColumnType(columnIndex);
-
-          metadata.put(columnName, columnType);
-          indexMap.put(columnName, columnIndex);
-          dataTable.addColumn(new DataColumn(columnName));
-        }
-
+        JdbcRowLoader loader = new JdbcRowLoader(cursor);
+        DataTable dataTable = loader.newTable(cursor.getFetchSize());
         while (hasNext) {
-          DataRow dataRow = dataTable.newRow();
-          for (DataColumn dataColumn : dataTable.getColumns()) {
-            Object value = cursor.getObject(indexMap.get(dataColumn.getName()));
-            dataRow.setRowData(dataColumn.getName(), value);
-            dataTable.addRow(dataRow);
-          }
-
+          loader.loadRow();
           hasNext = cursor.advanceNextPosition();
         }
 
         dataTable.setExecutionSql(request.getQuery());
-        dataTable.setMetadata(metadata);
 
         context.setData(dataTable);
       } catch (Exception e) {
@@ -123,9 +249,7 @@ public class RequestManager implements AutoCloseable {
     SQLException exception = null;
     try {
       Connection connection = getConnectionOrThrow(context);
-      cursor =
-          new JdbcRecordCursor(
-              connection, request.getQuery(), request.getTimeout(), executor, listener);
+      cursor = newCursor(connection, request, executor);
       return cursor;
     } catch (SQLException e) {
       exception = e;
@@ -136,15 +260,180 @@ public class RequestManager implements AutoCloseable {
     }
   }
 
+  /**
+   * Executes the query of the request and returns an iterator over its rows in batches of the
+   * fetch size. Only one batch is held in memory at a time, the caller is responsible for closing
+   * the iterator if it is not exhausted. Auto-commit is turned off on the connection until the
+   * iterator is closed, so that drivers such as PostgreSQL stream the rows, see {@link
+   * JdbcRecordCursor#setStreaming(boolean)}.
+   *
+   * @param request the request to execute
+   * @return an iterator over the batches of the result
+   */
+  public RecordBatchIterator fetchBatches(Request request) {
+    JdbcRecordCursor cursor = fetchLazy(request);
+    cursor.setStreaming(true);
+    return new RecordBatchIterator(cursor, request.getQuery(), resolveFetchSize(request));
+  }
+
+  /**
+   * Executes the query of the request and writes its rows to the generator as they are fetched,
+   * without building a {@link DataTable}. The result cache is not used.
+   *
+   * @param request the request to execute
+   * @param generator the generator to write to
+   * @param shape the shape of the JSON
+   * @return the number of rows written
+   * @throws IOException if the generator fails
+   * @see JsonRecordWriter
+   */
+  public long fetchJson(Request request, JsonGenerator generator, JsonRecordWriter.Shape shape)
+      throws IOException {
+    JdbcRecordCursor cursor = fetchLazy(request);
+    try {
+      return new JsonRecordWriter(cursor, shape, resolveFetchSize(request)).write(generator);
+    } finally {
+      closeQuietly(cursor);
+    }
+  }
+
+  /**
+   * Executes the query of the request and writes its rows to the stream as UTF-8 JSON as they are
+   * fetched, without building a {@link DataTable}. The result cache is not used, and the stream is
+   * flushed but not closed.
+   *
+   * @param request the request to execute
+   * @param out the stream to write to
+   * @param shape the shape of the JSON
+   * @return the number of rows written
+   * @throws IOException if the stream fails
+   * @see JsonRecordWriter
+   */
+  public long fetchJson(Request request, OutputStream out, JsonRecordWriter.Shape shape)
+      throws IOException {
+    JdbcRecordCursor cursor = fetchLazy(request);
+    try {
+      return new JsonRecordWriter(cursor, shape, resolveFetchSize(request)).write(out);
+    } finally {
+      closeQuietly(cursor);
+    }
+  }
+
+  private static void closeQuietly(JdbcRecordCursor cursor) {
+    try {
+      cursor.close();
+    } catch (Exception expected) {
+      // safely close
+    }
+  }
+
+  private JdbcRecordCursor newCursor(
+      Connection connection, Request request, ExecutorService cursorExecutor) {
+    return new JdbcRecordCursor(
+        connection,
+        request.getQuery(),
+        request.getParameters(),
+        request.getParameterTypes(),
+        resolveTimeout(request),
+        resolveFetchSize(request),
+        cursorExecutor,
+        listener);
+  }
+
+  private int resolveTimeout(Request request) {
+    Integer timeout = request.getTimeout();
+    return timeout != null ? timeout : Ints.saturatedCast(options.getQueryTimeout());
+  }
+
+  private int resolveFetchSize(Request request) {
+    Integer fetchSize = request.getFetchSize();
+    return fetchSize != null && fetchSize > 0 ? fetchSize : options.getFetchSize();
+  }
+
   private Connection getConnectionOrThrow(RequestContext context) throws SQLException {
     SaberDataSource dataSource = store.get(context);
-    return dataSource.getConnection();
+    return dataSource.getConnection(context);
+  }
+
+  private static ExecutorService newQueryExecutor(SaberOptions options) {
+    if (options.isVirtualThreads()) {
+      ExecutorService executor = newVirtualThreadPerTaskExecutor();
+      if (executor != null) return executor;
+    }
+
+    int threads = Math.max(1, options.getMaximumQueryThreads());
+    ThreadPoolExecutor executor =
+        new ThreadPoolExecutor(
+            threads,
+            threads,
+            60L,
+            TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(),
+            new ThreadFactoryBuilder().setNameFormat("saber-query-%d").setDaemon(true).build());
+    executor.allowCoreThreadTimeOut(true);
+    return executor;
+  }
+
+  @Nullable
+  private static ExecutorService newVirtualThreadPerTaskExecutor() {
+    // the source level predates virtual threads, so the factory is looked up at runtime and the
+    // platform pool is used on a JDK that does not provide it
+    try {
+      Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+      return (ExecutorService) factory.invoke(null);
+    } catch (ReflectiveOperationException e) {
+      return null;
+    }
+  }
+
+  /** Signals that a result is not cached because its query failed. */
+  private static final class FetchFailedException extends Exception {
+
+    private static final long serialVersionUID = 1L;
+
+    @Nullable private final String[] errors;
+
+    FetchFailedException(@Nullable String[] errors) {
+      super(null, null, false, false);
+      this.errors = errors;
+    }
+  }
+
+  /** Tracks the cursor of an asynchronous query, so that another thread can cancel it. */
+  private static final class RunningQuery {
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    @Nullable private JdbcRecordCursor cursor;
+    private boolean cancelled;
+
+    void attach(JdbcRecordCursor cursor) {
+      lock.lock();
+      try {
+        this.cursor = cursor;
+        if (cancelled) cursor.cancel();
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    void cancel() {
+      lock.lock();
+      try {
+        cancelled = true;
+        if (cursor != null) cursor.cancel();
+      } finally {
+        lock.unlock();
+      }
+    }
   }
 
   @Override
-  public void close() throws Exception {
+  public void close() {
+    if (resultCache != null) resultCache.invalidateAll();
     try {
       executor.shutdown();
+      directExecutor.shutdown();
     } catch (Exception expected) {
       // safely close
     }
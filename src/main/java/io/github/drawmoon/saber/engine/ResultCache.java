@@ -0,0 +1,185 @@
+/*
+ *            _
+ *  ___  __ _| |__   ___ _ __
+ * / __|/ _` | '_ \ / _ \ '__|
+ * \__ \ (_| | |_) |  __/ |
+ * |___/\__,_|_.__/ \___|_|
+ *
+ * Copyright 2024 drash
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.drawmoon.saber.engine;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static io.github.drawmoon.saber.common.Preconditions.checkNotNull;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.primitives.Ints;
+import io.github.drawmoon.saber.DataTable;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
+
+/**
+ * A cache of query results, keyed by the connection URI, the SQL and the bind parameters of a
+ * request. The results expire a fixed time after they were fetched, and the least recently used
+ * ones are evicted once the estimated size of all the cached {@link DataTable}s exceeds the
+ * maximum weight. Concurrent requests for a result that is being fetched wait for that single
+ * execution rather than running the query again.
+ *
+ * <p>A cached table is shared by every request it is returned to. {@link RequestManager} hands
+ * each request a read-only {@link DataTable#slice(int) slice} of it, so that no request can modify
+ * what the others get.
+ *
+ * @author drash
+ * @version 1.0
+ * @since 2024
+ */
+public final class ResultCache {
+
+  private final Cache<Key, DataTable> cache;
+
+  /**
+   * Creates a result cache.
+   *
+   * @param maximumWeight the maximum estimated number of bytes of the cached results
+   * @param ttl the time in milliseconds after which a cached result expires
+   */
+  public ResultCache(long maximumWeight, long ttl) {
+    checkArgument(maximumWeight > 0, "maximum weight must be positive");
+    checkArgument(ttl > 0, "ttl must be positive");
+    this.cache =
+        CacheBuilder.newBuilder()
+            .maximumWeight(maximumWeight)
+            .<Key, DataTable>weigher((key, table) -> Ints.saturatedCast(table.estimateSize()))
+            .expireAfterWrite(ttl, TimeUnit.MILLISECONDS)
+            .recordStats()
+            .build();
+  }
+
+  /**
+   * Gets the cached result of a key, or fetches it with the loader. Only one loader runs at a time
+   * for a key, the other callers wait for its result. A failed load is not cached.
+   *
+   * @param key the key of the result
+   * @param loader the loader of the result
+   * @return the result
+   * @throws ExecutionException if the loader failed
+   */
+  public DataTable get(Key key, Callable<DataTable> loader) throws ExecutionException {
+    return cache.get(key, loader);
+  }
+
+  /**
+   * Discards the cached result of a key.
+   *
+   * @param key the key of the result
+   */
+  public void invalidate(Key key) {
+    cache.invalidate(key);
+  }
+
+  /** Discards all the cached results. */
+  public void invalidateAll() {
+    cache.invalidateAll();
+  }
+
+  /**
+   * Gets the approximate number of cached results.
+   *
+   * @return the number of cached results
+   */
+  public long size() {
+    return cache.size();
+  }
+
+  /**
+   * Gets the statistics of the cache, such as its hit and eviction counts.
+   *
+   * @return the statistics
+   */
+  public CacheStats stats() {
+    return cache.stats();
+  }
+
+  /** The key of a cached result. */
+  public static final class Key {
+
+    @Nullable private final String connectionUri;
+    @Nullable private final String query;
+    @Nullable private final Object[] parameters;
+    @Nullable private final int[] parameterTypes;
+    private final int hashCode;
+
+    private Key(
+        @Nullable String connectionUri,
+        @Nullable String query,
+        @Nullable Object[] parameters,
+        @Nullable int[] parameterTypes) {
+      this.connectionUri = connectionUri;
+      this.query = query;
+      this.parameters = parameters != null ? parameters.clone() : null;
+      this.parameterTypes = parameterTypes != null ? parameterTypes.clone() : null;
+      this.hashCode =
+          Objects.hash(
+              connectionUri,
+              query,
+              Arrays.deepHashCode(this.parameters),
+              Arrays.hashCode(this.parameterTypes));
+    }
+
+    /**
+     * Creates the key of the result of a request.
+     *
+     * @param request the request
+     * @return the key
+     */
+    public static Key of(Request request) {
+      checkNotNull(request);
+      return new Key(
+          request.getConnectionUri(),
+          request.getQuery(),
+          request.getParameters(),
+          request.getParameterTypes());
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) return true;
+      if (!(o instanceof Key)) return false;
+
+      Key other = (Key) o;
+      return hashCode == other.hashCode
+          && Objects.equals(connectionUri, other.connectionUri)
+          && Objects.equals(query, other.query)
+          && Arrays.deepEquals(parameters, other.parameters)
+          && Arrays.equals(parameterTypes, other.parameterTypes);
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+
+    @Override
+    public String toString() {
+      return connectionUri + ": " + query;
+    }
+  }
+}
@@ -101,6 +101,7 @@ public class SaberCallableStatement extends SaberPreparedStatement implements Ca
     return getCallableStatement().getDouble(parameterIndex);
   }
 
+  @SuppressWarnings("deprecation")
   @Override
   public BigDecimal getBigDecimal(int parameterIndex, int scale) throws SQLException {
     return getCallableStatement().getBigDecimal(parameterIndex);
@@ -132,6 +132,11 @@ public class SaberConnection implements Connection, SaberWrapper {
 
   @Override
   public void close() throws SQLException {
+    if (!context.getListener().isSubscribed(EventCategory.CONNECTION)) {
+      this.connection.close();
+      return;
+    }
+
     Profiler p = new Profiler();
     try {
       this.connection.close();
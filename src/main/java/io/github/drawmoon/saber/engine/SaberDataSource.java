@@ -21,17 +21,24 @@
  */
 package io.github.drawmoon.saber.engine;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static io.github.drawmoon.saber.common.Preconditions.checkNotNull;
 
 import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariConfigMXBean;
 import com.zaxxer.hikari.HikariDataSource;
 import com.zaxxer.hikari.HikariPoolMXBean;
 import io.github.drawmoon.saber.common.Profiler;
+import io.github.drawmoon.saber.exceptions.EngineException;
 import java.io.PrintWriter;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.sql.SQLFeatureNotSupportedException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.logging.Logger;
 import javax.annotation.Nullable;
 import javax.sql.DataSource;
@@ -41,14 +48,25 @@ public class SaberDataSource implements DataSource, SaberWrapper, AutoCloseable
   private static final AtomicInteger counter = new AtomicInteger(0);
   protected final int wrapperId;
   protected final ConnectionUri connectionUri;
-
-  @Nullable protected transient RequestContext context;
-  @Nullable protected transient HikariDataSource dataSource;
-
-  public SaberDataSource(RequestContext context) {
+  protected final SaberOptions options;
+  private final ReentrantLock bindLock = new ReentrantLock();
+  private final LongAdder connectionWaitNanos = new LongAdder();
+  private final LongAdder connectionAcquisitions = new LongAdder();
+  private final AtomicInteger pendingConnections = new AtomicInteger();
+
+  @Nullable protected transient volatile HikariDataSource dataSource;
+  private volatile boolean closed;
+  private volatile int configuredMaximumPoolSize;
+  private volatile int configuredMinimumIdle;
+
+  public SaberDataSource(ConnectionUri connectionUri, SaberOptions options) {
     this.wrapperId = counter.getAndIncrement();
-    this.context = checkNotNull(context);
-    this.connectionUri = ConnectionUri.fromStr(context.getConnectionUri());
+    this.connectionUri = checkNotNull(connectionUri);
+    this.options = checkNotNull(options);
+  }
+
+  public ConnectionUri getConnectionUri() {
+    return connectionUri;
   }
 
   public int getActiveConnections() {
@@ -58,6 +76,15 @@ public class SaberDataSource implements DataSource, SaberWrapper, AutoCloseable
     return bean.getActiveConnections();
   }
 
+  /**
+   * Gets whether a connection of the pool is in use, or is being obtained by a request.
+   *
+   * @return true if the pool is in use
+   */
+  public boolean isInUse() {
+    return pendingConnections.get() > 0 || getActiveConnections() > 0;
+  }
+
   public int getIdleConnections() {
     if (dataSource == null) return 0;
 
@@ -72,11 +99,111 @@ public class SaberDataSource implements DataSource, SaberWrapper, AutoCloseable
     return bean.getTotalConnections();
   }
 
-  protected synchronized void bindDataSource() {
-    checkNotNull(context);
-    if (dataSource != null) return;
+  /**
+   * Gets the number of threads waiting for a connection of the pool.
+   *
+   * @return the number of waiting threads, or 0 if the pool is not started
+   */
+  public int getThreadsAwaitingConnection() {
+    if (dataSource == null) return 0;
+
+    HikariPoolMXBean bean = dataSource.getHikariPoolMXBean();
+    return bean.getThreadsAwaitingConnection();
+  }
 
-    HikariConfig hikariConfig = context.getOptions().getHikariConfig();
+  /**
+   * Gets the total time spent waiting for connections of the pool since it was created.
+   *
+   * @return the total wait time in nanoseconds
+   */
+  public long getConnectionWaitNanos() {
+    return connectionWaitNanos.sum();
+  }
+
+  /**
+   * Gets the number of connections obtained from the pool since it was created, including the
+   * attempts that failed.
+   *
+   * @return the number of connection acquisitions
+   */
+  public long getConnectionAcquisitions() {
+    return connectionAcquisitions.sum();
+  }
+
+  /**
+   * Gets the current maximum size of the pool, which may have been changed by a {@link
+   * PoolGovernor}.
+   *
+   * @return the maximum pool size, or 0 if the pool is not started
+   */
+  public int getMaximumPoolSize() {
+    if (dataSource == null) return 0;
+
+    HikariConfigMXBean bean = dataSource.getHikariConfigMXBean();
+    return bean.getMaximumPoolSize();
+  }
+
+  /**
+   * Gets the maximum size of the pool as configured by the options, which is the upper bound of
+   * {@link #setMaximumPoolSize(int)}.
+   *
+   * @return the configured maximum pool size, or 0 if the pool is not started
+   */
+  public int getConfiguredMaximumPoolSize() {
+    return configuredMaximumPoolSize;
+  }
+
+  /**
+   * Resizes the running pool. HikariCP closes the connections above the new size as they are
+   * returned to the pool, and the minimum idle connections are lowered along with the size.
+   *
+   * @param maximumPoolSize the new maximum pool size, between 1 and the configured maximum
+   */
+  public void setMaximumPoolSize(int maximumPoolSize) {
+    checkArgument(maximumPoolSize > 0, "maximum pool size must be positive");
+    HikariDataSource dataSource = this.dataSource;
+    if (dataSource == null || closed) return;
+
+    int size = Math.min(maximumPoolSize, configuredMaximumPoolSize);
+    HikariConfigMXBean bean = dataSource.getHikariConfigMXBean();
+    bean.setMaximumPoolSize(size);
+    bean.setMinimumIdle(Math.min(configuredMinimumIdle, size));
+  }
+
+  protected void bindDataSource() {
+    // a lock rather than a monitor, so that a virtual thread waiting for the pool to start does
+    // not pin its carrier thread
+    bindLock.lock();
+    try {
+      if (dataSource != null) return;
+      if (closed) throw new EngineException("Datasource is closed");
+      doBindDataSource();
+    } finally {
+      bindLock.unlock();
+    }
+  }
+
+  /**
+   * Starts the connection pool in the background, so that the first request does not wait for it.
+   * Once started, HikariCP fills the pool up to its minimum idle connections by itself. A failure
+   * is ignored here and reported to the first request that needs a connection instead.
+   *
+   * @param executor the executor to start the pool on
+   * @return a future completed when the pool is started or has failed to start
+   */
+  public CompletableFuture<Void> warmUp(Executor executor) {
+    return CompletableFuture.runAsync(this::bindDataSource, executor)
+        .exceptionally(
+            e -> {
+              // reported by getConnection
+              return null;
+            });
+  }
+
+  private void doBindDataSource() {
+    // the options are shared by every datasource, so each pool is configured on its own copy
+    HikariConfig hikariConfig = new HikariConfig();
+    options.getHikariConfig().copyStateTo(hikariConfig);
     hikariConfig.setJdbcUrl(connectionUri.getJdbcUrl());
     hikariConfig.setUsername(connectionUri.getUsername());
     hikariConfig.setPassword(connectionUri.getPassword());
@@ -106,6 +233,8 @@ public class SaberDataSource implements DataSource, SaberWrapper, AutoCloseable
     }
 
     hikariConfig.validate();
+    configuredMaximumPoolSize = hikariConfig.getMaximumPoolSize();
+    configuredMinimumIdle = hikariConfig.getMinimumIdle();
     dataSource = new HikariDataSource(hikariConfig);
   }
 
@@ -114,18 +243,33 @@ public class SaberDataSource implements DataSource, SaberWrapper, AutoCloseable
     return wrapperId;
   }
 
+  /**
+   * A datasource is shared by every request to the same database and belongs to none of them, the
+   * request is only known to the connections obtained from it.
+   *
+   * @return always -1
+   */
   @Override
   public int getRequestId() {
-    return checkNotNull(context).getRequestId();
+    return -1;
   }
 
+  /**
+   * A datasource is shared by every request to the same database and belongs to none of them, so it
+   * has no context.
+   *
+   * @return never returns normally
+   * @throws UnsupportedOperationException always
+   * @deprecated the context of a request is passed to {@link #getConnection(RequestContext)}, and
+   *     to the listeners by {@link SaberEventListener#onBeforeGetConnection(SaberWrapper,
+   *     RequestContext)}, which a listener needing the context overrides.
+   */
   @Override
+  @Deprecated
   public RequestContext getContext() {
-    return context;
-  }
-
-  public void setContext(RequestContext context) {
-    this.context = checkNotNull(context);
+    throw new UnsupportedOperationException(
+        "A datasource has no request context, override"
+            + " SaberEventListener.onBeforeGetConnection(SaberWrapper, RequestContext) to get it");
   }
 
   @Override
@@ -183,56 +327,136 @@ public class SaberDataSource implements DataSource, SaberWrapper, AutoCloseable
     return dataSource.isWrapperFor(iface);
   }
 
-  @Override
-  public Connection getConnection() throws SQLException {
+  /**
+   * Attempts to establish a connection for the specified request. The context is passed with each
+   * call rather than held by the datasource, so that concurrent requests sharing the datasource
+   * each see their own context.
+   *
+   * @param context the context of the request
+   * @return a connection to the database, bound to the context
+   * @throws SQLException if a database access error occurs
+   */
+  public Connection getConnection(RequestContext context) throws SQLException {
     checkNotNull(context);
-    if (dataSource == null) this.bindDataSource();
-
-    context.getListener().onBeforeGetConnection(this);
-
-    Profiler p = new Profiler();
-    SaberConnection connection = null;
+    pendingConnections.incrementAndGet();
     try {
-      connection = new SaberConnection(dataSource.getConnection(), context);
-      return connection;
-    } catch (SQLException e) {
-      context.setSqlError(e);
-      throw e;
+      return doGetConnection(context, null, null);
     } finally {
-      long elapsed = p.getMillis();
-      context.getListener().onAfterGetConnection(connection, elapsed, context.getSqlError());
+      pendingConnections.decrementAndGet();
     }
   }
 
-  @Override
-  public Connection getConnection(String username, String password) throws SQLException {
+  /**
+   * Attempts to establish a connection for the specified request with the given credentials
+   * instead of those of the connection URI.
+   *
+   * @param context the context of the request
+   * @param username the database user on whose behalf the connection is being made
+   * @param password the user's password
+   * @return a connection to the database, bound to the context
+   * @throws SQLException if a database access error occurs
+   */
+  public Connection getConnection(RequestContext context, String username, String password)
+      throws SQLException {
     checkNotNull(context);
+    pendingConnections.incrementAndGet();
+    try {
+      return doGetConnection(context, checkNotNull(username), password);
+    } finally {
+      pendingConnections.decrementAndGet();
+    }
+  }
+
+  private Connection doGetConnection(
+      RequestContext context, @Nullable String username, @Nullable String password)
+      throws SQLException {
     if (dataSource == null) this.bindDataSource();
 
-    context.getListener().onBeforeGetConnection(this);
+    if (!context.getListener().isSubscribed(EventCategory.CONNECTION)) {
+      long start = System.nanoTime();
+      try {
+        return new SaberConnection(openConnection(username, password), context);
+      } finally {
+        recordConnectionWait(System.nanoTime() - start);
+      }
+    }
+
+    context.getListener().onBeforeGetConnection(this, context);
 
     Profiler p = new Profiler();
     SaberConnection connection = null;
     try {
-      connection = new SaberConnection(dataSource.getConnection(username, password), context);
+      connection = new SaberConnection(openConnection(username, password), context);
       return connection;
     } catch (SQLException e) {
       context.setSqlError(e);
       throw e;
     } finally {
+      long waitNanos = p.getNanos();
+      recordConnectionWait(waitNanos);
+      context.setConnectionWaitNanos(waitNanos);
       long elapsed = p.getMillis();
       context.getListener().onAfterGetConnection(connection, elapsed, context.getSqlError());
     }
   }
 
+  private Connection openConnection(@Nullable String username, @Nullable String password)
+      throws SQLException {
+    HikariDataSource dataSource = checkNotNull(this.dataSource);
+    return username == null
+        ? dataSource.getConnection()
+        : dataSource.getConnection(username, password);
+  }
+
+  private void recordConnectionWait(long nanos) {
+    connectionWaitNanos.add(nanos);
+    connectionAcquisitions.increment();
+  }
+
+  /**
+   * Attempts to establish a connection outside of any request. The connection is bound to a context
+   * of its own, with an empty request and the listener of the options. Prefer {@link
+   * #getConnection(RequestContext)} when the connection serves a request.
+   *
+   * @return a connection to the database
+   * @throws SQLException if a database access error occurs
+   */
   @Override
-  public void close() throws Exception {
+  public Connection getConnection() throws SQLException {
+    return getConnection(newContext());
+  }
+
+  /**
+   * Attempts to establish a connection outside of any request, with the given credentials. The
+   * connection is bound to a context of its own, as with {@link #getConnection()}.
+   *
+   * @param username the database user on whose behalf the connection is being made
+   * @param password the user's password
+   * @return a connection to the database
+   * @throws SQLException if a database access error occurs
+   */
+  @Override
+  public Connection getConnection(String username, String password) throws SQLException {
+    return getConnection(newContext(), username, password);
+  }
+
+  private RequestContext newContext() {
+    return new RequestContext(new Request(), options, options.getListener());
+  }
+
+  @Override
+  public void close() {
+    // waits for a pool that is being started, so that it is not leaked
+    bindLock.lock();
     try {
+      closed = true;
       if (dataSource != null) {
         dataSource.close();
       }
     } catch (Exception expected) {
       // safely close
+    } finally {
+      bindLock.unlock();
     }
   }
 }
@@ -0,0 +1,152 @@
+/*
+ *            _
+ *  ___  __ _| |__   ___ _ __
+ * / __|/ _` | '_ \ / _ \ '__|
+ * \__ \ (_| | |_) |  __/ |
+ * |___/\__,_|_.__/ \___|_|
+ *
+ * Copyright 2024 drash
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.drawmoon.saber.engine;
+
+import java.sql.SQLException;
+
+/**
+ * A {@link SaberEventListener} whose callbacks do nothing, so that a listener only has to override
+ * the events it is interested in. A subclass should also override {@link
+ * #isSubscribed(EventCategory)} to only subscribe to the categories of these events.
+ *
+ * @author drash
+ * @version 1.0
+ * @since 2024
+ */
+public abstract class SaberEventAdapter implements SaberEventListener {
+
+  @Override
+  public void onBeforeGetDataSource(
+      DataSourceManager store, SaberOptions options, RequestContext context) {}
+
+  @Override
+  public void onAfterGetDataSource(
+      DataSourceManager store,
+      SaberOptions options,
+      RequestContext context,
+      SaberDataSource dataSource,
+      long elapsedMillis,
+      Exception e) {}
+
+  @Override
+  public void onBeforeQuery(RequestManager queryMgr, Request request) {}
+
+  @Override
+  public void onAfterQuery(
+      RequestManager queryMgr,
+      RequestContext context,
+      Response response,
+      long elapsedMillis,
+      SQLException e) {}
+
+  @Override
+  public void onAfterQuery(
+      RequestManager queryMgr, JdbcRecordCursor cursor, long elapsedMillis, SQLException e) {}
+
+  @Override
+  public void onAfterRecordCursorClose(
+      JdbcRecordCursor cursor, long elapsedMillis, SQLException e) {}
+
+  @Override
+  public void onBeforeGetConnection(SaberWrapper dataSource) {}
+
+  @Override
+  public void onAfterGetConnection(SaberWrapper connection, long elapsedMillis, SQLException e) {}
+
+  @Override
+  public void onAfterConnectionClose(SaberWrapper connection, long elapsedMillis, SQLException e) {}
+
+  @Override
+  public void onBeforeExecute(SaberWrapper statement) {}
+
+  @Override
+  public void onAfterExecute(SaberWrapper statement, long elapsedMillis, SQLException e) {}
+
+  @Override
+  public void onBeforeExecute(SaberWrapper statement, String sql) {}
+
+  @Override
+  public void onAfterExecute(
+      SaberWrapper statement, String sql, long elapsedMillis, SQLException e) {}
+
+  @Override
+  public void onBeforeExecuteBatch(SaberWrapper statement) {}
+
+  @Override
+  public void onAfterExecuteBatch(
+      SaberWrapper statement, int[] rowCounts, long elapsedMillis, SQLException e) {}
+
+  @Override
+  public void onBeforeExecuteQuery(SaberWrapper statement) {}
+
+  @Override
+  public void onAfterExecuteQuery(SaberWrapper statement, long elapsedMillis, SQLException e) {}
+
+  @Override
+  public void onBeforeExecuteQuery(SaberWrapper statement, String sql) {}
+
+  @Override
+  public void onAfterExecuteQuery(
+      SaberWrapper statement, String sql, long elapsedMillis, SQLException e) {}
+
+  @Override
+  public void onBeforeExecuteUpdate(SaberWrapper statement) {}
+
+  @Override
+  public void onAfterExecuteUpdate(
+      SaberWrapper statement, int rowCount, long elapsedMillis, SQLException e) {}
+
+  @Override
+  public void onBeforeExecuteUpdate(SaberWrapper statement, String sql) {}
+
+  @Override
+  public void onAfterExecuteUpdate(
+      SaberWrapper statement, String sql, int rowCount, long elapsedMillis, SQLException e) {}
+
+  @Override
+  public void onAfterGetResultSet(SaberWrapper statement, long elapsedMillis, SQLException e) {}
+
+  @Override
+  public void onAfterStatementClose(SaberWrapper statement, long elapsedMillis, SQLException e) {}
+
+  @Override
+  public void onBeforeResultSetNext(SaberWrapper resultSet) {}
+
+  @Override
+  public void onAfterResultSetNext(
+      SaberWrapper resultSet, boolean hasNext, long elapsedMillis, SQLException e) {}
+
+  @Override
+  public void onAfterResultSetGet(
+      SaberWrapper resultSet,
+      String columnLabel,
+      Object value,
+      long elapsedMillis,
+      SQLException e) {}
+
+  @Override
+  public void onAfterResultSetGet(
+      SaberWrapper resultSet, int columnIndex, Object value, long elapsedMillis, SQLException e) {}
+
+  @Override
+  public void onAfterResultSetClose(SaberWrapper resultSet, long elapsedMillis, SQLException e) {}
+}
@@ -31,6 +31,18 @@ import javax.sql.DataSource;
 
 public interface SaberEventListener {
 
+  /**
+   * Returns whether the listener consumes the events of the specified category. Events of a
+   * category that is not subscribed may not be delivered to the listener at all. The result is
+   * read when the listener is registered, so it must not change afterwards.
+   *
+   * @param category the event category
+   * @return {@code true} if the listener consumes the events of the category
+   */
+  default boolean isSubscribed(EventCategory category) {
+    return true;
+  }
+
   // ***********************************************************************
   //                          Query manager events
   // ***********************************************************************
@@ -104,6 +116,27 @@ public interface SaberEventListener {
   void onAfterQuery(
       RequestManager queryMgr, JdbcRecordCursor cursor, long elapsedMillis, SQLException e);
 
+  /**
+   * This callback method is executed when the result of a {@link RequestManager#fetch} call is
+   * served from the result cache, either because it was cached or because it was loaded by a
+   * concurrent request for the same query.
+   *
+   * @param queryMgr the query manager
+   * @param request the query request
+   * @param elapsedMillis the time spent looking up the result
+   */
+  default void onResultCacheHit(RequestManager queryMgr, Request request, long elapsedMillis) {}
+
+  /**
+   * This callback method is executed when the result of a {@link RequestManager#fetch} call is not
+   * cached and was fetched by executing the query.
+   *
+   * @param queryMgr the query manager
+   * @param request the query request
+   * @param elapsedMillis the time spent fetching the result
+   */
+  default void onResultCacheMiss(RequestManager queryMgr, Request request, long elapsedMillis) {}
+
   /**
    * This callback method is executed after any of the {@link JdbcRecordCursor#close} methods are
    * invoked.
@@ -136,12 +169,25 @@ public interface SaberEventListener {
 
   /**
    * This callback method is executed before a {@link Connection} obtained from a {@link DataSource}
-   * or a {@link Driver}.
+   * or a {@link Driver}. A {@link SaberDataSource} is shared by requests and has no context, a
+   * listener that needs the context of the request overrides {@link
+   * #onBeforeGetConnection(SaberWrapper, RequestContext)} instead.
    *
    * @param dataSource the data source
    */
   void onBeforeGetConnection(SaberWrapper dataSource);
 
+  /**
+   * This callback method is executed before a {@link Connection} obtained from a {@link DataSource}
+   * for a request. By default it calls {@link #onBeforeGetConnection(SaberWrapper)}.
+   *
+   * @param dataSource the data source, which is shared by requests and has no context of its own
+   * @param context the context of the request the connection is obtained for
+   */
+  default void onBeforeGetConnection(SaberWrapper dataSource, RequestContext context) {
+    onBeforeGetConnection(dataSource);
+  }
+
   /**
    * This callback method is executed after a {@link Connection} obtained from a {@link DataSource}
    * or a {@link Driver}.
@@ -21,6 +21,8 @@
  */
 package io.github.drawmoon.saber.engine;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.zaxxer.hikari.HikariConfig;
 import io.github.drawmoon.saber.common.PropertyElf;
 import io.github.drawmoon.saber.exceptions.EngineException;
@@ -36,13 +38,29 @@ public class SaberOptions {
   private static final String DEFAULT_DATA_SOURCE_LIMIT_POLICIES = "StopCreate";
   private static final int DEFAULT_MAXIMUM_POOL_SIZE_LIMIT = 0;
   private static final long DEFAULT_QUERY_TIMEOUT = 30;
+  private static final int DEFAULT_FETCH_SIZE = 1000;
+  private static final int DEFAULT_MAXIMUM_QUERY_THREADS = 32;
+  private static final boolean DEFAULT_VIRTUAL_THREADS = false;
+  private static final int DEFAULT_SQL_TEMPLATE_CACHE_SIZE = 1000;
+  private static final long DEFAULT_POOL_GOVERNOR_INTERVAL = 10000;
+  private static final long DEFAULT_RESULT_CACHE_SIZE = 0;
+  private static final long DEFAULT_RESULT_CACHE_TTL = TimeUnit.MINUTES.toMillis(1);
 
   private volatile long dataSourceLifetime;
   private volatile int dataSourceLimit;
   private volatile String dataSourceLimitPolicies;
   private volatile int maximumPoolSizeLimit;
   private volatile long queryTimeout;
+  private volatile int fetchSize;
+  private volatile int maximumQueryThreads;
+  private volatile boolean virtualThreads;
+  private volatile int sqlTemplateCacheSize;
+  private volatile long poolGovernorInterval;
+  private volatile long resultCacheSize;
+  private volatile long resultCacheTtl;
+  private volatile Cache<String, String> sqlTemplateCache;
   private HikariConfig hikariConfig;
+  private final EventBus eventBus;
   private SaberEventListener listener;
 
   public SaberOptions() {
@@ -51,6 +69,13 @@ public class SaberOptions {
     dataSourceLimitPolicies = DEFAULT_DATA_SOURCE_LIMIT_POLICIES;
     maximumPoolSizeLimit = DEFAULT_MAXIMUM_POOL_SIZE_LIMIT;
     queryTimeout = DEFAULT_QUERY_TIMEOUT;
+    fetchSize = DEFAULT_FETCH_SIZE;
+    maximumQueryThreads = DEFAULT_MAXIMUM_QUERY_THREADS;
+    virtualThreads = DEFAULT_VIRTUAL_THREADS;
+    sqlTemplateCacheSize = DEFAULT_SQL_TEMPLATE_CACHE_SIZE;
+    poolGovernorInterval = DEFAULT_POOL_GOVERNOR_INTERVAL;
+    resultCacheSize = DEFAULT_RESULT_CACHE_SIZE;
+    resultCacheTtl = DEFAULT_RESULT_CACHE_TTL;
 
     Properties properties = null;
     ClassLoader loader = this.getClass().getClassLoader();
@@ -70,7 +95,8 @@ public class SaberOptions {
       hikariConfig = new HikariConfig();
     }
 
-    listener = new EventBus();
+    eventBus = new EventBus();
+    listener = eventBus;
   }
 
   /**
@@ -149,30 +175,50 @@ public class SaberOptions {
   }
 
   /**
-   * Gets the upper limit of the maximum number of connections for the connection pool.
-   * Automatically adjusts the maximum number of connections in the connection pool based on the
-   * upper limit of the total number of datasource and the maximum number of connections in the
-   * connection pool.
+   * Gets the upper limit of the total number of connections of all the connection pools. The
+   * {@link PoolGovernor} automatically adjusts the maximum number of connections of each pool to
+   * stay within this limit, growing the busy pools and shrinking the idle ones. A value of 0
+   * disables the adjustment.
    *
-   * @return the upper limit of the maximum number of connections for the connection pool
+   * @return the upper limit of the total number of connections
    */
   public int getMaximumPoolSizeLimit() {
     return maximumPoolSizeLimit;
   }
 
   /**
-   * Sets the upper limit of the maximum number of connections for the connection pool.
-   * Automatically adjusts the maximum number of connections in the connection pool based on the
-   * upper limit of the total number of datasource and the maximum number of connections in the
-   * connection pool.
+   * Sets the upper limit of the total number of connections of all the connection pools. The
+   * {@link PoolGovernor} automatically adjusts the maximum number of connections of each pool to
+   * stay within this limit, growing the busy pools and shrinking the idle ones. A value of 0
+   * disables the adjustment.
    *
-   * @param maximumPoolSizeLimit the upper limit of the maximum number of connections for the
-   *     connection pool
+   * @param maximumPoolSizeLimit the upper limit of the total number of connections
    */
   public void setMaximumPoolSizeLimit(int maximumPoolSizeLimit) {
     this.maximumPoolSizeLimit = maximumPoolSizeLimit;
   }
 
+  /**
+   * Gets the interval in milliseconds at which the {@link PoolGovernor} samples the connection
+   * pools and resizes them. A value of 0 disables the periodic resizing.
+   *
+   * @return the interval of the pool governor
+   */
+  public long getPoolGovernorInterval() {
+    return poolGovernorInterval;
+  }
+
+  /**
+   * Sets the interval in milliseconds at which the {@link PoolGovernor} samples the connection
+   * pools and resizes them. A value of 0 disables the periodic resizing. The interval is read when
+   * the datasource manager is created.
+   *
+   * @param poolGovernorInterval the interval of the pool governor
+   */
+  public void setPoolGovernorInterval(long poolGovernorInterval) {
+    this.poolGovernorInterval = poolGovernorInterval;
+  }
+
   /**
    * Gets the default query wait timeout for datasource. This default value is used when no query
    * wait timeout is specified, and overrides the default value if a query wait timeout is
@@ -195,6 +241,153 @@ public class SaberOptions {
     this.queryTimeout = queryTimeout;
   }
 
+  /**
+   * Gets the default number of rows fetched from the database per round trip. This is passed to
+   * {@link java.sql.Statement#setFetchSize} and is also the number of rows per batch when fetching
+   * batches, unless the request specifies its own fetch size.
+   *
+   * @return the default number of rows fetched per round trip
+   */
+  public int getFetchSize() {
+    return fetchSize;
+  }
+
+  /**
+   * Sets the default number of rows fetched from the database per round trip. This is passed to
+   * {@link java.sql.Statement#setFetchSize} and is also the number of rows per batch when fetching
+   * batches, unless the request specifies its own fetch size.
+   *
+   * @param fetchSize the default number of rows fetched per round trip
+   */
+  public void setFetchSize(int fetchSize) {
+    this.fetchSize = fetchSize;
+  }
+
+  /**
+   * Gets the maximum number of threads executing queries at the same time. Queries submitted while
+   * all threads are busy wait in a queue until a thread becomes available.
+   *
+   * @return the maximum number of threads executing queries
+   */
+  public int getMaximumQueryThreads() {
+    return maximumQueryThreads;
+  }
+
+  /**
+   * Sets the maximum number of threads executing queries at the same time. Queries submitted while
+   * all threads are busy wait in a queue until a thread becomes available.
+   *
+   * @param maximumQueryThreads the maximum number of threads executing queries
+   */
+  public void setMaximumQueryThreads(int maximumQueryThreads) {
+    this.maximumQueryThreads = maximumQueryThreads;
+  }
+
+  /**
+   * Gets whether queries are executed on virtual threads, one per query, instead of the bounded
+   * pool of platform threads. This requires a JDK with virtual threads, otherwise the platform pool
+   * is used.
+   *
+   * @return true if queries are executed on virtual threads
+   */
+  public boolean isVirtualThreads() {
+    return virtualThreads;
+  }
+
+  /**
+   * Sets whether queries are executed on virtual threads, one per query, instead of the bounded
+   * pool of platform threads. This requires a JDK with virtual threads, otherwise the platform pool
+   * is used.
+   *
+   * @param virtualThreads true to execute queries on virtual threads
+   */
+  public void setVirtualThreads(boolean virtualThreads) {
+    this.virtualThreads = virtualThreads;
+  }
+
+  /**
+   * Gets the maximum number of rendered SQL templates cached by the structure of the expression
+   * they were rendered from. A value of 0 disables the cache.
+   *
+   * @return the maximum number of cached SQL templates
+   */
+  public int getSqlTemplateCacheSize() {
+    return sqlTemplateCacheSize;
+  }
+
+  /**
+   * Sets the maximum number of rendered SQL templates cached by the structure of the expression
+   * they were rendered from. A value of 0 disables the cache. This must be set before the first
+   * expression is rendered.
+   *
+   * @param sqlTemplateCacheSize the maximum number of cached SQL templates
+   */
+  public void setSqlTemplateCacheSize(int sqlTemplateCacheSize) {
+    this.sqlTemplateCacheSize = sqlTemplateCacheSize;
+  }
+
+  /**
+   * Gets the cache of rendered SQL templates, shared by every expression rendered with these
+   * options. It is created on first use with the configured size.
+   *
+   * @return the SQL template cache
+   */
+  public Cache<String, String> getSqlTemplateCache() {
+    Cache<String, String> cache = sqlTemplateCache;
+    if (cache == null) {
+      synchronized (this) {
+        cache = sqlTemplateCache;
+        if (cache == null) {
+          cache =
+              CacheBuilder.newBuilder()
+                  .maximumSize(Math.max(0, sqlTemplateCacheSize))
+                  .<String, String>build();
+          sqlTemplateCache = cache;
+        }
+      }
+    }
+    return cache;
+  }
+
+  /**
+   * Gets the maximum estimated size in bytes of the query results cached by the request manager. A
+   * value of 0 disables the cache.
+   *
+   * @return the maximum size of the result cache
+   */
+  public long getResultCacheSize() {
+    return resultCacheSize;
+  }
+
+  /**
+   * Sets the maximum estimated size in bytes of the query results cached by the request manager. A
+   * value of 0 disables the cache. The size is read when the request manager is created.
+   *
+   * @param resultCacheSize the maximum size of the result cache
+   */
+  public void setResultCacheSize(long resultCacheSize) {
+    this.resultCacheSize = resultCacheSize;
+  }
+
+  /**
+   * Gets the time in milliseconds after which a cached query result expires.
+   *
+   * @return the time to live of a cached result
+   */
+  public long getResultCacheTtl() {
+    return resultCacheTtl;
+  }
+
+  /**
+   * Sets the time in milliseconds after which a cached query result expires. The time to live is
+   * read when the request manager is created.
+   *
+   * @param resultCacheTtl the time to live of a cached result
+   */
+  public void setResultCacheTtl(long resultCacheTtl) {
+    this.resultCacheTtl = resultCacheTtl;
+  }
+
   /**
    * Gets the HikariCP configuration.
    *
@@ -213,6 +406,16 @@ public class SaberOptions {
     this.hikariConfig = hikariConfig;
   }
 
+  /**
+   * Gets the {@link EventBus} of the options, which is the default {@link SaberEventListener}. The
+   * listeners added to it only receive events while it is the listener of the options.
+   *
+   * @return the {@link EventBus} object
+   */
+  public EventBus getEventBus() {
+    return eventBus;
+  }
+
   /**
    * Gets the {@link SaberEventListener}.
    *
@@ -51,12 +51,16 @@ public class SaberPreparedStatement extends SaberStatement implements PreparedSt
 
   @Override
   public ResultSet executeQuery() throws SQLException {
+    if (!isSubscribed(EventCategory.STATEMENT)) {
+      return new SaberResultSet(getPreparedStatement().executeQuery(), this);
+    }
+
     context.getListener().onBeforeExecuteQuery(this);
 
     Profiler p = new Profiler();
     SQLException exception = null;
     try {
-      return getPreparedStatement().executeQuery();
+      return new SaberResultSet(getPreparedStatement().executeQuery(), this);
     } catch (SQLException e) {
       exception = e;
       throw e;
@@ -68,6 +72,10 @@ public class SaberPreparedStatement extends SaberStatement implements PreparedSt
 
   @Override
   public int executeUpdate() throws SQLException {
+    if (!isSubscribed(EventCategory.STATEMENT)) {
+      return getPreparedStatement().executeUpdate();
+    }
+
     context.getListener().onBeforeExecuteUpdate(this);
 
     Profiler p = new Profiler();
@@ -188,6 +196,10 @@ public class SaberPreparedStatement extends SaberStatement implements PreparedSt
 
   @Override
   public boolean execute() throws SQLException {
+    if (!isSubscribed(EventCategory.STATEMENT)) {
+      return getPreparedStatement().execute();
+    }
+
     context.getListener().onBeforeExecute(this);
 
     Profiler p = new Profiler();
@@ -80,7 +80,11 @@ public class SaberResultSet implements ResultSet, SaberWrapper {
 
   @Override
   public RequestContext getContext() {
-    return null;
+    return context;
+  }
+
+  private boolean isSubscribed(EventCategory category) {
+    return context.getListener().isSubscribed(category);
   }
 
   @Override
@@ -101,6 +105,10 @@ public class SaberResultSet implements ResultSet, SaberWrapper {
 
   @Override
   public boolean next() throws SQLException {
+    if (!isSubscribed(EventCategory.RESULT_SET_ROW)) {
+      return this.resultSet.next();
+    }
+
     context.getListener().onBeforeResultSetNext(this);
 
     Profiler p = new Profiler();
@@ -119,6 +127,11 @@ public class SaberResultSet implements ResultSet, SaberWrapper {
 
   @Override
   public void close() throws SQLException {
+    if (!isSubscribed(EventCategory.RESULT_SET_ROW)) {
+      this.resultSet.close();
+      return;
+    }
+
     Profiler p = new Profiler();
     try {
       this.resultSet.close();
@@ -138,6 +151,10 @@ public class SaberResultSet implements ResultSet, SaberWrapper {
 
   @Override
   public String getString(int columnLabel) throws SQLException {
+    if (!isSubscribed(EventCategory.RESULT_SET_CELL)) {
+      return this.resultSet.getString(columnLabel);
+    }
+
     Profiler p = new Profiler();
     String value = null;
     try {
@@ -156,6 +173,10 @@ public class SaberResultSet implements ResultSet, SaberWrapper {
 
   @Override
   public boolean getBoolean(int columnLabel) throws SQLException {
+    if (!isSubscribed(EventCategory.RESULT_SET_CELL)) {
+      return this.resultSet.getBoolean(columnLabel);
+    }
+
     Profiler p = new Profiler();
     Boolean value = null;
     try {
@@ -174,6 +195,10 @@ public class SaberResultSet implements ResultSet, SaberWrapper {
 
   @Override
   public byte getByte(int columnLabel) throws SQLException {
+    if (!isSubscribed(EventCategory.RESULT_SET_CELL)) {
+      return this.resultSet.getByte(columnLabel);
+    }
+
     Profiler p = new Profiler();
     Byte value = null;
     try {
@@ -192,6 +217,10 @@ public class SaberResultSet implements ResultSet, SaberWrapper {
 
   @Override
   public short getShort(int columnLabel) throws SQLException {
+    if (!isSubscribed(EventCategory.RESULT_SET_CELL)) {
+      return this.resultSet.getShort(columnLabel);
+    }
+
     Profiler p = new Profiler();
     Short value = null;
     try {
@@ -210,6 +239,10 @@ public class SaberResultSet implements ResultSet, SaberWrapper {
 
   @Override
   public int getInt(int columnLabel) throws SQLException {
+    if (!isSubscribed(EventCategory.RESULT_SET_CELL)) {
+      return this.resultSet.getInt(columnLabel);
+    }
+
     Profiler p = new Profiler();
     int value = 0;
     try {
@@ -228,6 +261,10 @@ public class SaberResultSet implements ResultSet, SaberWrapper {
 
   @Override
   public long getLong(int columnLabel) throws SQLException {
+    if (!isSubscribed(EventCategory.RESULT_SET_CELL)) {
+      return this.resultSet.getLong(columnLabel);
+    }
+
     Profiler p = new Profiler();
     Long value = null;
     try {
@@ -246,6 +283,10 @@ public class SaberResultSet implements ResultSet, SaberWrapper {
 
   @Override
   public float getFloat(int columnLabel) throws SQLException {
+    if (!isSubscribed(EventCategory.RESULT_SET_CELL)) {
+      return this.resultSet.getFloat(columnLabel);
+    }
+
     Profiler p = new Profiler();
     Float value = null;
     try {
@@ -264,6 +305,10 @@ public class SaberResultSet implements ResultSet, SaberWrapper {
 
   @Override
   public double getDouble(int columnLabel) throws SQLException {
+    if (!isSubscribed(EventCategory.RESULT_SET_CELL)) {
+      return this.resultSet.getDouble(columnLabel);
+    }
+
     Profiler p = new Profiler();
     Double value = null;
     try {
@@ -280,8 +325,13 @@ public class SaberResultSet implements ResultSet, SaberWrapper {
     }
   }
 
+  @SuppressWarnings("deprecation")
   @Override
   public BigDecimal getBigDecimal(int columnLabel, int scale) throws SQLException {
+    if (!isSubscribed(EventCategory.RESULT_SET_CELL)) {
+      return this.resultSet.getBigDecimal(columnLabel);
+    }
+
     Profiler p = new Profiler();
     BigDecimal value = null;
     try {
@@ -300,6 +350,10 @@ public class SaberResultSet implements ResultSet, SaberWrapper {
 
   @Override
   public byte[] getBytes(int columnLabel) throws SQLException {
+    if (!isSubscribed(EventCategory.RESULT_SET_CELL)) {
+      return this.resultSet.getBytes(columnLabel);
+    }
+
     Profiler p = new Profiler();
     byte[] value = null;
     try {
@@ -318,6 +372,10 @@ public class SaberResultSet implements ResultSet, SaberWrapper {
 
   @Override
   public Date getDate(int columnLabel) throws SQLException {
+    if (!isSubscribed(EventCategory.RESULT_SET_CELL)) {
+      return this.resultSet.getDate(columnLabel);
+    }
+
     Profiler p = new Profiler();
     Date value = null;
     try {
@@ -336,6 +394,10 @@ public class SaberResultSet implements ResultSet, SaberWrapper {
 
   @Override
   public Time getTime(int columnLabel) throws SQLException {
+    if (!isSubscribed(EventCategory.RESULT_SET_CELL)) {
+      return this.resultSet.getTime(columnLabel);
+    }
+
     Profiler p = new Profiler();
     Time value = null;
     try {
@@ -354,6 +416,10 @@ public class SaberResultSet implements ResultSet, SaberWrapper {
 
   @Override
   public Timestamp getTimestamp(int columnLabel) throws SQLException {
+    if (!isSubscribed(EventCategory.RESULT_SET_CELL)) {
+      return this.resultSet.getTimestamp(columnLabel);
+    }
+
     Profiler p = new Profiler();
     Timestamp value = null;
     try {
@@ -372,6 +438,10 @@ public class SaberResultSet implements ResultSet, SaberWrapper {
 
   @Override
   public InputStream getAsciiStream(int columnLabel) throws SQLException {
+    if (!isSubscribed(EventCategory.RESULT_SET_CELL)) {
+      return this.resultSet.getAsciiStream(columnLabel);
+    }
+
     Profiler p = new Profiler();
     InputStream value = null;
     try {
@@ -391,6 +461,10 @@ public class SaberResultSet implements ResultSet, SaberWrapper {
   @SuppressWarnings("deprecation")
   @Override
   public InputStream getUnicodeStream(int columnLabel) throws SQLException {
+    if (!isSubscribed(EventCategory.RESULT_SET_CELL)) {
+      return this.resultSet.getUnicodeStream(columnLabel);
+    }
+
     Profiler p = new Profiler();
     InputStream value = null;
     try {
@@ -409,6 +483,10 @@ public class SaberResultSet implements ResultSet, SaberWrapper {
 
   @Override
   public InputStream getBinaryStream(int columnLabel) throws SQLException {
+    if (!isSubscribed(EventCategory.RESULT_SET_CELL)) {
+      return this.resultSet.getBinaryStream(columnLabel);
+    }
+
     Profiler p = new Profiler();
     InputStream value = null;
     try {
@@ -427,6 +505,10 @@ public class SaberResultSet implements ResultSet, SaberWrapper {
 
   @Override
   public String getString(String columnLabel) throws SQLException {
+    if (!isSubscribed(EventCategory.RESULT_SET_CELL)) {
+      return this.resultSet.getString(columnLabel);
+    }
+
     Profiler p = new Profiler();
     String value = null;
     try {
@@ -445,6 +527,10 @@ public class SaberResultSet implements ResultSet, SaberWrapper {
 
   @Override
   public boolean getBoolean(String columnLabel) throws SQLException {
+    if (!isSubscribed(EventCategory.RESULT_SET_CELL)) {
+      return this.resultSet.getBoolean(columnLabel);
+    }
+
     Profiler p = new Profiler();
     Boolean value = null;
     try {
@@ -463,6 +549,10 @@ public class SaberResultSet implements ResultSet, SaberWrapper {
 
   @Override
   public byte getByte(String columnLabel) throws SQLException {
+    if (!isSubscribed(EventCategory.RESULT_SET_CELL)) {
+      return this.resultSet.getByte(columnLabel);
+    }
+
     Profiler p = new Profiler();
     Byte value = null;
     try {
@@ -481,6 +571,10 @@ public class SaberResultSet implements ResultSet, SaberWrapper {
 
   @Override
   public short getShort(String columnLabel) throws SQLException {
+    if (!isSubscribed(EventCategory.RESULT_SET_CELL)) {
+      return this.resultSet.getShort(columnLabel);
+    }
+
     Profiler p = new Profiler();
     Short value = null;
     try {
@@ -499,6 +593,10 @@ public class SaberResultSet implements ResultSet, SaberWrapper {
 
   @Override
   public int getInt(String columnLabel) throws SQLException {
+    if (!isSubscribed(EventCategory.RESULT_SET_CELL)) {
+      return this.resultSet.getInt(columnLabel);
+    }
+
     Profiler p = new Profiler();
     int value = 0;
     try {
@@ -517,6 +615,10 @@ public class SaberResultSet implements ResultSet, SaberWrapper {
 
   @Override
   public long getLong(String columnLabel) throws SQLException {
+    if (!isSubscribed(EventCategory.RESULT_SET_CELL)) {
+      return this.resultSet.getLong(columnLabel);
+    }
+
     Profiler p = new Profiler();
     Long value = null;
     try {
@@ -535,6 +637,10 @@ public class SaberResultSet implements ResultSet, SaberWrapper {
 
   @Override
   public float getFloat(String columnLabel) throws SQLException {
+    if (!isSubscribed(EventCategory.RESULT_SET_CELL)) {
+      return this.resultSet.getFloat(columnLabel);
+    }
+
     Profiler p = new Profiler();
     Float value = null;
     try {
@@ -553,6 +659,10 @@ public class SaberResultSet implements ResultSet, SaberWrapper {
 
   @Override
   public double getDouble(String columnLabel) throws SQLException {
+    if (!isSubscribed(EventCategory.RESULT_SET_CELL)) {
+      return this.resultSet.getDouble(columnLabel);
+    }
+
     Profiler p = new Profiler();
     Double value = null;
     try {
@@ -569,8 +679,13 @@ public class SaberResultSet implements ResultSet, SaberWrapper {
     }
   }
 
+  @SuppressWarnings("deprecation")
   @Override
   public BigDecimal getBigDecimal(String columnLabel, int scale) throws SQLException {
+    if (!isSubscribed(EventCategory.RESULT_SET_CELL)) {
+      return this.resultSet.getBigDecimal(columnLabel);
+    }
+
     Profiler p = new Profiler();
     BigDecimal value = null;
     try {
@@ -589,6 +704,10 @@ public class SaberResultSet implements ResultSet, SaberWrapper {
 
   @Override
   public byte[] getBytes(String columnLabel) throws SQLException {
+    if (!isSubscribed(EventCategory.RESULT_SET_CELL)) {
+      return this.resultSet.getBytes(columnLabel);
+    }
+
     Profiler p = new Profiler();
     byte[] value = null;
     try {
@@ -607,6 +726,10 @@ public class SaberResultSet implements ResultSet, SaberWrapper {
 
   @Override
   public Date getDate(String columnLabel) throws SQLException {
+    if (!isSubscribed(EventCategory.RESULT_SET_CELL)) {
+      return this.resultSet.getDate(columnLabel);
+    }
+
     Profiler p = new Profiler();
     Date value = null;
     try {
@@ -625,6 +748,10 @@ public class SaberResultSet implements ResultSet, SaberWrapper {
 
   @Override
   public Time getTime(String columnLabel) throws SQLException {
+    if (!isSubscribed(EventCategory.RESULT_SET_CELL)) {
+      return this.resultSet.getTime(columnLabel);
+    }
+
     Profiler p = new Profiler();
     Time value = null;
     try {
@@ -643,6 +770,10 @@ public class SaberResultSet implements ResultSet, SaberWrapper {
 
   @Override
   public Timestamp getTimestamp(String columnLabel) throws SQLException {
+    if (!isSubscribed(EventCategory.RESULT_SET_CELL)) {
+      return this.resultSet.getTimestamp(columnLabel);
+    }
+
     Profiler p = new Profiler();
     Timestamp value = null;
     try {
@@ -661,6 +792,10 @@ public class SaberResultSet implements ResultSet, SaberWrapper {
 
   @Override
   public InputStream getAsciiStream(String columnLabel) throws SQLException {
+    if (!isSubscribed(EventCategory.RESULT_SET_CELL)) {
+      return this.resultSet.getAsciiStream(columnLabel);
+    }
+
     Profiler p = new Profiler();
     InputStream value = null;
     try {
@@ -680,6 +815,10 @@ public class SaberResultSet implements ResultSet, SaberWrapper {
   @SuppressWarnings("deprecation")
   @Override
   public InputStream getUnicodeStream(String columnLabel) throws SQLException {
+    if (!isSubscribed(EventCategory.RESULT_SET_CELL)) {
+      return this.resultSet.getUnicodeStream(columnLabel);
+    }
+
     Profiler p = new Profiler();
     InputStream value = null;
     try {
@@ -698,6 +837,10 @@ public class SaberResultSet implements ResultSet, SaberWrapper {
 
   @Override
   public InputStream getBinaryStream(String columnLabel) throws SQLException {
+    if (!isSubscribed(EventCategory.RESULT_SET_CELL)) {
+      return this.resultSet.getBinaryStream(columnLabel);
+    }
+
     Profiler p = new Profiler();
     InputStream value = null;
     try {
@@ -736,6 +879,10 @@ public class SaberResultSet implements ResultSet, SaberWrapper {
 
   @Override
   public Object getObject(int columnLabel) throws SQLException {
+    if (!isSubscribed(EventCategory.RESULT_SET_CELL)) {
+      return this.resultSet.getObject(columnLabel);
+    }
+
     Profiler p = new Profiler();
     Object value = null;
     try {
@@ -754,6 +901,10 @@ public class SaberResultSet implements ResultSet, SaberWrapper {
 
   @Override
   public Object getObject(String columnLabel) throws SQLException {
+    if (!isSubscribed(EventCategory.RESULT_SET_CELL)) {
+      return this.resultSet.getObject(columnLabel);
+    }
+
     Profiler p = new Profiler();
     Object value = null;
     try {
@@ -777,6 +928,10 @@ public class SaberResultSet implements ResultSet, SaberWrapper {
 
   @Override
   public Reader getCharacterStream(int columnLabel) throws SQLException {
+    if (!isSubscribed(EventCategory.RESULT_SET_CELL)) {
+      return this.resultSet.getCharacterStream(columnLabel);
+    }
+
     Profiler p = new Profiler();
     Reader value = null;
     try {
@@ -795,6 +950,10 @@ public class SaberResultSet implements ResultSet, SaberWrapper {
 
   @Override
   public Reader getCharacterStream(String columnLabel) throws SQLException {
+    if (!isSubscribed(EventCategory.RESULT_SET_CELL)) {
+      return this.resultSet.getCharacterStream(columnLabel);
+    }
+
     Profiler p = new Profiler();
     Reader value = null;
     try {
@@ -813,6 +972,10 @@ public class SaberResultSet implements ResultSet, SaberWrapper {
 
   @Override
   public BigDecimal getBigDecimal(int columnLabel) throws SQLException {
+    if (!isSubscribed(EventCategory.RESULT_SET_CELL)) {
+      return this.resultSet.getBigDecimal(columnLabel);
+    }
+
     Profiler p = new Profiler();
     BigDecimal value = null;
     try {
@@ -831,6 +994,10 @@ public class SaberResultSet implements ResultSet, SaberWrapper {
 
   @Override
   public BigDecimal getBigDecimal(String columnLabel) throws SQLException {
+    if (!isSubscribed(EventCategory.RESULT_SET_CELL)) {
+      return this.resultSet.getBigDecimal(columnLabel);
+    }
+
     Profiler p = new Profiler();
     BigDecimal value = null;
     try {
@@ -1186,6 +1353,10 @@ public class SaberResultSet implements ResultSet, SaberWrapper {
 
   @Override
   public Object getObject(int columnLabel, Map<String, Class<?>> map) throws SQLException {
+    if (!isSubscribed(EventCategory.RESULT_SET_CELL)) {
+      return this.resultSet.getObject(columnLabel);
+    }
+
     Profiler p = new Profiler();
     Object value = null;
     try {
@@ -1204,6 +1375,10 @@ public class SaberResultSet implements ResultSet, SaberWrapper {
 
   @Override
   public Ref getRef(int columnLabel) throws SQLException {
+    if (!isSubscribed(EventCategory.RESULT_SET_CELL)) {
+      return this.resultSet.getRef(columnLabel);
+    }
+
     Profiler p = new Profiler();
     Ref value = null;
     try {
@@ -1222,6 +1397,10 @@ public class SaberResultSet implements ResultSet, SaberWrapper {
 
   @Override
   public Blob getBlob(int columnLabel) throws SQLException {
+    if (!isSubscribed(EventCategory.RESULT_SET_CELL)) {
+      return this.resultSet.getBlob(columnLabel);
+    }
+
     Profiler p = new Profiler();
     Blob value = null;
     try {
@@ -1240,6 +1419,10 @@ public class SaberResultSet implements ResultSet, SaberWrapper {
 
   @Override
   public Clob getClob(int columnLabel) throws SQLException {
+    if (!isSubscribed(EventCategory.RESULT_SET_CELL)) {
+      return this.resultSet.getClob(columnLabel);
+    }
+
     Profiler p = new Profiler();
     Clob value = null;
     try {
@@ -1258,6 +1441,10 @@ public class SaberResultSet implements ResultSet, SaberWrapper {
 
   @Override
   public Array getArray(int columnLabel) throws SQLException {
+    if (!isSubscribed(EventCategory.RESULT_SET_CELL)) {
+      return this.resultSet.getArray(columnLabel);
+    }
+
     Profiler p = new Profiler();
     Array value = null;
     try {
@@ -1276,6 +1463,10 @@ public class SaberResultSet implements ResultSet, SaberWrapper {
 
   @Override
   public Object getObject(String columnLabel, Map<String, Class<?>> map) throws SQLException {
+    if (!isSubscribed(EventCategory.RESULT_SET_CELL)) {
+      return this.resultSet.getObject(columnLabel);
+    }
+
     Profiler p = new Profiler();
     Object value = null;
     try {
@@ -1294,6 +1485,10 @@ public class SaberResultSet implements ResultSet, SaberWrapper {
 
   @Override
   public Ref getRef(String columnLabel) throws SQLException {
+    if (!isSubscribed(EventCategory.RESULT_SET_CELL)) {
+      return this.resultSet.getRef(columnLabel);
+    }
+
     Profiler p = new Profiler();
     Ref value = null;
     try {
@@ -1312,6 +1507,10 @@ public class SaberResultSet implements ResultSet, SaberWrapper {
 
   @Override
   public Blob getBlob(String columnLabel) throws SQLException {
+    if (!isSubscribed(EventCategory.RESULT_SET_CELL)) {
+      return this.resultSet.getBlob(columnLabel);
+    }
+
     Profiler p = new Profiler();
     Blob value = null;
     try {
@@ -1330,6 +1529,10 @@ public class SaberResultSet implements ResultSet, SaberWrapper {
 
   @Override
   public Clob getClob(String columnLabel) throws SQLException {
+    if (!isSubscribed(EventCategory.RESULT_SET_CELL)) {
+      return this.resultSet.getClob(columnLabel);
+    }
+
     Profiler p = new Profiler();
     Clob value = null;
     try {
@@ -1348,6 +1551,10 @@ public class SaberResultSet implements ResultSet, SaberWrapper {
 
   @Override
   public Array getArray(String columnLabel) throws SQLException {
+    if (!isSubscribed(EventCategory.RESULT_SET_CELL)) {
+      return this.resultSet.getArray(columnLabel);
+    }
+
     Profiler p = new Profiler();
     Array value = null;
     try {
@@ -1366,6 +1573,10 @@ public class SaberResultSet implements ResultSet, SaberWrapper {
 
   @Override
   public Date getDate(int columnLabel, Calendar cal) throws SQLException {
+    if (!isSubscribed(EventCategory.RESULT_SET_CELL)) {
+      return this.resultSet.getDate(columnLabel);
+    }
+
     Profiler p = new Profiler();
     Date value = null;
     try {
@@ -1384,6 +1595,10 @@ public class SaberResultSet implements ResultSet, SaberWrapper {
 
   @Override
   public Date getDate(String columnLabel, Calendar cal) throws SQLException {
+    if (!isSubscribed(EventCategory.RESULT_SET_CELL)) {
+      return this.resultSet.getDate(columnLabel);
+    }
+
     Profiler p = new Profiler();
     Date value = null;
     try {
@@ -1402,6 +1617,10 @@ public class SaberResultSet implements ResultSet, SaberWrapper {
 
   @Override
   public Time getTime(int columnLabel, Calendar cal) throws SQLException {
+    if (!isSubscribed(EventCategory.RESULT_SET_CELL)) {
+      return this.resultSet.getTime(columnLabel);
+    }
+
     Profiler p = new Profiler();
     Time value = null;
     try {
@@ -1420,6 +1639,10 @@ public class SaberResultSet implements ResultSet, SaberWrapper {
 
   @Override
   public Time getTime(String columnLabel, Calendar cal) throws SQLException {
+    if (!isSubscribed(EventCategory.RESULT_SET_CELL)) {
+      return this.resultSet.getTime(columnLabel);
+    }
+
     Profiler p = new Profiler();
     Time value = null;
     try {
@@ -1438,6 +1661,10 @@ public class SaberResultSet implements ResultSet, SaberWrapper {
 
   @Override
   public Timestamp getTimestamp(int columnLabel, Calendar cal) throws SQLException {
+    if (!isSubscribed(EventCategory.RESULT_SET_CELL)) {
+      return this.resultSet.getTimestamp(columnLabel);
+    }
+
     Profiler p = new Profiler();
     Timestamp value = null;
     try {
@@ -1456,6 +1683,10 @@ public class SaberResultSet implements ResultSet, SaberWrapper {
 
   @Override
   public Timestamp getTimestamp(String columnLabel, Calendar cal) throws SQLException {
+    if (!isSubscribed(EventCategory.RESULT_SET_CELL)) {
+      return this.resultSet.getTimestamp(columnLabel);
+    }
+
     Profiler p = new Profiler();
     Timestamp value = null;
     try {
@@ -1474,6 +1705,10 @@ public class SaberResultSet implements ResultSet, SaberWrapper {
 
   @Override
   public URL getURL(int columnLabel) throws SQLException {
+    if (!isSubscribed(EventCategory.RESULT_SET_CELL)) {
+      return this.resultSet.getURL(columnLabel);
+    }
+
     Profiler p = new Profiler();
     URL value = null;
     try {
@@ -1492,6 +1727,10 @@ public class SaberResultSet implements ResultSet, SaberWrapper {
 
   @Override
   public URL getURL(String columnLabel) throws SQLException {
+    if (!isSubscribed(EventCategory.RESULT_SET_CELL)) {
+      return this.resultSet.getURL(columnLabel);
+    }
+
     Profiler p = new Profiler();
     URL value = null;
     try {
@@ -1550,6 +1789,10 @@ public class SaberResultSet implements ResultSet, SaberWrapper {
 
   @Override
   public RowId getRowId(int columnLabel) throws SQLException {
+    if (!isSubscribed(EventCategory.RESULT_SET_CELL)) {
+      return this.resultSet.getRowId(columnLabel);
+    }
+
     Profiler p = new Profiler();
     RowId value = null;
     try {
@@ -1568,6 +1811,10 @@ public class SaberResultSet implements ResultSet, SaberWrapper {
 
   @Override
   public RowId getRowId(String columnLabel) throws SQLException {
+    if (!isSubscribed(EventCategory.RESULT_SET_CELL)) {
+      return this.resultSet.getRowId(columnLabel);
+    }
+
     Profiler p = new Profiler();
     RowId value = null;
     try {
@@ -1626,6 +1873,10 @@ public class SaberResultSet implements ResultSet, SaberWrapper {
 
   @Override
   public NClob getNClob(int columnLabel) throws SQLException {
+    if (!isSubscribed(EventCategory.RESULT_SET_CELL)) {
+      return this.resultSet.getNClob(columnLabel);
+    }
+
     Profiler p = new Profiler();
     NClob value = null;
     try {
@@ -1644,6 +1895,10 @@ public class SaberResultSet implements ResultSet, SaberWrapper {
 
   @Override
   public NClob getNClob(String columnLabel) throws SQLException {
+    if (!isSubscribed(EventCategory.RESULT_SET_CELL)) {
+      return this.resultSet.getNClob(columnLabel);
+    }
+
     Profiler p = new Profiler();
     NClob value = null;
     try {
@@ -1662,6 +1917,10 @@ public class SaberResultSet implements ResultSet, SaberWrapper {
 
   @Override
   public SQLXML getSQLXML(int columnLabel) throws SQLException {
+    if (!isSubscribed(EventCategory.RESULT_SET_CELL)) {
+      return this.resultSet.getSQLXML(columnLabel);
+    }
+
     Profiler p = new Profiler();
     SQLXML value = null;
     try {
@@ -1680,6 +1939,10 @@ public class SaberResultSet implements ResultSet, SaberWrapper {
 
   @Override
   public SQLXML getSQLXML(String columnLabel) throws SQLException {
+    if (!isSubscribed(EventCategory.RESULT_SET_CELL)) {
+      return this.resultSet.getSQLXML(columnLabel);
+    }
+
     Profiler p = new Profiler();
     SQLXML value = null;
     try {
@@ -1708,6 +1971,10 @@ public class SaberResultSet implements ResultSet, SaberWrapper {
 
   @Override
   public String getNString(int columnLabel) throws SQLException {
+    if (!isSubscribed(EventCategory.RESULT_SET_CELL)) {
+      return this.resultSet.getNString(columnLabel);
+    }
+
     Profiler p = new Profiler();
     String value = null;
     try {
@@ -1726,6 +1993,10 @@ public class SaberResultSet implements ResultSet, SaberWrapper {
 
   @Override
   public String getNString(String columnLabel) throws SQLException {
+    if (!isSubscribed(EventCategory.RESULT_SET_CELL)) {
+      return this.resultSet.getNString(columnLabel);
+    }
+
     Profiler p = new Profiler();
     String value = null;
     try {
@@ -1744,6 +2015,10 @@ public class SaberResultSet implements ResultSet, SaberWrapper {
 
   @Override
   public Reader getNCharacterStream(int columnLabel) throws SQLException {
+    if (!isSubscribed(EventCategory.RESULT_SET_CELL)) {
+      return this.resultSet.getNCharacterStream(columnLabel);
+    }
+
     Profiler p = new Profiler();
     Reader value = null;
     try {
@@ -1762,6 +2037,10 @@ public class SaberResultSet implements ResultSet, SaberWrapper {
 
   @Override
   public Reader getNCharacterStream(String columnLabel) throws SQLException {
+    if (!isSubscribed(EventCategory.RESULT_SET_CELL)) {
+      return this.resultSet.getNCharacterStream(columnLabel);
+    }
+
     Profiler p = new Profiler();
     Reader value = null;
     try {
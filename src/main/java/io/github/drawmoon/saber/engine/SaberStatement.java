@@ -67,6 +67,10 @@ public class SaberStatement implements Statement, SaberWrapper {
     return context;
   }
 
+  protected boolean isSubscribed(EventCategory category) {
+    return context.getListener().isSubscribed(category);
+  }
+
   @Override
   public <T> T unwrap(Class<T> iface) throws SQLException {
     if (iface.isAssignableFrom(getClass())) {
@@ -85,11 +89,15 @@ public class SaberStatement implements Statement, SaberWrapper {
 
   @Override
   public ResultSet executeQuery(String sql) throws SQLException {
+    if (!isSubscribed(EventCategory.STATEMENT)) {
+      return new SaberResultSet(this.statement.executeQuery(sql), this);
+    }
+
     context.getListener().onBeforeExecuteQuery(this, sql);
 
     Profiler p = new Profiler();
     try {
-      return this.statement.executeQuery(sql);
+      return new SaberResultSet(this.statement.executeQuery(sql), this);
     } catch (SQLException e) {
       context.setSqlError(e);
       throw e;
@@ -101,6 +109,10 @@ public class SaberStatement implements Statement, SaberWrapper {
 
   @Override
   public int executeUpdate(String sql) throws SQLException {
+    if (!isSubscribed(EventCategory.STATEMENT)) {
+      return this.statement.executeUpdate(sql);
+    }
+
     context.getListener().onBeforeExecuteUpdate(this, sql);
 
     Profiler p = new Profiler();
@@ -121,6 +133,11 @@ public class SaberStatement implements Statement, SaberWrapper {
 
   @Override
   public void close() throws SQLException {
+    if (!isSubscribed(EventCategory.STATEMENT)) {
+      this.statement.close();
+      return;
+    }
+
     Profiler p = new Profiler();
     try {
       this.statement.close();
@@ -190,6 +207,10 @@ public class SaberStatement implements Statement, SaberWrapper {
 
   @Override
   public boolean execute(String sql) throws SQLException {
+    if (!isSubscribed(EventCategory.STATEMENT)) {
+      return this.statement.execute(sql);
+    }
+
     context.getListener().onBeforeExecute(this, sql);
 
     Profiler p = new Profiler();
@@ -206,6 +227,10 @@ public class SaberStatement implements Statement, SaberWrapper {
 
   @Override
   public ResultSet getResultSet() throws SQLException {
+    if (!isSubscribed(EventCategory.STATEMENT)) {
+      return new SaberResultSet(this.statement.getResultSet(), this);
+    }
+
     Profiler p = new Profiler();
     try {
       ResultSet resultSet = this.statement.getResultSet();
@@ -271,6 +296,10 @@ public class SaberStatement implements Statement, SaberWrapper {
 
   @Override
   public int[] executeBatch() throws SQLException {
+    if (!isSubscribed(EventCategory.STATEMENT)) {
+      return this.statement.executeBatch();
+    }
+
     context.getListener().onBeforeExecuteBatch(this);
 
     Profiler p = new Profiler();
@@ -304,6 +333,10 @@ public class SaberStatement implements Statement, SaberWrapper {
 
   @Override
   public int executeUpdate(String sql, int autoGeneratedKeys) throws SQLException {
+    if (!isSubscribed(EventCategory.STATEMENT)) {
+      return this.statement.executeUpdate(sql, autoGeneratedKeys);
+    }
+
     context.getListener().onBeforeExecuteUpdate(this, sql);
 
     Profiler p = new Profiler();
@@ -324,6 +357,10 @@ public class SaberStatement implements Statement, SaberWrapper {
 
   @Override
   public int executeUpdate(String sql, int[] columnIndexes) throws SQLException {
+    if (!isSubscribed(EventCategory.STATEMENT)) {
+      return this.statement.executeUpdate(sql, columnIndexes);
+    }
+
     context.getListener().onBeforeExecuteUpdate(this, sql);
 
     Profiler p = new Profiler();
@@ -344,6 +381,10 @@ public class SaberStatement implements Statement, SaberWrapper {
 
   @Override
   public int executeUpdate(String sql, String[] columnNames) throws SQLException {
+    if (!isSubscribed(EventCategory.STATEMENT)) {
+      return this.statement.executeUpdate(sql, columnNames);
+    }
+
     context.getListener().onBeforeExecuteUpdate(this, sql);
 
     Profiler p = new Profiler();
@@ -364,6 +405,10 @@ public class SaberStatement implements Statement, SaberWrapper {
 
   @Override
   public boolean execute(String sql, int autoGeneratedKeys) throws SQLException {
+    if (!isSubscribed(EventCategory.STATEMENT)) {
+      return this.statement.execute(sql, autoGeneratedKeys);
+    }
+
     context.getListener().onBeforeExecute(this, sql);
 
     Profiler p = new Profiler();
@@ -380,6 +425,10 @@ public class SaberStatement implements Statement, SaberWrapper {
 
   @Override
   public boolean execute(String sql, int[] columnIndexes) throws SQLException {
+    if (!isSubscribed(EventCategory.STATEMENT)) {
+      return this.statement.execute(sql, columnIndexes);
+    }
+
     context.getListener().onBeforeExecute(this, sql);
 
     Profiler p = new Profiler();
@@ -396,6 +445,10 @@ public class SaberStatement implements Statement, SaberWrapper {
 
   @Override
   public boolean execute(String sql, String[] columnNames) throws SQLException {
+    if (!isSubscribed(EventCategory.STATEMENT)) {
+      return this.statement.execute(sql, columnNames);
+    }
+
     context.getListener().onBeforeExecute(this, sql);
 
     Profiler p = new Profiler();
@@ -0,0 +1,269 @@
+/*
+ *            _
+ *  ___  __ _| |__   ___ _ __
+ * / __|/ _` | '_ \ / _ \ '__|
+ * \__ \ (_| | |_) |  __/ |
+ * |___/\__,_|_.__/ \___|_|
+ *
+ * Copyright 2024 drash
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.drawmoon.saber.engine;
+
+import static io.github.drawmoon.saber.common.Preconditions.checkNotNull;
+
+import io.github.drawmoon.saber.AggregateExpression;
+import io.github.drawmoon.saber.AsteriskExpression;
+import io.github.drawmoon.saber.Comparator;
+import io.github.drawmoon.saber.ComparisonExpression;
+import io.github.drawmoon.saber.Condition;
+import io.github.drawmoon.saber.DistinctExpression;
+import io.github.drawmoon.saber.ExplainExpression;
+import io.github.drawmoon.saber.Expression;
+import io.github.drawmoon.saber.ExpressionVisitor;
+import io.github.drawmoon.saber.Field;
+import io.github.drawmoon.saber.JoinExpression;
+import io.github.drawmoon.saber.LogicalExpression;
+import io.github.drawmoon.saber.MemberExpression;
+import io.github.drawmoon.saber.SelectExpression;
+import io.github.drawmoon.saber.SqlDialect;
+import io.github.drawmoon.saber.Table;
+import io.github.drawmoon.saber.TableExpression;
+import io.github.drawmoon.saber.TableFieldExpression;
+import io.github.drawmoon.saber.VariableExpression;
+import java.util.ArrayList;
+import java.util.List;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Computes the structural key of an expression tree, used to look up the rendered SQL of
+ * expressions of the same structure. The key describes every node that affects the SQL text, but
+ * only the data type of the literal values, which are collected as the bind parameters in the order
+ * the {@link BasicSqlBuilder} renders them.
+ *
+ * <p>The conditions of the WHERE and HAVING clauses are described like the select list, so that
+ * statements that only differ by the literals of their filters share a template. An expression
+ * containing a node whose structure cannot be described, such as a join, is not cacheable, and is
+ * always rendered.
+ *
+ * @author drash
+ * @version 1.0
+ * @since 2024
+ */
+public class SqlFingerprint implements ExpressionVisitor<SqlFingerprint> {
+
+  private final StringBuilder key = new StringBuilder();
+  private final List<VariableExpression<?>> parameters = new ArrayList<>();
+  private boolean cacheable = true;
+
+  private SqlFingerprint(SqlDialect dialect) {
+    key.append(checkNotNull(dialect).name()).append(':');
+  }
+
+  /**
+   * Computes the fingerprint of the specified expression for the specified dialect.
+   *
+   * @param dialect the dialect the expression is rendered for
+   * @param expression the expression
+   * @return the fingerprint of the expression
+   */
+  public static SqlFingerprint of(SqlDialect dialect, Expression expression) {
+    return expression.accept(new SqlFingerprint(dialect));
+  }
+
+  /**
+   * Returns whether the expression can be looked up by its key.
+   *
+   * @return true if the expression is cacheable
+   */
+  public boolean isCacheable() {
+    return cacheable;
+  }
+
+  /**
+   * Gets the structural key of the expression.
+   *
+   * @return the key, or {@code null} if the expression is not cacheable
+   */
+  @Nullable
+  public String getKey() {
+    return cacheable ? key.toString() : null;
+  }
+
+  /**
+   * Gets the literal values of the expression, in the order of their placeholders.
+   *
+   * @return the parameters
+   */
+  public List<VariableExpression<?>> getParameters() {
+    return parameters;
+  }
+
+  @Override
+  @Nonnull
+  public SqlFingerprint visitExplain(ExplainExpression explain) {
+    return uncacheable();
+  }
+
+  @Override
+  @Nonnull
+  public SqlFingerprint visitSelect(SelectExpression select) {
+    // in the order the clauses are rendered, so that the parameters are too
+    key.append("select(");
+    select.getField().accept(this);
+    Table table = select.getTable();
+    if (table != null) {
+      key.append(" from ");
+      table.accept(this);
+    }
+    appendCondition(" where ", select.getWhere());
+    appendFields(" group by ", select.getGroups());
+    appendCondition(" having ", select.getHaving());
+    appendFields(" order by ", select.getOrders());
+    appendAlias(select.getAlias());
+    key.append(')');
+    return this;
+  }
+
+  @Override
+  @Nonnull
+  public SqlFingerprint visitDistinct(DistinctExpression distinct) {
+    return uncacheable();
+  }
+
+  @Override
+  @Nonnull
+  public SqlFingerprint visitAsterisk(AsteriskExpression asterisk) {
+    key.append('*');
+    return this;
+  }
+
+  @Override
+  @Nonnull
+  public SqlFingerprint visitMember(MemberExpression member) {
+    key.append('[');
+    member.forEachField(
+        f -> {
+          f.accept(this);
+          key.append(',');
+        });
+    key.append(']');
+    return this;
+  }
+
+  @Override
+  @Nonnull
+  public SqlFingerprint visitTableField(TableFieldExpression tableField) {
+    key.append("field(");
+    appendName(tableField.getName());
+    key.append(' ');
+    tableField.getTable().accept(this);
+    appendAlias(tableField.getAlias());
+    key.append(')');
+    return this;
+  }
+
+  @Override
+  @Nonnull
+  public SqlFingerprint visitTable(TableExpression table) {
+    key.append("table(");
+    appendName(table.getName());
+    appendAlias(table.getAlias());
+    key.append(')');
+    return this;
+  }
+
+  @Override
+  @Nonnull
+  public SqlFingerprint visitJoin(JoinExpression join) {
+    return uncacheable();
+  }
+
+  @Override
+  @Nonnull
+  public SqlFingerprint visitComparison(ComparisonExpression comparison) {
+    Comparator operator = comparison.getOperator();
+    key.append("cmp(").append(operator.name()).append(' ');
+    comparison.getLhs().accept(this);
+    if (operator != Comparator.IS_NULL && operator != Comparator.IS_NOT_NULL) {
+      key.append(' ');
+      comparison.getRhs().accept(this);
+    }
+    key.append(')');
+    return this;
+  }
+
+  @Override
+  @Nonnull
+  public SqlFingerprint visitLogical(LogicalExpression logical) {
+    key.append("logic(").append(logical.getOperator().name()).append(' ');
+    logical.getLhs().accept(this);
+    key.append(' ');
+    logical.getRhs().accept(this);
+    key.append(')');
+    return this;
+  }
+
+  @Override
+  @Nonnull
+  public <V> SqlFingerprint visitVariable(VariableExpression<V> variable) {
+    // the value is a parameter, only its type shapes the sql
+    key.append("?").append(variable.getType().type);
+    appendAlias(variable.getAlias());
+    parameters.add(variable);
+    return this;
+  }
+
+  @Override
+  @Nonnull
+  public SqlFingerprint visitAggregate(AggregateExpression aggregate) {
+    return uncacheable();
+  }
+
+  private void appendCondition(String clause, @Nullable Condition condition) {
+    if (condition == null) return;
+
+    key.append(clause);
+    condition.accept(this);
+  }
+
+  private void appendFields(String clause, @Nullable List<Field> fields) {
+    if (fields == null || fields.isEmpty()) return;
+
+    key.append(clause).append('[');
+    for (Field field : fields) {
+      field.accept(this);
+      key.append(',');
+    }
+    key.append(']');
+  }
+
+  private void appendAlias(@Nullable String alias) {
+    if (alias == null) return;
+
+    key.append(" as ");
+    appendName(alias);
+  }
+
+  private void appendName(String name) {
+    // length-prefixed, so that a name can never be mistaken for the structure around it
+    key.append(name.length()).append(':').append(name);
+  }
+
+  private SqlFingerprint uncacheable() {
+    cacheable = false;
+    return this;
+  }
+}
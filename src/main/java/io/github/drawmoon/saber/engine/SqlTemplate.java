@@ -0,0 +1,108 @@
+/*
+ *            _
+ *  ___  __ _| |__   ___ _ __
+ * / __|/ _` | '_ \ / _ \ '__|
+ * \__ \ (_| | |_) |  __/ |
+ * |___/\__,_|_.__/ \___|_|
+ *
+ * Copyright 2024 drash
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.drawmoon.saber.engine;
+
+import static io.github.drawmoon.saber.common.Preconditions.checkNotNull;
+
+import com.google.common.collect.ImmutableList;
+import io.github.drawmoon.saber.VariableExpression;
+import java.util.List;
+
+/**
+ * Represents a rendered SQL statement whose literal values have been lifted out as bind
+ * parameters. The SQL text depends only on the structure of the rendered expression, so it can be
+ * cached and reused for every expression of the same structure, while the parameters carry the
+ * values of the one being rendered.
+ *
+ * @author drash
+ * @version 1.0
+ * @since 2024
+ */
+public final class SqlTemplate {
+
+  /** The SQL text, with a placeholder in place of each parameter. */
+  private final String sql;
+
+  /** The parameters, in the order of their placeholders. */
+  private final ImmutableList<VariableExpression<?>> parameters;
+
+  /**
+   * Constructs a new {@code SqlTemplate} with the specified SQL text and parameters.
+   *
+   * @param sql The SQL text, must not be null
+   * @param parameters The parameters in the order of their placeholders, must not be null
+   */
+  public SqlTemplate(String sql, List<? extends VariableExpression<?>> parameters) {
+    this.sql = checkNotNull(sql);
+    this.parameters = ImmutableList.copyOf(parameters);
+  }
+
+  /**
+   * Gets the SQL text, with a placeholder in place of each parameter.
+   *
+   * @return The SQL text
+   */
+  public String getSql() {
+    return sql;
+  }
+
+  /**
+   * Gets the parameters, in the order of their placeholders.
+   *
+   * @return The parameters, never null
+   */
+  public List<VariableExpression<?>> getParameters() {
+    return parameters;
+  }
+
+  /**
+   * Gets the values of the parameters, in the order of their placeholders.
+   *
+   * @return The parameter values, never null
+   */
+  public Object[] getParameterValues() {
+    Object[] values = new Object[parameters.size()];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = parameters.get(i).getValue();
+    }
+    return values;
+  }
+
+  /**
+   * Gets the SQL types of the parameters, as defined in {@link java.sql.Types}, in the order of
+   * their placeholders.
+   *
+   * @return The parameter types, never null
+   */
+  public int[] getParameterTypes() {
+    int[] types = new int[parameters.size()];
+    for (int i = 0; i < types.length; i++) {
+      types[i] = parameters.get(i).getType().getSqlType();
+    }
+    return types;
+  }
+
+  @Override
+  public String toString() {
+    return sql;
+  }
+}
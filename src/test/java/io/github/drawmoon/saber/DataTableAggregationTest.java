@@ -0,0 +1,294 @@
+/*
+ *            _
+ *  ___  __ _| |__   ___ _ __
+ * / __|/ _` | '_ \ / _ \ '__|
+ * \__ \ (_| | |_) |  __/ |
+ * |___/\__,_|_.__/ \___|_|
+ *
+ * Copyright 2024 drash
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.drawmoon.saber;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.google.common.collect.Iterables;
+import io.github.drawmoon.saber.DataTable.DataColumn;
+import io.github.drawmoon.saber.DataTable.DataRow;
+import java.math.BigDecimal;
+import java.sql.Types;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.Test;
+
+public class DataTableAggregationTest {
+
+  private static DataTable sales() {
+    DataTable table = new DataTable();
+    table.addColumn(new DataColumn("region", Types.VARCHAR));
+    table.addColumn(new DataColumn("year", Types.INTEGER));
+    table.addColumn(new DataColumn("quantity", Types.BIGINT));
+    table.addColumn(new DataColumn("price", Types.DOUBLE));
+    table.addColumn(new DataColumn("amount", Types.DECIMAL));
+
+    Object[][] rows = {
+      {"east", 2023, 1L, 1.5, "10.10"},
+      {"west", 2023, 2L, 2.5, "20.20"},
+      {"east", 2024, 3L, null, "30.30"},
+      {"east", 2023, null, 4.5, null},
+      {null, 2024, 5L, 5.5, "50.50"},
+      {"west", 2023, 6L, 6.5, "60.60"},
+    };
+    for (Object[] values : rows) {
+      DataRow row = table.newRow();
+      row.setRowData("region", values[0]);
+      row.setRowData("year", values[1]);
+      row.setRowData("quantity", values[2]);
+      row.setRowData("price", values[3]);
+      row.setRowData("amount", values[4] == null ? null : new BigDecimal((String) values[4]));
+      table.addRow(row);
+    }
+    return table;
+  }
+
+  private static DataRow row(DataTable table, int index) {
+    return Iterables.get(table.getRows(), index);
+  }
+
+  @Test
+  public void groupByTest() {
+    DataTable result =
+        sales()
+            .groupBy("region")
+            .count()
+            .aggregate(Aggregate.COUNT, "quantity")
+            .aggregate(Aggregate.SUM, "quantity")
+            .aggregate(Aggregate.AVG, "price")
+            .aggregate(Aggregate.SUM, "amount")
+            .aggregate(Aggregate.MIN, "year")
+            .aggregate(Aggregate.MAX, "price", "top")
+            .execute();
+
+    assertEquals(3, result.rowCount());
+    assertEquals(8, result.getColumns().size());
+    assertEquals(Types.BIGINT, result.getColumnHandle("sum(quantity)").getColumn().getType());
+    assertEquals(Types.INTEGER, result.getColumnHandle("min(year)").getColumn().getType());
+
+    DataRow east = row(result, 0);
+    assertEquals("east", east.getObject("region"));
+    assertEquals(3L, east.getObject("count"));
+    assertEquals(2L, east.getObject("count(quantity)"));
+    assertEquals(4L, east.getObject("sum(quantity)"));
+    assertEquals(3.0, east.getObject("avg(price)"));
+    assertEquals(new BigDecimal("40.40"), east.getObject("sum(amount)"));
+    assertEquals(2023, east.getObject("min(year)"));
+    assertEquals(4.5, east.getObject("top"));
+
+    DataRow west = row(result, 1);
+    assertEquals("west", west.getObject("region"));
+    assertEquals(8L, west.getObject("sum(quantity)"));
+
+    DataRow none = row(result, 2);
+    assertNull(none.getObject("region"));
+    assertEquals(1L, none.getObject("count"));
+  }
+
+  @Test
+  public void multipleKeysTest() {
+    DataTable result =
+        sales().groupBy("region", "year").aggregate(Aggregate.SUM, "price").execute();
+
+    assertEquals(4, result.rowCount());
+    DataRow row = row(result, 0);
+    assertEquals("east", row.getObject("region"));
+    assertEquals(2023, row.getObject("year"));
+    assertEquals(6.0, row.getObject("sum(price)"));
+
+    // a group without values
+    row = row(result, 2);
+    assertEquals(2024, row.getObject("year"));
+    assertNull(row.getObject("sum(price)"));
+  }
+
+  @Test
+  public void medianAndPercentileTest() {
+    DataTable table = new DataTable();
+    table.addColumn(new DataColumn("key", Types.INTEGER));
+    table.addColumn(new DataColumn("value", Types.DOUBLE));
+    for (int i = 0; i < 1000; i++) {
+      DataRow row = table.newRow();
+      row.setRowData("key", i % 2);
+      row.setRowData("value", (double) (999 - i));
+      table.addRow(row);
+    }
+
+    DataTable result =
+        table
+            .groupBy("key")
+            .aggregate(Aggregate.MEDIAN, "value")
+            .percentile("value", 0.9, "p90")
+            .percentile("value", 0)
+            .execute();
+
+    // odd values for key 0, even values for key 1
+    DataRow odd = row(result, 0);
+    assertEquals(500.0, odd.getDouble("median(value)"), 1e-9);
+    assertEquals(1.0 + 2 * 0.9 * 499, odd.getDouble("p90"), 1e-9);
+    assertEquals(1.0, odd.getDouble("percentile(value, 0.0)"), 1e-9);
+
+    DataRow even = row(result, 1);
+    assertEquals(499.0, even.getDouble("median(value)"), 1e-9);
+  }
+
+  @Test
+  public void withoutGroupByTest() {
+    DataTable result = sales().groupBy().count().aggregate(Aggregate.MAX, "region").execute();
+    assertEquals(1, result.rowCount());
+    assertEquals(6L, row(result, 0).getObject("count"));
+    assertEquals("west", row(result, 0).getObject("max(region)"));
+
+    DataTable empty = new DataTable();
+    empty.addColumn(new DataColumn("value", Types.BIGINT));
+    result = empty.groupBy().count().aggregate(Aggregate.SUM, "value").execute();
+    assertEquals(1, result.rowCount());
+    assertEquals(0L, row(result, 0).getObject("count"));
+    assertNull(row(result, 0).getObject("sum(value)"));
+  }
+
+  @Test
+  public void overflowSumTest() {
+    DataTable table = new DataTable();
+    table.addColumn(new DataColumn("name", Types.VARCHAR));
+    table.addColumn(new DataColumn("value", Types.BIGINT));
+    Object[][] rows = {{"a", Long.MAX_VALUE}, {"b", 1L}, {"a", Long.MAX_VALUE}, {"a", -5L}};
+    for (Object[] values : rows) {
+      DataRow row = table.newRow();
+      row.setRowData("name", values[0]);
+      row.setRowData("value", values[1]);
+      table.addRow(row);
+    }
+
+    DataTable result =
+        table
+            .groupBy("name")
+            .aggregate(Aggregate.SUM, "value")
+            .aggregate(Aggregate.AVG, "value")
+            .execute();
+
+    // the sum that overflows a long is exact, and the column becomes a DECIMAL
+    BigDecimal max = BigDecimal.valueOf(Long.MAX_VALUE);
+    BigDecimal sum = max.add(max).subtract(BigDecimal.valueOf(5));
+    assertEquals(Types.DECIMAL, result.getColumnHandle("sum(value)").getColumn().getType());
+    assertEquals(sum, row(result, 0).getObject("sum(value)"));
+    assertEquals(BigDecimal.ONE, row(result, 1).getObject("sum(value)"));
+    assertEquals(sum.doubleValue() / 3, row(result, 0).getDouble("avg(value)"), 1e3);
+  }
+
+  @Test
+  public void parallelOverflowSumTest() {
+    DataTable table = new DataTable();
+    table.addColumn(new DataColumn("value", Types.BIGINT));
+    int rows = DataTableAggregation.MIN_CHUNK_SIZE * 2;
+    long value = Long.MAX_VALUE / DataTableAggregation.MIN_CHUNK_SIZE;
+    for (int i = 0; i < rows; i++) {
+      table.newRow().setRowData("value", value);
+      table.addRow();
+    }
+
+    // every range fits in a long, the overflow happens when the ranges are merged
+    ForkJoinPool pool = new ForkJoinPool(2);
+    try {
+      DataTable result =
+          table.groupBy().aggregate(Aggregate.SUM, "value").asParallel(pool).execute();
+      assertEquals(
+          BigDecimal.valueOf(value).multiply(BigDecimal.valueOf(rows)),
+          row(result, 0).getObject("sum(value)"));
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  @Test
+  public void invalidAggregateTest() {
+    DataTable table = sales();
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> table.groupBy("region").aggregate(Aggregate.SUM, "region"));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> table.groupBy("region").aggregate(Aggregate.ROUND, "price"));
+    assertThrows(IllegalArgumentException.class, () -> table.groupBy("missing"));
+    assertThrows(IllegalArgumentException.class, () -> table.groupBy().percentile("price", 2));
+    assertThrows(
+        IllegalStateException.class,
+        () -> table.groupBy("region").aggregate(Aggregate.SUM, "price", "region").execute());
+  }
+
+  @Test
+  public void parallelTest() {
+    DataTable table = new DataTable();
+    table.addColumn(new DataColumn("name", Types.VARCHAR));
+    table.addColumn(new DataColumn("key", Types.INTEGER));
+    table.addColumn(new DataColumn("value", Types.BIGINT));
+    table.addColumn(new DataColumn("amount", Types.DECIMAL));
+    int rows = DataTableAggregation.MIN_CHUNK_SIZE * 4 + 7;
+    for (int i = 0; i < rows; i++) {
+      DataRow row = table.newRow();
+      row.setRowData("name", "name" + (i % 13));
+      row.setRowData("key", i % 5 == 0 ? null : i % 7);
+      row.setRowData("value", i % 11 == 0 ? null : (long) i);
+      row.setRowData("amount", BigDecimal.valueOf(i, 2));
+      table.addRow(row);
+    }
+
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      DataTableAggregation aggregation =
+          table
+              .groupBy("name", "key")
+              .count()
+              .aggregate(Aggregate.SUM, "value")
+              .aggregate(Aggregate.AVG, "amount")
+              .aggregate(Aggregate.MIN, "value")
+              .aggregate(Aggregate.MAX, "name")
+              .aggregate(Aggregate.MEDIAN, "value");
+      DataTable sequential = aggregation.execute();
+      DataTable parallel = aggregation.asParallel(pool).execute();
+
+      assertEquals(13 * 8, parallel.rowCount());
+      assertEquals(sequential.rowCount(), parallel.rowCount());
+      for (int i = 0; i < sequential.rowCount(); i++) {
+        DataRow expected = row(sequential, i);
+        DataRow actual = row(parallel, i);
+        for (DataColumn column : sequential.getColumns()) {
+          assertEquals(expected.getObject(column.getName()), actual.getObject(column.getName()));
+        }
+      }
+
+      DataTable total = table.groupBy().count().asParallel(pool).execute();
+      assertEquals((long) rows, row(total, 0).getObject("count"));
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  @Test
+  public void sliceTest() {
+    DataTable result = sales().slice(3).groupBy("region").count().execute();
+    assertEquals(3, result.rowCount());
+    assertEquals("east", row(result, 0).getObject("region"));
+    assertEquals("west", row(result, 2).getObject("region"));
+  }
+}
@@ -0,0 +1,234 @@
+/*
+ *            _
+ *  ___  __ _| |__   ___ _ __
+ * / __|/ _` | '_ \ / _ \ '__|
+ * \__ \ (_| | |_) |  __/ |
+ * |___/\__,_|_.__/ \___|_|
+ *
+ * Copyright 2024 drash
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.drawmoon.saber;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.github.drawmoon.saber.DataTable.DataColumn;
+import io.github.drawmoon.saber.DataTable.DataRow;
+import io.github.drawmoon.saber.exceptions.SerialException;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import org.junit.jupiter.api.Test;
+
+public class DataTableBinaryCodecTest {
+
+  @Test
+  public void roundTripTest() {
+    DataTable table = new DataTable();
+    table.addColumn(new DataColumn("id", Types.BIGINT));
+    table.addColumn(new DataColumn("age", Types.INTEGER));
+    table.addColumn(new DataColumn("score", Types.DOUBLE));
+    table.addColumn(new DataColumn("active", Types.BOOLEAN));
+    table.addColumn(new DataColumn("name", Types.VARCHAR));
+    table.addColumn(new DataColumn("amount", Types.DECIMAL));
+    table.addColumn(new DataColumn("created", Types.TIMESTAMP));
+    table.addColumn(new DataColumn("birthday", Types.DATE));
+
+    Timestamp created = Timestamp.valueOf("2024-01-02 03:04:05.123456789");
+    for (int i = 0; i < 100; i++) {
+      DataRow row = table.newRow();
+      row.setRowData("id", i % 7 == 0 ? null : (long) i);
+      row.setRowData("age", i);
+      row.setRowData("score", i / 2.0);
+      row.setRowData("active", i % 3 == 0);
+      row.setRowData("name", i % 5 == 0 ? null : "name" + (i % 4));
+      row.setRowData("amount", new BigDecimal("12.34").multiply(BigDecimal.valueOf(i)));
+      row.setRowData("created", created);
+      row.setRowData("birthday", LocalDate.of(2000, 1, 1).plusDays(i));
+      table.addRow(row);
+    }
+    table.setExecutionSql("SELECT * FROM users");
+    LinkedHashMap<String, Integer> metadata = new LinkedHashMap<>();
+    metadata.put("id", Types.BIGINT);
+    table.setMetadata(metadata);
+
+    DataTable copy = DataTableBinaryCodec.fromByteArray(DataTableBinaryCodec.toByteArray(table));
+
+    assertEquals(table.rowCount(), copy.rowCount());
+    assertEquals("SELECT * FROM users", copy.getExecutionSql());
+    assertEquals(metadata, copy.getMetadata());
+    for (int c = 0; c < table.getColumns().size(); c++) {
+      DataColumn expected = table.getColumn(c);
+      DataColumn actual = copy.getColumn(c);
+      assertEquals(expected.getName(), actual.getName());
+      assertEquals(expected.getType(), actual.getType());
+      assertEquals(expected.toList(), actual.toList());
+    }
+    assertTrue(copy.getColumn(0).isNull(0));
+    assertNull(copy.toList().get(5).getObject("name"));
+  }
+
+  @Test
+  public void explicitKindTest() {
+    BigInteger max = BigInteger.ONE.shiftLeft(64).subtract(BigInteger.ONE);
+    DataTable table = new DataTable();
+    table.addColumn(new DataColumn("id", Types.BIGINT, ColumnVector.Kind.OBJECT));
+    DataRow row = table.newRow();
+    row.setRowData("id", max);
+    table.addRow(row);
+
+    DataTable copy = DataTableBinaryCodec.fromByteArray(DataTableBinaryCodec.toByteArray(table));
+
+    assertEquals(ColumnVector.Kind.OBJECT, copy.getColumn(0).getVector().getKind());
+    assertEquals(Types.BIGINT, copy.getColumn(0).getType());
+    assertEquals(max, copy.getColumn(0).get(0));
+  }
+
+  @Test
+  public void streamTest() throws Exception {
+    DataTable first = new DataTable();
+    first.addColumn(new DataColumn("name", Types.VARCHAR));
+    first.newRow().setRowData("name", "darsh");
+    first.addRow();
+
+    DataTable second = new DataTable();
+    second.addColumn(new DataColumn("data", Types.VARBINARY));
+    second.newRow().setRowData("data", new byte[] {1, 2, 3});
+    second.addRow();
+
+    // tables written one after another are read back one at a time
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    DataTableBinaryCodec.write(first, out);
+    DataTableBinaryCodec.write(second, out);
+
+    ByteArrayInputStream in = new ByteArrayInputStream(out.toByteArray());
+    assertEquals("darsh", DataTableBinaryCodec.read(in).getColumn(0).get(0));
+    assertArrayEquals(
+        new byte[] {1, 2, 3}, (byte[]) DataTableBinaryCodec.read(in).getColumn(0).get(0));
+    assertEquals(0, in.available());
+  }
+
+  @Test
+  public void sliceTest() {
+    DataTable table = new DataTable();
+    table.addColumn(new DataColumn("name", Types.VARCHAR));
+    for (int i = 0; i < 10; i++) {
+      table.newRow().setRowData("name", "name" + i);
+      table.addRow();
+    }
+
+    byte[] bytes = DataTableBinaryCodec.toByteArray(table.slice(6));
+    DataTable copy = DataTableBinaryCodec.fromByteArray(bytes);
+    assertEquals(4, copy.rowCount());
+    assertEquals("name6", copy.getColumn(0).get(0));
+    assertEquals("name9", copy.getColumn(0).get(3));
+  }
+
+  @Test
+  public void pageDictionaryTest() {
+    DataTable table = new DataTable();
+    table.addColumn(new DataColumn("name", Types.VARCHAR));
+    for (int i = 0; i < 1000; i++) {
+      table.newRow().setRowData("name", i % 10 == 3 ? null : "name" + i);
+      table.addRow();
+    }
+
+    // a page carries the strings of its own rows, not the dictionary of the whole column
+    DataTable page = table.slice(500, 10);
+    byte[] bytes = DataTableBinaryCodec.toByteArray(page);
+    assertTrue(bytes.length < 200, String.valueOf(bytes.length));
+
+    DataTable copy = DataTableBinaryCodec.fromByteArray(bytes);
+    assertEquals(page.getColumn(0).toList(), copy.getColumn(0).toList());
+    assertNull(copy.getColumn(0).get(3));
+    assertEquals("name509", copy.getColumn(0).get(9));
+  }
+
+  @Test
+  public void invalidInputTest() {
+    assertThrows(
+        SerialException.class, () -> DataTableBinaryCodec.fromByteArray(new byte[] {1, 2, 3, 4}));
+  }
+
+  @Test
+  public void unsupportedTypeTest() throws IOException {
+    DataTable table = new DataTable();
+    table.addColumn(new DataColumn("data", Types.JAVA_OBJECT));
+    table.newRow().setRowData("data", new ArrayList<>());
+    table.addRow();
+    assertThrows(SerialException.class, () -> DataTableBinaryCodec.toByteArray(table));
+
+    // a Java serialization payload is not read back
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    DataOutputStream data = header(out, 1, ColumnVector.Kind.OBJECT);
+    data.writeBoolean(false);
+    data.writeByte(127);
+    data.writeInt(4);
+    data.write(new byte[] {(byte) 0xac, (byte) 0xed, 0, 5});
+    assertThrows(
+        SerialException.class, () -> DataTableBinaryCodec.fromByteArray(out.toByteArray()));
+  }
+
+  @Test
+  public void forgedCountTest() throws IOException {
+    // the counts are checked against the input read, not allocated up front
+    ByteArrayOutputStream rows = new ByteArrayOutputStream();
+    header(rows, Integer.MAX_VALUE, ColumnVector.Kind.LONG).writeBoolean(true);
+    assertThrows(
+        SerialException.class, () -> DataTableBinaryCodec.fromByteArray(rows.toByteArray()));
+
+    ByteArrayOutputStream dictionary = new ByteArrayOutputStream();
+    DataOutputStream data = header(dictionary, 1, ColumnVector.Kind.STRING);
+    data.writeBoolean(false);
+    data.writeInt(Integer.MAX_VALUE);
+    assertThrows(
+        SerialException.class, () -> DataTableBinaryCodec.fromByteArray(dictionary.toByteArray()));
+
+    ByteArrayOutputStream string = new ByteArrayOutputStream();
+    data = header(string, 1, ColumnVector.Kind.STRING);
+    data.writeBoolean(false);
+    data.writeInt(1);
+    data.writeInt(Integer.MAX_VALUE);
+    assertThrows(
+        SerialException.class, () -> DataTableBinaryCodec.fromByteArray(string.toByteArray()));
+  }
+
+  private static DataOutputStream header(
+      ByteArrayOutputStream out, int rows, ColumnVector.Kind kind) throws IOException {
+    DataOutputStream data = new DataOutputStream(out);
+    data.writeInt(0x53425400);
+    data.writeByte(1);
+    data.writeInt(-1);
+    data.writeInt(-1);
+    data.writeInt(rows);
+    data.writeInt(1);
+    data.writeInt(1);
+    data.writeByte('c');
+    data.writeInt(Types.OTHER);
+    data.writeByte(kind.ordinal());
+    return data;
+  }
+}
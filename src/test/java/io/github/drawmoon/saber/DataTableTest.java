@@ -22,8 +22,11 @@
 package io.github.drawmoon.saber;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonMappingException;
@@ -31,6 +34,14 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import io.github.drawmoon.saber.DataTable.DataColumn;
 import io.github.drawmoon.saber.DataTable.DataRow;
 import io.github.drawmoon.saber.exceptions.SerialException;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import org.junit.jupiter.api.Test;
 
 public class DataTableTest {
@@ -68,6 +79,131 @@ public class DataTableTest {
     }
   }
 
+  @Test
+  public void typedColumnTest() {
+    DataTable table = new DataTable();
+    table.addColumn(new DataColumn("id", Types.BIGINT));
+    table.addColumn(new DataColumn("score", Types.DOUBLE));
+    table.addColumn(new DataColumn("name", Types.VARCHAR));
+
+    DataRow firstRow = table.newRow();
+    firstRow.setRowData("id", 1L);
+    firstRow.setRowData("score", 9.5);
+    firstRow.setRowData("name", "darsh");
+    table.addRow(firstRow);
+
+    DataRow secondRow = table.newRow();
+    secondRow.setRowData("id", null);
+    secondRow.setRowData("score", 7);
+    secondRow.setRowData("name", "darsh");
+    table.addRow(secondRow);
+
+    DataRow first = table.toList().get(0);
+    assertEquals(1L, first.getLong("id"));
+    assertEquals(9.5, first.getDouble("score"));
+    assertEquals(1L, first.getObject("id"));
+    assertFalse(first.isNull("id"));
+
+    DataRow second = table.toList().get(1);
+    assertTrue(second.isNull("id"));
+    assertNull(second.getObject("id"));
+    assertEquals(0L, second.getLong("id"));
+    assertEquals(7.0, second.getObject("score"));
+    assertEquals("darsh", second.getObject("name"));
+  }
+
+  @Test
+  public void exactIntegerColumnTest() {
+    DataColumn ints = new DataColumn("i", Types.INTEGER);
+    ints.add(7L);
+    ints.add(new BigDecimal("8.0"));
+    ints.add(9.0);
+    assertEquals(Arrays.asList(7, 8, 9), new ArrayList<>(ints));
+    assertThrows(IllegalArgumentException.class, () -> ints.add(1L << 31));
+    assertThrows(IllegalArgumentException.class, () -> ints.add(1.5));
+
+    DataColumn longs = new DataColumn("l", Types.BIGINT);
+    longs.add(BigInteger.ONE.shiftLeft(62));
+    assertEquals(1L << 62, longs.get(0));
+    assertThrows(IllegalArgumentException.class, () -> longs.add(BigInteger.ONE.shiftLeft(63)));
+    assertThrows(IllegalArgumentException.class, () -> longs.add(new BigDecimal("1.25")));
+    assertThrows(IllegalArgumentException.class, () -> longs.add(0x1p63));
+    assertThrows(IllegalArgumentException.class, () -> longs.add(Double.NaN));
+    assertEquals(1, longs.size());
+  }
+
+  @Test
+  public void columnHandleTest() {
+    DataTable table = new DataTable();
+    table.addColumn(new DataColumn("ID", Types.BIGINT));
+    table.addColumn(new DataColumn("NAME", Types.VARCHAR));
+    table.newRow().setRowData("ID", 1L);
+    table.newRow().setRowData("NAME", "darsh");
+    table.addRow();
+
+    assertEquals(1, table.indexOf("NAME"));
+    assertEquals(-1, table.indexOf("name"));
+    assertThrows(IllegalArgumentException.class, () -> table.getColumnHandle("name"));
+
+    table.setIgnoreCase(true);
+    DataTable.ColumnHandle id = table.getColumnHandle("id");
+    DataTable.ColumnHandle name = table.getColumnHandle("name");
+    assertEquals(0, id.getIndex());
+    assertEquals("NAME", name.getName());
+
+    DataRow row = table.toList().get(0);
+    assertEquals(1L, row.getLong(id));
+    assertEquals("darsh", row.getObject(name));
+    assertEquals("darsh", row.getObject("Name"));
+
+    // the index follows the columns added after the first lookup
+    table.addColumn(new DataColumn("Name"));
+    assertEquals(2, table.indexOf("Name"));
+    assertThrows(IllegalStateException.class, () -> table.indexOf("name"));
+
+    DataTable other = new DataTable();
+    other.addColumn(new DataColumn("ID"));
+    assertThrows(
+        IllegalArgumentException.class, () -> row.getObject(other.getColumnHandle("ID")));
+  }
+
+  @Test
+  public void sliceTest() throws JsonProcessingException {
+    DataTable table = new DataTable();
+    table.addColumn(new DataColumn("id", Types.INTEGER));
+    table.addColumn(new DataColumn("name", Types.VARCHAR));
+    for (int i = 0; i < 10; i++) {
+      DataRow row = table.newRow();
+      row.setRowData("id", i);
+      row.setRowData("name", i % 2 == 0 ? null : "name" + i);
+      table.addRow(row);
+    }
+
+    DataTable slice = table.slice(3, 4);
+    assertEquals(4, slice.rowCount());
+    assertEquals(3, slice.toList().get(0).getObject("id"));
+    assertEquals("name3", slice.getColumn(1).get(0));
+    assertTrue(slice.toList().get(1).isNull("name"));
+    assertEquals(6L, slice.toList().get(3).getLong("id"));
+
+    DataTable nested = slice.slice(2);
+    assertEquals(2, nested.rowCount());
+    assertEquals(5, nested.getColumn(0).get(0));
+    assertEquals(
+        "[{\"id\":5,\"name\":\"name5\"},{\"id\":6,\"name\":null}]",
+        new ObjectMapper().writeValueAsString(nested));
+
+    assertThrows(UnsupportedOperationException.class, () -> slice.getColumn(0).add(1));
+    assertThrows(IndexOutOfBoundsException.class, () -> table.slice(8, 3));
+
+    Iterator<DataTable> pages = table.pages(4);
+    assertEquals(4, pages.next().rowCount());
+    DataTable second = pages.next();
+    assertEquals(4, second.getColumn(0).get(0));
+    assertEquals(2, pages.next().rowCount());
+    assertFalse(pages.hasNext());
+  }
+
   @Test
   public void dataTableJsonSerialTest() throws JsonProcessingException {
     DataTable table = new DataTable();
@@ -126,6 +262,82 @@ public class DataTableTest {
     }
   }
 
+  @Test
+  public void dataTableJsonParseOutOfOrderTest() throws JsonProcessingException {
+    String jsonStr =
+        "[{\"name\":\"darsh\",\"age\":18},{\"age\":19,\"name\":null},"
+            + "{\"name\":\"saber\",\"city\":\"tokyo\"}]";
+
+    DataTable table = new ObjectMapper().readValue(jsonStr, DataTable.class);
+
+    assertEquals(3, table.rowCount());
+    assertEquals(3, table.getColumns().size());
+
+    DataRow second = table.toList().get(1);
+    assertEquals(19, second.getObject("age"));
+    assertTrue(second.isNull("name"));
+    assertTrue(second.isNull("city"));
+
+    DataRow third = table.toList().get(2);
+    assertTrue(third.isNull("age"));
+    assertEquals("tokyo", third.getObject("city"));
+  }
+
+  @Test
+  public void dataTableJsonParseSchemaTest() throws IOException {
+    String jsonStr = "[{\"id\":1,\"score\":9.5,\"name\":\"darsh\"},{\"id\":null,\"score\":7}]";
+    LinkedHashMap<String, Integer> schema = new LinkedHashMap<>();
+    schema.put("id", Types.BIGINT);
+    schema.put("score", Types.DOUBLE);
+    schema.put("name", Types.VARCHAR);
+
+    DataTable table =
+        new ObjectMapper()
+            .readerFor(DataTable.class)
+            .withAttribute(DataTable.JSON_SCHEMA_ATTRIBUTE, schema)
+            .readValue(jsonStr);
+
+    assertEquals(2, table.rowCount());
+    assertEquals(schema, table.getMetadata());
+    assertEquals(ColumnVector.Kind.LONG, table.getColumn(0).getVector().getKind());
+    assertEquals(1L, table.getColumn(0).get(0));
+    assertTrue(table.getColumn(0).isNull(1));
+    assertEquals(7.0, table.getColumn(1).get(1));
+    assertNull(table.getColumn(2).get(1));
+  }
+
+  @Test
+  public void dataTableJsonParseInferredTest() throws IOException {
+    String jsonStr =
+        "[{\"id\":null,\"big\":1,\"score\":9.5,\"ok\":true,\"mixed\":1,\"name\":\"a\"},"
+            + "{\"id\":2,\"big\":3000000000,\"score\":7,\"ok\":false,\"mixed\":\"x\"}]";
+
+    DataTable table = new ObjectMapper().readValue(jsonStr, DataTable.class);
+
+    // without a schema, the storage is inferred from the values and widened when needed
+    assertEquals(2, table.rowCount());
+    assertEquals(ColumnVector.Kind.INT, table.getColumn(0).getVector().getKind());
+    assertTrue(table.getColumn(0).isNull(0));
+    assertEquals(2, table.getColumn(0).getInt(1));
+    assertEquals(ColumnVector.Kind.LONG, table.getColumn(1).getVector().getKind());
+    assertEquals(1L, table.getColumn(1).get(0));
+    assertEquals(3000000000L, table.getColumn(1).get(1));
+    assertEquals(ColumnVector.Kind.DOUBLE, table.getColumn(2).getVector().getKind());
+    assertEquals(7.0, table.getColumn(2).get(1));
+    assertEquals(ColumnVector.Kind.BOOLEAN, table.getColumn(3).getVector().getKind());
+    assertEquals(ColumnVector.Kind.OBJECT, table.getColumn(4).getVector().getKind());
+    assertEquals(1, table.getColumn(4).get(0));
+    assertEquals("x", table.getColumn(4).get(1));
+    assertEquals(ColumnVector.Kind.OBJECT, table.getColumn(5).getVector().getKind());
+    assertNull(table.getColumn(5).get(1));
+
+    // the default round trip of a table keeps the primitive storage
+    ObjectMapper om = new ObjectMapper();
+    DataTable copy = om.readValue(om.writeValueAsString(table), DataTable.class);
+    assertEquals(ColumnVector.Kind.LONG, copy.getColumn(1).getVector().getKind());
+    assertEquals(table.getColumn(1).toList(), copy.getColumn(1).toList());
+  }
+
   @Test
   public void dataRowJsonSerialTest() {
     DataTable table = new DataTable();
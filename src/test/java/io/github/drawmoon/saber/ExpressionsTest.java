@@ -21,7 +21,15 @@
  */
 package io.github.drawmoon.saber;
 
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import io.github.drawmoon.saber.engine.ParamStyle;
+import io.github.drawmoon.saber.engine.SaberOptions;
+import io.github.drawmoon.saber.engine.SqlTemplate;
 import io.github.drawmoon.saber.test.BaseTestCase;
+import java.sql.Types;
 import org.junit.jupiter.api.Test;
 
 public class ExpressionsTest extends BaseTestCase {
@@ -42,4 +50,79 @@ public class ExpressionsTest extends BaseTestCase {
         equalToSqlWithBranch("SELECT 1 FROM DUAL"),
         new SqlDialect[] {SqlDialect.ORACLE});
   }
+
+  @Test
+  public void renderSelectListTest() {
+    assertExpr(
+        rubikCube -> {
+          return Expressions.create(rubikCube).select(1, 2);
+        },
+        equalToSqlWithBranch("SELECT 1 , 2"),
+        new SqlDialect[] {SqlDialect.MYSQL, SqlDialect.POSTGRES, SqlDialect.MSSQL});
+  }
+
+  @Test
+  public void renderTemplateTest() {
+    SaberOptions options = new SaberOptions();
+    RubikCube rubikCube = new RubikCube(SqlDialect.POSTGRES);
+
+    SqlTemplate t1 = Expressions.create(rubikCube, options).select(1, 2).renderTemplate();
+    SqlTemplate t2 = Expressions.create(rubikCube, options).select(3, 4).renderTemplate();
+
+    assertThat(t1.getSql(), equalTo(t2.getSql()));
+    assertThat(t1.getParameterValues(), equalTo(new Object[] {1, 2}));
+    assertThat(t2.getParameterValues(), equalTo(new Object[] {3, 4}));
+    assertEquals(1L, options.getSqlTemplateCache().size());
+
+    SqlTemplate t3 = Expressions.create(rubikCube, options).select(5).renderTemplate();
+    assertThat(t3.getSql(), equalTo("SELECT ?"));
+    assertEquals(2L, options.getSqlTemplateCache().size());
+  }
+
+  @Test
+  public void renderFilterTemplateTest() {
+    SaberOptions options = new SaberOptions();
+    RubikCube rubikCube = new RubikCube(SqlDialect.POSTGRES);
+
+    SqlTemplate t1 = selectFiltered(rubikCube, options, 1, 2, 3, Comparator.LT);
+    SqlTemplate t2 = selectFiltered(rubikCube, options, 4, 5, 6, Comparator.LT);
+
+    // only the literals of the filter differ, so the template is reused
+    assertThat(t2.getSql(), equalTo(t1.getSql()));
+    assertThat(t1.getSql(), equalTo("SELECT ? WHERE ( ? = ? AND ? < ? )"));
+    assertThat(t1.getParameterValues(), equalTo(new Object[] {1, 2, 2, 3, 3}));
+    assertThat(t2.getParameterValues(), equalTo(new Object[] {4, 5, 5, 6, 6}));
+    assertEquals(1L, options.getSqlTemplateCache().size());
+
+    SqlTemplate t3 = selectFiltered(rubikCube, options, 1, 2, 3, Comparator.GT);
+    assertThat(t3.getSql(), equalTo("SELECT ? WHERE ( ? = ? AND ? > ? )"));
+    assertEquals(2L, options.getSqlTemplateCache().size());
+  }
+
+  private static SqlTemplate selectFiltered(
+      RubikCube rubikCube, SaberOptions options, int a, int b, int c, Comparator comparator) {
+    Condition where =
+        new LogicalExpression(
+            Expressions.intVal(b).eq(b),
+            new ComparisonExpression(Expressions.intVal(c), Expressions.intVal(c), comparator),
+            Operator.AND);
+    return Expressions.create(rubikCube, options).select(a).where(where).renderTemplate();
+  }
+
+  @Test
+  public void renderParamStyleTest() {
+    SaberOptions options = new SaberOptions();
+
+    for (SqlDialect dialect : new SqlDialect[] {SqlDialect.POSTGRES, SqlDialect.ORACLE}) {
+      RubikCube rubikCube = new RubikCube(dialect);
+      ParamStyle paramStyle = ParamStyle.nativeOf(dialect);
+
+      SqlTemplate template =
+          Expressions.create(rubikCube, options).select(7).renderTemplate(paramStyle);
+      assertThat(template.getParameterTypes(), equalTo(new int[] {Types.INTEGER}));
+      assertThat(template.getParameterValues(), equalTo(new Object[] {7}));
+      String expected = dialect == SqlDialect.ORACLE ? "SELECT :1 FROM DUAL" : "SELECT $1";
+      assertThat(template.getSql(), equalTo(expected));
+    }
+  }
 }
@@ -25,9 +25,18 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.is;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import com.google.common.collect.ImmutableList;
+import io.github.drawmoon.saber.DataTable.DataColumn;
+import java.sql.Types;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import org.junit.jupiter.api.Test;
@@ -75,4 +84,121 @@ public class SequenceTest {
     long size = Sequence.it(seq).filter(i -> i % 2 == 0).size();
     assertEquals(5, size);
   }
+
+  @Test
+  public void rangeReuseTest() {
+    Sequence<Integer> seq = Sequence.range(1, 3);
+    assertThat(seq.toList(), is(equalTo(ImmutableList.of(1, 2, 3))));
+    assertThat(seq.toList(), is(equalTo(ImmutableList.of(1, 2, 3))));
+  }
+
+  @Test
+  public void indexedFilterTest() {
+    List<Integer> list = Sequence.range(1, 10).filter((t, i) -> i % 3 == 0).toList();
+    assertThat(list, is(equalTo(ImmutableList.of(1, 4, 7, 10))));
+    assertEquals(5, (int) Sequence.range(1, 10).elementAt(4));
+  }
+
+  @Test
+  public void sortedTest() {
+    List<Integer> list = ImmutableList.of(3, 1, 2);
+    assertThat(Sequence.it(list).sorted().toList(), is(equalTo(ImmutableList.of(1, 2, 3))));
+    assertThat(
+        Sequence.it(list).sortedDescending().toList(), is(equalTo(ImmutableList.of(3, 2, 1))));
+  }
+
+  @Test
+  public void parallelTest() {
+    ArrayList<Integer> source = new ArrayList<>();
+    for (int i = 0; i < 100_000; i++) source.add(i);
+
+    ForkJoinPool pool = new ForkJoinPool(3);
+    try {
+      Set<Thread> threads = ConcurrentHashMap.newKeySet();
+      Sequence<Integer> seq = Sequence.it(source).asParallel(pool);
+      assertTrue(seq.isParallel());
+
+      List<Integer> list =
+          seq.filter(
+                  i -> {
+                    threads.add(Thread.currentThread());
+                    return i % 2 == 0;
+                  })
+              .map(i -> i / 2)
+              .toList();
+      assertEquals(50_000, list.size());
+      for (int i = 0; i < list.size(); i++) assertEquals(i, (int) list.get(i));
+      for (Thread thread : threads) assertTrue(thread instanceof ForkJoinWorkerThread);
+
+      // the index of a split source is known
+      List<Integer> indexed = seq.filter((t, i) -> i % 1000 == 0).toList();
+      assertEquals(100, indexed.size());
+      assertEquals(99_000, (int) indexed.get(99));
+
+      assertEquals(100_000, seq.size());
+      assertEquals(1000, seq.count(i -> i % 100 == 0));
+      assertTrue(seq.contains(99_999));
+      assertTrue(seq.all(i -> i >= 0));
+      assertEquals(Optional.of(99_999), seq.reduce(Math::max));
+      assertEquals(99_999, (int) seq.sortedDescending().first());
+
+      DataColumn column = new DataColumn("value", Types.BIGINT);
+      for (int i = 0; i < 10_000; i++) column.addLong(i);
+      assertEquals(
+          49_995_000L,
+          Sequence.it(column).asParallel().map(v -> (Long) v).reduce(Long::sum).get().longValue());
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  @Test
+  public void fusedTest() {
+    List<String> log = new ArrayList<>();
+    Sequence<Integer> seq =
+        Sequence.range(1, 4)
+            .filter(
+                i -> {
+                  log.add("filter " + i);
+                  return i % 2 == 0;
+                })
+            .map(
+                i -> {
+                  log.add("map " + i);
+                  return i * 10;
+                });
+    assertTrue(log.isEmpty());
+
+    assertThat(seq.toList(), is(equalTo(ImmutableList.of(20, 40))));
+    List<String> expected =
+        ImmutableList.of("filter 1", "filter 2", "map 2", "filter 3", "filter 4", "map 4");
+    assertThat(log, is(equalTo(expected)));
+
+    // the elements are read one by one
+    log.clear();
+    assertEquals(20, (int) seq.first());
+    assertThat(log, is(equalTo(ImmutableList.of("filter 1", "filter 2", "map 2"))));
+  }
+
+  @Test
+  public void indexedTest() {
+    List<String> list = ImmutableList.of("a", "b", "c", "d", "e");
+    List<String> result =
+        Sequence.it(list)
+            .filterIndexed((s, i) -> i != 1)
+            .mapIndexed((s, i) -> i + s)
+            .filterIndexed((s, i) -> i < 3)
+            .toList();
+    assertThat(result, is(equalTo(ImmutableList.of("0a", "1c", "2d"))));
+
+    ArrayList<Integer> source = new ArrayList<>();
+    for (int i = 0; i < 10_000; i++) source.add(i);
+    List<Integer> parallel =
+        Sequence.it(source)
+            .asParallel()
+            .filter(i -> i % 2 == 0)
+            .filterIndexed((t, i) -> i % 1000 == 0)
+            .toList();
+    assertThat(parallel, is(equalTo(ImmutableList.of(0, 2000, 4000, 6000, 8000))));
+  }
 }
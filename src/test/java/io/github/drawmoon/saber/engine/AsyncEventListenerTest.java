@@ -0,0 +1,98 @@
+/*
+ *            _
+ *  ___  __ _| |__   ___ _ __
+ * / __|/ _` | '_ \ / _ \ '__|
+ * \__ \ (_| | |_) |  __/ |
+ * |___/\__,_|_.__/ \___|_|
+ *
+ * Copyright 2024 drash
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.drawmoon.saber.engine;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import io.github.drawmoon.saber.engine.AsyncEventListener.OverflowPolicy;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+public class AsyncEventListenerTest {
+
+  @Test
+  public void deliverTest() throws Exception {
+    AtomicInteger received = new AtomicInteger();
+    Thread publisher = Thread.currentThread();
+    AtomicInteger sameThread = new AtomicInteger();
+    SaberEventListener listener =
+        newListener(
+            () -> {
+              received.incrementAndGet();
+              if (Thread.currentThread() == publisher) sameThread.incrementAndGet();
+            });
+
+    AsyncEventListener async = new AsyncEventListener(listener, 1024, OverflowPolicy.BLOCK);
+    for (int i = 0; i < 10_000; i++) {
+      async.onBeforeExecute(null);
+    }
+    async.close();
+
+    assertThat(received.get(), equalTo(10_000));
+    assertEquals(0, sameThread.get());
+    assertEquals(10_000, async.getPublishedEvents());
+    assertEquals(0, async.getDroppedEvents());
+  }
+
+  @Test
+  public void dropTest() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    SaberEventListener listener =
+        newListener(
+            () -> {
+              try {
+                release.await(10, TimeUnit.SECONDS);
+              } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+              }
+            });
+
+    AsyncEventListener async = new AsyncEventListener(listener, 16, OverflowPolicy.DROP);
+    for (int i = 0; i < 100; i++) {
+      async.onBeforeExecute(null);
+    }
+    release.countDown();
+    async.close();
+
+    assertNotEquals(0, async.getDroppedEvents());
+    assertEquals(100, async.getPublishedEvents() + async.getDroppedEvents());
+    assertEquals(0, async.getPendingEvents());
+  }
+
+  private static SaberEventListener newListener(Runnable onEvent) {
+    return (SaberEventListener)
+        Proxy.newProxyInstance(
+            SaberEventListener.class.getClassLoader(),
+            new Class<?>[] {SaberEventListener.class},
+            (proxy, method, args) -> {
+              if (method.getName().equals("isSubscribed")) return true;
+              onEvent.run();
+              return null;
+            });
+  }
+}
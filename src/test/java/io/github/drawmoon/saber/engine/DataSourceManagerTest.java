@@ -0,0 +1,186 @@
+/*
+ *            _
+ *  ___  __ _| |__   ___ _ __
+ * / __|/ _` | '_ \ / _ \ '__|
+ * \__ \ (_| | |_) |  __/ |
+ * |___/\__,_|_.__/ \___|_|
+ *
+ * Copyright 2024 drash
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.drawmoon.saber.engine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+public class DataSourceManagerTest {
+
+  @Test
+  public void evictInUseTest() throws Exception {
+    SaberOptions options = newOptions();
+    try (DataSourceManager manager = newManager(options)) {
+      FakeDataSource first = (FakeDataSource) manager.get(context(options, "first"));
+      first.inUse = true;
+
+      FakeDataSource second = (FakeDataSource) manager.get(context(options, "second"));
+
+      // the evicted pool is no longer handed out, but it is not closed while a request uses it
+      assertEquals(1, manager.size());
+      Thread.sleep(2500);
+      assertFalse(first.closed);
+
+      first.inUse = false;
+      awaitClosed(first);
+      assertFalse(second.closed);
+    }
+  }
+
+  @Test
+  public void evictIdleTest() throws Exception {
+    SaberOptions options = newOptions();
+    try (DataSourceManager manager = newManager(options)) {
+      FakeDataSource first = (FakeDataSource) manager.get(context(options, "first"));
+      manager.get(context(options, "second"));
+
+      awaitClosed(first);
+    }
+  }
+
+  @Test
+  public void removeInUseTest() throws Exception {
+    SaberOptions options = newOptions();
+    try (DataSourceManager manager = newManager(options)) {
+      FakeDataSource first = (FakeDataSource) manager.get(context(options, "first"));
+      first.inUse = true;
+
+      manager.remove("jdbc:postgresql://localhost:5432/first");
+
+      // a removed pool is retired like an evicted one
+      assertEquals(0, manager.size());
+      Thread.sleep(2500);
+      assertFalse(first.closed);
+
+      first.inUse = false;
+      awaitClosed(first);
+    }
+  }
+
+  @Test
+  public void closeTest() throws Exception {
+    SaberOptions options = newOptions();
+    DataSourceManager manager = newManager(options);
+    FakeDataSource first = (FakeDataSource) manager.get(context(options, "first"));
+    first.inUse = true;
+    FakeDataSource second = (FakeDataSource) manager.get(context(options, "second"));
+
+    manager.close();
+
+    // closing the manager closes the pools that are still retiring as well
+    assertTrue(first.closed);
+    assertTrue(second.closed);
+  }
+
+  @Test
+  public void warmUpTest() throws Exception {
+    SaberOptions options = newOptions();
+    options.setMaximumPoolSizeLimit(4);
+    options.setPoolGovernorInterval(0);
+    try (DataSourceManager manager = newManager(options)) {
+      // the datasource is handed out without waiting for its pool to start
+      FakeDataSource dataSource = (FakeDataSource) manager.get(context(options, "first"));
+      assertFalse(dataSource.warmUp.isDone());
+      assertEquals(0, manager.getPoolGovernor().getPoolStatus().size());
+
+      // the pool takes its share of the connection budget once it is started
+      dataSource.maximumPoolSize = 10;
+      dataSource.warmUp.complete(null);
+      assertEquals(1, manager.getPoolGovernor().getPoolStatus().size());
+      assertEquals(4, dataSource.maximumPoolSize);
+    }
+  }
+
+  private static SaberOptions newOptions() {
+    SaberOptions options = new SaberOptions();
+    options.setDataSourceLimit(1);
+    options.setDataSourceLimitPolicies("Recreate");
+    return options;
+  }
+
+  private static DataSourceManager newManager(SaberOptions options) {
+    return new DataSourceManager(
+        options, FakeJdbc.listener(), uri -> new FakeDataSource(uri, options));
+  }
+
+  private static RequestContext context(SaberOptions options, String database) {
+    Request request = FakeJdbc.request("SELECT 1");
+    request.setConnectionUri("jdbc:postgresql://localhost:5432/" + database);
+    return new RequestContext(request, options, FakeJdbc.listener());
+  }
+
+  private static void awaitClosed(FakeDataSource dataSource) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (!dataSource.closed && System.nanoTime() < deadline) {
+      Thread.sleep(10);
+    }
+    assertTrue(dataSource.closed);
+  }
+
+  private static final class FakeDataSource extends SaberDataSource {
+
+    private final CompletableFuture<Void> warmUp = new CompletableFuture<>();
+    private volatile boolean inUse;
+    private volatile boolean closed;
+    private volatile int maximumPoolSize;
+
+    FakeDataSource(ConnectionUri connectionUri, SaberOptions options) {
+      super(connectionUri, options);
+    }
+
+    @Override
+    public boolean isInUse() {
+      return inUse;
+    }
+
+    @Override
+    public CompletableFuture<Void> warmUp(Executor executor) {
+      return warmUp;
+    }
+
+    @Override
+    public int getMaximumPoolSize() {
+      return maximumPoolSize;
+    }
+
+    @Override
+    public int getConfiguredMaximumPoolSize() {
+      return 10;
+    }
+
+    @Override
+    public void setMaximumPoolSize(int maximumPoolSize) {
+      this.maximumPoolSize = maximumPoolSize;
+    }
+
+    @Override
+    public void close() {
+      closed = true;
+    }
+  }
+}
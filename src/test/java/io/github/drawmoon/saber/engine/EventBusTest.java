@@ -0,0 +1,175 @@
+/*
+ *            _
+ *  ___  __ _| |__   ___ _ __
+ * / __|/ _` | '_ \ / _ \ '__|
+ * \__ \ (_| | |_) |  __/ |
+ * |___/\__,_|_.__/ \___|_|
+ *
+ * Copyright 2024 drash
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.drawmoon.saber.engine;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.Test;
+
+public class EventBusTest {
+
+  @Test
+  public void subscriptionTest() {
+    EventBus bus = new EventBus();
+    for (EventCategory category : EventCategory.values()) {
+      assertFalse(bus.isSubscribed(category));
+    }
+
+    List<String> events = new ArrayList<>();
+    SaberEventListener cells =
+        newListener("cells", EnumSet.of(EventCategory.RESULT_SET_CELL), events);
+    SaberEventListener rows = newListener("rows", EnumSet.of(EventCategory.RESULT_SET_ROW), events);
+    bus.addListener(cells);
+    bus.addListener(0, rows);
+
+    assertThat(bus.getListeners(), contains(rows, cells));
+    assertTrue(bus.isSubscribed(EventCategory.RESULT_SET_CELL));
+    assertTrue(bus.isSubscribed(EventCategory.RESULT_SET_ROW));
+    assertFalse(bus.isSubscribed(EventCategory.STATEMENT));
+
+    bus.onAfterResultSetGet(null, 1, null, 0, null);
+    bus.onBeforeResultSetNext(null);
+    bus.onBeforeExecute(null);
+    assertThat(events, contains("cells.onAfterResultSetGet", "rows.onBeforeResultSetNext"));
+
+    assertTrue(bus.removeListener(cells));
+    assertFalse(bus.removeListener(cells));
+    assertFalse(bus.isSubscribed(EventCategory.RESULT_SET_CELL));
+
+    bus.clearListeners();
+    assertThat(bus.getListeners(), empty());
+  }
+
+  @Test
+  public void statementCategoryTest() {
+    // the wrappers only time and dispatch the executions when STATEMENT is subscribed
+    EventBus bus = new EventBus();
+    List<String> events = new ArrayList<>();
+    bus.addListener(newListener("statements", EnumSet.of(EventCategory.STATEMENT), events));
+    bus.addListener(newListener("queries", EnumSet.of(EventCategory.QUERY), events));
+
+    bus.onBeforeExecuteQuery(null);
+    bus.onAfterExecuteQuery(null, 0, null);
+    bus.onBeforeExecuteQuery(null, "select 1");
+    bus.onAfterExecuteQuery(null, "select 1", 0, null);
+    bus.onBeforeExecuteUpdate(null, "delete from t");
+    bus.onAfterExecuteUpdate(null, "delete from t", 1, 0, null);
+
+    assertThat(
+        events,
+        contains(
+            "statements.onBeforeExecuteQuery",
+            "statements.onAfterExecuteQuery",
+            "statements.onBeforeExecuteQuery",
+            "statements.onAfterExecuteQuery",
+            "statements.onBeforeExecuteUpdate",
+            "statements.onAfterExecuteUpdate"));
+  }
+
+  @Test
+  public void modifyWhileDispatchingTest() {
+    EventBus bus = new EventBus();
+    List<String> events = Collections.synchronizedList(new ArrayList<>());
+    SaberEventListener all = newListener("all", EnumSet.allOf(EventCategory.class), events);
+    SaberEventListener added = newListener("added", EnumSet.allOf(EventCategory.class), events);
+    bus.addListener(
+        newListener(
+            "modifier",
+            EnumSet.allOf(EventCategory.class),
+            event -> {
+              bus.addListener(added);
+              bus.removeListener(all);
+            }));
+    bus.addListener(all);
+
+    // the event is delivered to the snapshot taken when it was dispatched
+    bus.onBeforeExecute(null);
+    assertThat(events, contains("all.onBeforeExecute"));
+    assertThat(bus.getListeners().size(), equalTo(2));
+  }
+
+  @Test
+  @SuppressWarnings("deprecation")
+  public void contextFreeConnectionListenerTest() {
+    // a listener written against the callback without a context still receives it
+    List<SaberWrapper> dataSources = new ArrayList<>();
+    EventBus bus = new EventBus();
+    bus.addListener(
+        new SaberEventAdapter() {
+          @Override
+          public void onBeforeGetConnection(SaberWrapper dataSource) {
+            dataSources.add(dataSource);
+          }
+        });
+    SaberDataSource dataSource =
+        new SaberDataSource(
+            ConnectionUri.fromStr("jdbc:postgresql://localhost:5432/db"), new SaberOptions());
+
+    bus.onBeforeGetConnection(
+        dataSource, new RequestContext(new Request(), new SaberOptions(), bus));
+
+    assertThat(dataSources, contains(dataSource));
+    // the context of a shared datasource is not silently null
+    assertThrows(UnsupportedOperationException.class, dataSource::getContext);
+  }
+
+  private static SaberEventListener newListener(
+      String name, Set<EventCategory> categories, List<String> events) {
+    return newListener(name, categories, event -> events.add(name + "." + event));
+  }
+
+  private static SaberEventListener newListener(
+      String name, Set<EventCategory> categories, Consumer<String> sink) {
+    return (SaberEventListener)
+        Proxy.newProxyInstance(
+            SaberEventListener.class.getClassLoader(),
+            new Class<?>[] {SaberEventListener.class},
+            (proxy, method, args) -> {
+              switch (method.getName()) {
+                case "isSubscribed":
+                  return categories.contains((EventCategory) args[0]);
+                case "hashCode":
+                  return System.identityHashCode(proxy);
+                case "equals":
+                  return proxy == args[0];
+                case "toString":
+                  return name;
+                default:
+                  sink.accept(method.getName());
+                  return null;
+              }
+            });
+  }
+}
@@ -0,0 +1,381 @@
+/*
+ *            _
+ *  ___  __ _| |__   ___ _ __
+ * / __|/ _` | '_ \ / _ \ '__|
+ * \__ \ (_| | |_) |  __/ |
+ * |___/\__,_|_.__/ \___|_|
+ *
+ * Copyright 2024 drash
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.drawmoon.saber.engine;
+
+import com.google.common.util.concurrent.MoreExecutors;
+import java.lang.reflect.Array;
+import java.lang.reflect.Proxy;
+import java.math.BigInteger;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An in-memory JDBC connection for tests, built on dynamic proxies. The result set serves the
+ * given rows, and its getters convert values the way a driver does, failing with a {@link
+ * SQLException} when a value is out of the range of the getter.
+ */
+final class FakeJdbc {
+
+  private final String[] names;
+  private final int[] types;
+  private final Object[][] rows;
+  private final boolean[] signed;
+  private final int[] precisions;
+
+  /** The calls to the connection, statement and result set that change their state, in order. */
+  final List<String> events = new CopyOnWriteArrayList<>();
+
+  /** The number of rows the result sets have moved to. */
+  final AtomicInteger rowsRead = new AtomicInteger();
+
+  /** The number of statements executed, released once for each execution. */
+  final Semaphore executions = new Semaphore(0);
+
+  /** The number of statements cancelled while they were executing. */
+  final AtomicInteger cancelledExecutions = new AtomicInteger();
+
+  /** The highest number of statements that were executing at the same time. */
+  final AtomicInteger peakExecutions = new AtomicInteger();
+
+  private final AtomicInteger activeExecutions = new AtomicInteger();
+  private long latencyMillis;
+
+  FakeJdbc(String[] names, int[] types, Object[]... rows) {
+    this.names = names;
+    this.types = types;
+    this.rows = rows;
+    this.signed = new boolean[names.length];
+    this.precisions = new int[names.length];
+    Arrays.fill(signed, true);
+  }
+
+  /**
+   * Marks a column as unsigned.
+   *
+   * @param column the column, starting at 1
+   * @return this
+   */
+  FakeJdbc unsigned(int column) {
+    signed[column - 1] = false;
+    return this;
+  }
+
+  /**
+   * Sets the precision reported for a column.
+   *
+   * @param column the column, starting at 1
+   * @param precision the precision
+   * @return this
+   */
+  FakeJdbc precision(int column, int precision) {
+    precisions[column - 1] = precision;
+    return this;
+  }
+
+  /**
+   * Sets the time each query takes to execute, simulating the round trip to a database.
+   *
+   * @param latencyMillis the execution time in milliseconds
+   * @return this
+   */
+  FakeJdbc latency(long latencyMillis) {
+    this.latencyMillis = latencyMillis;
+    return this;
+  }
+
+  /**
+   * Creates a connection whose statements return the rows. A query containing {@code sleep} blocks
+   * until its statement is cancelled, and then fails like a cancelled query does.
+   *
+   * @return the connection
+   */
+  Connection connection() {
+    ResultSet resultSet = newResultSet();
+    CountDownLatch cancel = new CountDownLatch(1);
+    Statement statement =
+        proxy(
+            Statement.class,
+            (name, args) -> {
+              switch (name) {
+                case "executeQuery":
+                  executions.release();
+                  if (((String) args[0]).contains("sleep")) {
+                    if (!cancel.await(30, TimeUnit.SECONDS)) {
+                      throw new SQLException("Not cancelled");
+                    }
+                    cancelledExecutions.incrementAndGet();
+                    throw new SQLException("canceling statement due to user request", "57014");
+                  }
+                  if (latencyMillis > 0) execute();
+                  return resultSet;
+                case "cancel":
+                  cancel.countDown();
+                  return null;
+                case "setFetchSize":
+                  events.add("setFetchSize(" + args[0] + ")");
+                  return null;
+                case "close":
+                  events.add("statement.close");
+                  return null;
+                default:
+                  return null;
+              }
+            });
+
+    boolean[] autoCommit = {true};
+    return proxy(
+        Connection.class,
+        (name, args) -> {
+          switch (name) {
+            case "createStatement":
+              return statement;
+            case "getAutoCommit":
+              return autoCommit[0];
+            case "setAutoCommit":
+              autoCommit[0] = (Boolean) args[0];
+              events.add("setAutoCommit(" + args[0] + ")");
+              return null;
+            case "rollback":
+            case "close":
+              events.add("connection." + name);
+              return null;
+            default:
+              return null;
+          }
+        });
+  }
+
+  /**
+   * Creates a cursor over the rows, executing on the calling thread.
+   *
+   * @return the cursor
+   */
+  JdbcRecordCursor cursor() {
+    return cursor(0);
+  }
+
+  /**
+   * Creates a cursor over the rows with a fetch size, executing on the calling thread.
+   *
+   * @param fetchSize the fetch size of the statement
+   * @return the cursor
+   */
+  JdbcRecordCursor cursor(int fetchSize) {
+    return new JdbcRecordCursor(
+        connection(),
+        "SELECT 1",
+        0,
+        fetchSize,
+        MoreExecutors.newDirectExecutorService(),
+        listener());
+  }
+
+  private void execute() throws InterruptedException {
+    peakExecutions.accumulateAndGet(activeExecutions.incrementAndGet(), Math::max);
+    try {
+      Thread.sleep(latencyMillis);
+    } finally {
+      activeExecutions.decrementAndGet();
+    }
+  }
+
+  private ResultSet newResultSet() {
+    ResultSetMetaData meta =
+        proxy(
+            ResultSetMetaData.class,
+            (name, args) -> {
+              switch (name) {
+                case "getColumnCount":
+                  return names.length;
+                case "getColumnName":
+                  return names[(Integer) args[0] - 1];
+                case "getColumnType":
+                  return types[(Integer) args[0] - 1];
+                case "isSigned":
+                  return signed[(Integer) args[0] - 1];
+                case "getPrecision":
+                  return precisions[(Integer) args[0] - 1];
+                default:
+                  return null;
+              }
+            });
+
+    int[] row = {-1};
+    boolean[] wasNull = {false};
+    return proxy(
+        ResultSet.class,
+        (name, args) -> {
+          switch (name) {
+            case "next":
+              if (++row[0] >= rows.length) return false;
+              rowsRead.incrementAndGet();
+              return true;
+            case "close":
+              events.add("resultSet.close");
+              return null;
+            case "getMetaData":
+              return meta;
+            case "wasNull":
+              return wasNull[0];
+            case "getBoolean":
+            case "getInt":
+            case "getLong":
+            case "getDouble":
+            case "getString":
+            case "getObject":
+              {
+                Object value = rows[row[0]][(Integer) args[0] - 1];
+                wasNull[0] = value == null;
+                return value == null ? null : convert(name, value);
+              }
+            default:
+              return null;
+          }
+        });
+  }
+
+  private static Object convert(String getter, Object value) throws SQLException {
+    switch (getter) {
+      case "getBoolean":
+        if (value instanceof Boolean) return value;
+        if (value instanceof Number) return ((Number) value).longValue() != 0;
+        throw new SQLException("Cannot convert " + value.getClass() + " to boolean", "22018");
+      case "getInt":
+        {
+          long exact = toLong(value);
+          if ((int) exact != exact) throw new SQLException("Out of range: " + value, "22003");
+          return (int) exact;
+        }
+      case "getLong":
+        return toLong(value);
+      case "getDouble":
+        return ((Number) value).doubleValue();
+      case "getString":
+        return String.valueOf(value);
+      default:
+        return value;
+    }
+  }
+
+  private static long toLong(Object value) throws SQLException {
+    if (value instanceof BigInteger && ((BigInteger) value).bitLength() > 63) {
+      throw new SQLException("Out of range: " + value, "22003");
+    }
+    if (value instanceof Number) return ((Number) value).longValue();
+    throw new SQLException("Cannot convert " + value.getClass() + " to long", "22018");
+  }
+
+  /**
+   * Creates a datasource whose connections are created by {@link #connection()}.
+   *
+   * @param connectionUri the connection URI of the datasource
+   * @param options the options
+   * @return the datasource
+   */
+  SaberDataSource dataSource(ConnectionUri connectionUri, SaberOptions options) {
+    return new SaberDataSource(connectionUri, options) {
+      @Override
+      public Connection getConnection(RequestContext context) {
+        return connection();
+      }
+
+      @Override
+      public CompletableFuture<Void> warmUp(Executor executor) {
+        return CompletableFuture.completedFuture(null);
+      }
+    };
+  }
+
+  /**
+   * Creates a request manager whose datasources are created by {@link #dataSource}.
+   *
+   * @param options the options
+   * @return the request manager
+   */
+  RequestManager requestManager(SaberOptions options) {
+    SaberEventListener listener = listener();
+    return new RequestManager(
+        options,
+        listener,
+        new DataSourceManager(options, listener, uri -> dataSource(uri, options)));
+  }
+
+  /**
+   * Creates a request for a query of this connection.
+   *
+   * @param query the query
+   * @return the request
+   */
+  static Request request(String query) {
+    Request request = new Request();
+    request.setConnectionUri("jdbc:postgresql://localhost:5432/db");
+    request.setQuery(query);
+    return request;
+  }
+
+  /**
+   * Creates a listener that is subscribed to every event and ignores them.
+   *
+   * @return the listener
+   */
+  static SaberEventListener listener() {
+    return proxy(
+        SaberEventListener.class,
+        (name, args) -> name.equals("isSubscribed") ? (Object) true : null);
+  }
+
+  /**
+   * Creates a proxy of an interface that delegates to the handler by method name. A null result
+   * of a method returning a primitive is replaced by the default value of the primitive.
+   */
+  @SuppressWarnings("unchecked")
+  static <T> T proxy(Class<T> type, Handler handler) {
+    return (T)
+        Proxy.newProxyInstance(
+            type.getClassLoader(),
+            new Class<?>[] {type},
+            (proxy, method, args) -> {
+              Object result = handler.invoke(method.getName(), args);
+              Class<?> returnType = method.getReturnType();
+              if (result == null && returnType.isPrimitive() && returnType != void.class) {
+                return Array.get(Array.newInstance(returnType, 1), 0);
+              }
+              return result;
+            });
+  }
+
+  interface Handler {
+    Object invoke(String name, Object[] args) throws Exception;
+  }
+}
@@ -0,0 +1,120 @@
+/*
+ *            _
+ *  ___  __ _| |__   ___ _ __
+ * / __|/ _` | '_ \ / _ \ '__|
+ * \__ \ (_| | |_) |  __/ |
+ * |___/\__,_|_.__/ \___|_|
+ *
+ * Copyright 2024 drash
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.drawmoon.saber.engine;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import io.github.drawmoon.saber.ColumnVector.Kind;
+import io.github.drawmoon.saber.DataTable;
+import java.math.BigInteger;
+import java.sql.Date;
+import java.sql.Types;
+import org.junit.jupiter.api.Test;
+
+public class JdbcRowLoaderTest {
+
+  @Test
+  public void loadKindsTest() throws Exception {
+    Date date = Date.valueOf("2024-01-01");
+    FakeJdbc jdbc =
+        new FakeJdbc(
+            new String[] {"i", "l", "d", "b", "s", "o"},
+            new int[] {
+              Types.INTEGER, Types.BIGINT, Types.DOUBLE, Types.BOOLEAN, Types.VARCHAR, Types.DATE
+            },
+            new Object[] {1, 2L, 0.5, true, "a", date},
+            new Object[] {null, null, null, null, null, null});
+
+    DataTable table = load(jdbc);
+
+    assertKinds(table, Kind.INT, Kind.LONG, Kind.DOUBLE, Kind.BOOLEAN, Kind.STRING, Kind.OBJECT);
+    assertEquals(2, table.rowCount());
+    DataTable.DataRow first = table.toList().get(0);
+    assertEquals(1, (int) first.getObject(0));
+    assertEquals(2L, (long) first.getObject(1));
+    assertEquals(0.5, (double) first.getObject(2));
+    assertEquals(true, first.getObject(3));
+    assertEquals("a", first.getObject(4));
+    assertEquals(date, first.getObject(5));
+    DataTable.DataRow second = table.toList().get(1);
+    for (int i = 0; i < 6; i++) assertNull(second.getObject(i));
+  }
+
+  @Test
+  public void unsignedTest() throws Exception {
+    BigInteger max = BigInteger.ONE.shiftLeft(64).subtract(BigInteger.ONE);
+    FakeJdbc jdbc =
+        new FakeJdbc(
+                new String[] {"i", "l"},
+                new int[] {Types.INTEGER, Types.BIGINT},
+                new Object[] {3_000_000_000L, max})
+            .unsigned(1)
+            .unsigned(2);
+
+    DataTable table = load(jdbc);
+
+    assertKinds(table, Kind.LONG, Kind.OBJECT);
+    DataTable.DataRow row = table.toList().get(0);
+    assertEquals(3_000_000_000L, (long) row.getObject(0));
+    assertEquals(max, row.getObject(1));
+  }
+
+  @Test
+  public void bitTest() throws Exception {
+    byte[] bits = {0x0F};
+    FakeJdbc jdbc =
+        new FakeJdbc(
+                new String[] {"flag", "mask"},
+                new int[] {Types.BIT, Types.BIT},
+                new Object[] {true, bits})
+            .precision(1, 1)
+            .precision(2, 8);
+
+    DataTable table = load(jdbc);
+
+    assertKinds(table, Kind.BOOLEAN, Kind.OBJECT);
+    DataTable.DataRow row = table.toList().get(0);
+    assertEquals(true, row.getObject(0));
+    assertArrayEquals(bits, (byte[]) row.getObject(1));
+  }
+
+  private static DataTable load(FakeJdbc jdbc) throws Exception {
+    try (JdbcRecordCursor cursor = jdbc.cursor()) {
+      boolean hasNext = cursor.advanceNextPosition();
+      JdbcRowLoader loader = new JdbcRowLoader(cursor);
+      DataTable table = loader.newTable(0);
+      while (hasNext) {
+        loader.loadRow();
+        hasNext = cursor.advanceNextPosition();
+      }
+      return table;
+    }
+  }
+
+  private static void assertKinds(DataTable table, Kind... kinds) {
+    for (int i = 0; i < kinds.length; i++) {
+      assertEquals(kinds[i], table.getColumn(i).getVector().getKind());
+    }
+  }
+}
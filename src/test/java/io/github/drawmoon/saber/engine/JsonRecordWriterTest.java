@@ -0,0 +1,58 @@
+/*
+ *            _
+ *  ___  __ _| |__   ___ _ __
+ * / __|/ _` | '_ \ / _ \ '__|
+ * \__ \ (_| | |_) |  __/ |
+ * |___/\__,_|_.__/ \___|_|
+ *
+ * Copyright 2024 drash
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.drawmoon.saber.engine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Types;
+import org.junit.jupiter.api.Test;
+
+public class JsonRecordWriterTest {
+
+  private static final String[] NAMES = {"id", "name", "score"};
+  private static final int[] TYPES = {Types.BIGINT, Types.VARCHAR, Types.DOUBLE};
+  private static final Object[][] ROWS = {{1L, "darsh", 9.5}, {null, null, 7.0}};
+
+  @Test
+  public void objectsTest() throws Exception {
+    assertEquals(
+        "[{\"id\":1,\"name\":\"darsh\",\"score\":9.5},{\"id\":null,\"name\":null,\"score\":7.0}]",
+        write(JsonRecordWriter.Shape.OBJECTS));
+  }
+
+  @Test
+  public void arraysTest() throws Exception {
+    assertEquals(
+        "[[\"id\",\"name\",\"score\"],[1,\"darsh\",9.5],[null,null,7.0]]",
+        write(JsonRecordWriter.Shape.ARRAYS));
+  }
+
+  private static String write(JsonRecordWriter.Shape shape) throws Exception {
+    try (JdbcRecordCursor cursor = new FakeJdbc(NAMES, TYPES, ROWS).cursor()) {
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      assertEquals(ROWS.length, new JsonRecordWriter(cursor, shape, 1).write(out));
+      return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+  }
+}
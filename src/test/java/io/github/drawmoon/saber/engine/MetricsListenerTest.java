@@ -0,0 +1,71 @@
+/*
+ *            _
+ *  ___  __ _| |__   ___ _ __
+ * / __|/ _` | '_ \ / _ \ '__|
+ * \__ \ (_| | |_) |  __/ |
+ * |___/\__,_|_.__/ \___|_|
+ *
+ * Copyright 2024 drash
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.drawmoon.saber.engine;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class MetricsListenerTest {
+
+  @Test
+  public void fingerprintTest() {
+    assertThat(
+        MetricsListener.fingerprintOf("SELECT  *\n FROM t1 WHERE a = 'it''s' AND b > 42.5 "),
+        equalTo("SELECT * FROM t1 WHERE a = ? AND b > ?"));
+    assertThat(
+        MetricsListener.fingerprintOf("select col_2 from t where id in (1, 2, 3)"),
+        equalTo("select col_2 from t where id in (?, ?, ?)"));
+  }
+
+  @Test
+  public void histogramTest() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (long i = 1; i <= 1000; i++) {
+      histogram.record(i * 1000);
+    }
+
+    LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+    assertEquals(1000, snapshot.getCount());
+    assertEquals(1_000_000, snapshot.getMax());
+    assertEquals(500_500, snapshot.getMean(), 0.001);
+
+    // log-linear buckets keep every value within 1/16 of its magnitude
+    long p50 = snapshot.getValueAtPercentile(50);
+    long p99 = snapshot.getValueAtPercentile(99);
+    assertTrue(p50 >= 500_000 && p50 <= 500_000 * 17 / 16, "p50=" + p50);
+    assertTrue(p99 >= 990_000 && p99 <= 1_000_000, "p99=" + p99);
+    assertEquals(1_000_000, snapshot.getValueAtPercentile(100));
+  }
+
+  @Test
+  public void bucketTest() {
+    for (long value : new long[] {0, 1, 15, 16, 17, 31, 32, 1000, 123_456_789, Long.MAX_VALUE}) {
+      int index = LatencyHistogram.indexOf(value);
+      assertTrue(LatencyHistogram.highestValueOf(index) >= value);
+      assertTrue(index == 0 || LatencyHistogram.highestValueOf(index - 1) < value);
+    }
+  }
+}
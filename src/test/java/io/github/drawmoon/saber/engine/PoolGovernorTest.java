@@ -0,0 +1,120 @@
+/*
+ *            _
+ *  ___  __ _| |__   ___ _ __
+ * / __|/ _` | '_ \ / _ \ '__|
+ * \__ \ (_| | |_) |  __/ |
+ * |___/\__,_|_.__/ \___|_|
+ *
+ * Copyright 2024 drash
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.drawmoon.saber.engine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class PoolGovernorTest {
+
+  @Test
+  public void rebalanceTest() {
+    SaberOptions options = new SaberOptions();
+    options.setMaximumPoolSizeLimit(30);
+
+    // a hot tenant with waiting threads, a tenant in normal use and an idle one
+    FakeDataSource hot = new FakeDataSource("hot", options, 10, 10, 5);
+    FakeDataSource normal = new FakeDataSource("normal", options, 10, 5, 0);
+    FakeDataSource idle = new FakeDataSource("idle", options, 10, 0, 0);
+    List<SaberDataSource> dataSources = Arrays.asList(hot, normal, idle);
+    PoolGovernor governor = new PoolGovernor(options, () -> dataSources);
+
+    // the hot tenant wants 17, it gets its fair share and what the idle tenant gives up
+    governor.rebalance();
+    assertEquals(12, hot.maximumPoolSize);
+    assertEquals(10, normal.maximumPoolSize);
+    assertEquals(8, idle.maximumPoolSize);
+    assertEquals(3, governor.getPoolStatus().size());
+
+    governor.rebalance();
+    int total = hot.maximumPoolSize + normal.maximumPoolSize + idle.maximumPoolSize;
+    assertTrue(total <= 30, "total=" + total);
+    assertEquals(14, hot.maximumPoolSize);
+    assertEquals(6, idle.maximumPoolSize);
+  }
+
+  @Test
+  public void disabledTest() {
+    SaberOptions options = new SaberOptions();
+    options.setMaximumPoolSizeLimit(0);
+
+    FakeDataSource hot = new FakeDataSource("hot", options, 10, 10, 5);
+    PoolGovernor governor = new PoolGovernor(options, () -> Arrays.asList(hot));
+
+    governor.rebalance();
+    assertEquals(10, hot.maximumPoolSize);
+    assertEquals(10, governor.getPoolStatus().get(0).getTargetPoolSize());
+  }
+
+  private static final class FakeDataSource extends SaberDataSource {
+
+    private final int activeConnections;
+    private final int threadsAwaiting;
+    private int maximumPoolSize;
+
+    FakeDataSource(
+        String database,
+        SaberOptions options,
+        int maximumPoolSize,
+        int activeConnections,
+        int threadsAwaiting) {
+      super(ConnectionUri.fromStr("jdbc:postgresql://localhost:5432/" + database), options);
+      this.maximumPoolSize = maximumPoolSize;
+      this.activeConnections = activeConnections;
+      this.threadsAwaiting = threadsAwaiting;
+    }
+
+    @Override
+    public int getActiveConnections() {
+      return activeConnections;
+    }
+
+    @Override
+    public int getIdleConnections() {
+      return Math.max(0, maximumPoolSize - activeConnections);
+    }
+
+    @Override
+    public int getThreadsAwaitingConnection() {
+      return threadsAwaiting;
+    }
+
+    @Override
+    public int getMaximumPoolSize() {
+      return maximumPoolSize;
+    }
+
+    @Override
+    public int getConfiguredMaximumPoolSize() {
+      return 50;
+    }
+
+    @Override
+    public void setMaximumPoolSize(int maximumPoolSize) {
+      this.maximumPoolSize = Math.min(maximumPoolSize, getConfiguredMaximumPoolSize());
+    }
+  }
+}
@@ -0,0 +1,111 @@
+/*
+ *            _
+ *  ___  __ _| |__   ___ _ __
+ * / __|/ _` | '_ \ / _ \ '__|
+ * \__ \ (_| | |_) |  __/ |
+ * |___/\__,_|_.__/ \___|_|
+ *
+ * Copyright 2024 drash
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.drawmoon.saber.engine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.github.drawmoon.saber.DataTable;
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import org.junit.jupiter.api.Test;
+
+public class RecordBatchIteratorTest {
+
+  @Test
+  public void batchesTest() throws Exception {
+    FakeJdbc jdbc = newJdbc(5);
+    RecordBatchIterator batches = new RecordBatchIterator(jdbc.cursor(), "SELECT id", 2);
+
+    assertBatch(batches.next(), 0, 1);
+    // the rows of a batch and the first row of the next one have been read, no more
+    assertEquals(3, jdbc.rowsRead.get());
+    assertBatch(batches.next(), 2, 3);
+    assertBatch(batches.next(), 4);
+    assertFalse(batches.hasNext());
+    assertThrows(NoSuchElementException.class, batches::next);
+    assertTrue(jdbc.events.contains("connection.close"));
+  }
+
+  @Test
+  public void emptyTest() throws Exception {
+    FakeJdbc jdbc = newJdbc(0);
+    RecordBatchIterator batches = new RecordBatchIterator(jdbc.cursor(), "SELECT id", 2);
+
+    assertFalse(batches.hasNext());
+    assertTrue(jdbc.events.contains("connection.close"));
+  }
+
+  @Test
+  public void closeTest() throws Exception {
+    FakeJdbc jdbc = newJdbc(5);
+    RecordBatchIterator batches = new RecordBatchIterator(jdbc.cursor(), "SELECT id", 2);
+
+    assertBatch(batches.next(), 0, 1);
+    batches.close();
+
+    assertFalse(batches.hasNext());
+    assertEquals(3, jdbc.rowsRead.get());
+    assertEquals(
+        Arrays.asList("resultSet.close", "statement.close", "connection.close"), jdbc.events);
+  }
+
+  @Test
+  public void streamingTest() throws Exception {
+    FakeJdbc jdbc = newJdbc(5);
+    JdbcRecordCursor cursor = jdbc.cursor(2);
+    cursor.setStreaming(true);
+    RecordBatchIterator batches = new RecordBatchIterator(cursor, "SELECT id", 2);
+
+    assertBatch(batches.next(), 0, 1);
+    assertEquals(Arrays.asList("setAutoCommit(false)", "setFetchSize(2)"), jdbc.events);
+
+    batches.close();
+    assertEquals(
+        Arrays.asList(
+            "setAutoCommit(false)",
+            "setFetchSize(2)",
+            "resultSet.close",
+            "statement.close",
+            "connection.rollback",
+            "setAutoCommit(true)",
+            "connection.close"),
+        jdbc.events);
+  }
+
+  private static FakeJdbc newJdbc(int rows) {
+    Object[][] values = new Object[rows][];
+    for (int i = 0; i < rows; i++) values[i] = new Object[] {i};
+    return new FakeJdbc(new String[] {"id"}, new int[] {Types.INTEGER}, values);
+  }
+
+  private static void assertBatch(DataTable batch, int... ids) {
+    assertEquals("SELECT id", batch.getExecutionSql());
+    assertEquals(ids.length, batch.rowCount());
+    for (int i = 0; i < ids.length; i++) {
+      assertEquals(ids[i], (int) batch.getColumn(0).get(i));
+    }
+  }
+}
@@ -0,0 +1,94 @@
+/*
+ *            _
+ *  ___  __ _| |__   ___ _ __
+ * / __|/ _` | '_ \ / _ \ '__|
+ * \__ \ (_| | |_) |  __/ |
+ * |___/\__,_|_.__/ \___|_|
+ *
+ * Copyright 2024 drash
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.drawmoon.saber.engine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Runs 5000 concurrent requests through {@link RequestManager#fetchAsync(Request)} and reports the
+ * throughput. The queries are served by fake connections that take a fixed time to execute, so the
+ * figures measure the execution layer of the engine rather than a database. This is excluded from
+ * the default test run, use {@code ./gradlew loadTest} to run it.
+ */
+@Tag("load")
+public class RequestManagerLoadTest {
+
+  private static final int REQUESTS = 5000;
+  private static final long LATENCY_MILLIS = 20;
+
+  @Test
+  public void platformThreadsTest() throws Exception {
+    SaberOptions options = new SaberOptions();
+    options.setVirtualThreads(false);
+    FakeJdbc jdbc = run(options, "platform threads");
+
+    assertTrue(jdbc.peakExecutions.get() <= options.getMaximumQueryThreads());
+  }
+
+  @Test
+  public void virtualThreadsTest() throws Exception {
+    // falls back to the platform pool on a JDK without virtual threads
+    SaberOptions options = new SaberOptions();
+    options.setVirtualThreads(true);
+    run(options, "virtual threads");
+  }
+
+  private static FakeJdbc run(SaberOptions options, String mode) throws Exception {
+    FakeJdbc jdbc =
+        new FakeJdbc(new String[] {"id"}, new int[] {Types.INTEGER}, new Object[] {1})
+            .latency(LATENCY_MILLIS);
+    try (RequestManager manager = jdbc.requestManager(options)) {
+      long start = System.nanoTime();
+      List<CompletableFuture<Response>> futures = new ArrayList<>(REQUESTS);
+      for (int i = 0; i < REQUESTS; i++) {
+        futures.add(manager.fetchAsync(FakeJdbc.request("SELECT id")));
+      }
+      CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]))
+          .get(5, TimeUnit.MINUTES);
+      long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+      for (CompletableFuture<Response> future : futures) {
+        Response response = future.get();
+        assertNull(response.getErrors());
+        assertEquals(1, response.getData().rowCount());
+      }
+      System.out.printf(
+          "%s: %d requests in %d ms, %.0f requests/s, at most %d queries at once%n",
+          mode,
+          REQUESTS,
+          elapsedMillis,
+          REQUESTS * 1000.0 / Math.max(1, elapsedMillis),
+          jdbc.peakExecutions.get());
+    }
+    return jdbc;
+  }
+}
@@ -0,0 +1,176 @@
+/*
+ *            _
+ *  ___  __ _| |__   ___ _ __
+ * / __|/ _` | '_ \ / _ \ '__|
+ * \__ \ (_| | |_) |  __/ |
+ * |___/\__,_|_.__/ \___|_|
+ *
+ * Copyright 2024 drash
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.drawmoon.saber.engine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.github.drawmoon.saber.DataTable;
+import io.github.drawmoon.saber.DataTable.DataColumn;
+import java.sql.Types;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+public class RequestManagerTest {
+
+  private static final String SLEEP = "SELECT pg_sleep(60)";
+
+  @Test
+  public void fetchAsyncTest() throws Exception {
+    FakeJdbc jdbc = newJdbc();
+    try (RequestManager manager = jdbc.requestManager(new SaberOptions())) {
+      Response response =
+          manager.fetchAsync(FakeJdbc.request("SELECT id")).get(5, TimeUnit.SECONDS);
+
+      assertEquals(2, response.getData().rowCount());
+    }
+  }
+
+  @Test
+  public void timeoutTest() throws Exception {
+    FakeJdbc jdbc = newJdbc();
+    try (RequestManager manager = jdbc.requestManager(new SaberOptions())) {
+      Request request = FakeJdbc.request(SLEEP);
+      request.setTimeout(1);
+      CompletableFuture<Response> future = manager.fetchAsync(request);
+
+      ExecutionException e =
+          assertThrows(ExecutionException.class, () -> future.get(10, TimeUnit.SECONDS));
+      assertTrue(e.getCause() instanceof TimeoutException, String.valueOf(e.getCause()));
+      // the statement is cancelled rather than left running on the worker
+      awaitCount(jdbc.cancelledExecutions, 1);
+    }
+  }
+
+  @Test
+  public void cancelTest() throws Exception {
+    FakeJdbc jdbc = newJdbc();
+    try (RequestManager manager = jdbc.requestManager(new SaberOptions())) {
+      CompletableFuture<Response> future = manager.fetchAsync(FakeJdbc.request(SLEEP));
+      assertTrue(jdbc.executions.tryAcquire(5, TimeUnit.SECONDS));
+
+      future.cancel(true);
+
+      assertTrue(future.isCancelled());
+      awaitCount(jdbc.cancelledExecutions, 1);
+    }
+  }
+
+  @Test
+  public void queuedTest() throws Exception {
+    SaberOptions options = new SaberOptions();
+    options.setMaximumQueryThreads(1);
+    FakeJdbc jdbc = newJdbc();
+    try (RequestManager manager = jdbc.requestManager(options)) {
+      CompletableFuture<Response> running = manager.fetchAsync(FakeJdbc.request(SLEEP));
+      assertTrue(jdbc.executions.tryAcquire(5, TimeUnit.SECONDS));
+
+      // the only thread is busy, so the next query waits in the queue instead of being rejected
+      CompletableFuture<Response> queued = manager.fetchAsync(FakeJdbc.request("SELECT id"));
+      assertFalse(jdbc.executions.tryAcquire(200, TimeUnit.MILLISECONDS));
+      assertFalse(queued.isDone());
+
+      // a query cancelled while it waits is never executed
+      queued.cancel(true);
+      running.cancel(true);
+      Response response =
+          manager.fetchAsync(FakeJdbc.request("SELECT id")).get(5, TimeUnit.SECONDS);
+      assertEquals(2, response.getData().rowCount());
+      assertEquals(1, jdbc.executions.availablePermits());
+      assertEquals(1, jdbc.cancelledExecutions.get());
+    }
+  }
+
+  @Test
+  public void rejectedTest() throws Exception {
+    FakeJdbc jdbc = newJdbc();
+    RequestManager manager = jdbc.requestManager(new SaberOptions());
+    manager.close();
+
+    CompletableFuture<Response> future = manager.fetchAsync(FakeJdbc.request("SELECT id"));
+
+    assertTrue(future.isCompletedExceptionally());
+    ExecutionException e = assertThrows(ExecutionException.class, future::get);
+    assertTrue(e.getCause() instanceof RejectedExecutionException);
+  }
+
+  @Test
+  public void sharedLoadTimeoutTest() throws Exception {
+    FakeJdbc jdbc = newJdbc().latency(1500);
+    try (RequestManager manager = jdbc.requestManager(newCachingOptions())) {
+      Request impatient = FakeJdbc.request("SELECT id");
+      impatient.setTimeout(1);
+      CompletableFuture<Response> timedOut = manager.fetchAsync(impatient);
+      assertTrue(jdbc.executions.tryAcquire(5, TimeUnit.SECONDS));
+      CompletableFuture<Response> waiting = manager.fetchAsync(FakeJdbc.request("SELECT id"));
+
+      // the timeout only detaches its own request from the load the other one waits for
+      ExecutionException e =
+          assertThrows(ExecutionException.class, () -> timedOut.get(10, TimeUnit.SECONDS));
+      assertTrue(e.getCause() instanceof TimeoutException, String.valueOf(e.getCause()));
+      assertEquals(2, waiting.get(10, TimeUnit.SECONDS).getData().rowCount());
+      assertEquals(0, jdbc.cancelledExecutions.get());
+      assertEquals(0, jdbc.executions.availablePermits());
+    }
+  }
+
+  @Test
+  public void cachedDataReadOnlyTest() throws Exception {
+    FakeJdbc jdbc = newJdbc();
+    try (RequestManager manager = jdbc.requestManager(newCachingOptions())) {
+      DataTable first = manager.fetch(FakeJdbc.request("SELECT id")).getData();
+      assertThrows(UnsupportedOperationException.class, () -> first.newRow().setRowData("id", 3));
+      first.addColumn(new DataColumn("name", Types.VARCHAR));
+
+      DataTable second = manager.fetch(FakeJdbc.request("SELECT id")).getData();
+      assertEquals(1, jdbc.executions.availablePermits());
+      assertEquals(1, second.getColumns().size());
+      assertEquals(2, second.rowCount());
+    }
+  }
+
+  private static SaberOptions newCachingOptions() {
+    SaberOptions options = new SaberOptions();
+    options.setResultCacheSize(1 << 20);
+    return options;
+  }
+
+  private static FakeJdbc newJdbc() {
+    return new FakeJdbc(
+        new String[] {"id"}, new int[] {Types.INTEGER}, new Object[] {1}, new Object[] {2});
+  }
+
+  private static void awaitCount(AtomicInteger count, int expected) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (count.get() < expected && System.nanoTime() < deadline) {
+      Thread.sleep(10);
+    }
+    assertEquals(expected, count.get());
+  }
+}